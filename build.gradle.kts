@@ -67,6 +67,47 @@ tasks.getByName<Test>("test") {
         "-Djava.awt.headless=true",
         "-Dfile.encoding=UTF-8"
     )
+    systemProperty("recrec.log.dir", layout.buildDirectory.dir("test-logs").get().asFile.path)
+    systemProperty("recrec.capture.dir", layout.buildDirectory.dir("test-captures").get().asFile.path)
+}
+
+// Headless end-to-end load test against a local stand-in server; fails if a committed threshold regresses.
+// Sizes and server behaviour can be set with -PloadTestRows=10000,100000 -PloadTestLatencyMillis=20
+// -PloadTestJitterMillis=10 -PloadTestErrorRate=0.01 -PloadTestFoundRate=0.5 -PloadTestMode=RECORD_ID -PloadTestHeap=4g
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the query pipeline headless against a stand-in SOAP server and checks throughput thresholds"
+    group = "verification"
+    dependsOn(tasks.testClasses)
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("com.tractionrec.recrec.loadtest.LoadTest")
+    systemProperty("recrec.log.dir", layout.buildDirectory.dir("test-logs").get().asFile.path)
+    systemProperty("recrec.capture.dir", layout.buildDirectory.dir("test-captures").get().asFile.path)
+    jvmArgs("-Djava.awt.headless=true", "-Dfile.encoding=UTF-8", "-Xmx${project.findProperty("loadTestHeap") ?: "2g"}")
+    mapOf(
+        "loadTestRows" to "loadtest.rows",
+        "loadTestMode" to "loadtest.mode",
+        "loadTestLatencyMillis" to "loadtest.latencyMillis",
+        "loadTestJitterMillis" to "loadtest.jitterMillis",
+        "loadTestErrorRate" to "loadtest.errorRate",
+        "loadTestFoundRate" to "loadtest.foundRate"
+    ).forEach { (property, systemProperty) ->
+        project.findProperty(property)?.let { systemProperty(systemProperty, it) }
+    }
+}
+
+// Replays the rate limiter and retry policies against simulated servers in virtual time.
+// Run size and seed can be set with -PsimulateRows=20000 -PsimulateSeed=1
+tasks.register<JavaExec>("simulatePolicies") {
+    description = "Compares rate limiter and retry policies against simulated server behaviour"
+    group = "verification"
+    dependsOn(tasks.testClasses)
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("com.tractionrec.recrec.simulation.PolicySimulator")
+    systemProperty("recrec.log.dir", layout.buildDirectory.dir("test-logs").get().asFile.path)
+    systemProperty("recrec.capture.dir", layout.buildDirectory.dir("test-captures").get().asFile.path)
+    jvmArgs("-Djava.awt.headless=true", "-Dfile.encoding=UTF-8")
+    project.findProperty("simulateRows")?.let { systemProperty("simulate.rows", it) }
+    project.findProperty("simulateSeed")?.let { systemProperty("simulate.seed", it) }
 }
 
 application {
@@ -81,6 +122,7 @@ runtime {
             "java.scripting",
             "java.logging",
             "java.net.http",
+            "jdk.jfr",
             "java.xml",
             "jdk.crypto.ec"
     )
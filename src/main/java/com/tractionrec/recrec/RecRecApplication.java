@@ -2,6 +2,7 @@ package com.tractionrec.recrec;
 
 import com.formdev.flatlaf.FlatLightLaf;
 import com.jcabi.manifests.Manifests;
+import com.tractionrec.recrec.diagnostics.FlightRecording;
 import com.tractionrec.recrec.ui.RecFormStack;
 import com.tractionrec.recrec.ui.RecRecAbout;
 import com.tractionrec.recrec.ui.RecRecStart;
@@ -14,6 +15,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -181,11 +183,43 @@ public class RecRecApplication {
             dialog.setVisible(true);
         });
         helpMenu.add(aboutItem);
+
+        helpMenu.addSeparator();
+        helpMenu.add(buildRecordingItem());
         topMenuBar.add(helpMenu);
 
         return topMenuBar;
     }
 
+    /**
+     * Menu item starting and stopping a Flight Recorder recording of the application, written to the
+     * user's home directory for opening in JDK Mission Control
+     */
+    private static JCheckBoxMenuItem buildRecordingItem() {
+        JCheckBoxMenuItem recordingItem = new JCheckBoxMenuItem("Record Performance (JFR)");
+        recordingItem.addActionListener(e -> {
+            boolean starting = recordingItem.isSelected();
+            try {
+                if (starting) {
+                    FlightRecording.start();
+                } else {
+                    Path file = FlightRecording.stop(Path.of(System.getProperty("user.home")));
+                    JOptionPane.showMessageDialog(null,
+                        "Recording saved to:\n" + file + "\n\nOpen it in JDK Mission Control to see where the time went.",
+                        "Performance Recording",
+                        JOptionPane.INFORMATION_MESSAGE);
+                }
+            } catch (Exception ex) {
+                recordingItem.setSelected(FlightRecording.isRecording());
+                JOptionPane.showMessageDialog(null,
+                    "Could not " + (starting ? "start" : "save") + " the recording: " + ex.getMessage(),
+                    "Performance Recording",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        return recordingItem;
+    }
+
     /**
      * Load multiple sizes of the company logo for taskbar/dock icons
      * @return List of Image objects in different sizes
@@ -1,5 +1,6 @@
 package com.tractionrec.recrec;
 
+import com.tractionrec.recrec.analysis.ResultAggregator;
 import com.tractionrec.recrec.csv.CsvValidationResult;
 import com.tractionrec.recrec.domain.AdhocQueryItem;
 import com.tractionrec.recrec.domain.QueryBy;
@@ -16,6 +17,7 @@ public class RecRecState {
     public CsvValidationResult validationResult;
     public AdhocQueryItem adhocQueryItem;
     public List<QueryResult<?, ?>> queryResults;
+    public ResultAggregator resultAggregator; // Fed incrementally while a CSV run is in progress
 
     public void reset() {
         this.accountId = null;
@@ -25,5 +27,6 @@ public class RecRecState {
         this.validationResult = null;
         this.adhocQueryItem = null;
         this.queryResults = null;
+        this.resultAggregator = null;
     }
 }
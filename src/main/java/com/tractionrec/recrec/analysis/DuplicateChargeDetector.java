@@ -0,0 +1,200 @@
+package com.tractionrec.recrec.analysis;
+
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.output.OutputRow;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Finds potential duplicate charges across the whole result set: distinct transactions on the
+ * same card, for the same amount, merchant and transaction type, within a time window of each other.
+ * <p>
+ * Unlike {@code multipleResults}, which only sees transactions returned for a single input row,
+ * this catches duplicates reported under different record IDs. Candidate rows are hash-partitioned
+ * by their charge key and each partition is grouped and scanned independently in parallel,
+ * so the pass stays linear in the number of rows.
+ */
+public class DuplicateChargeDetector {
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(10);
+
+    private static final int NOT_A_CANDIDATE = -1;
+
+    private final Duration window;
+    private final int partitionCount;
+
+    public DuplicateChargeDetector() {
+        this(DEFAULT_WINDOW);
+    }
+
+    public DuplicateChargeDetector(Duration window) {
+        this.window = window;
+        // A few partitions per core keeps work balanced when some keys are much hotter than others
+        this.partitionCount = Math.max(1, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Scan the given rows for duplicate charges. Row indices in the report refer to positions in {@code rows}.
+     */
+    public DuplicateChargeReport detect(List<? extends OutputRow> rows) {
+        int rowCount = rows.size();
+        ChargeKey[] keys = new ChargeKey[rowCount];
+        long[] epochSeconds = new long[rowCount];
+        int[] partitionOf = new int[rowCount];
+
+        // Pass 1 (parallel): extract each candidate's key and time and pick its partition
+        IntStream.range(0, rowCount).parallel().forEach(row -> {
+            partitionOf[row] = NOT_A_CANDIDATE;
+            if (!(rows.get(row) instanceof TransactionQueryOutputRow tx)) {
+                return;
+            }
+            ChargeKey key = ChargeKey.of(tx);
+            Long seconds = parseEpochSeconds(tx.transactionDate);
+            if (key != null && seconds != null) {
+                keys[row] = key;
+                epochSeconds[row] = seconds;
+                partitionOf[row] = Math.floorMod(key.hashCode(), partitionCount);
+            }
+        });
+
+        // Pass 2: counting sort of candidate row indices by partition
+        int[] partitionStart = new int[partitionCount + 1];
+        for (int partition : partitionOf) {
+            if (partition != NOT_A_CANDIDATE) {
+                partitionStart[partition + 1]++;
+            }
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            partitionStart[p + 1] += partitionStart[p];
+        }
+        int candidateCount = partitionStart[partitionCount];
+        int[] partitionedRows = new int[candidateCount];
+        int[] fill = Arrays.copyOf(partitionStart, partitionCount);
+        for (int row = 0; row < rowCount; row++) {
+            if (partitionOf[row] != NOT_A_CANDIDATE) {
+                partitionedRows[fill[partitionOf[row]]++] = row;
+            }
+        }
+
+        // Pass 3 (parallel): group each partition by exact key and cluster by time
+        long windowSeconds = window.getSeconds();
+        List<DuplicateGroup> groups = IntStream.range(0, partitionCount).parallel()
+            .mapToObj(p -> findDuplicates(rows, keys, epochSeconds, partitionedRows,
+                partitionStart[p], partitionStart[p + 1], windowSeconds))
+            .flatMap(List::stream)
+            .sorted(Comparator.comparingInt(group -> group.rowIndices().get(0)))
+            .toList();
+
+        return new DuplicateChargeReport(rows, groups, candidateCount, window);
+    }
+
+    private static List<DuplicateGroup> findDuplicates(List<? extends OutputRow> rows, ChargeKey[] keys,
+                                                       long[] epochSeconds, int[] partitionedRows,
+                                                       int from, int to, long windowSeconds) {
+        Map<ChargeKey, List<Integer>> byKey = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            int row = partitionedRows[i];
+            byKey.computeIfAbsent(keys[row], k -> new ArrayList<>(2)).add(row);
+        }
+
+        List<DuplicateGroup> groups = new ArrayList<>();
+        for (Map.Entry<ChargeKey, List<Integer>> entry : byKey.entrySet()) {
+            List<Integer> sameKey = entry.getValue();
+            if (sameKey.size() < 2) {
+                continue;
+            }
+            sameKey.sort(Comparator.<Integer>comparingLong(row -> epochSeconds[row]).thenComparingInt(row -> row));
+
+            // Chain rows whose times are within the window of the previous row into one cluster
+            List<Integer> cluster = new ArrayList<>();
+            for (int row : sameKey) {
+                if (!cluster.isEmpty() && epochSeconds[row] - epochSeconds[cluster.get(cluster.size() - 1)] > windowSeconds) {
+                    addIfDuplicate(rows, entry.getKey(), cluster, groups);
+                    cluster = new ArrayList<>();
+                }
+                cluster.add(row);
+            }
+            addIfDuplicate(rows, entry.getKey(), cluster, groups);
+        }
+        return groups;
+    }
+
+    /**
+     * A cluster is a duplicate only if it holds at least two distinct transactions; the same
+     * transaction returned for two different input rows is not a second charge
+     */
+    private static void addIfDuplicate(List<? extends OutputRow> rows, ChargeKey key, List<Integer> cluster,
+                                       List<DuplicateGroup> groups) {
+        if (cluster.size() < 2) {
+            return;
+        }
+        Set<String> transactions = new HashSet<>();
+        for (int row : cluster) {
+            transactions.add(transactionIdentity((TransactionQueryOutputRow) rows.get(row), row));
+        }
+        if (transactions.size() >= 2) {
+            List<Integer> sorted = new ArrayList<>(cluster);
+            sorted.sort(Comparator.naturalOrder());
+            groups.add(new DuplicateGroup(key.merchant(), key.cardNumber(), key.amountCents(),
+                key.transactionType(), List.copyOf(sorted)));
+        }
+    }
+
+    private static String transactionIdentity(TransactionQueryOutputRow tx, int row) {
+        if (tx.vantivId != null && !tx.vantivId.isEmpty()) {
+            return "V:" + tx.vantivId;
+        }
+        if (tx.recordId != null && !tx.recordId.isEmpty()) {
+            return "R:" + tx.recordId;
+        }
+        return "#" + row; // No identifiers: treat every row as its own transaction
+    }
+
+    private static Long parseEpochSeconds(String transactionDate) {
+        if (transactionDate == null || transactionDate.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(transactionDate).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fields that must match for two transactions to be the same charge
+     */
+    record ChargeKey(String merchant, String cardNumber, long amountCents, String transactionType) {
+
+        static ChargeKey of(TransactionQueryOutputRow tx) {
+            if (!ResultStatus.SUCCESS.name().equals(tx.status)
+                    || tx.cardNumber == null || tx.cardNumber.isEmpty()) {
+                return null;
+            }
+            long cents = ResultAggregator.amountCents(tx);
+            if (cents == ResultAggregator.NO_AMOUNT) {
+                return null;
+            }
+            return new ChargeKey(Objects.requireNonNullElse(tx.merchant, ""), tx.cardNumber, cents,
+                Objects.requireNonNullElse(tx.transactionType, ""));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tractionrec.recrec.analysis;
+
+import com.tractionrec.recrec.domain.output.OutputRow;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result of a duplicate charge scan
+ */
+public class DuplicateChargeReport {
+
+    private final List<? extends OutputRow> rows;
+    private final List<DuplicateGroup> groups;
+    private final int candidateCount;
+    private final Duration window;
+
+    DuplicateChargeReport(List<? extends OutputRow> rows, List<DuplicateGroup> groups, int candidateCount, Duration window) {
+        this.rows = rows;
+        this.groups = groups;
+        this.candidateCount = candidateCount;
+        this.window = window;
+    }
+
+    /**
+     * Duplicate groups in order of their first row
+     */
+    public List<DuplicateGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Number of successful transactions with a card, amount and date that were checked
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Total transactions across all duplicate groups
+     */
+    public int getDuplicateRowCount() {
+        return groups.stream().mapToInt(group -> group.rowIndices().size()).sum();
+    }
+
+    public TransactionQueryOutputRow getRow(int rowIndex) {
+        return (TransactionQueryOutputRow) rows.get(rowIndex);
+    }
+}
@@ -0,0 +1,16 @@
+package com.tractionrec.recrec.analysis;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A set of distinct transactions that look like the same charge made more than once
+ * @param rowIndices Positions of the transactions in the scanned rows, ascending
+ */
+public record DuplicateGroup(String merchant, String cardNumber, long amountCents, String transactionType,
+                             List<Integer> rowIndices) {
+
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(amountCents, 2);
+    }
+}
@@ -0,0 +1,17 @@
+package com.tractionrec.recrec.analysis;
+
+import java.math.BigDecimal;
+
+/**
+ * Count and amount totals for one group in a summary dimension
+ * @param key Group value, e.g. a merchant or status
+ * @param rowCount Result rows in the group
+ * @param amountRowCount Rows in the group that carried an amount
+ * @param amountCents Sum of the group's amounts in hundredths
+ */
+public record GroupTotals(String key, long rowCount, long amountRowCount, long amountCents) {
+
+    public BigDecimal totalAmount() {
+        return BigDecimal.valueOf(amountCents, 2);
+    }
+}
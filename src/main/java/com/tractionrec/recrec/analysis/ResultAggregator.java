@@ -0,0 +1,267 @@
+package com.tractionrec.recrec.analysis;
+
+import com.tractionrec.recrec.domain.output.OutputRow;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+import com.tractionrec.recrec.domain.result.QueryResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Computes count and amount totals grouped by each {@link SummaryDimension}.
+ * <p>
+ * Results can be fed one at a time while a run is in progress via {@link #addResult},
+ * which is safe to call from many threads at once, or a complete result set can be
+ * aggregated in one go with fork-join parallelism via {@link #aggregate}.
+ * Amounts are accumulated as whole hundredths in primitive longs.
+ */
+public class ResultAggregator {
+
+    private static final int RESULTS_PER_TASK = 2_000;
+
+    /** Marker for rows without a usable amount; no real amount in hundredths reaches this value */
+    static final long NO_AMOUNT = Long.MIN_VALUE;
+    private static final Comparator<GroupTotals> LARGEST_FIRST =
+        Comparator.comparingLong(GroupTotals::rowCount).reversed().thenComparing(GroupTotals::key);
+
+    private final LongAdder resultCount = new LongAdder();
+    private final LongAdder rowCount = new LongAdder();
+    private final LongAdder amountCents = new LongAdder();
+    private final Map<SummaryDimension, ConcurrentHashMap<String, ConcurrentTotals>> groups =
+        new EnumMap<>(SummaryDimension.class);
+
+    public ResultAggregator() {
+        for (SummaryDimension dimension : SummaryDimension.values()) {
+            groups.put(dimension, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Add one completed result to the running totals
+     */
+    public void addResult(QueryResult<?, ?> result) {
+        if (result == null) {
+            return;
+        }
+        resultCount.increment();
+        for (OutputRow row : result.getOutputRows()) {
+            rowCount.increment();
+            long cents = amountCents(row);
+            if (cents != NO_AMOUNT) {
+                amountCents.add(cents);
+            }
+            for (SummaryDimension dimension : SummaryDimension.values()) {
+                groups.get(dimension)
+                    .computeIfAbsent(dimension.keyOf(row), key -> new ConcurrentTotals())
+                    .add(cents);
+            }
+        }
+    }
+
+    /**
+     * Number of results added so far
+     */
+    public long getResultCount() {
+        return resultCount.sum();
+    }
+
+    /**
+     * Snapshot of the totals so far. Totals from results added concurrently with the
+     * snapshot may or may not be included.
+     */
+    public ResultSummary snapshot() {
+        Map<SummaryDimension, List<GroupTotals>> snapshot = new EnumMap<>(SummaryDimension.class);
+        groups.forEach((dimension, totals) -> {
+            List<GroupTotals> list = new ArrayList<>(totals.size());
+            totals.forEach((key, value) -> list.add(value.toGroupTotals(key)));
+            list.sort(LARGEST_FIRST);
+            snapshot.put(dimension, List.copyOf(list));
+        });
+        return new ResultSummary(resultCount.sum(), rowCount.sum(), amountCents.sum(), snapshot);
+    }
+
+    /**
+     * Aggregate a complete result set, splitting it across the common fork-join pool
+     */
+    public static ResultSummary aggregate(List<? extends QueryResult<?, ?>> results) {
+        return ForkJoinPool.commonPool().invoke(new AggregateTask(results, 0, results.size())).toSummary();
+    }
+
+    /**
+     * Parse a row's amount into whole hundredths, rounding half up beyond two decimal places
+     */
+    static long amountCents(OutputRow row) {
+        if (!(row instanceof TransactionQueryOutputRow tx) || tx.amount == null || tx.amount.isEmpty()) {
+            return NO_AMOUNT;
+        }
+        return parseCents(tx.amount);
+    }
+
+    static long parseCents(String amount) {
+        int length = amount.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (amount.charAt(i) == '-' || amount.charAt(i) == '+')) {
+            negative = amount.charAt(i) == '-';
+            i++;
+        }
+
+        long cents = 0;
+        int fractionDigits = -1; // -1 until the decimal point is seen
+        boolean sawDigit = false;
+        boolean roundUp = false;
+        for (; i < length; i++) {
+            char c = amount.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (fractionDigits < 0) {
+                    cents = cents * 10 + (c - '0');
+                } else if (fractionDigits < 2) {
+                    cents = cents * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (fractionDigits == 2) {
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                }
+            } else {
+                return NO_AMOUNT;
+            }
+        }
+        if (!sawDigit) {
+            return NO_AMOUNT;
+        }
+
+        for (int scale = Math.max(fractionDigits, 0); scale < 2; scale++) {
+            cents *= 10;
+        }
+        if (roundUp) {
+            cents++;
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Lock-free totals for one group, updated by concurrent {@link #addResult} calls
+     */
+    private static final class ConcurrentTotals {
+        private final LongAdder rowCount = new LongAdder();
+        private final LongAdder amountRowCount = new LongAdder();
+        private final LongAdder amountCents = new LongAdder();
+
+        void add(long cents) {
+            rowCount.increment();
+            if (cents != NO_AMOUNT) {
+                amountRowCount.increment();
+                amountCents.add(cents);
+            }
+        }
+
+        GroupTotals toGroupTotals(String key) {
+            return new GroupTotals(key, rowCount.sum(), amountRowCount.sum(), amountCents.sum());
+        }
+    }
+
+    /**
+     * Totals for one slice of a result set. Each group holds {rows, rows with amount, cents}.
+     */
+    private static final class PartialSummary {
+        long resultCount;
+        long rowCount;
+        long amountCents;
+        final Map<SummaryDimension, Map<String, long[]>> groups = new EnumMap<>(SummaryDimension.class);
+
+        PartialSummary() {
+            for (SummaryDimension dimension : SummaryDimension.values()) {
+                groups.put(dimension, new HashMap<>());
+            }
+        }
+
+        void add(QueryResult<?, ?> result) {
+            resultCount++;
+            for (OutputRow row : result.getOutputRows()) {
+                rowCount++;
+                long cents = amountCents(row);
+                if (cents != NO_AMOUNT) {
+                    amountCents += cents;
+                }
+                for (SummaryDimension dimension : SummaryDimension.values()) {
+                    long[] totals = groups.get(dimension).computeIfAbsent(dimension.keyOf(row), key -> new long[3]);
+                    totals[0]++;
+                    if (cents != NO_AMOUNT) {
+                        totals[1]++;
+                        totals[2] += cents;
+                    }
+                }
+            }
+        }
+
+        PartialSummary merge(PartialSummary other) {
+            resultCount += other.resultCount;
+            rowCount += other.rowCount;
+            amountCents += other.amountCents;
+            other.groups.forEach((dimension, otherTotals) -> {
+                Map<String, long[]> totals = groups.get(dimension);
+                otherTotals.forEach((key, values) -> totals.merge(key, values, (a, b) -> {
+                    a[0] += b[0];
+                    a[1] += b[1];
+                    a[2] += b[2];
+                    return a;
+                }));
+            });
+            return this;
+        }
+
+        ResultSummary toSummary() {
+            Map<SummaryDimension, List<GroupTotals>> summary = new EnumMap<>(SummaryDimension.class);
+            groups.forEach((dimension, totals) -> {
+                List<GroupTotals> list = new ArrayList<>(totals.size());
+                totals.forEach((key, values) -> list.add(new GroupTotals(key, values[0], values[1], values[2])));
+                list.sort(LARGEST_FIRST);
+                summary.put(dimension, List.copyOf(list));
+            });
+            return new ResultSummary(resultCount, rowCount, amountCents, summary);
+        }
+    }
+
+    private static final class AggregateTask extends RecursiveTask<PartialSummary> {
+        private final List<? extends QueryResult<?, ?>> results;
+        private final int from;
+        private final int to;
+
+        AggregateTask(List<? extends QueryResult<?, ?>> results, int from, int to) {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PartialSummary compute() {
+            if (to - from <= RESULTS_PER_TASK) {
+                PartialSummary partial = new PartialSummary();
+                for (int i = from; i < to; i++) {
+                    QueryResult<?, ?> result = results.get(i);
+                    if (result != null) {
+                        partial.add(result);
+                    }
+                }
+                return partial;
+            }
+
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(results, from, middle);
+            left.fork();
+            PartialSummary right = new AggregateTask(results, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
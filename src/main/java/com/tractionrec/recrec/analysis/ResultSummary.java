@@ -0,0 +1,50 @@
+package com.tractionrec.recrec.analysis;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of group-by totals over a set of query results
+ */
+public class ResultSummary {
+
+    private final long resultCount;
+    private final long rowCount;
+    private final long amountCents;
+    private final Map<SummaryDimension, List<GroupTotals>> groups;
+
+    ResultSummary(long resultCount, long rowCount, long amountCents, Map<SummaryDimension, List<GroupTotals>> groups) {
+        this.resultCount = resultCount;
+        this.rowCount = rowCount;
+        this.amountCents = amountCents;
+        this.groups = Collections.unmodifiableMap(new EnumMap<>(groups));
+    }
+
+    /**
+     * Number of query results aggregated
+     */
+    public long getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * Number of output rows aggregated; a result can produce several rows
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return BigDecimal.valueOf(amountCents, 2);
+    }
+
+    /**
+     * Groups in the given dimension, largest first
+     */
+    public List<GroupTotals> getGroups(SummaryDimension dimension) {
+        return groups.getOrDefault(dimension, List.of());
+    }
+}
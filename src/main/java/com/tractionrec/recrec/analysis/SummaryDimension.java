@@ -0,0 +1,58 @@
+package com.tractionrec.recrec.analysis;
+
+import com.tractionrec.recrec.domain.output.OutputRow;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+
+/**
+ * Columns that result rows can be grouped by in a reconciliation summary
+ */
+public enum SummaryDimension {
+    MERCHANT("Merchant"),
+    STATUS("Status"),
+    TRANSACTION_TYPE("Transaction Type"),
+    CARD_LOGO("Card Logo"),
+    TRANSACTION_DATE("Transaction Date");
+
+    /** Group key for rows with no value in the dimension, e.g. BIN results have no card logo */
+    public static final String NO_VALUE = "(none)";
+
+    private final String displayName;
+
+    SummaryDimension(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Group key for the given row in this dimension
+     */
+    public String keyOf(OutputRow row) {
+        String key = switch (this) {
+            case MERCHANT -> row.merchant;
+            case STATUS -> row.status;
+            case TRANSACTION_TYPE -> row instanceof TransactionQueryOutputRow tx ? tx.transactionType : null;
+            case CARD_LOGO -> row instanceof TransactionQueryOutputRow tx ? tx.cardLogo : null;
+            case TRANSACTION_DATE -> row instanceof TransactionQueryOutputRow tx ? datePart(tx.transactionDate) : null;
+        };
+        return key == null || key.isBlank() ? NO_VALUE : key;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+
+    /**
+     * Transaction dates are ISO date-times; group by the calendar date only
+     */
+    private static String datePart(String dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        int timeSeparator = dateTime.indexOf('T');
+        return timeSeparator >= 0 ? dateTime.substring(0, timeSeparator) : dateTime;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tractionrec.recrec.csv;
+
+/**
+ * {@link CsvRow} over already materialized cell values, classifying each cell on first use
+ */
+class ArrayCsvRow implements CsvRow {
+    private final String[] values;
+    private final int[] flags;
+
+    ArrayCsvRow(String[] values) {
+        this.values = values;
+        this.flags = new int[values.length];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String get(int column) {
+        return values[column];
+    }
+
+    @Override
+    public int flags(int column) {
+        if (flags[column] == 0) {
+            flags[column] = CellClassifier.classify(values[column]);
+        }
+        return flags[column];
+    }
+
+    @Override
+    public String[] toArray() {
+        return values;
+    }
+}
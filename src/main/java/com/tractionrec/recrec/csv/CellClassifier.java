@@ -0,0 +1,152 @@
+package com.tractionrec.recrec.csv;
+
+/**
+ * Classifies a cell in one scan into a bitmask that every validation rule reads, so rules
+ * never trim, copy or regex-match cell text to decide whether a cell has an issue.
+ * <p>
+ * Whitespace follows {@link String#trim()}: any character up to and including space. The
+ * number shapes are tested on the trimmed text. Cells with text always carry a non-zero length
+ * class, so a classified cell is never 0.
+ */
+public final class CellClassifier {
+
+    /** No text at all */
+    public static final int EMPTY = 1;
+    /** Text made only of whitespace */
+    public static final int WHITESPACE_ONLY = 1 << 1;
+    /** Plain decimal number such as 42, -7 or 3.50 */
+    public static final int NUMERIC = 1 << 2;
+    /** Number in scientific notation such as 1.23E+15, 4.56e-10 or 7E5 */
+    public static final int SCIENTIFIC_NOTATION = 1 << 3;
+    /** Text with whitespace before it */
+    public static final int LEADING_SPACE = 1 << 4;
+    /** Text with whitespace after it */
+    public static final int TRAILING_SPACE = 1 << 5;
+
+    private static final int LENGTH_SHIFT = 6;
+    /** Bits holding the length class of the untrimmed cell */
+    public static final int LENGTH_MASK = 3 << LENGTH_SHIFT;
+    /** 1 to 15 characters (bytes for cells read from raw bytes) */
+    public static final int LENGTH_SHORT = 1 << LENGTH_SHIFT;
+    /** 16 to 255 characters */
+    public static final int LENGTH_MEDIUM = 2 << LENGTH_SHIFT;
+    /** 256 characters or more */
+    public static final int LENGTH_LONG = 3 << LENGTH_SHIFT;
+
+    // Number shape states: [+-]?digits[.digits] optionally followed by [eE][+-]?digits
+    private static final int REJECT = -1;
+    private static final int START = 0;
+    private static final int SIGN = 1;
+    private static final int INTEGER = 2;
+    private static final int POINT = 3;
+    private static final int FRACTION = 4;
+    private static final int EXPONENT = 5;
+    private static final int EXPONENT_SIGN = 6;
+    private static final int EXPONENT_DIGITS = 7;
+
+    private CellClassifier() {
+    }
+
+    /**
+     * Classify cell text; null counts as empty
+     */
+    public static int classify(CharSequence value) {
+        if (value == null || value.length() == 0) {
+            return EMPTY;
+        }
+        int length = value.length();
+        int first = 0;
+        while (first < length && value.charAt(first) <= ' ') {
+            first++;
+        }
+        if (first == length) {
+            return WHITESPACE_ONLY | lengthClass(length);
+        }
+        int last = length - 1;
+        while (value.charAt(last) <= ' ') {
+            last--;
+        }
+
+        int state = START;
+        for (int i = first; i <= last && state != REJECT; i++) {
+            state = step(state, value.charAt(i));
+        }
+        return textFlags(state, first > 0, last < length - 1, length);
+    }
+
+    /**
+     * Classify cell text held as bytes in an encoding where ASCII characters are single bytes
+     */
+    public static int classify(byte[] bytes, int start, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        int end = start + length;
+        int first = start;
+        while (first < end && (bytes[first] & 0xFF) <= ' ') {
+            first++;
+        }
+        if (first == end) {
+            return WHITESPACE_ONLY | lengthClass(length);
+        }
+        int last = end - 1;
+        while ((bytes[last] & 0xFF) <= ' ') {
+            last--;
+        }
+
+        int state = START;
+        for (int i = first; i <= last && state != REJECT; i++) {
+            state = step(state, bytes[i] & 0xFF);
+        }
+        return textFlags(state, first > start, last < end - 1, length);
+    }
+
+    /**
+     * Whether the flags describe an empty or whitespace-only cell
+     */
+    public static boolean isBlank(int flags) {
+        return (flags & (EMPTY | WHITESPACE_ONLY)) != 0;
+    }
+
+    private static int step(int state, int c) {
+        boolean digit = c >= '0' && c <= '9';
+        switch (state) {
+            case START:
+                return digit ? INTEGER : c == '+' || c == '-' ? SIGN : REJECT;
+            case SIGN:
+                return digit ? INTEGER : REJECT;
+            case INTEGER:
+                return digit ? INTEGER : c == '.' ? POINT : c == 'e' || c == 'E' ? EXPONENT : REJECT;
+            case POINT:
+            case FRACTION:
+                return digit ? FRACTION : c == 'e' || c == 'E' ? EXPONENT : REJECT;
+            case EXPONENT:
+                return digit ? EXPONENT_DIGITS : c == '+' || c == '-' ? EXPONENT_SIGN : REJECT;
+            case EXPONENT_SIGN:
+            case EXPONENT_DIGITS:
+                return digit ? EXPONENT_DIGITS : REJECT;
+            default:
+                return REJECT;
+        }
+    }
+
+    private static int textFlags(int state, boolean leadingSpace, boolean trailingSpace, int length) {
+        int flags = lengthClass(length);
+        if (state == INTEGER || state == POINT || state == FRACTION) {
+            flags |= NUMERIC;
+        } else if (state == EXPONENT_DIGITS) {
+            flags |= SCIENTIFIC_NOTATION;
+        }
+        if (leadingSpace) {
+            flags |= LEADING_SPACE;
+        }
+        if (trailingSpace) {
+            flags |= TRAILING_SPACE;
+        }
+        return flags;
+    }
+
+    private static int lengthClass(int length) {
+        return length < 16 ? LENGTH_SHORT : length < 256 ? LENGTH_MEDIUM : LENGTH_LONG;
+    }
+}
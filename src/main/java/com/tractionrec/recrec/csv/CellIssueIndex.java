@@ -0,0 +1,122 @@
+package com.tractionrec.recrec.csv;
+
+/**
+ * Finds the issue flagged on a cell without allocating: an open-addressing hash table keyed by
+ * the cell's row and column packed into a long, holding the issue's number in whatever list the
+ * issues live in. Costs 16 to 32 bytes per flagged cell, against well over a hundred for a
+ * map from {@link com.tractionrec.recrec.domain.CellLocation} to rendered issues.
+ */
+public final class CellIssueIndex {
+
+    public static final int NONE = -1;
+
+    private long[] keys;
+    private int[] issues; // Issue number plus one, zero for a free slot
+    private int size;
+
+    public CellIssueIndex(int expectedCells) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedCells + expectedCells / 3) * 2 - 1);
+        keys = new long[capacity];
+        issues = new int[capacity];
+    }
+
+    /**
+     * Index every cell issue of a store, a later issue replacing an earlier one on the same cell
+     */
+    static CellIssueIndex of(IssueStore store) {
+        CellIssueIndex index = new CellIssueIndex(store.size());
+        for (int i = 0; i < store.size(); i++) {
+            index.put(store.getRow(i), store.getColumn(i), i);
+        }
+        return index;
+    }
+
+    /**
+     * Record the issue flagged on a cell, replacing any issue it had
+     */
+    public void put(int row, int column, int issue) {
+        long key = key(row, column);
+        int slot = find(key);
+        if (issues[slot] == 0) {
+            keys[slot] = key;
+            size++;
+        }
+        issues[slot] = issue + 1;
+        if (size * 4 > keys.length * 3) {
+            grow();
+        }
+    }
+
+    /**
+     * Number of the issue flagged on a cell, or {@link #NONE}
+     */
+    public int get(int row, int column) {
+        return issues[find(key(row, column))] - 1;
+    }
+
+    public boolean contains(int row, int column) {
+        return get(row, column) != NONE;
+    }
+
+    /**
+     * Number of flagged cells
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of flagged cells in a range of rows
+     * @param fromRow First row, inclusive
+     * @param toRow Last row, exclusive
+     */
+    public int count(int fromRow, int toRow) {
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (issues[slot] != 0) {
+                int row = (int) (keys[slot] >>> 32);
+                if (row >= fromRow && row < toRow) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Slot holding a key, or the free slot where it belongs
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (issues[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldIssues = issues;
+        keys = new long[oldKeys.length * 2];
+        issues = new int[oldIssues.length * 2];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldIssues[slot] != 0) {
+                int target = find(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                issues[target] = oldIssues[slot];
+            }
+        }
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        // Neighbouring cells differ in few bits; mix them across the whole table
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (key ^ (key >>> 33));
+    }
+}
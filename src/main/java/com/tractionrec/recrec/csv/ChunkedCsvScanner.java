@@ -0,0 +1,555 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.csv.rules.RowValidator;
+import com.tractionrec.recrec.csv.rules.ValidationRule;
+import com.tractionrec.recrec.domain.IssueSeverity;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Parses and validates a CSV file as byte ranges aligned to record boundaries, one fork-join
+ * task per range, then merges the chunks in file order so that row numbers, statistics and
+ * issues match a single sequential pass.
+ * <p>
+ * Boundaries are found without parsing: a parallel pass counts quote bytes per region, prefix
+ * sums tell whether each region starts inside a quoted field, and each region's boundary is the
+ * first newline reached outside quotes. This needs quotes and newlines to be single bytes that
+ * never appear inside multi-byte characters, so other encodings are scanned as one chunk.
+ * The same encodings are read with {@link CsvTokenizer}, which hands rules a {@link CsvRow}
+ * over the raw bytes; the rest go through Commons CSV.
+ * <p>
+ * Every few thousand rows each chunk adds what it has done since its last report to shared
+ * counters, which are passed to the {@link ValidationProgressListener} at most every 100ms,
+ * and checks whether the listener has cancelled the pass.
+ */
+class ChunkedCsvScanner {
+
+    static final long MIN_CHUNK_BYTES = 4L * 1024 * 1024;
+    static final int FIRST_PAGE_ROWS = 1000;
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+    private static final int PROGRESS_INTERVAL_ROWS = 8192;
+    private static final long PROGRESS_REPORT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final CSVFormat HEADER_FORMAT = CSVFormat.DEFAULT
+        .withFirstRecordAsHeader()
+        .withIgnoreEmptyLines(false); // We want to detect empty lines
+    private static final CSVFormat BODY_FORMAT = CSVFormat.DEFAULT
+        .withIgnoreEmptyLines(false);
+
+    private final List<ValidationRule> rules;
+    private final int previewLimit;
+    private final long minChunkBytes;
+    private final ValidationProgressListener listener;
+
+    // Progress of the current scan, summed over all chunks
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicInteger rowsProcessed = new AtomicInteger();
+    private final AtomicInteger errorsFound = new AtomicInteger();
+    private final AtomicInteger warningsFound = new AtomicInteger();
+    private final AtomicLong lastReportNanos = new AtomicLong();
+    private long totalBytes;
+
+    ChunkedCsvScanner(List<ValidationRule> rules, int previewLimit) {
+        this(rules, previewLimit, MIN_CHUNK_BYTES, ValidationProgressListener.NONE);
+    }
+
+    ChunkedCsvScanner(List<ValidationRule> rules, int previewLimit, long minChunkBytes) {
+        this(rules, previewLimit, minChunkBytes, ValidationProgressListener.NONE);
+    }
+
+    ChunkedCsvScanner(List<ValidationRule> rules, int previewLimit, long minChunkBytes,
+                      ValidationProgressListener listener) {
+        this.rules = rules;
+        this.previewLimit = previewLimit;
+        this.minChunkBytes = minChunkBytes;
+        this.listener = listener;
+    }
+
+    /**
+     * Parse and validate the whole file
+     * @throws CancellationException if the listener cancels the scan
+     */
+    ScanResult scan(File file, Charset charset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            totalBytes = size;
+            String[] headers = readHeaders(channel, charset);
+            long[] boundaries = recordBoundaries(channel, size, charset);
+
+            ScanResult result;
+            try {
+                result = scanChunks(channel, charset, headers, boundaries);
+            } catch (UncheckedIOException | IllegalStateException e) {
+                if (boundaries.length <= 2) {
+                    throw e;
+                }
+                // A quote inside an unquoted field can throw off the quote count and split a
+                // quoted field across chunks; parsing it as one sequential chunk is always right
+                result = scanChunks(channel, charset, headers, new long[]{0, size});
+            }
+            listener.onProgress(size, size, rowsProcessed.get(), errorsFound.get(), warningsFound.get());
+            return result;
+        }
+    }
+
+    /**
+     * Read the whole file in order, passing each row through a transform before it is validated
+     * and handed to the sink, so a rewritten file is validated as it is written
+     * @param transform Applied to a fresh copy of each row; may modify and return it
+     */
+    ScanResult rewrite(File file, Charset charset, RowTransform transform, RowSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            String[] headers = readHeaders(channel, charset);
+            sink.headers(headers);
+
+            ScanResult result = newResult(headers, charset);
+            AtomicInteger firstFullChunk = new AtomicInteger(Integer.MAX_VALUE);
+            if (isAsciiCompatible(charset)) {
+                CsvTokenizer tokenizer = new CsvTokenizer(channel, 0, channel.size(), charset);
+                tokenizer.next(); // Header record, already read
+                while (tokenizer.next()) {
+                    rewriteRow(result, tokenizer.toArray(), transform, sink, firstFullChunk);
+                }
+            } else {
+                result.offsets = null; // Neither can the rewritten file's records
+                try (CSVParser parser = HEADER_FORMAT.parse(openRange(channel, 0, channel.size(), charset))) {
+                    for (CSVRecord record : parser) {
+                        rewriteRow(result, toRow(record), transform, sink, firstFullChunk);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private void rewriteRow(ScanResult result, String[] row, RowTransform transform, RowSink sink,
+                            AtomicInteger firstFullChunk) throws IOException {
+        String[] rewritten = transform.apply(row, result.headers);
+        if (result.offsets != null && RecordOffsetIndex.Builder.isCheckpoint(result.rowCount)) {
+            result.offsets.add(result.rowCount, sink.position());
+        }
+        sink.row(rewritten);
+        addRow(result, CsvRow.of(rewritten), 0, firstFullChunk);
+    }
+
+    /**
+     * Rewrites one data row of a file
+     */
+    interface RowTransform {
+        String[] apply(String[] row, String[] headers);
+    }
+
+    /**
+     * Receives the rows of a rewritten file in order
+     */
+    interface RowSink {
+        void headers(String[] headers) throws IOException;
+
+        void row(String[] values) throws IOException;
+
+        /**
+         * Byte offset in the output where the next row will start
+         */
+        long position() throws IOException;
+    }
+
+    /**
+     * Byte offsets where chunks start, followed by the file size
+     */
+    long[] recordBoundaries(FileChannel channel, long size, Charset charset) {
+        int regions = (int) Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, size / minChunkBytes);
+        if (regions <= 1 || !isAsciiCompatible(charset)) {
+            return new long[]{0, size};
+        }
+        long regionBytes = (size + regions - 1) / regions;
+
+        long[] quoteCounts = new long[regions];
+        IntStream.range(0, regions).parallel().forEach(region ->
+            quoteCounts[region] = countQuotes(channel, region * regionBytes, Math.min(size, (region + 1) * regionBytes)));
+
+        boolean[] startsInQuotes = new boolean[regions];
+        long quotesBefore = 0;
+        for (int region = 0; region < regions; region++) {
+            startsInQuotes[region] = (quotesBefore & 1) != 0;
+            quotesBefore += quoteCounts[region];
+        }
+
+        long[] starts = new long[regions + 1];
+        starts[regions] = size;
+        IntStream.range(1, regions).parallel().forEach(region ->
+            starts[region] = firstRecordStart(channel, region * regionBytes,
+                Math.min(size, (region + 1) * regionBytes), startsInQuotes[region]));
+
+        // A region without a record boundary hands its chunk on to the next boundary
+        for (int region = regions - 1; region > 0; region--) {
+            if (starts[region] < 0) {
+                starts[region] = starts[region + 1];
+            }
+        }
+        return Arrays.stream(starts).distinct().toArray();
+    }
+
+    private ScanResult scanChunks(FileChannel channel, Charset charset, String[] headers, long[] boundaries) {
+        bytesProcessed.set(0);
+        rowsProcessed.set(0);
+        errorsFound.set(0);
+        warningsFound.set(0);
+        AtomicInteger firstFullChunk = new AtomicInteger(Integer.MAX_VALUE);
+        return ForkJoinPool.commonPool().invoke(
+            new ChunkTask(channel, charset, headers, boundaries, firstFullChunk, 0, boundaries.length - 1));
+    }
+
+    private ScanResult scanChunk(FileChannel channel, Charset charset, String[] headers,
+                                 long start, long end, int chunk, AtomicInteger firstFullChunk) throws IOException {
+        ScanResult result = newResult(headers, charset);
+        if (isAsciiCompatible(charset)) {
+            CsvTokenizer tokenizer = new CsvTokenizer(channel, start, end, charset);
+            if (chunk == 0) {
+                tokenizer.next(); // Header record, already read
+            }
+            while (tokenizer.next()) {
+                addCheckpoint(result, tokenizer.recordStart());
+                addRow(result, tokenizer, chunk, firstFullChunk);
+                if (result.rowCount % PROGRESS_INTERVAL_ROWS == 0) {
+                    reportProgress(result, tokenizer.recordStart() - start);
+                }
+            }
+        } else {
+            result.offsets = null; // Records cannot be located by byte offset in this encoding
+            CSVFormat format = chunk == 0 ? HEADER_FORMAT : BODY_FORMAT;
+            RangeInputStream range = new RangeInputStream(channel, start, end);
+            try (CSVParser parser = format.parse(new BufferedReader(new InputStreamReader(range, charset)))) {
+                for (CSVRecord record : parser) {
+                    addRow(result, CsvRow.of(toRow(record)), chunk, firstFullChunk);
+                    if (result.rowCount % PROGRESS_INTERVAL_ROWS == 0) {
+                        reportProgress(result, range.position - start);
+                    }
+                }
+            }
+        }
+        reportProgress(result, end - start);
+        return result;
+    }
+
+    /**
+     * Add what a chunk has done since its last report to the scan's progress, pass the totals
+     * on if the listener has not heard for a while, and stop if the listener has cancelled
+     * @param chunkBytes Bytes of the chunk parsed so far
+     */
+    private void reportProgress(ScanResult result, long chunkBytes) {
+        int errors = 0;
+        int warnings = 0;
+        for (RowValidator validator : result.validators) {
+            errors += validator.issueCount(IssueSeverity.ERROR);
+            warnings += validator.issueCount(IssueSeverity.WARNING);
+        }
+        long bytes = bytesProcessed.addAndGet(chunkBytes - result.reportedBytes);
+        int rows = rowsProcessed.addAndGet(result.rowCount - result.reportedRows);
+        int errorTotal = errorsFound.addAndGet(errors - result.reportedErrors);
+        int warningTotal = warningsFound.addAndGet(warnings - result.reportedWarnings);
+        result.reportedBytes = chunkBytes;
+        result.reportedRows = result.rowCount;
+        result.reportedErrors = errors;
+        result.reportedWarnings = warnings;
+
+        long now = System.nanoTime();
+        long last = lastReportNanos.get();
+        if (now - last >= PROGRESS_REPORT_NANOS && lastReportNanos.compareAndSet(last, now)) {
+            listener.onProgress(bytes, totalBytes, rows, errorTotal, warningTotal);
+        }
+        if (listener.isCancelled()) {
+            throw new CancellationException("Validation cancelled");
+        }
+    }
+
+    private ScanResult newResult(String[] headers, Charset charset) {
+        ScanResult result = new ScanResult(headers, previewLimit, charset);
+        for (ValidationRule rule : rules) {
+            result.validators.add(rule.newRowValidator(headers));
+        }
+        return result;
+    }
+
+    private static void addCheckpoint(ScanResult result, long recordStart) {
+        if (result.offsets != null && RecordOffsetIndex.Builder.isCheckpoint(result.rowCount)) {
+            result.offsets.add(result.rowCount, recordStart);
+        }
+    }
+
+    private void addRow(ScanResult result, CsvRow row, int chunk, AtomicInteger firstFullChunk) {
+        if (result.rowCount == 0) {
+            result.totalColumns = row.size();
+        }
+        if (isEmptyRow(row)) {
+            result.emptyRows++;
+        } else {
+            result.queryItems.add(row);
+        }
+        for (RowValidator validator : result.validators) {
+            validator.validateRow(result.rowCount, row);
+        }
+        keepPreviewRow(result, row, chunk, firstFullChunk);
+        result.rowCount++;
+    }
+
+    /**
+     * Chunks keep rows for the preview until they hold a full preview themselves. Once any chunk
+     * does, the chunks after it can never reach the preview window and stop keeping rows.
+     */
+    private void keepPreviewRow(ScanResult result, CsvRow row, int chunk, AtomicInteger firstFullChunk) {
+        if (result.previewRows == null) {
+            return;
+        }
+        if (chunk > firstFullChunk.get()) {
+            result.previewRows = null;
+        } else if (result.previewRows.size() < previewLimit) {
+            result.previewRows.add(row.toArray());
+            if (result.previewRows.size() == previewLimit) {
+                firstFullChunk.accumulateAndGet(chunk, Math::min);
+            }
+            if (chunk == 0 && result.previewRows.size() == Math.min(FIRST_PAGE_ROWS, previewLimit)) {
+                String[][] firstPage = result.previewRows.toArray(new String[0][]);
+                listener.onFirstPage(new CsvPreviewData(firstPage, result.headers, new HashMap<>(), null, firstPage.length));
+            }
+        }
+    }
+
+    private static String[] readHeaders(FileChannel channel, Charset charset) throws IOException {
+        try (CSVParser parser = HEADER_FORMAT.parse(openRange(channel, 0, channel.size(), charset))) {
+            List<String> headerNames = parser.getHeaderNames();
+            if (headerNames != null && !headerNames.isEmpty()) {
+                return headerNames.toArray(new String[0]);
+            }
+            return null;
+        }
+    }
+
+    static String[] toRow(CSVRecord record) {
+        String[] row = new String[record.size()];
+        for (int i = 0; i < record.size(); i++) {
+            row[i] = record.get(i);
+        }
+        return row;
+    }
+
+    private static boolean isEmptyRow(CsvRow row) {
+        for (int column = 0; column < row.size(); column++) {
+            if (!CellClassifier.isBlank(row.flags(column))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether quotes, commas and line breaks are the plain ASCII bytes and cannot be part of another character
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        return !charset.name().startsWith("ISO-2022")
+            && Arrays.equals("\"\n\r,".getBytes(charset), new byte[]{'"', '\n', '\r', ','});
+    }
+
+    private static long countQuotes(FileChannel channel, long start, long end) {
+        long quotes = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+        long position = start;
+        try {
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(IO_BUFFER_BYTES, end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '"') {
+                        quotes++;
+                    }
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return quotes;
+    }
+
+    /**
+     * Offset just past the first newline outside quotes in the range, or -1 if there is none
+     */
+    private static long firstRecordStart(FileChannel channel, long start, long end, boolean inQuotes) {
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+        long position = start;
+        try {
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(IO_BUFFER_BYTES, end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer.get(i);
+                    if (b == '"') {
+                        inQuotes = !inQuotes;
+                    } else if (b == '\n' && !inQuotes) {
+                        return position + i + 1;
+                    }
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return -1;
+    }
+
+    private static BufferedReader openRange(FileChannel channel, long start, long end, Charset charset) {
+        return new BufferedReader(new InputStreamReader(new RangeInputStream(channel, start, end), charset));
+    }
+
+    /**
+     * Rows, statistics and validator state for a run of consecutive chunks, rows numbered from zero
+     */
+    static final class ScanResult {
+        final String[] headers;
+        final List<RowValidator> validators = new ArrayList<>();
+        List<String[]> previewRows; // Null once this chunk can no longer reach the preview window
+        RecordOffsetIndex.Builder offsets = new RecordOffsetIndex.Builder(); // Null if records cannot be located
+        final QueryItemSource queryItems;
+        int rowCount;
+        int totalColumns;
+        int emptyRows;
+        private final int previewLimit;
+
+        // What this chunk last added to the scan's progress
+        private long reportedBytes;
+        private int reportedRows;
+        private int reportedErrors;
+        private int reportedWarnings;
+
+        ScanResult(String[] headers, int previewLimit, Charset charset) {
+            this.headers = headers;
+            this.previewLimit = previewLimit;
+            this.queryItems = new QueryItemSource(charset);
+            this.previewRows = new ArrayList<>();
+        }
+
+        /**
+         * Append the result of the chunks immediately following this one
+         */
+        ScanResult append(ScanResult following) {
+            for (int i = 0; i < validators.size(); i++) {
+                validators.get(i).merge(following.validators.get(i), rowCount);
+            }
+            if (previewRows != null && previewRows.size() < previewLimit && following.previewRows != null) {
+                int room = previewLimit - previewRows.size();
+                previewRows.addAll(following.previewRows.subList(0, Math.min(room, following.previewRows.size())));
+            }
+            if (offsets != null && following.offsets != null) {
+                offsets.append(following.offsets, rowCount);
+            } else {
+                offsets = null;
+            }
+            queryItems.append(following.queryItems);
+            if (rowCount == 0) {
+                totalColumns = following.totalColumns;
+            }
+            rowCount += following.rowCount;
+            emptyRows += following.emptyRows;
+            return this;
+        }
+    }
+
+    private final class ChunkTask extends RecursiveTask<ScanResult> {
+        private final FileChannel channel;
+        private final Charset charset;
+        private final String[] headers;
+        private final long[] boundaries;
+        private final AtomicInteger firstFullChunk;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, Charset charset, String[] headers, long[] boundaries,
+                  AtomicInteger firstFullChunk, int from, int to) {
+            this.channel = channel;
+            this.charset = charset;
+            this.headers = headers;
+            this.boundaries = boundaries;
+            this.firstFullChunk = firstFullChunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScanResult compute() {
+            if (to - from == 1) {
+                try {
+                    return scanChunk(channel, charset, headers, boundaries[from], boundaries[to], from, firstFullChunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(channel, charset, headers, boundaries, firstFullChunk, from, middle);
+            left.fork();
+            ScanResult right = new ChunkTask(channel, charset, headers, boundaries, firstFullChunk, middle, to).compute();
+            return left.join().append(right);
+        }
+    }
+
+    /**
+     * Reads one byte range of a shared channel with positional reads, so ranges can be read concurrently
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        long position;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.tractionrec.recrec.csv;
+
+import java.io.File;
+
+/**
+ * A rewritten CSV file together with the validation report of its new contents, produced in
+ * the same pass that wrote it
+ */
+public class CsvFixResult {
+    private final File outputFile;
+    private final CsvValidationReport report;
+
+    public CsvFixResult(File outputFile, CsvValidationReport report) {
+        this.outputFile = outputFile;
+        this.report = report;
+    }
+
+    // Getters
+    public File getOutputFile() { return outputFile; }
+    public CsvValidationReport getReport() { return report; }
+}
@@ -0,0 +1,60 @@
+package com.tractionrec.recrec.csv;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads any range of data rows of a validated file from disk, starting from the nearest
+ * {@link RecordOffsetIndex} checkpoint, so previews can page through files of any size
+ */
+public class CsvPageReader {
+    private final File file;
+    private final Charset charset;
+    private final RecordOffsetIndex index;
+
+    public CsvPageReader(File file, Charset charset, RecordOffsetIndex index) {
+        this.file = file;
+        this.charset = charset;
+        this.index = index;
+    }
+
+    public int getTotalRows() {
+        return index.getTotalRows();
+    }
+
+    /**
+     * Read consecutive data rows
+     * @param firstRow Zero-based data row index of the first row
+     * @param count Maximum number of rows to read
+     * @return The rows, fewer than requested if the file ends first
+     * @throws IOException if the file cannot be read or no longer matches the index
+     */
+    public String[][] readRows(int firstRow, int count) throws IOException {
+        int rowCount = Math.max(0, Math.min(count, index.getTotalRows() - firstRow));
+        if (firstRow < 0 || rowCount == 0) {
+            return new String[0][];
+        }
+
+        int checkpoint = index.checkpointFor(firstRow);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            CsvTokenizer tokenizer = new CsvTokenizer(channel, index.checkpointOffset(checkpoint), channel.size(), charset);
+            for (int row = index.checkpointRow(checkpoint); row < firstRow; row++) {
+                if (!tokenizer.next()) {
+                    throw new IOException("File has changed since it was validated");
+                }
+            }
+
+            String[][] rows = new String[rowCount][];
+            for (int i = 0; i < rowCount; i++) {
+                if (!tokenizer.next()) {
+                    throw new IOException("File has changed since it was validated");
+                }
+                rows[i] = tokenizer.toArray();
+            }
+            return rows;
+        }
+    }
+}
@@ -1,38 +1,90 @@
 package com.tractionrec.recrec.csv;
 
 import com.tractionrec.recrec.domain.CellLocation;
+import com.tractionrec.recrec.domain.IssueSeverity;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Data structure for CSV preview display in the UI
+ * Data structure for CSV preview display in the UI. The first rows of the file are held in
+ * memory; when the file's records were indexed, a {@link CsvPageReader} reads any later rows
+ * from disk.
+ * <p>
+ * Cell lookups go through a {@link CellIssueIndex} built on first use, covering every row of
+ * the file when the whole file's issues are known, so rendering a cell allocates nothing.
  */
 public class CsvPreviewData {
     private final String[][] data;
     private final String[] headers;
-    private final Map<CellLocation, ValidationIssue> cellIssues;
+    private Map<CellLocation, ValidationIssue> cellIssues; // Built on demand when allIssues is given
     private final CsvFileStats stats;
     private final int totalRowsInFile;
     private final boolean isPreviewTruncated;
+    private final IssueStore allIssues;     // Issues of the whole file, null if only cellIssues are known
+    private final CsvPageReader pageReader; // Null if rows past the preview cannot be read
+    private List<ValidationIssue> indexedIssues; // What the index numbers when allIssues is null
+    private volatile CellIssueIndex cellIndex;
+    private IssueGrouping issueGrouping;
     
     public CsvPreviewData(String[][] data, String[] headers, 
                          Map<CellLocation, ValidationIssue> cellIssues, 
                          CsvFileStats stats, int totalRowsInFile) {
+        this(data, headers, cellIssues, stats, totalRowsInFile, null, null);
+    }
+    
+    /**
+     * @param cellIssues Issues of the preview window; may be null when allIssues is given
+     */
+    public CsvPreviewData(String[][] data, String[] headers,
+                         Map<CellLocation, ValidationIssue> cellIssues,
+                         CsvFileStats stats, int totalRowsInFile,
+                         IssueStore allIssues, CsvPageReader pageReader) {
         this.data = data;
         this.headers = headers;
         this.cellIssues = cellIssues;
         this.stats = stats;
         this.totalRowsInFile = totalRowsInFile;
         this.isPreviewTruncated = data.length < totalRowsInFile;
+        this.allIssues = allIssues;
+        this.pageReader = pageReader;
     }
     
     // Getters
     public String[][] getData() { return data; }
     public String[] getHeaders() { return headers; }
-    public Map<CellLocation, ValidationIssue> getCellIssues() { return cellIssues; }
     public CsvFileStats getStats() { return stats; }
     public int getTotalRowsInFile() { return totalRowsInFile; }
     public boolean isPreviewTruncated() { return isPreviewTruncated; }
+    public CsvPageReader getPageReader() { return pageReader; }
+
+    /**
+     * Issues of the cells in the preview window, later rules winning a shared cell. Built on
+     * first call when the data was made from an issue store; prefer the cell lookups and
+     * {@link #getCellIssueCount()} where a map is not needed.
+     */
+    public synchronized Map<CellLocation, ValidationIssue> getCellIssues() {
+        if (cellIssues == null) {
+            Map<CellLocation, ValidationIssue> previewIssues = new LinkedHashMap<>();
+            for (int i = 0; i < allIssues.size(); i++) {
+                if (allIssues.getRow(i) < data.length) {
+                    ValidationIssue issue = allIssues.get(i);
+                    previewIssues.put(issue.getLocation(), issue);
+                }
+            }
+            cellIssues = previewIssues;
+        }
+        return cellIssues;
+    }
+
+    /**
+     * Number of cells in the preview window with an issue
+     */
+    public int getCellIssueCount() {
+        return cellIndex().count(0, data.length);
+    }
     
     /**
      * Get the number of rows in the preview
@@ -62,13 +114,78 @@ public class CsvPreviewData {
      * Check if a cell has validation issues
      */
     public boolean hasCellIssue(int row, int column) {
-        return cellIssues.containsKey(new CellLocation(row, column));
+        return cellIndex().contains(row, column);
     }
-    
+
     /**
      * Get validation issue for a specific cell
      */
     public ValidationIssue getCellIssue(int row, int column) {
-        return cellIssues.get(new CellLocation(row, column));
+        int issue = cellIndex().get(row, column);
+        if (issue == CellIssueIndex.NONE) {
+            return null;
+        }
+        return allIssues != null ? allIssues.get(issue) : indexedIssues.get(issue);
+    }
+
+    /**
+     * Number of the issue on a cell, or {@link CellIssueIndex#NONE}. Issues are numbered as in
+     * {@link #getIssueGrouping()}.
+     */
+    public int findCellIssue(int row, int column) {
+        return cellIndex().get(row, column);
+    }
+
+    /**
+     * Issues grouped for the issue list: those of the whole file when its issue store is known,
+     * otherwise those of the preview window. Built on first call.
+     */
+    public synchronized IssueGrouping getIssueGrouping() {
+        if (issueGrouping == null) {
+            if (allIssues != null) {
+                issueGrouping = allIssues.grouping(IssueGrouping.MAX_GROUPS_PER_KIND);
+            } else {
+                cellIndex(); // Numbers the preview window's issues
+                issueGrouping = IssueGrouping.singles(indexedIssues);
+            }
+        }
+        return issueGrouping;
+    }
+
+    /**
+     * Severity of the issue on a cell, or null if it has none, without rendering the issue
+     */
+    public IssueSeverity getCellSeverity(int row, int column) {
+        int issue = cellIndex().get(row, column);
+        if (issue == CellIssueIndex.NONE) {
+            return null;
+        }
+        return allIssues != null ? allIssues.getKind(issue).getSeverity() : indexedIssues.get(issue).getSeverity();
+    }
+
+    /**
+     * Index of the issue on each cell, built on first use. Covers the whole file when its issue
+     * store is known, otherwise the preview window's issues.
+     */
+    private CellIssueIndex cellIndex() {
+        CellIssueIndex index = cellIndex;
+        return index != null ? index : buildCellIndex();
+    }
+
+    private synchronized CellIssueIndex buildCellIndex() {
+        if (cellIndex == null) {
+            if (allIssues != null) {
+                cellIndex = CellIssueIndex.of(allIssues);
+            } else {
+                indexedIssues = new ArrayList<>(cellIssues.values());
+                CellIssueIndex index = new CellIssueIndex(indexedIssues.size());
+                for (int i = 0; i < indexedIssues.size(); i++) {
+                    CellLocation location = indexedIssues.get(i).getLocation();
+                    index.put(location.row(), location.column(), i);
+                }
+                cellIndex = index;
+            }
+        }
+        return cellIndex;
     }
 }
@@ -0,0 +1,56 @@
+package com.tractionrec.recrec.csv;
+
+/**
+ * One parsed CSV record as seen by the validation rules. Cell text is only materialized
+ * when asked for; rules decide from each cell's classification flags. A row handed
+ * to a rule is only valid until the rule returns; copy with {@link #toArray()} to keep it.
+ */
+public interface CsvRow {
+
+    /**
+     * Number of cells in the record
+     */
+    int size();
+
+    /**
+     * Cell text; may be null for rows built from arrays containing nulls
+     */
+    String get(int column);
+
+    /**
+     * {@link CellClassifier} flags of the cell, computed with one scan and then reused by every rule
+     */
+    int flags(int column);
+
+    /**
+     * Whether the cell has no text at all
+     */
+    default boolean isEmpty(int column) {
+        return (flags(column) & CellClassifier.EMPTY) != 0;
+    }
+
+    /**
+     * Whether the cell is empty or only contains whitespace, as {@link String#trim()} defines it
+     */
+    default boolean isBlank(int column) {
+        return CellClassifier.isBlank(flags(column));
+    }
+
+    /**
+     * Materialize every cell of the record
+     */
+    default String[] toArray() {
+        String[] values = new String[size()];
+        for (int column = 0; column < values.length; column++) {
+            values[column] = get(column);
+        }
+        return values;
+    }
+
+    /**
+     * Row view over already materialized cell values
+     */
+    static CsvRow of(String[] values) {
+        return new ArrayCsvRow(values);
+    }
+}
@@ -0,0 +1,256 @@
+package com.tractionrec.recrec.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * RFC 4180 tokenizer over a byte range of a file that records where each field starts and
+ * how long it is instead of building strings. Blocks are read from the channel into one
+ * reusable buffer and records are tokenized in place; a cell's text is decoded only when
+ * {@link #get} is called.
+ * <p>
+ * Follows the parsing rules of Commons CSV's default format: comma delimiter, double quote
+ * encapsulation with doubled quotes as escapes, quotes only special at the start of a field,
+ * CR, LF or CRLF line breaks, and an empty line read as a record with one empty field.
+ * The encoding must be one where quotes, commas and line breaks are the plain ASCII bytes
+ * and never part of another character (see {@link ChunkedCsvScanner#isAsciiCompatible}).
+ * <p>
+ * The tokenizer is itself the {@link CsvRow} view of the current record, valid until the
+ * next call to {@link #next}.
+ */
+class CsvTokenizer implements CsvRow {
+
+    private static final int INITIAL_BUFFER_BYTES = 256 * 1024;
+    private static final int NEED_MORE = -1;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final long end;
+    private long filePosition;
+    private boolean exhausted;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_BYTES];
+    private int position; // Start of the next record in the buffer
+    private int limit;    // End of the bytes read so far
+    private long recordStart;
+
+    private int fieldCount;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldLengths = new int[16];
+    private boolean[] fieldEscaped = new boolean[16]; // Quoted field containing doubled quotes
+    private int[] fieldFlags = new int[16];           // Classification, 0 until first asked for
+    private byte[] scratch = new byte[64];
+
+    CsvTokenizer(FileChannel channel, long start, long end, Charset charset) {
+        this.channel = channel;
+        this.charset = charset;
+        this.filePosition = start;
+        this.end = end;
+    }
+
+    /**
+     * Advance to the next record
+     * @return false once the range holds no more records
+     * @throws IOException on read failure or malformed quoting
+     */
+    boolean next() throws IOException {
+        recordStart = filePosition - limit + position; // Unchanged by compacting or filling the buffer
+        while (true) {
+            if (position == limit && !fill()) {
+                return false;
+            }
+            int recordEnd = tokenize(exhausted);
+            if (recordEnd != NEED_MORE) {
+                position = recordEnd;
+                return true;
+            }
+            if (!fill()) {
+                position = tokenize(true);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * File offset of the first byte of the current record
+     */
+    long recordStart() {
+        return recordStart;
+    }
+
+    @Override
+    public int size() {
+        return fieldCount;
+    }
+
+    @Override
+    public String get(int column) {
+        int start = fieldStarts[column];
+        int length = fieldLengths[column];
+        if (!fieldEscaped[column]) {
+            return new String(buffer, start, length, charset);
+        }
+
+        // Drop the first quote of every doubled pair
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int count = 0;
+        for (int i = start; i < start + length; i++) {
+            scratch[count++] = buffer[i];
+            if (buffer[i] == '"') {
+                i++;
+            }
+        }
+        return new String(scratch, 0, count, charset);
+    }
+
+    /**
+     * Buffer holding the raw bytes of the current record's cells
+     */
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int fieldStart(int column) {
+        return fieldStarts[column];
+    }
+
+    int fieldLength(int column) {
+        return fieldLengths[column];
+    }
+
+    /**
+     * Whether the cell's raw bytes differ from its text because quotes inside it are doubled
+     */
+    boolean isEscaped(int column) {
+        return fieldEscaped[column];
+    }
+
+    @Override
+    public int flags(int column) {
+        if (fieldFlags[column] == 0) {
+            fieldFlags[column] = CellClassifier.classify(buffer, fieldStarts[column], fieldLengths[column]);
+        }
+        return fieldFlags[column];
+    }
+
+    /**
+     * Tokenize the record starting at {@link #position}
+     * @param atEnd Whether the buffer holds the rest of the range
+     * @return Buffer offset just past the record, or {@link #NEED_MORE} if it runs past the buffered bytes
+     */
+    private int tokenize(boolean atEnd) throws IOException {
+        fieldCount = 0;
+        int i = position;
+        while (true) {
+            if (i < limit && buffer[i] == '"') {
+                // Quoted field
+                int contentStart = i + 1;
+                int j = contentStart;
+                boolean escaped = false;
+                while (true) {
+                    if (j >= limit) {
+                        if (atEnd) {
+                            throw new IOException("EOF reached before encapsulated token finished");
+                        }
+                        return NEED_MORE;
+                    }
+                    if (buffer[j] == '"') {
+                        if (j + 1 >= limit && !atEnd) {
+                            return NEED_MORE;
+                        }
+                        if (j + 1 < limit && buffer[j + 1] == '"') {
+                            escaped = true;
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    j++;
+                }
+                addField(contentStart, j - contentStart, escaped);
+
+                // Only whitespace may follow the closing quote before the delimiter or line break
+                i = j + 1;
+                while (i < limit && buffer[i] != ',' && buffer[i] != '\r' && buffer[i] != '\n') {
+                    if ((buffer[i] & 0xFF) > ' ') {
+                        throw new IOException("Invalid char between encapsulated token and delimiter");
+                    }
+                    i++;
+                }
+            } else {
+                int start = i;
+                while (i < limit && buffer[i] != ',' && buffer[i] != '\r' && buffer[i] != '\n') {
+                    i++;
+                }
+                addField(start, i - start, false);
+            }
+
+            if (i >= limit) {
+                return atEnd ? i : NEED_MORE;
+            }
+            byte delimiter = buffer[i];
+            if (delimiter == ',') {
+                i++;
+                continue;
+            }
+            if (delimiter == '\r') {
+                if (i + 1 >= limit && !atEnd) {
+                    return NEED_MORE;
+                }
+                if (i + 1 < limit && buffer[i + 1] == '\n') {
+                    i++;
+                }
+            }
+            return i + 1;
+        }
+    }
+
+    private void addField(int start, int length, boolean escaped) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldLengths = Arrays.copyOf(fieldLengths, fieldCount * 2);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, fieldCount * 2);
+            fieldFlags = Arrays.copyOf(fieldFlags, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldLengths[fieldCount] = length;
+        fieldEscaped[fieldCount] = escaped;
+        fieldFlags[fieldCount] = 0;
+        fieldCount++;
+    }
+
+    /**
+     * Move the unconsumed bytes to the front of the buffer and read more from the range
+     * @return false if the range has no more bytes
+     */
+    private boolean fill() throws IOException {
+        if (exhausted) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2); // One record larger than the buffer
+        }
+
+        int wanted = (int) Math.min(buffer.length - limit, end - filePosition);
+        int read = wanted > 0 ? channel.read(ByteBuffer.wrap(buffer, limit, wanted), filePosition) : -1;
+        if (read <= 0) {
+            exhausted = true;
+            return false;
+        }
+        limit += read;
+        filePosition += read;
+        if (filePosition >= end) {
+            exhausted = true;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.tractionrec.recrec.csv;
+
+/**
+ * Validation result and preview data produced together from a single pass over a CSV file
+ */
+public class CsvValidationReport {
+    private final CsvValidationResult result;
+    private final CsvPreviewData preview;
+
+    public CsvValidationReport(CsvValidationResult result, CsvPreviewData preview) {
+        this.result = result;
+        this.preview = preview;
+    }
+
+    // Getters
+    public CsvValidationResult getResult() { return result; }
+    public CsvPreviewData getPreview() { return preview; }
+}
@@ -1,6 +1,7 @@
 package com.tractionrec.recrec.csv;
 
 import com.tractionrec.recrec.csv.rules.ScientificNotationRule;
+import com.tractionrec.recrec.domain.IssueSeverity;
 import com.tractionrec.recrec.domain.ValidationStatus;
 
 import java.util.List;
@@ -9,22 +10,52 @@ import java.util.List;
  * Result of CSV validation containing all issues and overall status
  */
 public class CsvValidationResult {
+    private final IssueStore issueStore; // Null when built from a list of issues
     private final List<ValidationIssue> issues;
     private final CsvFileStats stats;
     private final ValidationStatus overallStatus;
     private final boolean canProceed;
     private final String summaryMessage;
     private final ScientificNotationRule.ScientificNotationAnalysis patternAnalysis;
+    private final QueryItemSource queryItems; // Null unless the rows were kept during validation
 
     public CsvValidationResult(List<ValidationIssue> issues, CsvFileStats stats,
                               ValidationStatus overallStatus, boolean canProceed, String summaryMessage,
                               ScientificNotationRule.ScientificNotationAnalysis patternAnalysis) {
+        this.issueStore = null;
         this.issues = issues;
         this.stats = stats;
         this.overallStatus = overallStatus;
         this.canProceed = canProceed;
         this.summaryMessage = summaryMessage;
         this.patternAnalysis = patternAnalysis;
+        this.queryItems = null;
+    }
+
+    /**
+     * Result backed by compact issue storage, rendering issues only as they are read
+     */
+    public CsvValidationResult(IssueStore issueStore, CsvFileStats stats,
+                              ValidationStatus overallStatus, boolean canProceed, String summaryMessage,
+                              ScientificNotationRule.ScientificNotationAnalysis patternAnalysis) {
+        this(issueStore, stats, overallStatus, canProceed, summaryMessage, patternAnalysis, null);
+    }
+
+    /**
+     * Result backed by compact issue storage that also carries the validated rows to query
+     */
+    public CsvValidationResult(IssueStore issueStore, CsvFileStats stats,
+                              ValidationStatus overallStatus, boolean canProceed, String summaryMessage,
+                              ScientificNotationRule.ScientificNotationAnalysis patternAnalysis,
+                              QueryItemSource queryItems) {
+        this.issueStore = issueStore;
+        this.issues = issueStore.asList();
+        this.stats = stats;
+        this.overallStatus = overallStatus;
+        this.canProceed = canProceed;
+        this.summaryMessage = summaryMessage;
+        this.patternAnalysis = patternAnalysis;
+        this.queryItems = queryItems;
     }
 
     // Getters
@@ -34,26 +65,50 @@ public class CsvValidationResult {
     public boolean canProceed() { return canProceed; }
     public String getSummaryMessage() { return summaryMessage; }
     public ScientificNotationRule.ScientificNotationAnalysis getPatternAnalysis() { return patternAnalysis; }
+    public QueryItemSource getQueryItems() { return queryItems; }
+
+    /**
+     * Repeated issues grouped for display, in order of first occurrence
+     */
+    public List<IssueGroup> getIssueGroups() {
+        if (issueStore != null) {
+            return issueStore.groups(IssueGrouping.MAX_GROUPS_PER_KIND);
+        }
+        return issues.stream().map(IssueGroup::single).toList();
+    }
+
+    /**
+     * Repeated issues grouped for display, with the issues of each group
+     */
+    public IssueGrouping getIssueGrouping() {
+        if (issueStore != null) {
+            return issueStore.grouping(IssueGrouping.MAX_GROUPS_PER_KIND);
+        }
+        return IssueGrouping.singles(issues);
+    }
 
     /**
      * Get count of issues by severity
      */
     public long getErrorCount() {
-        return issues.stream().filter(issue -> issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.ERROR).count();
+        return countBySeverity(IssueSeverity.ERROR);
     }
 
     public long getWarningCount() {
-        return issues.stream().filter(issue -> issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.WARNING).count();
+        return countBySeverity(IssueSeverity.WARNING);
     }
 
     public long getInfoCount() {
-        return issues.stream().filter(issue -> issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.INFO).count();
+        return countBySeverity(IssueSeverity.INFO);
     }
 
     /**
      * Check if there are any auto-fixable issues
      */
     public boolean hasAutoFixableIssues() {
+        if (issueStore != null) {
+            return issueStore.hasAutoFixableIssues();
+        }
         return issues.stream().anyMatch(ValidationIssue::isAutoFixable);
     }
 
@@ -64,6 +119,13 @@ public class CsvValidationResult {
         return issues.stream().filter(ValidationIssue::isAutoFixable).toList();
     }
 
+    private long countBySeverity(IssueSeverity severity) {
+        if (issueStore != null) {
+            return issueStore.count(severity);
+        }
+        return issues.stream().filter(issue -> issue.getSeverity() == severity).count();
+    }
+
     /**
      * Create a successful validation result
      */
@@ -96,7 +158,7 @@ public class CsvValidationResult {
      * Create a validation result with errors
      */
     public static CsvValidationResult withErrors(List<ValidationIssue> issues, CsvFileStats stats) {
-        long errorCount = issues.stream().filter(issue -> issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.ERROR).count();
+        long errorCount = issues.stream().filter(issue -> issue.getSeverity() == IssueSeverity.ERROR).count();
         return new CsvValidationResult(
             issues,
             stats,
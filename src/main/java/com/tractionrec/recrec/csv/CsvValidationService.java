@@ -4,21 +4,26 @@ import com.ibm.icu.text.CharsetDetector;
 import com.ibm.icu.text.CharsetMatch;
 import com.tractionrec.recrec.csv.rules.ContentValidationRule;
 import com.tractionrec.recrec.csv.rules.EmptyColumnRule;
+import com.tractionrec.recrec.csv.rules.RowValidator;
 import com.tractionrec.recrec.csv.rules.ScientificNotationRule;
 import com.tractionrec.recrec.csv.rules.ValidationRule;
-import com.tractionrec.recrec.domain.CellLocation;
+import com.tractionrec.recrec.domain.IssueSeverity;
 import com.tractionrec.recrec.domain.ValidationStatus;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 /**
  * Service for validating CSV files and generating preview data
@@ -26,7 +31,6 @@ import java.util.*;
 public class CsvValidationService {
 
     private static final int MAX_PREVIEW_ROWS = 50000; // Increased for paging support
-    private static final long MAX_FILE_SIZE_BYTES = 100 * 1024 * 1024; // 100MB
 
     private final List<ValidationRule> validationRules;
 
@@ -42,123 +46,90 @@ public class CsvValidationService {
      * Validate a CSV file and return comprehensive results
      */
     public CsvValidationResult validateCsv(File csvFile) {
+        return validateWithPreview(csvFile, 0).getResult();
+    }
+
+    /**
+     * Generate preview data for UI display
+     */
+    public CsvPreviewData generatePreview(File csvFile, int maxRows) {
+        return validateWithPreview(csvFile, maxRows).getPreview();
+    }
+
+    /**
+     * Validate a CSV file and build its preview from one read of the file. Rows are streamed
+     * through each rule's {@link RowValidator}, counted for the statistics and kept only while
+     * they fit in the preview window, so memory depends on the issues found rather than the
+     * size of the file. Large files are split into record-aligned chunks validated in parallel.
+     * The preview's cell issues are taken from the full validation.
+     * @param csvFile File to validate
+     * @param maxPreviewRows Maximum number of rows to keep for the preview
+     */
+    public CsvValidationReport validateWithPreview(File csvFile, int maxPreviewRows) {
+        return validateWithPreview(csvFile, maxPreviewRows, ValidationProgressListener.NONE);
+    }
+
+    /**
+     * Validate a CSV file and build its preview, reporting progress as the file is read
+     * @param listener Told about rows, bytes and issues as they are processed and given the
+     *                 first page of the preview as soon as it is parsed
+     * @throws CancellationException if the listener cancels validation
+     */
+    public CsvValidationReport validateWithPreview(File csvFile, int maxPreviewRows, ValidationProgressListener listener) {
         try {
             // Basic file checks
             if (!csvFile.exists() || !csvFile.canRead()) {
-                return CsvValidationResult.invalid("File does not exist or cannot be read");
-            }
-
-            if (csvFile.length() > MAX_FILE_SIZE_BYTES) {
-                return CsvValidationResult.invalid("File is too large (max 100MB)");
+                return invalidReport("File does not exist or cannot be read");
             }
 
             // Detect encoding
             String encoding = detectEncoding(csvFile);
+            Charset charset = Charset.forName(encoding);
 
-            // Parse CSV
-            ParsedCsvData parsedData = parseCsvFile(csvFile, encoding);
-
-            // Generate file stats
-            CsvFileStats stats = generateStats(csvFile, parsedData, encoding);
-
-            // Run validation rules
-            List<ValidationIssue> allIssues = new ArrayList<>();
-            ScientificNotationRule.ScientificNotationAnalysis patternAnalysis = null;
-
-            for (ValidationRule rule : validationRules) {
-                List<ValidationIssue> ruleIssues = rule.validate(parsedData.data, parsedData.headers);
-                allIssues.addAll(ruleIssues);
-
-                // Run pattern analysis for scientific notation rule
-                if (rule instanceof ScientificNotationRule scientificRule) {
-                    patternAnalysis = scientificRule.analyzePatterns(parsedData.data, parsedData.headers);
-                }
-            }
-
-            // Determine overall status
-            ValidationStatus status = determineOverallStatus(allIssues);
-            boolean canProceed = status != ValidationStatus.INVALID &&
-                               allIssues.stream().noneMatch(issue ->
-                                   issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.ERROR);
-
-            String summaryMessage = generateSummaryMessage(allIssues, status);
+            // Use the smaller of requested rows or our maximum limit
+            int previewLimit = Math.max(0, Math.min(maxPreviewRows, MAX_PREVIEW_ROWS));
 
-            return new CsvValidationResult(allIssues, stats, status, canProceed, summaryMessage, patternAnalysis);
+            // Parse and validate record-aligned chunks of the file in parallel
+            ChunkedCsvScanner.ScanResult scan = new ChunkedCsvScanner(validationRules, previewLimit,
+                ChunkedCsvScanner.MIN_CHUNK_BYTES, listener).scan(csvFile, charset);
+            return buildReport(scan, csvFile, encoding);
 
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            return CsvValidationResult.invalid("Error reading file: " + e.getMessage());
+            return invalidReport("Error reading file: " + e.getMessage());
         }
     }
 
     /**
-     * Generate preview data for UI display
+     * Replace all instances of a specific scientific notation value with user-provided replacement
      */
-    public CsvPreviewData generatePreview(File csvFile, int maxRows) {
-        try {
-            String encoding = detectEncoding(csvFile);
-            // Use the smaller of requested rows or our maximum limit
-            int actualMaxRows = Math.min(maxRows, MAX_PREVIEW_ROWS);
-            ParsedCsvData parsedData = parseCsvFile(csvFile, encoding, actualMaxRows);
-            CsvFileStats stats = generateStats(csvFile, parsedData, encoding);
-
-            // Run validation on preview data to identify cell issues
-            Map<CellLocation, ValidationIssue> cellIssues = new HashMap<>();
-            for (ValidationRule rule : validationRules) {
-                List<ValidationIssue> issues = rule.validate(parsedData.data, parsedData.headers);
-                for (ValidationIssue issue : issues) {
-                    if (issue.getLocation() != null) {
-                        cellIssues.put(issue.getLocation(), issue);
-                    }
-                }
-            }
-
-            // Count total rows in file for truncation indicator
-            int totalRows = countTotalRows(csvFile, encoding);
-
-            return new CsvPreviewData(parsedData.data, parsedData.headers, cellIssues, stats, totalRows);
-
-        } catch (Exception e) {
-            // Return empty preview on error
-            return new CsvPreviewData(new String[0][0], new String[0], new HashMap<>(),
-                                    new CsvFileStats(0, 0, 0, 0, 0, "unknown", false), 0);
-        }
+    public File replaceScientificNotationValue(File csvFile, String scientificValue, String replacementValue) {
+        return replaceScientificNotationValue(csvFile, scientificValue, replacementValue, 0).getOutputFile();
     }
 
     /**
-     * Replace all instances of a specific scientific notation value with user-provided replacement
+     * Replace all instances of a specific scientific notation value, validating the new file as it is written
+     * @param maxPreviewRows Maximum number of rows to keep for the new file's preview
      */
-    public File replaceScientificNotationValue(File csvFile, String scientificValue, String replacementValue) {
+    public CsvFixResult replaceScientificNotationValue(File csvFile, String scientificValue, String replacementValue,
+                                                       int maxPreviewRows) {
         try {
-            String encoding = detectEncoding(csvFile);
-            ParsedCsvData parsedData = parseCsvFile(csvFile, encoding);
-
-            // Replace all instances of the scientific notation value
-            String[][] fixedData = new String[parsedData.data.length][];
-            for (int row = 0; row < parsedData.data.length; row++) {
-                fixedData[row] = new String[parsedData.data[row].length];
-                System.arraycopy(parsedData.data[row], 0, fixedData[row], 0, parsedData.data[row].length);
+            File outputFile = new File(csvFile.getParent(),
+                getReplacedFileName(csvFile.getName()));
 
+            return rewriteCsvFile(csvFile, outputFile, maxPreviewRows, (row, headers) -> {
                 // Replace in merchant column (trim for comparison to handle whitespace)
-                if (fixedData[row].length > 0 && fixedData[row][0] != null &&
-                    scientificValue.equals(fixedData[row][0].trim())) {
-                    fixedData[row][0] = replacementValue;
+                if (row.length > 0 && row[0] != null && scientificValue.equals(row[0].trim())) {
+                    row[0] = replacementValue;
                 }
 
                 // Replace in ID column (trim for comparison to handle whitespace)
-                if (fixedData[row].length > 1 && fixedData[row][1] != null &&
-                    scientificValue.equals(fixedData[row][1].trim())) {
-                    fixedData[row][1] = replacementValue;
+                if (row.length > 1 && row[1] != null && scientificValue.equals(row[1].trim())) {
+                    row[1] = replacementValue;
                 }
-            }
-
-            // Create output file
-            File outputFile = new File(csvFile.getParent(),
-                getReplacedFileName(csvFile.getName()));
-
-            // Write fixed data to new file
-            writeFixedCsvFile(outputFile, fixedData, parsedData.headers, encoding);
-
-            return outputFile;
+                return row;
+            });
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to replace scientific notation in CSV file: " + e.getMessage(), e);
@@ -169,33 +140,36 @@ public class CsvValidationService {
      * Fix common issues automatically
      */
     public File fixCommonIssues(File csvFile, ValidationOptions options) {
-        try {
-            // Parse the original file
-            String encoding = detectEncoding(csvFile);
-            ParsedCsvData parsedData = parseCsvFile(csvFile, encoding);
-
-            // Apply auto-fixes
-            String[][] fixedData = parsedData.data;
+        return fixCommonIssues(csvFile, options, 0).getOutputFile();
+    }
 
-            // Apply each validation rule's auto-fix if enabled
+    /**
+     * Fix common issues automatically, validating the fixed file as it is written
+     * @param maxPreviewRows Maximum number of rows to keep for the fixed file's preview
+     */
+    public CsvFixResult fixCommonIssues(File csvFile, ValidationOptions options, int maxPreviewRows) {
+        try {
+            // Collect each enabled rule's auto-fix
+            List<ValidationRule> fixingRules = new ArrayList<>();
             for (ValidationRule rule : validationRules) {
                 if (rule.canAutoFix()) {
                     if (rule instanceof ScientificNotationRule && options.isAutoFixScientificNotation()) {
-                        fixedData = rule.autoFix(fixedData, parsedData.headers);
+                        fixingRules.add(rule);
                     } else if (rule instanceof ContentValidationRule && options.isAutoFixWhitespace()) {
-                        fixedData = rule.autoFix(fixedData, parsedData.headers);
+                        fixingRules.add(rule);
                     }
                 }
             }
 
-            // Create output file
             File outputFile = new File(csvFile.getParent(),
                 getFixedFileName(csvFile.getName()));
 
-            // Write fixed data to new file
-            writeFixedCsvFile(outputFile, fixedData, parsedData.headers, encoding);
-
-            return outputFile;
+            return rewriteCsvFile(csvFile, outputFile, maxPreviewRows, (row, headers) -> {
+                for (ValidationRule rule : fixingRules) {
+                    row = rule.autoFixRow(row, headers);
+                }
+                return row;
+            });
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to fix CSV file: " + e.getMessage(), e);
@@ -213,88 +187,104 @@ public class CsvValidationService {
         }
     }
 
-    private ParsedCsvData parseCsvFile(File file, String encoding) throws IOException {
-        return parseCsvFile(file, encoding, Integer.MAX_VALUE);
-    }
-
-    private ParsedCsvData parseCsvFile(File file, String encoding, int maxRows) throws IOException {
+    /**
+     * Stream a file through a row transform into a new file in the same encoding, validating
+     * the transformed rows on the way, so the new file's report needs no second read
+     */
+    private CsvFixResult rewriteCsvFile(File inputFile, File outputFile, int maxPreviewRows,
+                                        ChunkedCsvScanner.RowTransform transform) throws IOException {
+        String encoding = detectEncoding(inputFile);
         Charset charset = Charset.forName(encoding);
+        int previewLimit = Math.max(0, Math.min(maxPreviewRows, MAX_PREVIEW_ROWS));
+
+        ChunkedCsvScanner.ScanResult scan;
+        CountingOutputStream output = new CountingOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(outputFile.toPath())));
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, charset))) {
+            scan = new ChunkedCsvScanner(validationRules, previewLimit).rewrite(inputFile, charset, transform,
+                new ChunkedCsvScanner.RowSink() {
+                    @Override
+                    public void headers(String[] headers) throws IOException {
+                        if (headers != null) {
+                            writer.write(String.join(",", headers));
+                            writer.newLine();
+                        }
+                    }
 
-        try (CSVParser parser = CSVFormat.DEFAULT
-                .withFirstRecordAsHeader()
-                .withIgnoreEmptyLines(false) // We want to detect empty lines
-                .parse(Files.newBufferedReader(file.toPath(), charset))) {
+                    @Override
+                    public void row(String[] values) throws IOException {
+                        writeCsvRow(writer, values);
+                    }
 
-            List<String[]> dataList = new ArrayList<>();
-            String[] headers = null;
+                    @Override
+                    public long position() throws IOException {
+                        writer.flush(); // Push buffered characters through the encoder to the count
+                        return output.count;
+                    }
+                });
+        }
+        return new CsvFixResult(outputFile, buildReport(scan, outputFile, encoding));
+    }
 
-            // Get headers
-            List<String> headerNames = parser.getHeaderNames();
-            if (headerNames != null && !headerNames.isEmpty()) {
-                headers = headerNames.toArray(new String[0]);
-            }
+    private CsvValidationReport buildReport(ChunkedCsvScanner.ScanResult scan, File file, String encoding) {
+        String[] headers = scan.headers;
+        long fileSize = file.length();
+        int totalRows = scan.rowCount;
+        int emptyRows = scan.emptyRows;
 
-            // Parse data rows
-            int rowCount = 0;
-            for (CSVRecord record : parser) {
-                if (rowCount >= maxRows) {
-                    break;
-                }
+        // Generate file stats
+        CsvFileStats stats = new CsvFileStats(totalRows, scan.totalColumns, totalRows - emptyRows, emptyRows,
+                                              fileSize, encoding, headers != null);
 
-                String[] row = new String[record.size()];
-                for (int i = 0; i < record.size(); i++) {
-                    row[i] = record.get(i);
-                }
-                dataList.add(row);
-                rowCount++;
-            }
+        // Collect each rule's findings
+        IssueStore allIssues = new IssueStore();
+        ScientificNotationRule.ScientificNotationAnalysis patternAnalysis = null;
 
-            String[][] data = dataList.toArray(new String[0][]);
-            return new ParsedCsvData(data, headers);
-        }
-    }
+        for (RowValidator validator : scan.validators) {
+            allIssues.append(validator.finish(), 0);
 
-    private CsvFileStats generateStats(File file, ParsedCsvData parsedData, String encoding) {
-        int totalRows = parsedData.data.length;
-        int totalColumns = totalRows > 0 ? parsedData.data[0].length : 0;
-        int emptyRows = 0;
-
-        // Count empty rows
-        for (String[] row : parsedData.data) {
-            boolean isEmpty = true;
-            for (String cell : row) {
-                if (cell != null && !cell.trim().isEmpty()) {
-                    isEmpty = false;
-                    break;
-                }
-            }
-            if (isEmpty) {
-                emptyRows++;
+            // Pattern analysis for scientific notation rule
+            if (validator instanceof ScientificNotationRule.ScientificNotationValidator scientificValidator) {
+                patternAnalysis = scientificValidator.getAnalysis();
             }
         }
 
-        int dataRows = totalRows - emptyRows;
-        boolean hasHeader = parsedData.headers != null;
+        // Determine overall status
+        ValidationStatus status = determineOverallStatus(allIssues);
+        boolean canProceed = status != ValidationStatus.INVALID &&
+                           allIssues.count(IssueSeverity.ERROR) == 0;
+
+        String summaryMessage = generateSummaryMessage(allIssues, status);
+
+        CsvValidationResult result = new CsvValidationResult(allIssues, stats, status, canProceed, summaryMessage,
+                                                             patternAnalysis, scan.queryItems);
+        String[][] previewData = scan.previewRows.toArray(new String[0][]);
+        CsvPageReader pageReader = scan.offsets != null
+            ? new CsvPageReader(file, Charset.forName(encoding), scan.offsets.build(totalRows))
+            : null;
+        return new CsvValidationReport(result,
+            buildPreview(previewData, headers, allIssues, stats, totalRows, pageReader));
+    }
 
-        return new CsvFileStats(totalRows, totalColumns, dataRows, emptyRows,
-                              file.length(), encoding, hasHeader);
+    private CsvPreviewData buildPreview(String[][] previewData, String[] headers, IssueStore issues,
+                                        CsvFileStats stats, int totalRows, CsvPageReader pageReader) {
+        // Cell issues are looked up in the store through the preview's own index
+        return new CsvPreviewData(previewData, headers, null, stats, totalRows, issues, pageReader);
     }
 
-    private int countTotalRows(File file, String encoding) {
-        try {
-            return (int) Files.lines(file.toPath(), Charset.forName(encoding)).count();
-        } catch (IOException e) {
-            return 0;
-        }
+    private CsvValidationReport invalidReport(String reason) {
+        // Return empty preview on error
+        return new CsvValidationReport(CsvValidationResult.invalid(reason),
+            new CsvPreviewData(new String[0][0], new String[0], new HashMap<>(),
+                               new CsvFileStats(0, 0, 0, 0, 0, "unknown", false), 0));
     }
 
-    private ValidationStatus determineOverallStatus(List<ValidationIssue> issues) {
+    private ValidationStatus determineOverallStatus(IssueStore issues) {
         if (issues.isEmpty()) {
             return ValidationStatus.VALID;
         }
 
-        boolean hasErrors = issues.stream().anyMatch(issue ->
-            issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.ERROR);
+        boolean hasErrors = issues.count(IssueSeverity.ERROR) > 0;
 
         if (hasErrors) {
             return ValidationStatus.ERROR;
@@ -303,15 +293,13 @@ public class CsvValidationService {
         }
     }
 
-    private String generateSummaryMessage(List<ValidationIssue> issues, ValidationStatus status) {
+    private String generateSummaryMessage(IssueStore issues, ValidationStatus status) {
         if (issues.isEmpty()) {
             return "CSV file validation passed successfully";
         }
 
-        long errorCount = issues.stream().filter(issue ->
-            issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.ERROR).count();
-        long warningCount = issues.stream().filter(issue ->
-            issue.getSeverity() == com.tractionrec.recrec.domain.IssueSeverity.WARNING).count();
+        int errorCount = issues.count(IssueSeverity.ERROR);
+        int warningCount = issues.count(IssueSeverity.WARNING);
 
         if (errorCount > 0) {
             return String.format("Found %d errors and %d warnings. Errors must be fixed before processing.",
@@ -351,46 +339,47 @@ public class CsvValidationService {
     }
 
     /**
-     * Write fixed CSV data to a file
+     * Counts the bytes written through it, for the offsets of rewritten records
      */
-    private void writeFixedCsvFile(File outputFile, String[][] data, String[] headers, String encoding) throws IOException {
-        Charset charset = Charset.forName(encoding);
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
 
-        try (var writer = Files.newBufferedWriter(outputFile.toPath(), charset)) {
-            // Write headers if present
-            if (headers != null) {
-                writer.write(String.join(",", headers));
-                writer.newLine();
-            }
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
 
-            // Write data rows
-            for (String[] row : data) {
-                // Escape values that contain commas or quotes
-                String[] escapedRow = new String[row.length];
-                for (int i = 0; i < row.length; i++) {
-                    String value = row[i] != null ? row[i] : "";
-                    if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-                        // Escape quotes and wrap in quotes
-                        value = "\"" + value.replace("\"", "\"\"") + "\"";
-                    }
-                    escapedRow[i] = value;
-                }
-                writer.write(String.join(",", escapedRow));
-                writer.newLine();
-            }
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
         }
     }
 
     /**
-     * Internal class to hold parsed CSV data
+     * Write one row, quoting values that contain commas, quotes or line breaks
      */
-    private static class ParsedCsvData {
-        final String[][] data;
-        final String[] headers;
-
-        ParsedCsvData(String[][] data, String[] headers) {
-            this.data = data;
-            this.headers = headers;
+    private static void writeCsvRow(Writer writer, String[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = row[i] != null ? row[i] : "";
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                // Escape quotes and wrap in quotes
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
         }
+        writer.write(System.lineSeparator());
     }
 }
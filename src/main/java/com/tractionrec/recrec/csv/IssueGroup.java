@@ -0,0 +1,90 @@
+package com.tractionrec.recrec.csv;
+
+/**
+ * Issues of one kind repeated across rows, shown as a single entry: the first occurrence
+ * stands for the rest, with a summary of how many rows share it
+ */
+public class IssueGroup {
+    private final ValidationIssue representative;
+    private final int count;
+    private final int firstRow;
+    private final int lastRow;
+    private final boolean remainder;
+    private final boolean valueSpecific;
+
+    public IssueGroup(ValidationIssue representative, int count, int firstRow, int lastRow,
+                      boolean remainder, boolean valueSpecific) {
+        this.representative = representative;
+        this.count = count;
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+        this.remainder = remainder;
+        this.valueSpecific = valueSpecific;
+    }
+
+    /**
+     * A group holding one issue
+     */
+    public static IssueGroup single(ValidationIssue issue) {
+        int row = issue.getLocation() != null ? issue.getLocation().row() : 0;
+        return new IssueGroup(issue, 1, row, row, false, false);
+    }
+
+    // Getters
+    public ValidationIssue getRepresentative() { return representative; }
+    public int getCount() { return count; }
+    public int getFirstRow() { return firstRow; }
+    public int getLastRow() { return lastRow; }
+
+    /**
+     * Whether this group collects the issues of a kind left over once the per-kind group
+     * limit was reached, so its issues may have different values
+     */
+    public boolean isRemainder() { return remainder; }
+
+    /**
+     * One-line description of the repeats, empty for a single issue
+     */
+    public String getSummary() {
+        if (count == 1) {
+            return "";
+        }
+        String rows = String.format("rows %,d-%,d", firstRow + 1, lastRow + 1);
+        if (remainder) {
+            return String.format("And %,d more like this (%s)", count - 1, rows);
+        }
+        if (valueSpecific) {
+            return String.format("Same value in %,d rows (%s)", count, rows);
+        }
+        return String.format("%,d rows (%s)", count, rows);
+    }
+
+    /**
+     * Accumulates the rows of a group while an {@link IssueStore} is scanned
+     */
+    static class Builder {
+        private final IssueStore store;
+        private final int firstIndex;
+        private final boolean remainder;
+        private int count;
+        private int firstRow = Integer.MAX_VALUE;
+        private int lastRow = Integer.MIN_VALUE;
+
+        Builder(IssueStore store, int firstIndex, boolean remainder) {
+            this.store = store;
+            this.firstIndex = firstIndex;
+            this.remainder = remainder;
+        }
+
+        void add(int row) {
+            count++;
+            firstRow = Math.min(firstRow, row);
+            lastRow = Math.max(lastRow, row);
+        }
+
+        IssueGroup build() {
+            return new IssueGroup(store.get(firstIndex), count, firstRow, lastRow,
+                remainder, store.getKind(firstIndex).isValueSpecific());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tractionrec.recrec.csv;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Issues sorted into their {@link IssueGroup}s, with each group's members kept as issue numbers
+ * so a list can show any member without rendering the others. Finding an issue's group and its
+ * place in the group takes constant time.
+ */
+public final class IssueGrouping {
+
+    /**
+     * Distinct values of a kind listed as their own groups before the rest are folded together
+     */
+    public static final int MAX_GROUPS_PER_KIND = 100;
+
+    private final List<IssueGroup> groups;
+    private final IntFunction<ValidationIssue> issues;
+    private final int[] memberStarts; // Where each group's members start in members, then the total
+    private final int[] members;      // Issue numbers, grouped, in issue order within a group
+    private final int[] groupOf;      // Group of each issue
+    private final int[] memberOf;     // Place of each issue within its group
+
+    /**
+     * @param groupOf Group of each issue, numbered as in groups
+     * @param issues Renders an issue from its number
+     */
+    IssueGrouping(List<IssueGroup> groups, int[] groupOf, IntFunction<ValidationIssue> issues) {
+        this.groups = groups;
+        this.issues = issues;
+        this.groupOf = groupOf;
+        this.memberStarts = new int[groups.size() + 1];
+        this.members = new int[groupOf.length];
+        this.memberOf = new int[groupOf.length];
+
+        for (int group : groupOf) {
+            memberStarts[group + 1]++;
+        }
+        for (int group = 0; group < groups.size(); group++) {
+            memberStarts[group + 1] += memberStarts[group];
+        }
+        int[] next = new int[groups.size()];
+        for (int issue = 0; issue < groupOf.length; issue++) {
+            int group = groupOf[issue];
+            memberOf[issue] = next[group]++;
+            members[memberStarts[group] + memberOf[issue]] = issue;
+        }
+    }
+
+    /**
+     * Every issue in a group of its own
+     */
+    public static IssueGrouping singles(List<ValidationIssue> issues) {
+        int[] groupOf = new int[issues.size()];
+        for (int i = 0; i < groupOf.length; i++) {
+            groupOf[i] = i;
+        }
+        return new IssueGrouping(issues.stream().map(IssueGroup::single).toList(), groupOf, issues::get);
+    }
+
+    public List<IssueGroup> getGroups() { return groups; }
+    public int getGroupCount() { return groups.size(); }
+    public IssueGroup getGroup(int group) { return groups.get(group); }
+
+    /**
+     * Number of issues in all groups
+     */
+    public int getIssueCount() {
+        return members.length;
+    }
+
+    public int getMemberCount(int group) {
+        return memberStarts[group + 1] - memberStarts[group];
+    }
+
+    /**
+     * Number of a group's member issue
+     */
+    public int getMemberIssue(int group, int member) {
+        return members[memberStarts[group] + member];
+    }
+
+    /**
+     * Render a group's member issue
+     */
+    public ValidationIssue getMember(int group, int member) {
+        return issues.apply(getMemberIssue(group, member));
+    }
+
+    public int groupOf(int issue) {
+        return groupOf[issue];
+    }
+
+    public int memberOf(int issue) {
+        return memberOf[issue];
+    }
+}
@@ -0,0 +1,99 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.domain.CellLocation;
+import com.tractionrec.recrec.domain.IssueSeverity;
+import com.tractionrec.recrec.domain.IssueType;
+
+/**
+ * Every kind of issue the validation rules report, stored as a one-byte code in an
+ * {@link IssueStore}. The kind holds everything an issue of that kind has in common, so a
+ * stored issue only needs its row, column and value; descriptions and guidance are rendered
+ * by {@link #toIssue} when an issue is displayed.
+ */
+public enum IssueKind {
+    /** Value: the trimmed cell text */
+    SCIENTIFIC_NOTATION_MERCHANT(IssueSeverity.ERROR, IssueType.SCIENTIFIC_NOTATION, "Merchant", true),
+    /** Value: the trimmed cell text */
+    SCIENTIFIC_NOTATION_ID(IssueSeverity.ERROR, IssueType.SCIENTIFIC_NOTATION, "ID", true),
+    EMPTY_MERCHANT(IssueSeverity.ERROR, IssueType.EMPTY_FIELD, "Merchant", false),
+    EMPTY_ID(IssueSeverity.ERROR, IssueType.EMPTY_FIELD, "ID", false),
+    WHITESPACE_ONLY_MERCHANT(IssueSeverity.WARNING, IssueType.WHITESPACE_ONLY, "Merchant", false),
+    WHITESPACE_ONLY_ID(IssueSeverity.WARNING, IssueType.WHITESPACE_ONLY, "ID", false),
+    /** Value: the number of columns the row has */
+    MISSING_COLUMNS(IssueSeverity.ERROR, IssueType.CSV_FORMAT, null, false),
+    /** Value: the percentage of empty cells, as {@link Double#toString(double)} */
+    EMPTY_COLUMN(IssueSeverity.WARNING, IssueType.EMPTY_COLUMN, null, false);
+
+    private static final int EXPECTED_COLUMNS = 2; // Merchant and ID
+
+    private final IssueSeverity severity;
+    private final IssueType type;
+    private final String fieldName;
+    private final boolean valueSpecific;
+    private final String guidance;
+
+    IssueKind(IssueSeverity severity, IssueType type, String fieldName, boolean valueSpecific) {
+        this.severity = severity;
+        this.type = type;
+        this.fieldName = fieldName;
+        this.valueSpecific = valueSpecific;
+        this.guidance = type == IssueType.SCIENTIFIC_NOTATION ? scientificNotationGuidance(fieldName) : null;
+    }
+
+    public IssueSeverity getSeverity() { return severity; }
+    public IssueType getType() { return type; }
+
+    /**
+     * Whether issues of this kind are about a particular cell value, so that repeats of the
+     * same value are worth summarizing together
+     */
+    public boolean isValueSpecific() { return valueSpecific; }
+
+    public boolean isAutoFixable() {
+        return type == IssueType.WHITESPACE_ONLY;
+    }
+
+    /**
+     * Render a full issue of this kind
+     * @param value The issue's value as described on each kind, or null for kinds without one
+     */
+    public ValidationIssue toIssue(int row, int column, String value) {
+        CellLocation location = new CellLocation(row, column);
+        return switch (this) {
+            case SCIENTIFIC_NOTATION_MERCHANT, SCIENTIFIC_NOTATION_ID -> new ValidationIssue(
+                severity,
+                type,
+                String.format("%s field contains scientific notation: '%s'", fieldName, value),
+                location,
+                guidance,
+                false, // Never auto-fixable
+                value,
+                null
+            );
+            case EMPTY_MERCHANT, EMPTY_ID -> ValidationIssue.emptyField(location, fieldName);
+            case WHITESPACE_ONLY_MERCHANT, WHITESPACE_ONLY_ID -> ValidationIssue.whitespaceOnly(location, fieldName);
+            case MISSING_COLUMNS -> new ValidationIssue(
+                severity,
+                type,
+                String.format("Row has only %s columns, expected %d", value, EXPECTED_COLUMNS),
+                location,
+                "Ensure each row has both Merchant and ID columns",
+                false
+            );
+            case EMPTY_COLUMN -> ValidationIssue.emptyColumn(column, Double.parseDouble(value));
+        };
+    }
+
+    /**
+     * User guidance for fixing scientific notation, shared by every issue of the kind
+     */
+    private static String scientificNotationGuidance(String fieldName) {
+        return String.format(
+            "Manual correction required. %s field in scientific notation may have lost precision. " +
+            "To prevent this: 1) Format Excel column as 'Text' before pasting data, " +
+            "2) Use apostrophe prefix ('123456) to force text format, or " +
+            "3) Save as CSV (Comma delimited) with columns pre-formatted as Text.",
+            fieldName
+        );
+    }
+}
@@ -0,0 +1,240 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.domain.IssueSeverity;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact storage for validation issues. Each issue is a kind code, a row, a column and the
+ * id of its value in a per-store dictionary of interned values, held in parallel primitive
+ * arrays; a file with the same bad value in every row costs a few bytes per row plus one copy
+ * of the value. {@link ValidationIssue} objects are only rendered when an issue is read.
+ */
+public class IssueStore {
+
+    private static final IssueKind[] KINDS = IssueKind.values();
+    private static final int NO_VALUE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int[] columns = new int[INITIAL_CAPACITY];
+    private int[] valueIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> valueIndex = new HashMap<>();
+    private final int[] kindCounts = new int[KINDS.length];
+
+    /**
+     * Record an issue that has no value
+     */
+    public void add(IssueKind kind, int row, int column) {
+        addInterned(kind, row, column, NO_VALUE);
+    }
+
+    /**
+     * Record an issue with its value, interning the value
+     */
+    public void add(IssueKind kind, int row, int column, String value) {
+        addInterned(kind, row, column, value != null ? intern(value) : NO_VALUE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public IssueKind getKind(int index) {
+        return KINDS[kinds[index]];
+    }
+
+    public int getRow(int index) {
+        return rows[index];
+    }
+
+    public int getColumn(int index) {
+        return columns[index];
+    }
+
+    public String getValue(int index) {
+        return valueIds[index] == NO_VALUE ? null : values.get(valueIds[index]);
+    }
+
+    /**
+     * Render the issue at the given index
+     */
+    public ValidationIssue get(int index) {
+        return getKind(index).toIssue(rows[index], columns[index], getValue(index));
+    }
+
+    /**
+     * Read-only list view that renders each issue as it is read
+     */
+    public List<ValidationIssue> asList() {
+        return new AbstractList<>() {
+            @Override
+            public ValidationIssue get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return IssueStore.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public int count(IssueKind kind) {
+        return kindCounts[kind.ordinal()];
+    }
+
+    public int count(IssueSeverity severity) {
+        int count = 0;
+        for (IssueKind kind : KINDS) {
+            if (kind.getSeverity() == severity) {
+                count += kindCounts[kind.ordinal()];
+            }
+        }
+        return count;
+    }
+
+    public boolean hasAutoFixableIssues() {
+        for (IssueKind kind : KINDS) {
+            if (kind.isAutoFixable() && kindCounts[kind.ordinal()] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The value shared by every issue of the kind, or null if there are none or they differ
+     */
+    public String getCommonValue(IssueKind kind) {
+        int common = NO_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] == kind.ordinal()) {
+                if (common == NO_VALUE) {
+                    common = valueIds[i];
+                } else if (valueIds[i] != common) {
+                    return null;
+                }
+            }
+        }
+        return common == NO_VALUE ? null : values.get(common);
+    }
+
+    /**
+     * Append the issues of another store, moving their rows down by the given offset
+     */
+    public void append(IssueStore other, int rowOffset) {
+        int[] remapped = new int[other.values.size()];
+        for (int id = 0; id < remapped.length; id++) {
+            remapped[id] = intern(other.values.get(id));
+        }
+        ensureCapacity(size + other.size);
+        for (int i = 0; i < other.size; i++) {
+            kinds[size] = other.kinds[i];
+            rows[size] = other.rows[i] + rowOffset;
+            columns[size] = other.columns[i];
+            valueIds[size] = other.valueIds[i] == NO_VALUE ? NO_VALUE : remapped[other.valueIds[i]];
+            size++;
+        }
+        for (int kind = 0; kind < kindCounts.length; kind++) {
+            kindCounts[kind] += other.kindCounts[kind];
+        }
+    }
+
+    /**
+     * Group repeated issues: issues of the same kind in the same column, and for value-specific
+     * kinds with the same value, become one group. Groups are in order of first occurrence.
+     * @param maxGroupsPerKind Groups kept per kind before the rest of that kind are folded into
+     *                         one remainder group, so the list stays short however many distinct
+     *                         values a broken file has
+     */
+    public List<IssueGroup> groups(int maxGroupsPerKind) {
+        return grouping(maxGroupsPerKind).getGroups();
+    }
+
+    /**
+     * Group repeated issues as {@link #groups} does, keeping which issues belong to each group
+     */
+    public IssueGrouping grouping(int maxGroupsPerKind) {
+        Map<Long, Integer> groupIds = new HashMap<>();
+        List<IssueGroup.Builder> builders = new ArrayList<>();
+        int[] remainders = new int[KINDS.length];
+        Arrays.fill(remainders, -1);
+        int[] groupsPerKind = new int[KINDS.length];
+        int[] groupOf = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            int kind = kinds[i];
+            long key = ((long) kind << 56) | ((long) columns[i] << 32) | (valueIds[i] & 0xFFFFFFFFL);
+            Integer group = groupIds.get(key);
+            if (group == null) {
+                if (groupsPerKind[kind] < maxGroupsPerKind) {
+                    groupsPerKind[kind]++;
+                    group = builders.size();
+                    builders.add(new IssueGroup.Builder(this, i, false));
+                    groupIds.put(key, group);
+                } else {
+                    if (remainders[kind] < 0) {
+                        remainders[kind] = builders.size();
+                        builders.add(new IssueGroup.Builder(this, i, true));
+                    }
+                    group = remainders[kind];
+                }
+            }
+            builders.get(group).add(rows[i]);
+            groupOf[i] = group;
+        }
+
+        List<IssueGroup> groups = new ArrayList<>(builders.size());
+        for (IssueGroup.Builder builder : builders) {
+            groups.add(builder.build());
+        }
+        return new IssueGrouping(groups, groupOf, this::get);
+    }
+
+    private void addInterned(IssueKind kind, int row, int column, int valueId) {
+        ensureCapacity(size + 1);
+        kinds[size] = (byte) kind.ordinal();
+        rows[size] = row;
+        columns[size] = column;
+        valueIds[size] = valueId;
+        size++;
+        kindCounts[kind.ordinal()]++;
+    }
+
+    private int intern(String value) {
+        Integer id = valueIndex.get(value);
+        if (id == null) {
+            id = values.size();
+            values.add(value);
+            valueIndex.put(value, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > kinds.length) {
+            int newCapacity = Math.max(capacity, kinds.length * 2);
+            kinds = Arrays.copyOf(kinds, newCapacity);
+            rows = Arrays.copyOf(rows, newCapacity);
+            columns = Arrays.copyOf(columns, newCapacity);
+            valueIds = Arrays.copyOf(valueIds, newCapacity);
+        }
+    }
+}
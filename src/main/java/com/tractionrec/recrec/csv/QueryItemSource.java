@@ -0,0 +1,337 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The merchant and id of every row that was validated, kept so a run can query exactly those
+ * rows without reading the file again. Each chunk of the file fills its own segment, and
+ * chunks are joined by linking their segments, so nothing is copied when they are merged.
+ * <p>
+ * Within a segment, merchants repeat heavily and each distinct one is stored once, rows
+ * referencing it by number. Once the dictionary is full the column is taken to be mostly
+ * unique and later merchants are stored inline unless they repeat the row before, so a file
+ * of unique merchants costs no more than its text and no lookups. Values are
+ * packed end to end as bytes in the file's encoding, copied straight from the tokenizer's
+ * buffer where possible, and query items are only built as they are read.
+ * <p>
+ * Rows without any text and rows with fewer than two columns are left out, the latter counted
+ * in {@link #getSkippedRows()}. Both values are trimmed.
+ */
+public final class QueryItemSource {
+
+    static final int MAX_DICTIONARY_SIZE = 1 << 14;
+
+    private final Charset charset;
+    private final List<Segment> segments = new ArrayList<>();
+    private int[] segmentStarts = new int[1]; // First row of each segment
+    private int size;
+    private int skippedRows;
+
+    public QueryItemSource(Charset charset) {
+        this.charset = charset;
+        segments.add(new Segment());
+    }
+
+    /**
+     * Add a validated row
+     */
+    void add(CsvRow row) {
+        if (row.size() < 2) {
+            if (!isBlank(row)) {
+                skippedRows++; // Blank lines are not malformed, just empty
+            }
+            return;
+        }
+        if (isBlank(row)) {
+            return;
+        }
+        segments.get(segments.size() - 1).add(row, charset);
+        size++;
+    }
+
+    /**
+     * Append the rows of the part of the file immediately following this one, taking over its
+     * storage; it must not be added to afterwards
+     */
+    void append(QueryItemSource following) {
+        for (int i = 0; i < following.segments.size(); i++) {
+            Segment segment = following.segments.get(i);
+            if (segment.size == 0) {
+                continue;
+            }
+            if (segments.get(segments.size() - 1).size == 0) {
+                segments.remove(segments.size() - 1);
+            }
+            if (segmentStarts.length == segments.size()) {
+                segmentStarts = Arrays.copyOf(segmentStarts, segments.size() * 2);
+            }
+            segmentStarts[segments.size()] = size + following.segmentStarts[i];
+            segments.add(segment);
+        }
+        size += following.size;
+        skippedRows += following.skippedRows;
+    }
+
+    /**
+     * Number of rows to query
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows left out because they had fewer than two columns
+     */
+    public int getSkippedRows() {
+        return skippedRows;
+    }
+
+    public String getMerchant(int index) {
+        int segment = segmentOf(index);
+        return segments.get(segment).getMerchant(index - segmentStarts[segment], charset);
+    }
+
+    public String getId(int index) {
+        int segment = segmentOf(index);
+        return segments.get(segment).ids.getString(index - segmentStarts[segment], charset);
+    }
+
+    public QueryItem get(int index, QueryBy mode) {
+        return new QueryItem(getMerchant(index), getId(index), mode);
+    }
+
+    /**
+     * Read-only view of the rows as query items, each built when it is read
+     */
+    public List<QueryItem> asQueryItems(QueryBy mode) {
+        return new QueryItemList(mode);
+    }
+
+    private int segmentOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+        }
+        int found = Arrays.binarySearch(segmentStarts, 0, segments.size(), index); // Only the first may be empty
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * First byte of a raw cell that is not whitespace. Only used for encodings where every byte
+     * up to a space is that ASCII character, which {@link CsvTokenizer} requires.
+     */
+    private static int trimStart(byte[] buffer, int start, int length) {
+        int end = start + length;
+        while (start < end && (buffer[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(byte[] buffer, int start, int end) {
+        while (end > start && (buffer[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int hash(byte[] value, int start, int length) {
+        int hash = 1;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + value[i];
+        }
+        // Spread similar values such as numbered names across the table
+        hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+        hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isBlank(CsvRow row) {
+        for (int column = 0; column < row.size(); column++) {
+            if (!row.isBlank(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private final class QueryItemList extends AbstractList<QueryItem> implements RandomAccess {
+        private final QueryBy mode;
+
+        QueryItemList(QueryBy mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public QueryItem get(int index) {
+            return QueryItemSource.this.get(index, mode);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Rows from one run of the file, with their own merchant dictionary
+     */
+    private static final class Segment {
+        private final ValuePool merchants = new ValuePool();
+        private final ValuePool ids = new ValuePool();
+        private int[] dictionary = new int[256]; // Open addressing over merchant entries, stored plus one
+        private int dictionarySize;
+        private final IntBlocks rowMerchants = new IntBlocks();
+        private int size;
+        private int lastMerchantEntry = -1; // Rows for one merchant usually arrive together
+
+        void add(CsvRow row, Charset charset) {
+            if (row instanceof CsvTokenizer tokenizer && !tokenizer.isEscaped(0) && !tokenizer.isEscaped(1)) {
+                byte[] buffer = tokenizer.buffer();
+                int start = trimStart(buffer, tokenizer.fieldStart(0), tokenizer.fieldLength(0));
+                int end = trimEnd(buffer, start, tokenizer.fieldStart(0) + tokenizer.fieldLength(0));
+                rowMerchants.add(merchantEntry(buffer, start, end - start));
+                start = trimStart(buffer, tokenizer.fieldStart(1), tokenizer.fieldLength(1));
+                end = trimEnd(buffer, start, tokenizer.fieldStart(1) + tokenizer.fieldLength(1));
+                ids.add(buffer, start, end - start);
+            } else {
+                byte[] merchant = trimmed(row.get(0)).getBytes(charset);
+                byte[] id = trimmed(row.get(1)).getBytes(charset);
+                rowMerchants.add(merchantEntry(merchant, 0, merchant.length));
+                ids.add(id, 0, id.length);
+            }
+            size++;
+        }
+
+        String getMerchant(int row, Charset charset) {
+            return merchants.getString(rowMerchants.get(row), charset);
+        }
+
+        private int merchantEntry(byte[] value, int start, int length) {
+            if (lastMerchantEntry >= 0 && merchants.matches(lastMerchantEntry, value, start, length)) {
+                return lastMerchantEntry;
+            }
+            if (dictionarySize == MAX_DICTIONARY_SIZE) {
+                // Too many merchants for a dictionary to pay off; looking them up would cost more than it saves
+                lastMerchantEntry = merchants.add(value, start, length);
+                return lastMerchantEntry;
+            }
+            int mask = dictionary.length - 1;
+            int slot = hash(value, start, length) & mask;
+            while (dictionary[slot] != 0) {
+                int entry = dictionary[slot] - 1;
+                if (merchants.matches(entry, value, start, length)) {
+                    lastMerchantEntry = entry;
+                    return entry;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            int entry = merchants.add(value, start, length);
+            dictionary[slot] = entry + 1;
+            if (++dictionarySize * 2 > dictionary.length && dictionarySize < MAX_DICTIONARY_SIZE) {
+                rehash();
+            }
+            lastMerchantEntry = entry;
+            return entry;
+        }
+
+        private void rehash() {
+            int[] old = dictionary;
+            dictionary = new int[old.length * 2];
+            int mask = dictionary.length - 1;
+            for (int stored : old) {
+                if (stored != 0) {
+                    int entry = stored - 1;
+                    int slot = merchants.hash(entry) & mask;
+                    while (dictionary[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    dictionary[slot] = stored;
+                }
+            }
+        }
+    }
+
+    /**
+     * Byte strings stored end to end in fixed-size blocks, so growing never copies what is
+     * already stored. A value longer than a block gets a block of its own.
+     */
+    private static final class ValuePool {
+        private static final int BLOCK_SHIFT = 18;
+        private static final int BLOCK_BYTES = 1 << BLOCK_SHIFT;
+
+        private final List<byte[]> blocks = new ArrayList<>();
+        private byte[] block;
+        private int blockLength;
+        private final IntBlocks starts = new IntBlocks(); // Block number and offset in it
+        private final IntBlocks lengths = new IntBlocks();
+        private int count;
+
+        int add(byte[] value, int start, int length) {
+            if (block == null || blockLength + length > block.length) {
+                block = new byte[Math.max(BLOCK_BYTES, length)];
+                blocks.add(block);
+                blockLength = 0;
+            }
+            System.arraycopy(value, start, block, blockLength, length);
+            starts.add(((blocks.size() - 1) << BLOCK_SHIFT) | blockLength);
+            lengths.add(length);
+            blockLength += length;
+            return count++;
+        }
+
+        boolean matches(int index, byte[] value, int start, int length) {
+            int packed = starts.get(index);
+            int from = packed & (BLOCK_BYTES - 1);
+            return lengths.get(index) == length
+                && Arrays.equals(blocks.get(packed >>> BLOCK_SHIFT), from, from + length, value, start, start + length);
+        }
+
+        int hash(int index) {
+            int packed = starts.get(index);
+            return QueryItemSource.hash(blocks.get(packed >>> BLOCK_SHIFT), packed & (BLOCK_BYTES - 1), lengths.get(index));
+        }
+
+        String getString(int index, Charset charset) {
+            int packed = starts.get(index);
+            return new String(blocks.get(packed >>> BLOCK_SHIFT), packed & (BLOCK_BYTES - 1), lengths.get(index), charset);
+        }
+    }
+
+    /**
+     * Growable int array kept in fixed-size blocks
+     */
+    private static final class IntBlocks {
+        private static final int BLOCK_SHIFT = 14;
+        private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+        private final List<int[]> blocks = new ArrayList<>();
+        private int[] block;
+        private int size;
+
+        void add(int value) {
+            if ((size & (BLOCK_SIZE - 1)) == 0) {
+                block = new int[BLOCK_SIZE];
+                blocks.add(block);
+            }
+            block[size & (BLOCK_SIZE - 1)] = value;
+            size++;
+        }
+
+        int get(int index) {
+            return blocks.get(index >>> BLOCK_SHIFT)[index & (BLOCK_SIZE - 1)];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.tractionrec.recrec.csv;
+
+import java.util.Arrays;
+
+/**
+ * Sparse index from data row numbers to the byte offsets where their records start, with one
+ * checkpoint every {@link #INTERVAL} records of each scanned chunk. Any row is reached by
+ * looking up the nearest checkpoint at or before it and tokenizing forward from there, so
+ * reading a page costs at most {@link #INTERVAL} skipped records whatever the file size.
+ */
+public class RecordOffsetIndex {
+
+    static final int INTERVAL = 1000;
+
+    private final int[] rows;
+    private final long[] offsets;
+    private final int totalRows;
+
+    private RecordOffsetIndex(int[] rows, long[] offsets, int totalRows) {
+        this.rows = rows;
+        this.offsets = offsets;
+        this.totalRows = totalRows;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public int getCheckpointCount() {
+        return rows.length;
+    }
+
+    /**
+     * Position of the last checkpoint at or before a row
+     */
+    int checkpointFor(int row) {
+        int index = Arrays.binarySearch(rows, row);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    int checkpointRow(int checkpoint) {
+        return rows[checkpoint];
+    }
+
+    long checkpointOffset(int checkpoint) {
+        return offsets[checkpoint];
+    }
+
+    /**
+     * Collects checkpoints while rows are scanned, numbered from the start of a chunk
+     */
+    static final class Builder {
+        private int[] rows = new int[16];
+        private long[] offsets = new long[16];
+        private int size;
+
+        /**
+         * Whether the given row of the chunk should be recorded
+         */
+        static boolean isCheckpoint(int row) {
+            return row % INTERVAL == 0;
+        }
+
+        void add(int row, long offset) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            rows[size] = row;
+            offsets[size] = offset;
+            size++;
+        }
+
+        /**
+         * Append the checkpoints of the chunk immediately following this one
+         */
+        void append(Builder following, int rowOffset) {
+            for (int i = 0; i < following.size; i++) {
+                add(following.rows[i] + rowOffset, following.offsets[i]);
+            }
+        }
+
+        RecordOffsetIndex build(int totalRows) {
+            return new RecordOffsetIndex(Arrays.copyOf(rows, size), Arrays.copyOf(offsets, size), totalRows);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.tractionrec.recrec.csv;
+
+/**
+ * Callback for following a validation pass. Invoked from validating threads, possibly
+ * several concurrently, so UI implementations must hand off to the event dispatch thread.
+ */
+@FunctionalInterface
+public interface ValidationProgressListener {
+
+    ValidationProgressListener NONE = (bytesProcessed, totalBytes, rowsProcessed, errorsFound, warningsFound) -> { };
+
+    /**
+     * @param bytesProcessed Bytes of the file parsed so far
+     * @param totalBytes Size of the file
+     * @param rowsProcessed Data rows validated so far
+     * @param errorsFound Errors found so far; column-level findings are only added at the end
+     * @param warningsFound Warnings found so far
+     */
+    void onProgress(long bytesProcessed, long totalBytes, int rowsProcessed, int errorsFound, int warningsFound);
+
+    /**
+     * Called once the first rows of the file are parsed, before the rest of the file is
+     * validated. The preview has no cell issues or statistics yet.
+     */
+    default void onFirstPage(CsvPreviewData firstPage) { }
+
+    /**
+     * Polled while validating; once true the pass stops with a
+     * {@link java.util.concurrent.CancellationException}
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
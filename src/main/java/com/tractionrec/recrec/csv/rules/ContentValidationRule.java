@@ -1,10 +1,10 @@
 package com.tractionrec.recrec.csv.rules;
 
-import com.tractionrec.recrec.csv.ValidationIssue;
-import com.tractionrec.recrec.domain.CellLocation;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.tractionrec.recrec.csv.CellClassifier;
+import com.tractionrec.recrec.csv.CsvRow;
+import com.tractionrec.recrec.csv.IssueKind;
+import com.tractionrec.recrec.csv.IssueStore;
+import com.tractionrec.recrec.domain.IssueSeverity;
 
 /**
  * Validation rule for basic content validation (completeness, whitespace issues)
@@ -16,41 +16,8 @@ public class ContentValidationRule implements ValidationRule {
     private static final int EXPECTED_COLUMNS = 2;
     
     @Override
-    public List<ValidationIssue> validate(String[][] data, String[] headers) {
-        List<ValidationIssue> issues = new ArrayList<>();
-        
-        for (int row = 0; row < data.length; row++) {
-            // Check if row has expected number of columns
-            if (data[row].length < EXPECTED_COLUMNS) {
-                issues.add(new ValidationIssue(
-                    com.tractionrec.recrec.domain.IssueSeverity.ERROR,
-                    com.tractionrec.recrec.domain.IssueType.CSV_FORMAT,
-                    String.format("Row has only %d columns, expected %d", data[row].length, EXPECTED_COLUMNS),
-                    new CellLocation(row, 0),
-                    "Ensure each row has both Merchant and ID columns",
-                    false
-                ));
-                continue;
-            }
-            
-            // Validate Merchant field
-            String merchantValue = data[row][MERCHANT_COLUMN];
-            if (merchantValue == null || merchantValue.isEmpty()) {
-                issues.add(ValidationIssue.emptyField(new CellLocation(row, MERCHANT_COLUMN), "Merchant"));
-            } else if (merchantValue.trim().isEmpty()) {
-                issues.add(ValidationIssue.whitespaceOnly(new CellLocation(row, MERCHANT_COLUMN), "Merchant"));
-            }
-            
-            // Validate ID field
-            String idValue = data[row][ID_COLUMN];
-            if (idValue == null || idValue.isEmpty()) {
-                issues.add(ValidationIssue.emptyField(new CellLocation(row, ID_COLUMN), "ID"));
-            } else if (idValue.trim().isEmpty()) {
-                issues.add(ValidationIssue.whitespaceOnly(new CellLocation(row, ID_COLUMN), "ID"));
-            }
-        }
-        
-        return issues;
+    public RowValidator newRowValidator(String[] headers) {
+        return new ContentValidator();
     }
     
     @Override
@@ -79,6 +46,16 @@ public class ContentValidationRule implements ValidationRule {
         return fixedData;
     }
     
+    @Override
+    public String[] autoFixRow(String[] row, String[] headers) {
+        for (int col = 0; col < row.length; col++) {
+            if (row[col] != null) {
+                row[col] = row[col].trim();
+            }
+        }
+        return row;
+    }
+    
     @Override
     public String getRuleName() {
         return "Content Validation";
@@ -88,4 +65,51 @@ public class ContentValidationRule implements ValidationRule {
     public String getDescription() {
         return "Validates field completeness and fixes whitespace issues";
     }
+    
+    /**
+     * Checks each row independently, so the only running state is the issues found
+     */
+    private static class ContentValidator implements RowValidator {
+        private final IssueStore issues = new IssueStore();
+        
+        @Override
+        public void validateRow(int row, CsvRow values) {
+            // Check if row has expected number of columns
+            if (values.size() < EXPECTED_COLUMNS) {
+                issues.add(IssueKind.MISSING_COLUMNS, row, 0, Integer.toString(values.size()));
+                return;
+            }
+            
+            // Validate Merchant field
+            int merchantFlags = values.flags(MERCHANT_COLUMN);
+            if ((merchantFlags & CellClassifier.EMPTY) != 0) {
+                issues.add(IssueKind.EMPTY_MERCHANT, row, MERCHANT_COLUMN);
+            } else if ((merchantFlags & CellClassifier.WHITESPACE_ONLY) != 0) {
+                issues.add(IssueKind.WHITESPACE_ONLY_MERCHANT, row, MERCHANT_COLUMN);
+            }
+            
+            // Validate ID field
+            int idFlags = values.flags(ID_COLUMN);
+            if ((idFlags & CellClassifier.EMPTY) != 0) {
+                issues.add(IssueKind.EMPTY_ID, row, ID_COLUMN);
+            } else if ((idFlags & CellClassifier.WHITESPACE_ONLY) != 0) {
+                issues.add(IssueKind.WHITESPACE_ONLY_ID, row, ID_COLUMN);
+            }
+        }
+        
+        @Override
+        public int issueCount(IssueSeverity severity) {
+            return issues.count(severity);
+        }
+
+        @Override
+        public void merge(RowValidator following, int rowOffset) {
+            issues.append(((ContentValidator) following).issues, rowOffset);
+        }
+        
+        @Override
+        public IssueStore finish() {
+            return issues;
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package com.tractionrec.recrec.csv.rules;
 
-import com.tractionrec.recrec.csv.ValidationIssue;
+import com.tractionrec.recrec.csv.CellClassifier;
+import com.tractionrec.recrec.csv.CsvRow;
+import com.tractionrec.recrec.csv.IssueKind;
+import com.tractionrec.recrec.csv.IssueStore;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Validation rule to detect columns with excessive empty values
@@ -13,39 +15,8 @@ public class EmptyColumnRule implements ValidationRule {
     private static final double EMPTY_THRESHOLD = 0.9; // 90% empty to trigger warning
     
     @Override
-    public List<ValidationIssue> validate(String[][] data, String[] headers) {
-        List<ValidationIssue> issues = new ArrayList<>();
-        
-        if (data.length == 0) {
-            return issues;
-        }
-        
-        int columnCount = data[0].length;
-        
-        for (int col = 0; col < columnCount; col++) {
-            int emptyCount = 0;
-            int totalCount = 0;
-            
-            for (String[] row : data) {
-                if (col < row.length) {
-                    totalCount++;
-                    String value = row[col];
-                    if (value == null || value.trim().isEmpty()) {
-                        emptyCount++;
-                    }
-                }
-            }
-            
-            if (totalCount > 0) {
-                double emptyPercentage = (double) emptyCount / totalCount;
-                
-                if (emptyPercentage >= EMPTY_THRESHOLD) {
-                    issues.add(ValidationIssue.emptyColumn(col, emptyPercentage * 100));
-                }
-            }
-        }
-        
-        return issues;
+    public RowValidator newRowValidator(String[] headers) {
+        return new EmptyColumnValidator();
     }
     
     @Override
@@ -62,4 +33,66 @@ public class EmptyColumnRule implements ValidationRule {
     public String getDescription() {
         return "Detects columns that are mostly empty (90% or more)";
     }
+    
+    /**
+     * Keeps an empty and a total count per column. Only the first row's columns are reported,
+     * but every column is counted so that chunks of a file can be merged exactly.
+     */
+    private static class EmptyColumnValidator implements RowValidator {
+        private int reportedColumns = -1; // Column count of the first row, once seen
+        private int[] emptyCounts = new int[0];
+        private int[] totalCounts = new int[0];
+        
+        @Override
+        public void validateRow(int row, CsvRow values) {
+            if (reportedColumns < 0) {
+                reportedColumns = values.size();
+            }
+            ensureColumns(values.size());
+            
+            for (int col = 0; col < values.size(); col++) {
+                totalCounts[col]++;
+                if (CellClassifier.isBlank(values.flags(col))) {
+                    emptyCounts[col]++;
+                }
+            }
+        }
+        
+        @Override
+        public void merge(RowValidator following, int rowOffset) {
+            EmptyColumnValidator other = (EmptyColumnValidator) following;
+            if (reportedColumns < 0) {
+                reportedColumns = other.reportedColumns;
+            }
+            ensureColumns(other.totalCounts.length);
+            for (int col = 0; col < other.totalCounts.length; col++) {
+                totalCounts[col] += other.totalCounts[col];
+                emptyCounts[col] += other.emptyCounts[col];
+            }
+        }
+        
+        @Override
+        public IssueStore finish() {
+            IssueStore issues = new IssueStore();
+            
+            for (int col = 0; col < reportedColumns; col++) {
+                if (totalCounts[col] > 0) {
+                    double emptyPercentage = (double) emptyCounts[col] / totalCounts[col];
+                    
+                    if (emptyPercentage >= EMPTY_THRESHOLD) {
+                        issues.add(IssueKind.EMPTY_COLUMN, 0, col, Double.toString(emptyPercentage * 100));
+                    }
+                }
+            }
+            
+            return issues;
+        }
+        
+        private void ensureColumns(int columns) {
+            if (columns > totalCounts.length) {
+                totalCounts = Arrays.copyOf(totalCounts, columns);
+                emptyCounts = Arrays.copyOf(emptyCounts, columns);
+            }
+        }
+    }
 }
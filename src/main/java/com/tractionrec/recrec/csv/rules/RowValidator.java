@@ -0,0 +1,41 @@
+package com.tractionrec.recrec.csv.rules;
+
+import com.tractionrec.recrec.csv.CsvRow;
+import com.tractionrec.recrec.csv.IssueStore;
+import com.tractionrec.recrec.domain.IssueSeverity;
+
+/**
+ * Running state of one validation rule over one pass of a CSV file. Rows are fed in file
+ * order and only the issues found and any per-column counters are retained, so memory
+ * does not grow with the size of the file.
+ */
+public interface RowValidator {
+
+    /**
+     * Inspect the next data row
+     * @param row Zero-based data row index (excluding header)
+     * @param values Cells of the row, only valid until this method returns
+     */
+    void validateRow(int row, CsvRow values);
+
+    /**
+     * Issues of a severity found so far, for progress reporting while the pass runs
+     */
+    default int issueCount(IssueSeverity severity) {
+        return 0; // Rules that only report once the whole file is seen
+    }
+
+    /**
+     * Append the state of a validator that ran over the rows immediately following this one's,
+     * so a file validated in chunks gives the same findings as one sequential pass
+     * @param following Validator of the same rule for the next chunk, with its rows numbered from zero
+     * @param rowOffset Rows seen before the following chunk, added to its row indices
+     */
+    void merge(RowValidator following, int rowOffset);
+
+    /**
+     * Finish the pass, adding any findings that need the whole file such as column-level issues
+     * @return All issues found, in the order the rule reports them
+     */
+    IssueStore finish();
+}
@@ -1,12 +1,13 @@
 package com.tractionrec.recrec.csv.rules;
 
-import com.tractionrec.recrec.csv.ValidationIssue;
-import com.tractionrec.recrec.domain.CellLocation;
+import com.tractionrec.recrec.csv.CellClassifier;
+import com.tractionrec.recrec.csv.CsvRow;
+import com.tractionrec.recrec.csv.IssueKind;
+import com.tractionrec.recrec.csv.IssueStore;
+import com.tractionrec.recrec.domain.IssueSeverity;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * Validation rule to detect and fix scientific notation in Merchant and ID fields
@@ -14,45 +15,13 @@ import java.util.regex.Pattern;
  */
 public class ScientificNotationRule implements ValidationRule {
 
-    // Pattern to detect scientific notation (e.g., 1.23E+15, 4.56e-10, 7E5)
-    private static final Pattern SCIENTIFIC_NOTATION_PATTERN =
-        Pattern.compile("^[+-]?\\d+\\.?\\d*[eE][+-]?\\d+$");
-
     // Column indices to check (0 = Merchant, 1 = ID)
     private static final int MERCHANT_COLUMN = 0;
     private static final int ID_COLUMN = 1;
 
     @Override
-    public List<ValidationIssue> validate(String[][] data, String[] headers) {
-        List<ValidationIssue> issues = new ArrayList<>();
-
-        for (int row = 0; row < data.length; row++) {
-            // Check merchant column first (most commonly affected by Excel exports)
-            if (data[row].length > MERCHANT_COLUMN) {
-                String merchantValue = data[row][MERCHANT_COLUMN];
-                if (merchantValue != null && isScientificNotation(merchantValue.trim())) {
-                    issues.add(createScientificNotationError(
-                        new CellLocation(row, MERCHANT_COLUMN),
-                        merchantValue.trim(),
-                        "Merchant"
-                    ));
-                }
-            }
-
-            // Also check ID column (less common but possible)
-            if (data[row].length > ID_COLUMN) {
-                String idValue = data[row][ID_COLUMN];
-                if (idValue != null && isScientificNotation(idValue.trim())) {
-                    issues.add(createScientificNotationError(
-                        new CellLocation(row, ID_COLUMN),
-                        idValue.trim(),
-                        "ID"
-                    ));
-                }
-            }
-        }
-
-        return issues;
+    public ScientificNotationValidator newRowValidator(String[] headers) {
+        return new ScientificNotationValidator();
     }
 
     @Override
@@ -72,6 +41,11 @@ public class ScientificNotationRule implements ValidationRule {
         return fixedData;
     }
 
+    @Override
+    public String[] autoFixRow(String[] row, String[] headers) {
+        return row; // No auto-fix for scientific notation due to precision loss risk
+    }
+
     @Override
     public String getRuleName() {
         return "Scientific Notation Detection";
@@ -83,13 +57,10 @@ public class ScientificNotationRule implements ValidationRule {
     }
 
     /**
-     * Check if a string represents scientific notation
+     * Check if a cell holds a number in scientific notation (e.g., 1.23E+15, 4.56e-10, 7E5)
      */
-    private boolean isScientificNotation(String value) {
-        if (value == null || value.isEmpty()) {
-            return false;
-        }
-        return SCIENTIFIC_NOTATION_PATTERN.matcher(value).matches();
+    private static boolean isScientificNotation(CsvRow values, int column) {
+        return (values.flags(column) & CellClassifier.SCIENTIFIC_NOTATION) != 0;
     }
 
     /**
@@ -106,98 +77,112 @@ public class ScientificNotationRule implements ValidationRule {
     }
 
     /**
-     * Create a scientific notation error with helpful guidance
+     * Analyze scientific notation patterns to detect common scenarios
      */
-    private ValidationIssue createScientificNotationError(CellLocation location, String scientificValue, String fieldName) {
-        String guidance = generateUserGuidance(fieldName);
-
-        return new ValidationIssue(
-            com.tractionrec.recrec.domain.IssueSeverity.ERROR,
-            com.tractionrec.recrec.domain.IssueType.SCIENTIFIC_NOTATION,
-            String.format("%s field contains scientific notation: '%s'", fieldName, scientificValue),
-            location,
-            guidance,
-            false, // Never auto-fixable
-            scientificValue,
-            null
-        );
+    public ScientificNotationAnalysis analyzePatterns(String[][] data, String[] headers) {
+        ScientificNotationValidator validator = newRowValidator(headers);
+        for (int row = 0; row < data.length; row++) {
+            validator.validateRow(row, CsvRow.of(data[row]));
+        }
+        return validator.getAnalysis();
     }
 
     /**
-     * Generate user guidance for fixing scientific notation
+     * Streaming pass whose issues also carry the values behind the pattern analysis
      */
-    private String generateUserGuidance(String fieldName) {
-        return String.format(
-            "Manual correction required. %s field in scientific notation may have lost precision. " +
-            "To prevent this: 1) Format Excel column as 'Text' before pasting data, " +
-            "2) Use apostrophe prefix ('123456) to force text format, or " +
-            "3) Save as CSV (Comma delimited) with columns pre-formatted as Text.",
-            fieldName
-        );
-    }
+    public class ScientificNotationValidator implements RowValidator {
+        private final IssueStore issues = new IssueStore();
 
-    /**
-     * Analyze scientific notation patterns to detect common scenarios
-     */
-    public ScientificNotationAnalysis analyzePatterns(String[][] data, String[] headers) {
-        List<String> merchantScientificValues = new ArrayList<>();
-        List<String> idScientificValues = new ArrayList<>();
-
-        for (String[] row : data) {
-            if (row.length > MERCHANT_COLUMN && row[MERCHANT_COLUMN] != null) {
-                String merchantValue = row[MERCHANT_COLUMN].trim();
-                if (isScientificNotation(merchantValue)) {
-                    merchantScientificValues.add(merchantValue);
-                }
+        @Override
+        public void validateRow(int row, CsvRow values) {
+            // Check merchant column first (most commonly affected by Excel exports)
+            // The cell text is only read once it is known to be in scientific notation
+            if (values.size() > MERCHANT_COLUMN && isScientificNotation(values, MERCHANT_COLUMN)) {
+                issues.add(IssueKind.SCIENTIFIC_NOTATION_MERCHANT, row, MERCHANT_COLUMN,
+                    values.get(MERCHANT_COLUMN).trim());
             }
 
-            if (row.length > ID_COLUMN && row[ID_COLUMN] != null) {
-                String idValue = row[ID_COLUMN].trim();
-                if (isScientificNotation(idValue)) {
-                    idScientificValues.add(idValue);
-                }
+            // Also check ID column (less common but possible)
+            if (values.size() > ID_COLUMN && isScientificNotation(values, ID_COLUMN)) {
+                issues.add(IssueKind.SCIENTIFIC_NOTATION_ID, row, ID_COLUMN,
+                    values.get(ID_COLUMN).trim());
             }
         }
 
-        return new ScientificNotationAnalysis(merchantScientificValues, idScientificValues);
+        @Override
+        public int issueCount(IssueSeverity severity) {
+            return issues.count(severity);
+        }
+
+        @Override
+        public void merge(RowValidator following, int rowOffset) {
+            issues.append(((ScientificNotationValidator) following).issues, rowOffset);
+        }
+
+        @Override
+        public IssueStore finish() {
+            return issues;
+        }
+
+        /**
+         * Pattern analysis over the rows seen so far
+         */
+        public ScientificNotationAnalysis getAnalysis() {
+            return new ScientificNotationAnalysis(
+                issues.count(IssueKind.SCIENTIFIC_NOTATION_MERCHANT),
+                issues.getCommonValue(IssueKind.SCIENTIFIC_NOTATION_MERCHANT),
+                issues.count(IssueKind.SCIENTIFIC_NOTATION_ID),
+                issues.getCommonValue(IssueKind.SCIENTIFIC_NOTATION_ID)
+            );
+        }
     }
 
     /**
      * Analysis result for scientific notation patterns
      */
     public static class ScientificNotationAnalysis {
-        private final List<String> merchantValues;
-        private final List<String> idValues;
+        private final int merchantCount;
+        private final String merchantValue; // Shared by every merchant value, or null
+        private final int idCount;
+        private final String idValue;       // Shared by every ID value, or null
 
         public ScientificNotationAnalysis(List<String> merchantValues, List<String> idValues) {
-            this.merchantValues = merchantValues;
-            this.idValues = idValues;
+            this(merchantValues.size(), commonValue(merchantValues), idValues.size(), commonValue(idValues));
+        }
+
+        public ScientificNotationAnalysis(int merchantCount, String merchantValue, int idCount, String idValue) {
+            this.merchantCount = merchantCount;
+            this.merchantValue = merchantValue;
+            this.idCount = idCount;
+            this.idValue = idValue;
         }
 
         public boolean hasAllSameMerchantValues() {
-            return merchantValues.size() > 1 &&
-                   merchantValues.stream().distinct().count() == 1;
+            return merchantCount > 1 && merchantValue != null;
         }
 
         public boolean hasAllSameIdValues() {
-            return idValues.size() > 1 &&
-                   idValues.stream().distinct().count() == 1;
+            return idCount > 1 && idValue != null;
         }
 
         public String getCommonMerchantValue() {
-            return hasAllSameMerchantValues() ? merchantValues.get(0) : null;
+            return hasAllSameMerchantValues() ? merchantValue : null;
         }
 
         public String getCommonIdValue() {
-            return hasAllSameIdValues() ? idValues.get(0) : null;
+            return hasAllSameIdValues() ? idValue : null;
         }
 
         public int getMerchantScientificCount() {
-            return merchantValues.size();
+            return merchantCount;
         }
 
         public int getIdScientificCount() {
-            return idValues.size();
+            return idCount;
+        }
+
+        private static String commonValue(List<String> values) {
+            return !values.isEmpty() && values.stream().distinct().count() == 1 ? values.get(0) : null;
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.tractionrec.recrec.csv.rules;
 
+import com.tractionrec.recrec.csv.CsvRow;
 import com.tractionrec.recrec.csv.ValidationIssue;
 
 import java.util.List;
@@ -9,13 +10,26 @@ import java.util.List;
  */
 public interface ValidationRule {
     
+    /**
+     * Start a streaming validation pass over the rows of a file
+     * @param headers The column headers (may be null)
+     * @return Validator holding the running state of this pass
+     */
+    RowValidator newRowValidator(String[] headers);
+    
     /**
      * Validate the CSV data and return any issues found
      * @param data The CSV data as a 2D array
      * @param headers The column headers (may be null)
      * @return List of validation issues found
      */
-    List<ValidationIssue> validate(String[][] data, String[] headers);
+    default List<ValidationIssue> validate(String[][] data, String[] headers) {
+        RowValidator validator = newRowValidator(headers);
+        for (int row = 0; row < data.length; row++) {
+            validator.validateRow(row, CsvRow.of(data[row]));
+        }
+        return validator.finish().asList();
+    }
     
     /**
      * Check if this rule can automatically fix issues it detects
@@ -36,6 +50,16 @@ public interface ValidationRule {
         return data; // Default implementation returns unchanged data
     }
     
+    /**
+     * Automatically fix issues in one row, for fixes applied while a file is streamed
+     * @param row The row to fix, which the rule may modify
+     * @param headers The column headers
+     * @return The fixed row
+     */
+    default String[] autoFixRow(String[] row, String[] headers) {
+        return autoFix(new String[][]{row}, headers)[0];
+    }
+    
     /**
      * Get the name of this validation rule
      */
@@ -0,0 +1,274 @@
+package com.tractionrec.recrec.diagnostics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.IllegalFormatException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous log behind {@link Log}. Messages go into a bounded lock-free ring buffer; a single
+ * daemon thread formats them and writes them to a rolling file, echoing warnings and errors to
+ * standard error. When the buffer is full, messages are dropped and counted rather than making
+ * the caller wait, and the counts of dropped and rate-limited messages are logged once a second.
+ * <p>
+ * The application's log is recrec.log in ~/.recrec/logs, or the directory in the recrec.log.dir
+ * system property, at the level in recrec.log.level (INFO by default).
+ */
+public final class AsyncLog implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_MESSAGES_PER_SECOND = 50;
+    static final String FILE_NAME = "recrec";
+    static final long MAX_FILE_BYTES = 5L * 1024 * 1024;
+    static final int KEPT_FILES = 5;
+
+    private static final long IDLE_PARK_NANOS = 20_000_000L;
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    record Entry(long time, Log.Level level, String category, String thread,
+                 String format, Object[] args, Throwable error) {
+    }
+
+    private static AsyncLog shared;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // Next slot to claim
+    private volatile long head; // Next slot to drain, only written by the drain thread
+    private final LongAdder dropped = new LongAdder();
+    private final ConcurrentHashMap<String, Log> categories = new ConcurrentHashMap<>();
+    private final int messagesPerSecond;
+    private final boolean echoToConsole;
+    private final Thread drainer;
+    private RollingFile file; // Null once the file cannot be written
+    private volatile Log.Level level;
+    private volatile boolean running = true;
+
+    /**
+     * @param directory Where to keep the log files, or null to log only to the console
+     * @param capacity Messages the buffer holds before dropping, rounded up to a power of two
+     * @param messagesPerSecond Most messages each category logs in a second
+     * @param echoToConsole Whether to also print warnings and errors to standard error
+     */
+    public AsyncLog(Path directory, Log.Level level, int capacity, int messagesPerSecond, boolean echoToConsole) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.level = level;
+        this.messagesPerSecond = messagesPerSecond;
+        this.echoToConsole = echoToConsole;
+        if (directory != null) {
+            try {
+                this.file = new RollingFile(directory, FILE_NAME, MAX_FILE_BYTES, KEPT_FILES);
+            } catch (IOException e) {
+                System.err.println("Warning: Could not open log file in " + directory + ": " + e.getMessage());
+            }
+        }
+        this.drainer = new Thread(this::drainLoop, "recrec-log");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * The application's log, started on first use and flushed when the JVM exits
+     */
+    public static synchronized AsyncLog shared() {
+        if (shared == null) {
+            shared = new AsyncLog(defaultDirectory(), parseLevel(System.getProperty("recrec.log.level")),
+                    DEFAULT_CAPACITY, DEFAULT_MESSAGES_PER_SECOND, true);
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "recrec-log-shutdown"));
+        }
+        return shared;
+    }
+
+    public static Path defaultDirectory() {
+        String directory = System.getProperty("recrec.log.dir");
+        return directory != null ? Path.of(directory) : Path.of(System.getProperty("user.home"), ".recrec", "logs");
+    }
+
+    /**
+     * The logger for a category, the same one each time
+     */
+    public Log category(String name) {
+        return categories.computeIfAbsent(name, n -> new Log(this, n));
+    }
+
+    public Log.Level getLevel() {
+        return level;
+    }
+
+    public void setLevel(Log.Level level) {
+        this.level = level;
+    }
+
+    public boolean isEnabled(Log.Level level) {
+        return level != Log.Level.OFF && level.compareTo(this.level) >= 0;
+    }
+
+    public int getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+    /**
+     * Write everything queued so far and stop the drain thread. Messages logged afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void enqueue(Entry entry) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.set((int) (claimed & mask), entry);
+    }
+
+    private void drainLoop() {
+        long lastReport = System.nanoTime();
+        while (true) {
+            boolean stopping = !running;
+            int drained = drain();
+            if (stopping || System.nanoTime() - lastReport >= REPORT_INTERVAL_NANOS) {
+                reportLosses();
+                lastReport = System.nanoTime();
+            }
+            if (stopping && head == tail.get()) {
+                break;
+            }
+            if (drained == 0) {
+                flushFile();
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                System.err.println("Warning: Could not close log file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write every published message in order, stopping at a slot claimed but not yet filled
+     */
+    private int drain() {
+        int count = 0;
+        long next = head;
+        while (true) {
+            int slot = (int) (next & mask);
+            Entry entry = slots.get(slot);
+            if (entry == null) {
+                break;
+            }
+            slots.set(slot, null);
+            head = ++next;
+            write(entry);
+            count++;
+        }
+        return count;
+    }
+
+    private void reportLosses() {
+        for (Log log : categories.values()) {
+            int suppressed = log.takeSuppressed();
+            if (suppressed > 0) {
+                write(new Entry(System.currentTimeMillis(), Log.Level.WARN, log.getCategory(), drainer.getName(),
+                        "%d messages suppressed, over %d a second", new Object[]{suppressed, messagesPerSecond}, null));
+            }
+        }
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            write(new Entry(System.currentTimeMillis(), Log.Level.WARN, "AsyncLog", drainer.getName(),
+                    "%d messages dropped, log buffer full", new Object[]{lost}, null));
+        }
+    }
+
+    private void write(Entry entry) {
+        String line = format(entry);
+        if (file != null) {
+            try {
+                file.write(line);
+            } catch (IOException e) {
+                System.err.println("Warning: Could not write log file, logging to the console only: " + e.getMessage());
+                file = null;
+            }
+        }
+        if (echoToConsole && entry.level().compareTo(Log.Level.WARN) >= 0) {
+            System.err.println(line);
+        }
+    }
+
+    private void flushFile() {
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                System.err.println("Warning: Could not write log file, logging to the console only: " + e.getMessage());
+                file = null;
+            }
+        }
+    }
+
+    static String format(Entry entry) {
+        StringBuilder line = new StringBuilder(128)
+                .append(TIMESTAMP.format(Instant.ofEpochMilli(entry.time())))
+                .append(' ').append(String.format("%-5s", entry.level()))
+                .append(" [").append(entry.category()).append("] (").append(entry.thread()).append(") ")
+                .append(message(entry));
+        if (entry.error() != null) {
+            StringWriter trace = new StringWriter();
+            entry.error().printStackTrace(new PrintWriter(trace));
+            line.append(System.lineSeparator()).append(trace.toString().stripTrailing());
+        }
+        return line.toString();
+    }
+
+    private static String message(Entry entry) {
+        if (entry.args() == null || entry.args().length == 0) {
+            return entry.format();
+        }
+        try {
+            return String.format(entry.format(), entry.args());
+        } catch (IllegalFormatException e) {
+            return entry.format() + " " + Arrays.toString(entry.args());
+        }
+    }
+
+    static Log.Level parseLevel(String value) {
+        if (value == null) {
+            return Log.Level.INFO;
+        }
+        try {
+            return Log.Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: Unknown log level " + value + ", using INFO");
+            return Log.Level.INFO;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.tractionrec.recrec.diagnostics;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tractionrec.recrec.domain.QueryItem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the raw request and response of the last failed or slow queries on disk, so a bad
+ * response can be looked at without running the whole file again. The query path only hands
+ * over references; a single background thread redacts credentials and cardholder details,
+ * gzips each capture to its own file and deletes the oldest beyond the number kept. When the
+ * thread falls behind, new captures are dropped rather than making queries wait.
+ * <p>
+ * The application's captures are in ~/.recrec/captures, or the directory in the
+ * recrec.capture.dir system property.
+ */
+public final class FailureCapture implements AutoCloseable {
+
+    public static final int DEFAULT_KEPT = 200;
+    public static final Duration SLOW_EXCHANGE = Duration.ofSeconds(10);
+    static final String REDACTED = "[REDACTED]";
+
+    private static final Log LOG = Log.get(FailureCapture.class);
+    private static final int QUEUE_CAPACITY = 64;
+    private static final String PREFIX = "capture-";
+    private static final String SUFFIX = ".json.gz";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Elements holding credentials or cardholder details, plain or escaped inside ReportingData
+    private static final Pattern SENSITIVE = Pattern.compile(
+            "(<|&lt;)((?:\\w+:)?(?:AccountID|AccountToken|BillingName|BillingAddress1|BillingAddress2|BillingCity"
+                    + "|BillingZipCode|BillingZipcode|BillingEmail|BillingPhone|ExpirationMonth|ExpirationYear"
+                    + "|CardNumber|Track1Data|Track2Data|CVV|RoutingNumber|AccountNumber))(>|&gt;)(.*?)(?=<|&lt;)",
+            Pattern.DOTALL);
+
+    /**
+     * A captured exchange
+     * @param reason Why it was kept, such as "HTTP 503" or "Slow: 12.4s"
+     * @param statusCode HTTP status, or 0 if no response arrived
+     * @param latencyMillis Time for the exchange including retries, or -1 if not measured
+     * @param response Response body, or null if no response arrived
+     */
+    public record Capture(long timeMillis, String reason, String endpoint, String mode, String merchant, String id,
+                          int statusCode, long latencyMillis, String request, String response) {
+
+        @JsonIgnore
+        public Instant getTime() {
+            return Instant.ofEpochMilli(timeMillis);
+        }
+    }
+
+    private static FailureCapture shared;
+
+    private final Path directory;
+    private final int kept;
+    private final ThreadPoolExecutor writer;
+    private final ArrayDeque<Path> files = new ArrayDeque<>(); // Oldest first, only used on the writer thread
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported; // Only used on the writer thread
+
+    /**
+     * @param kept Most captures kept on disk; older ones are deleted as new ones are written
+     */
+    public FailureCapture(Path directory, int kept) {
+        this.directory = directory;
+        this.kept = kept;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recrec-capture");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.incrementAndGet());
+        writer.execute(this::loadExisting);
+    }
+
+    /**
+     * The application's capture store, started on first use
+     */
+    public static synchronized FailureCapture shared() {
+        if (shared == null) {
+            shared = new FailureCapture(defaultDirectory(), DEFAULT_KEPT);
+        }
+        return shared;
+    }
+
+    public static Path defaultDirectory() {
+        String directory = System.getProperty("recrec.capture.dir");
+        return directory != null ? Path.of(directory) : Path.of(System.getProperty("user.home"), ".recrec", "captures");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Captures not kept because the writer was behind
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Keep an exchange. Returns at once; the capture is written in the background.
+     * @param response The response, or null if none arrived
+     * @param latencyMillis Time for the exchange, or -1 if not measured
+     */
+    public void capture(String reason, String endpoint, QueryItem item, HttpRequest request,
+                        HttpResponse<String> response, long latencyMillis) {
+        long time = System.currentTimeMillis();
+        long number = sequence.incrementAndGet();
+        writer.execute(() -> write(number, new Capture(time, reason, endpoint, item.mode().name(), item.merchant(), item.id(),
+                response != null ? response.statusCode() : 0, latencyMillis,
+                redact(bodyOf(request)), response != null ? redact(response.body()) : null)));
+    }
+
+    /**
+     * Capture files on disk, newest first
+     */
+    public List<Path> list() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            List<Path> captures = new ArrayList<>(paths.filter(FailureCapture::isCaptureFile).sorted().toList());
+            Collections.reverse(captures);
+            return captures;
+        }
+    }
+
+    public static Capture read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return MAPPER.readValue(in, Capture.class);
+        }
+    }
+
+    /**
+     * Write the captures already handed over, then stop
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blank out the contents of sensitive elements, leaving the element names so the shape of the payload is kept
+     */
+    static String redact(String xml) {
+        if (xml == null) {
+            return null;
+        }
+        Matcher matcher = SENSITIVE.matcher(xml);
+        return matcher.replaceAll(match -> Matcher.quoteReplacement(match.group(1) + match.group(2) + match.group(3) + REDACTED));
+    }
+
+    /**
+     * The body of a request, read back from its publisher
+     */
+    static String bodyOf(HttpRequest request) {
+        return request.bodyPublisher().map(publisher -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            publisher.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ByteBuffer buffer) {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    body.writeBytes(bytes);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    done.completeExceptionally(error);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(null);
+                }
+            });
+            try {
+                done.get(5, TimeUnit.SECONDS);
+                return body.toString(StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                return null;
+            }
+        }).orElse(null);
+    }
+
+    private void loadExisting() {
+        try {
+            List<Path> existing = list();
+            for (int i = existing.size() - 1; i >= 0; i--) {
+                files.add(existing.get(i));
+            }
+            prune();
+        } catch (IOException e) {
+            LOG.warn("Could not list captures in %s: %s", directory, e.getMessage());
+        }
+    }
+
+    private void write(long number, Capture capture) {
+        String timestamp = LocalDateTime.ofInstant(capture.getTime(), ZoneId.systemDefault()).format(FILE_TIMESTAMP);
+        Path file = directory.resolve(String.format("%s%s-%06d%s", PREFIX, timestamp, number, SUFFIX));
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                MAPPER.writeValue(out, capture);
+            }
+            files.add(file);
+            prune();
+        } catch (IOException e) {
+            LOG.warn("Could not write capture %s: %s", file, e.getMessage());
+        }
+        long lost = dropped.get() - droppedReported;
+        if (lost > 0) {
+            droppedReported += lost;
+            LOG.warn("%d captures dropped, the capture writer was behind", lost);
+        }
+    }
+
+    private void prune() throws IOException {
+        while (files.size() > kept) {
+            Files.deleteIfExists(files.poll());
+        }
+    }
+
+    private static boolean isCaptureFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+}
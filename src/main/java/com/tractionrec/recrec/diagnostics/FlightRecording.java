@@ -0,0 +1,69 @@
+package com.tractionrec.recrec.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Starts and stops an in-process Flight Recorder recording, so a run can be profiled without
+ * launching the application with an agent or command-line flags. The recording uses the JDK's
+ * "profile" settings plus every {@link QueryEvents} event.
+ */
+public final class FlightRecording {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Start recording, unless a recording is already running
+     */
+    public static synchronized void start() throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        Recording started = new Recording(Configuration.getConfiguration("profile"));
+        started.setName("RecRec");
+        started.enable(QueryEvents.Query.class);
+        started.enable(QueryEvents.Queued.class);
+        started.enable(QueryEvents.PermitWait.class);
+        started.enable(QueryEvents.HttpExchange.class);
+        started.enable(QueryEvents.Retry.class);
+        started.enable(QueryEvents.ResponseParse.class);
+        started.enable(QueryEvents.ResultBuild.class);
+        started.start();
+        recording = started;
+    }
+
+    /**
+     * Stop recording and write what was recorded to a file
+     * @param directory Where to write the recording
+     * @return The recording file, or null if nothing was recording
+     */
+    public static synchronized Path stop(Path directory) throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        try {
+            Path file = directory.resolve("recrec-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+            recording.stop();
+            recording.dump(file);
+            return file;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.tractionrec.recrec.diagnostics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logger for one category of messages, such as a service. Messages below the log's level cost a
+ * single check, and past the category's per-second limit they are only counted. The rest are
+ * queued for {@link AsyncLog} to format and write on its own thread, so logging from the query
+ * path never waits on the console or a file. Messages are {@link String#format} patterns.
+ */
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final AsyncLog sink;
+    private final String category;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    Log(AsyncLog sink, String category) {
+        this.sink = sink;
+        this.category = category;
+    }
+
+    /**
+     * Logger for a category in the application's log
+     */
+    public static Log get(String category) {
+        return AsyncLog.shared().category(category);
+    }
+
+    public static Log get(Class<?> type) {
+        return get(type.getSimpleName());
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public boolean isEnabled(Level level) {
+        return sink.isEnabled(level);
+    }
+
+    public boolean isDebugEnabled() {
+        return sink.isEnabled(Level.DEBUG);
+    }
+
+    public void debug(String format, Object... args) {
+        log(Level.DEBUG, null, format, args);
+    }
+
+    public void info(String format, Object... args) {
+        log(Level.INFO, null, format, args);
+    }
+
+    public void warn(String format, Object... args) {
+        log(Level.WARN, null, format, args);
+    }
+
+    public void warn(Throwable error, String format, Object... args) {
+        log(Level.WARN, error, format, args);
+    }
+
+    public void error(String format, Object... args) {
+        log(Level.ERROR, null, format, args);
+    }
+
+    /**
+     * Log an error with its stack trace
+     */
+    public void error(Throwable error, String format, Object... args) {
+        log(Level.ERROR, error, format, args);
+    }
+
+    private void log(Level level, Throwable error, String format, Object[] args) {
+        if (!sink.isEnabled(level) || !withinLimit()) {
+            return;
+        }
+        sink.enqueue(new AsyncLog.Entry(System.currentTimeMillis(), level, category, threadName(), format, args, error));
+    }
+
+    /**
+     * Count a message against this second's limit
+     * @return False if the message should be dropped
+     */
+    private boolean withinLimit() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        if (windowCount.incrementAndGet() > sink.getMessagesPerSecond()) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Messages dropped by the rate limit since the last call
+     */
+    int takeSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+
+    private static String threadName() {
+        Thread thread = Thread.currentThread();
+        String name = thread.getName();
+        return name.isEmpty() ? "virtual-" + thread.threadId() : name;
+    }
+}
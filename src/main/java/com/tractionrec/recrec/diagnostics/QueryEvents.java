@@ -0,0 +1,135 @@
+package com.tractionrec.recrec.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder events for each stage of a query, so a recording opened in JDK Mission Control
+ * shows where a slow run spends its time. A query runs on its own virtual thread, so a query's
+ * events share a thread and can be read together. While nothing is recording, an event costs a
+ * check of whether it is enabled.
+ */
+public final class QueryEvents {
+
+    private static final String CATEGORY = "RecRec";
+
+    private QueryEvents() {
+    }
+
+    @Name("com.tractionrec.recrec.Query")
+    @Label("Query")
+    @Category({CATEGORY, "Query"})
+    @Description("A query from the moment it starts running until its result is ready")
+    @StackTrace(false)
+    public static class Query extends Event {
+        @Label("Mode")
+        public String mode;
+        @Label("Status")
+        public String status;
+    }
+
+    @Name("com.tractionrec.recrec.Queued")
+    @Label("Queued")
+    @Category({CATEGORY, "Query"})
+    @Description("A query started running after waiting behind the queries submitted before it")
+    @StackTrace(false)
+    public static class Queued extends Event {
+        @Label("Mode")
+        public String mode;
+        @Label("Time Queued")
+        @Timespan(Timespan.NANOSECONDS)
+        public long queuedTime;
+    }
+
+    @Name("com.tractionrec.recrec.PermitWait")
+    @Label("Permit Wait")
+    @Category({CATEGORY, "Rate Limiter"})
+    @Description("Waiting for a permit from the adaptive rate limiter")
+    @StackTrace(false)
+    public static class PermitWait extends Event {
+        @Label("Concurrency")
+        public int concurrency;
+        @Label("Circuit Open")
+        public boolean circuitOpen;
+        @Label("Acquired")
+        public boolean acquired;
+    }
+
+    @Name("com.tractionrec.recrec.HttpExchange")
+    @Label("HTTP Exchange")
+    @Category({CATEGORY, "HTTP"})
+    @Description("One attempt at sending a SOAP request and receiving its response, connecting if need be")
+    @StackTrace(false)
+    public static class HttpExchange extends Event {
+        @Label("Endpoint")
+        public String endpoint;
+        @Label("Mode")
+        public String mode;
+        @Label("Attempt")
+        public int attempt;
+        @Label("Status Code")
+        @Description("HTTP status, or 0 when no response arrived")
+        public int statusCode;
+        @Label("Request Size")
+        @DataAmount
+        public long requestSize;
+        @Label("Response Length")
+        @Description("Characters in the response body")
+        public long responseLength;
+        @Label("Failure")
+        public String failure;
+    }
+
+    @Name("com.tractionrec.recrec.Retry")
+    @Label("Retry")
+    @Category({CATEGORY, "HTTP"})
+    @Description("A failed attempt is about to be retried after a backoff")
+    @StackTrace(false)
+    public static class Retry extends Event {
+        @Label("Attempt")
+        @Description("The attempt that failed, counting from 1")
+        public int attempt;
+        @Label("Reason")
+        public String reason;
+        @Label("Backoff")
+        @Timespan(Timespan.MILLISECONDS)
+        public long backoff;
+    }
+
+    @Name("com.tractionrec.recrec.ResponseParse")
+    @Label("Response Parse")
+    @Category({CATEGORY, "Query"})
+    @Description("Reading the response element out of a SOAP envelope")
+    @StackTrace(false)
+    public static class ResponseParse extends Event {
+        @Label("Endpoint")
+        public String endpoint;
+        @Label("Mode")
+        public String mode;
+        @Label("Response Length")
+        @Description("Characters in the response body")
+        public long responseLength;
+    }
+
+    @Name("com.tractionrec.recrec.ResultBuild")
+    @Label("Result Build")
+    @Category({CATEGORY, "Query"})
+    @Description("Turning a parsed response into a query result, including any embedded report data")
+    @StackTrace(false)
+    public static class ResultBuild extends Event {
+        @Label("Endpoint")
+        public String endpoint;
+        @Label("Mode")
+        public String mode;
+        @Label("Status")
+        public String status;
+        @Label("Records")
+        public int records;
+    }
+}
@@ -0,0 +1,135 @@
+package com.tractionrec.recrec.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a query run: per-endpoint latency histograms, HTTP status counts and bytes received,
+ * plus retries, circuit breaker openings and requests in flight. Recording never takes a lock, so
+ * the query threads can record every request; readers take a {@link Snapshot}.
+ * <p>
+ * The services, {@link com.tractionrec.recrec.service.RetryUtil} and the rate limiter record into
+ * {@link #current()}, which {@link #startRun()} replaces at the start of each run.
+ */
+public final class QueryMetrics {
+
+    private static volatile QueryMetrics current = new QueryMetrics();
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder circuitOpens = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public static QueryMetrics current() {
+        return current;
+    }
+
+    /**
+     * Start recording a new run, leaving the previous run's metrics to whoever holds them
+     */
+    public static QueryMetrics startRun() {
+        QueryMetrics metrics = new QueryMetrics();
+        current = metrics;
+        return metrics;
+    }
+
+    /**
+     * Note a request being sent; pair with {@link #requestFinished}
+     */
+    public void requestStarted() {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * Record a finished request
+     * @param statusCode HTTP status, or 0 when no response arrived
+     * @param bytesReceived Size of the response body
+     */
+    public void requestFinished(String endpoint, long latencyNanos, int statusCode, long bytesReceived) {
+        inFlight.decrementAndGet();
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            metrics = endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+        }
+        metrics.latency.recordNanos(latencyNanos);
+        metrics.statusCounts.incrementAndGet(statusCode >= 100 && statusCode < 600 ? statusCode : 0);
+        metrics.bytesReceived.add(bytesReceived);
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordCircuitOpen() {
+        circuitOpens.increment();
+    }
+
+    public Snapshot snapshot() {
+        List<EndpointSnapshot> endpointSnapshots = new ArrayList<>();
+        for (EndpointMetrics metrics : endpoints.values()) {
+            endpointSnapshots.add(metrics.snapshot());
+        }
+        endpointSnapshots.sort(Comparator.comparing(EndpointSnapshot::endpoint));
+        return new Snapshot(endpointSnapshots, retries.sum(), circuitOpens.sum(), inFlight.get(), peakInFlight.get());
+    }
+
+    /**
+     * Metrics of the whole run at one moment
+     */
+    public record Snapshot(List<EndpointSnapshot> endpoints, long retries, long circuitBreakerOpens,
+                           int inFlight, int peakInFlight) {
+
+        public long getRequests() {
+            return endpoints.stream().mapToLong(EndpointSnapshot::requests).sum();
+        }
+
+        public long getBytesReceived() {
+            return endpoints.stream().mapToLong(EndpointSnapshot::bytesReceived).sum();
+        }
+    }
+
+    /**
+     * Metrics of one endpoint at one moment; latencies are in milliseconds
+     * @param statusCounts Requests by HTTP status, with 0 for requests that got no response
+     */
+    public record EndpointSnapshot(String endpoint, long requests, double p50Millis, double p95Millis,
+                                   double p99Millis, double maxMillis, double meanMillis,
+                                   Map<Integer, Long> statusCounts, long bytesReceived) {
+    }
+
+    private static final class EndpointMetrics {
+        private final String endpoint;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLongArray statusCounts = new AtomicLongArray(600);
+        private final LongAdder bytesReceived = new LongAdder();
+
+        private EndpointMetrics(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private EndpointSnapshot snapshot() {
+            Map<Integer, Long> statuses = new LinkedHashMap<>();
+            for (int status = 0; status < statusCounts.length(); status++) {
+                long count = statusCounts.get(status);
+                if (count > 0) {
+                    statuses.put(status, count);
+                }
+            }
+            return new EndpointSnapshot(endpoint, latency.getCount(),
+                    latency.getPercentile(50) / 1000.0,
+                    latency.getPercentile(95) / 1000.0,
+                    latency.getPercentile(99) / 1000.0,
+                    latency.getMax() / 1000.0,
+                    latency.getMean() / 1000.0,
+                    statuses, bytesReceived.sum());
+        }
+    }
+}
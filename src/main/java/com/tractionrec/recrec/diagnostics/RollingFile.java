@@ -0,0 +1,86 @@
+package com.tractionrec.recrec.diagnostics;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Text file that rolls over at a size: name.log is moved to name.1.log, name.1.log to name.2.log
+ * and so on, keeping a set number of older files. Not thread safe; {@link AsyncLog} writes it
+ * from its one drain thread.
+ */
+final class RollingFile implements Closeable {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final Path directory;
+    private final String name;
+    private final long maxBytes;
+    private final int keptFiles;
+    private OutputStream out;
+    private long size;
+
+    RollingFile(Path directory, String name, long maxBytes, int keptFiles) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.keptFiles = keptFiles;
+        Files.createDirectories(directory);
+        open();
+    }
+
+    Path getPath() {
+        return directory.resolve(name + ".log");
+    }
+
+    void write(String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (size > 0 && size + bytes.length + LINE_SEPARATOR.length > maxBytes) {
+            roll();
+        }
+        out.write(bytes);
+        out.write(LINE_SEPARATOR);
+        size += bytes.length + LINE_SEPARATOR.length;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        Path path = getPath();
+        out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        size = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        Files.deleteIfExists(older(keptFiles));
+        for (int i = keptFiles - 1; i >= 1; i--) {
+            if (Files.exists(older(i))) {
+                Files.move(older(i), older(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (keptFiles > 0) {
+            Files.move(getPath(), older(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(getPath());
+        }
+        open();
+    }
+
+    private Path older(int generation) {
+        return directory.resolve(name + "." + generation + ".log");
+    }
+}
@@ -0,0 +1,91 @@
+package com.tractionrec.recrec.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON report of a finished query run: what was run, how the results came out, and the
+ * {@link QueryMetrics} recorded along the way
+ */
+public final class RunReport {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final Instant started;
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    /**
+     * @param resultCounts Number of results by status
+     */
+    public RunReport(String queryMode, Instant started, Instant finished, Map<String, Integer> resultCounts,
+                     QueryMetrics.Snapshot metrics) {
+        this.started = started;
+        report.put("queryMode", queryMode);
+        report.put("started", started.toString());
+        report.put("finished", finished.toString());
+        report.put("durationSeconds", Duration.between(started, finished).toMillis() / 1000.0);
+        report.put("results", resultCounts);
+        report.put("requests", metrics.getRequests());
+        report.put("bytesReceived", metrics.getBytesReceived());
+        report.put("retries", metrics.retries());
+        report.put("circuitBreakerOpens", metrics.circuitBreakerOpens());
+        report.put("peakInFlight", metrics.peakInFlight());
+        report.put("endpoints", metrics.endpoints());
+    }
+
+    /**
+     * Default place for run reports, in the user's home directory
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".recrec", "reports");
+    }
+
+    /**
+     * Write the report to a new file in a directory, creating the directory if need be. Runs
+     * started together get files of their own; an existing report is never overwritten, and a
+     * report that fails to write is deleted.
+     * @return The report file
+     */
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String timestamp = LocalDateTime.ofInstant(started, ZoneId.systemDefault()).format(FILE_TIMESTAMP);
+        while (true) {
+            Path file = directory.resolve(String.format("run-%s-%03d.json", timestamp, SEQUENCE.incrementAndGet()));
+            OutputStream out;
+            try {
+                out = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                continue; // Written by another instance of the application
+            }
+            try (out) {
+                new ObjectMapper()
+                        .enable(SerializationFeature.INDENT_OUTPUT)
+                        .writeValue(out, report);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    Files.deleteIfExists(file); // Don't leave a partial report behind
+                } catch (IOException deleteFailure) {
+                    e.addSuppressed(deleteFailure);
+                }
+                throw e;
+            }
+            return file;
+        }
+    }
+}
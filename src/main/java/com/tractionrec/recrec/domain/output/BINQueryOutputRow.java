@@ -5,7 +5,8 @@ import com.tractionrec.recrec.domain.express.EnhancedBIN;
 import com.tractionrec.recrec.domain.result.QueryResult;
 
 @JsonPropertyOrder({
-        "merchant", "id", "status", "message", "binStatus", "isCreditCard"
+        "merchant", "id", "status", "message", "binStatus", "isCreditCard",
+        "attempts", "latencyMs", "permitWaitMs", "responseBytes", "httpStatus"
 })
 public class BINQueryOutputRow extends OutputRow {
     public String binStatus;
@@ -1,17 +1,61 @@
 package com.tractionrec.recrec.domain.output;
 
+import com.fasterxml.jackson.annotation.JsonView;
+import com.tractionrec.recrec.domain.result.ExecutionStats;
 import com.tractionrec.recrec.domain.result.QueryResult;
 
+import java.util.List;
+
 public abstract class OutputRow {
+
+    /**
+     * Jackson view of the query's data alone; writing with it leaves out the execution columns
+     */
+    public interface Data {
+    }
+
+    /**
+     * Jackson view of the execution columns, which are written only when no view is active
+     */
+    public interface Execution {
+    }
+
+    /**
+     * Names of the execution columns, last in every row type's property order
+     */
+    public static final List<String> EXECUTION_COLUMNS =
+            List.of("attempts", "latencyMs", "permitWaitMs", "responseBytes", "httpStatus");
+
     public final String merchant;
     public final String id;
     public final String status;
     public final String message;
+    // Execution columns, null when the query was not run through a QueryRunner
+    @JsonView(Execution.class)
+    public final Integer attempts;
+    @JsonView(Execution.class)
+    public final Long latencyMs;
+    @JsonView(Execution.class)
+    public final Long permitWaitMs;
+    @JsonView(Execution.class)
+    public final Long responseBytes;
+    @JsonView(Execution.class)
+    public final Integer httpStatus;
 
     protected OutputRow(QueryResult result) {
         this.merchant = result.getItem().merchant();
         this.id = result.getItem().id();
         this.status = result.getStatus().name();
         this.message = result.getExpressResponseMessage();
+        ExecutionStats stats = result.getExecutionStats();
+        this.attempts = stats != null ? stats.attempts() : null;
+        this.latencyMs = stats != null ? stats.latencyMillis() : null;
+        this.permitWaitMs = stats != null ? stats.permitWaitMillis() : null;
+        this.responseBytes = stats != null && stats.responseBytes() >= 0 ? stats.responseBytes() : null;
+        this.httpStatus = stats != null && stats.httpStatus() > 0 ? stats.httpStatus() : null;
+    }
+
+    public static boolean isExecutionColumn(String fieldName) {
+        return EXECUTION_COLUMNS.contains(fieldName);
     }
 }
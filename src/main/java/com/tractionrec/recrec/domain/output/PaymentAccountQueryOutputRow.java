@@ -8,7 +8,8 @@ import com.tractionrec.recrec.domain.result.QueryResult;
         "merchant", "id", "status", "message", "recordId", "paymentAccountId", "paymentAccountType",
         "amount", "billingName", "billingEmail", "billingAddress1", "billingCity", "billingState", "billingZip",
         "cardNumber", "truncatedAccountNumber", "truncatedRoutingNumber", "cardLogo",
-        "expirationMonth", "expirationYear", "updaterBatchStatus", "updaterResultStatus"
+        "expirationMonth", "expirationYear", "updaterBatchStatus", "updaterResultStatus",
+        "attempts", "latencyMs", "permitWaitMs", "responseBytes", "httpStatus"
 })
 public class PaymentAccountQueryOutputRow extends OutputRow {
     public String recordId;
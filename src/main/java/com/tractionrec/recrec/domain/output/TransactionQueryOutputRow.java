@@ -12,7 +12,8 @@ import java.time.format.DateTimeFormatter;
         "retrievalReferenceNumber", "systemTraceAuditNumber", "trackingId", "ticketNumber", "terminalId", "setupId",
         "transactionStatus", "amount", "approvalNumber", "billingName", "billingAddress1", "billingCity", "billingState", "billingZip",
         "billingEmail", "cardNumber", "cardType", "cardLogo",
-        "expirationMonth", "expirationYear", "transactionDate", "transactionType", "terminalData", "multipleResults"
+        "expirationMonth", "expirationYear", "transactionDate", "transactionType", "terminalData", "multipleResults",
+        "attempts", "latencyMs", "permitWaitMs", "responseBytes", "httpStatus"
 })
 public class TransactionQueryOutputRow extends OutputRow {
     // Always available
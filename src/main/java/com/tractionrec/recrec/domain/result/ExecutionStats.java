@@ -0,0 +1,12 @@
+package com.tractionrec.recrec.domain.result;
+
+/**
+ * What it took to query one item
+ * @param attempts Requests sent to Express, including retries; 0 if none was sent
+ * @param latencyMillis Time from getting a permit to having the result, including retries and backoff
+ * @param permitWaitMillis Time spent waiting for a rate limiter permit
+ * @param responseBytes Size of the last response, or -1 if none arrived
+ * @param httpStatus Status of the last response, or 0 if none arrived
+ */
+public record ExecutionStats(int attempts, long latencyMillis, long permitWaitMillis, long responseBytes, int httpStatus) {
+}
@@ -14,6 +14,7 @@ public abstract class QueryResult<E extends ExpressEntity, O extends OutputRow>
     protected final String expressResponseMessage;
     protected final List<E> expressEntities;
     protected final Class<O> outputRowType;
+    private ExecutionStats executionStats; // Null until a QueryRunner has run the query
 
     protected QueryResult(QueryItem item, ResultStatus status, String expressResponseMessage, List<E> expressEntities, Class<O> outputRowType) {
         this.item = item;
@@ -43,6 +44,17 @@ public abstract class QueryResult<E extends ExpressEntity, O extends OutputRow>
         return item;
     }
 
+    /**
+     * Attempts, timings and final HTTP status of the query, or null if it was not run through a QueryRunner
+     */
+    public ExecutionStats getExecutionStats() {
+        return executionStats;
+    }
+
+    public void setExecutionStats(ExecutionStats executionStats) {
+        this.executionStats = executionStats;
+    }
+
     public abstract List<O> getOutputRows();
 
 }
\ No newline at end of file
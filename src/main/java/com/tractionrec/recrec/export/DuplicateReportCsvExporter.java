@@ -0,0 +1,63 @@
+package com.tractionrec.recrec.export;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tractionrec.recrec.analysis.DuplicateChargeReport;
+import com.tractionrec.recrec.analysis.DuplicateGroup;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exports a duplicate charge report as CSV, one line per transaction, numbered by group
+ */
+public class DuplicateReportCsvExporter {
+
+    private final CsvMapper mapper = new CsvMapper();
+
+    public void export(DuplicateChargeReport report, File outputFile) throws IOException {
+        CsvSchema schema = mapper.schemaFor(DuplicateRow.class).withHeader();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile));
+             SequenceWriter writer = mapper.writer(schema).writeValues(out)) {
+            int groupNumber = 0;
+            for (DuplicateGroup group : report.getGroups()) {
+                groupNumber++;
+                for (int rowIndex : group.rowIndices()) {
+                    writer.write(new DuplicateRow(groupNumber, report.getRow(rowIndex)));
+                }
+            }
+        }
+    }
+
+    @JsonPropertyOrder({"group", "merchant", "id", "recordId", "vantivId", "cardNumber", "amount",
+            "transactionType", "transactionDate"})
+    public static class DuplicateRow {
+        public final int group;
+        public final String merchant;
+        public final String id;
+        public final String recordId;
+        public final String vantivId;
+        public final String cardNumber;
+        public final String amount;
+        public final String transactionType;
+        public final String transactionDate;
+
+        DuplicateRow(int group, TransactionQueryOutputRow row) {
+            this.group = group;
+            this.merchant = row.merchant;
+            this.id = row.id;
+            this.recordId = row.recordId;
+            this.vantivId = row.vantivId;
+            this.cardNumber = row.cardNumber;
+            this.amount = row.amount;
+            this.transactionType = row.transactionType;
+            this.transactionDate = row.transactionDate;
+        }
+    }
+}
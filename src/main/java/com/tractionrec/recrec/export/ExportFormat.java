@@ -0,0 +1,74 @@
+package com.tractionrec.recrec.export;
+
+import java.io.File;
+
+/**
+ * File formats supported when exporting query results
+ */
+public enum ExportFormat {
+    CSV("CSV Files", "csv", false),
+    CSV_GZIP("Compressed CSV Files", "csv.gz", true),
+    JSON_LINES("JSON Lines Files", "jsonl", false),
+    JSON_LINES_GZIP("Compressed JSON Lines Files", "jsonl.gz", true);
+
+    private final String description;
+    private final String extension;
+    private final boolean compressed;
+
+    ExportFormat(String description, String extension, boolean compressed) {
+        this.description = description;
+        this.extension = extension;
+        this.compressed = compressed;
+    }
+
+    public String getDescription() {
+        return description + " (*." + extension + ")";
+    }
+
+    /**
+     * Full extension without the leading dot, e.g. {@code csv.gz}
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public boolean isJsonLines() {
+        return this == JSON_LINES || this == JSON_LINES_GZIP;
+    }
+
+    /**
+     * Return the given file with this format's extension, replacing the extension
+     * of any other export format the name already ends with.
+     */
+    public File applyExtension(File file) {
+        String name = file.getName();
+        String lowerName = name.toLowerCase();
+        if (lowerName.endsWith("." + extension)) {
+            return file;
+        }
+
+        // Check longest extensions first so "x.csv.gz" loses ".csv.gz" rather than just ".gz"
+        String baseName = name;
+        for (ExportFormat format : new ExportFormat[]{CSV_GZIP, JSON_LINES_GZIP, CSV, JSON_LINES}) {
+            if (lowerName.endsWith("." + format.extension)) {
+                baseName = name.substring(0, name.length() - format.extension.length() - 1);
+                break;
+            }
+        }
+        return new File(file.getParentFile(), baseName + "." + extension);
+    }
+
+    /**
+     * File name without this format's extension
+     */
+    public String stripExtension(String fileName) {
+        if (fileName.toLowerCase().endsWith("." + extension)) {
+            return fileName.substring(0, fileName.length() - extension.length() - 1);
+        }
+        return fileName;
+    }
+}
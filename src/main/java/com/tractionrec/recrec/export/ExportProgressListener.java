@@ -0,0 +1,18 @@
+package com.tractionrec.recrec.export;
+
+/**
+ * Callback for reporting export progress. Invoked from exporting threads, possibly
+ * several concurrently, so UI implementations must hand off to the event dispatch thread.
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    ExportProgressListener NONE = (rowsWritten, resultsWritten, totalResults) -> { };
+
+    /**
+     * @param rowsWritten Output rows written to disk so far
+     * @param resultsWritten Query results whose rows have been written so far
+     * @param totalResults Total number of query results being exported
+     */
+    void onProgress(long rowsWritten, int resultsWritten, int totalResults);
+}
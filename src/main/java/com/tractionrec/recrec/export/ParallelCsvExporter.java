@@ -0,0 +1,193 @@
+package com.tractionrec.recrec.export;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tractionrec.recrec.domain.result.QueryResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Exports query results to CSV by formatting chunks of results in parallel into
+ * pooled UTF-8 buffers and writing the chunks to disk, in order, with gathering writes.
+ * Output is byte-identical to writing the same rows through a single Jackson
+ * {@link SequenceWriter} with the same schema.
+ */
+public class ParallelCsvExporter {
+
+    private static final int RESULTS_PER_CHUNK = 2_000;
+    private static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_GATHER_BUFFERS = 16;
+
+    private final ObjectWriter headerWriter;
+    private final ObjectWriter rowWriter;
+    private final ExecutorService executor;
+    private final int chunksInFlight;
+
+    public ParallelCsvExporter(CsvMapper mapper, CsvSchema schema) {
+        this(mapper, schema, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public ParallelCsvExporter(CsvMapper mapper, CsvSchema schema, ExecutorService executor, int parallelism) {
+        this.headerWriter = mapper.writer(schema);
+        this.rowWriter = mapper.writer(schema.withoutHeader());
+        this.executor = executor;
+        // Keep a couple of chunks queued per worker so the writer never starves,
+        // while bounding how many formatted buffers are held in memory
+        this.chunksInFlight = Math.max(2, parallelism * 2);
+    }
+
+    /**
+     * Export all non-null results to the given file, replacing any existing content
+     * @return Number of CSV data rows written
+     */
+    public long export(List<? extends QueryResult<?, ?>> results, File outputFile,
+                       ExportProgressListener progressListener) throws IOException {
+        List<QueryResult<?, ?>> exportable = new ArrayList<>(results.size());
+        for (QueryResult<?, ?> result : results) {
+            if (result != null) {
+                exportable.add(result);
+            }
+        }
+
+        int totalResults = exportable.size();
+        int chunkCount = (totalResults + RESULTS_PER_CHUNK - 1) / RESULTS_PER_CHUNK;
+        BlockingQueue<ChunkBuffer> bufferPool = new ArrayBlockingQueue<>(chunksInFlight);
+        ArrayDeque<Future<ChunkBuffer>> pending = new ArrayDeque<>(chunksInFlight);
+
+        long rowsWritten = 0;
+        int resultsWritten = 0;
+        int nextChunk = 0;
+
+        try (FileChannel channel = FileChannel.open(outputFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            while (nextChunk < chunkCount && pending.size() < chunksInFlight) {
+                pending.add(submitChunk(exportable, nextChunk++, bufferPool));
+            }
+
+            List<ChunkBuffer> batch = new ArrayList<>(MAX_GATHER_BUFFERS);
+            while (!pending.isEmpty()) {
+                // Block on the oldest chunk, then gather any already-finished successors
+                batch.add(awaitChunk(pending.poll()));
+                while (!pending.isEmpty() && pending.peek().isDone() && batch.size() < MAX_GATHER_BUFFERS) {
+                    batch.add(awaitChunk(pending.poll()));
+                }
+
+                writeFully(channel, batch);
+
+                for (ChunkBuffer chunk : batch) {
+                    rowsWritten += chunk.rowCount;
+                    resultsWritten += chunk.resultCount;
+                    bufferPool.offer(chunk);
+                }
+                batch.clear();
+
+                while (nextChunk < chunkCount && pending.size() < chunksInFlight) {
+                    pending.add(submitChunk(exportable, nextChunk++, bufferPool));
+                }
+
+                progressListener.onProgress(rowsWritten, resultsWritten, totalResults);
+            }
+        } finally {
+            for (Future<ChunkBuffer> future : pending) {
+                future.cancel(true);
+            }
+        }
+
+        return rowsWritten;
+    }
+
+    private Future<ChunkBuffer> submitChunk(List<QueryResult<?, ?>> results, int chunkIndex,
+                                           BlockingQueue<ChunkBuffer> bufferPool) {
+        int from = chunkIndex * RESULTS_PER_CHUNK;
+        int to = Math.min(from + RESULTS_PER_CHUNK, results.size());
+        // Only the first chunk carries the header line
+        ObjectWriter writer = chunkIndex == 0 ? headerWriter : rowWriter;
+
+        return executor.submit(() -> {
+            ChunkBuffer chunk = bufferPool.poll();
+            if (chunk == null) {
+                chunk = new ChunkBuffer();
+            }
+            chunk.reset();
+
+            try (SequenceWriter sequenceWriter = writer.writeValues(chunk)) {
+                for (int i = from; i < to; i++) {
+                    List<?> rows = results.get(i).getOutputRows();
+                    sequenceWriter.writeAll(rows);
+                    chunk.rowCount += rows.size();
+                }
+            }
+            chunk.resultCount = to - from;
+            return chunk;
+        });
+    }
+
+    private ChunkBuffer awaitChunk(Future<ChunkBuffer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to format export rows: " + cause.getMessage(), cause);
+        }
+    }
+
+    private void writeFully(FileChannel channel, List<ChunkBuffer> batch) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = batch.get(i).asByteBuffer();
+            remaining += buffers[i].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    /**
+     * Reusable output buffer for one formatted chunk. Exposes its backing array
+     * directly so the writer can hand it to the channel without copying.
+     */
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+        int rowCount;
+        int resultCount;
+
+        ChunkBuffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            rowCount = 0;
+            resultCount = 0;
+        }
+
+        synchronized ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
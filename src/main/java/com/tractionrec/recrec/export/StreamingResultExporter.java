@@ -0,0 +1,265 @@
+package com.tractionrec.recrec.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tractionrec.recrec.domain.result.QueryResult;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports query results as CSV or JSON Lines, optionally gzip-compressed, streaming
+ * rows straight from the result set to disk without materializing the output.
+ * Can also split the export into one file per merchant, written concurrently.
+ */
+public class StreamingResultExporter {
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String UNKNOWN_MERCHANT = "unknown";
+    // Each file being written holds a descriptor, a deflater and its buffers, so only this many are open at once
+    private static final int MAX_OPEN_FILES = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final ExportFormat format;
+    private final ObjectWriter csvWriter;
+    private final ObjectWriter jsonWriter;
+    private final ObjectMapper jsonMapper;
+
+    /**
+     * @param format Output format
+     * @param csvMapper Mapper used for CSV formats; its active view, if any, also applies to JSON Lines
+     * @param csvSchema Schema (with header) used for CSV formats; ignored for JSON Lines
+     */
+    public StreamingResultExporter(ExportFormat format, CsvMapper csvMapper, CsvSchema csvSchema) {
+        this.format = format;
+        this.csvWriter = csvMapper.writer(csvSchema);
+        this.jsonMapper = new ObjectMapper();
+        // Each row is written to a shared generator, so flushing after every value would defeat buffering
+        this.jsonWriter = jsonMapper.writer()
+            .withView(csvMapper.getSerializationConfig().getActiveView())
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Export all non-null results to a single file, replacing any existing content
+     * @return Number of rows written
+     */
+    public long export(List<? extends QueryResult<?, ?>> results, File outputFile,
+                       ExportProgressListener progressListener) throws IOException {
+        int totalResults = countNonNull(results);
+        AtomicInteger resultsWritten = new AtomicInteger();
+        AtomicLong rowsWritten = new AtomicLong();
+        writeFile(results, outputFile, () -> progressListener.onProgress(
+            rowsWritten.get(), resultsWritten.get(), totalResults), resultsWritten, rowsWritten);
+        progressListener.onProgress(rowsWritten.get(), resultsWritten.get(), totalResults);
+        return rowsWritten.get();
+    }
+
+    /**
+     * Export all non-null results into one file per merchant. Files are named after the
+     * base file with the merchant appended, e.g. {@code results_MERCH1.csv.gz}, and are
+     * written concurrently, one per core at a time.
+     * @return Files written, in order of each merchant's first appearance
+     */
+    public List<File> exportByMerchant(List<? extends QueryResult<?, ?>> results, File baseFile,
+                                       ExportProgressListener progressListener) throws IOException {
+        Map<String, List<QueryResult<?, ?>>> byMerchant = new LinkedHashMap<>();
+        for (QueryResult<?, ?> result : results) {
+            if (result != null) {
+                byMerchant.computeIfAbsent(merchantOf(result), m -> new ArrayList<>()).add(result);
+            }
+        }
+
+        int totalResults = countNonNull(results);
+        AtomicInteger resultsWritten = new AtomicInteger();
+        AtomicLong rowsWritten = new AtomicLong();
+        Runnable progress = () -> progressListener.onProgress(rowsWritten.get(), resultsWritten.get(), totalResults);
+
+        List<File> files = new ArrayList<>(byMerchant.size());
+        List<Future<?>> futures = new ArrayList<>(byMerchant.size());
+        Set<String> usedNames = new HashSet<>();
+        Semaphore openFiles = new Semaphore(MAX_OPEN_FILES);
+        String baseName = format.stripExtension(format.applyExtension(baseFile).getName());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<String, List<QueryResult<?, ?>>> entry : byMerchant.entrySet()) {
+                File merchantFile = new File(baseFile.getParentFile(),
+                    uniqueName(baseName + "_" + sanitize(entry.getKey()), usedNames) + "." + format.getExtension());
+                files.add(merchantFile);
+                List<QueryResult<?, ?>> merchantResults = entry.getValue();
+                futures.add(executor.submit(() -> {
+                    try {
+                        openFiles.acquire();
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException("Export interrupted");
+                    }
+                    try {
+                        writeFile(merchantResults, merchantFile, progress, resultsWritten, rowsWritten);
+                    } finally {
+                        openFiles.release();
+                    }
+                    return null;
+                }));
+            }
+
+            try {
+                for (Future<?> future : futures) {
+                    await(future);
+                }
+            } catch (IOException e) {
+                // Stop the remaining writers before the executor waits for them on close
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+                throw e;
+            }
+        }
+        progress.run();
+        return files;
+    }
+
+    private void writeFile(List<? extends QueryResult<?, ?>> results, File outputFile, Runnable progress,
+                           AtomicInteger resultsWritten, AtomicLong rowsWritten) throws IOException {
+        try (OutputStream out = openStream(outputFile)) {
+            if (format.isJsonLines()) {
+                writeJsonLines(results, out, progress, resultsWritten, rowsWritten);
+            } else {
+                writeCsv(results, out, progress, resultsWritten, rowsWritten);
+            }
+        }
+    }
+
+    private OutputStream openStream(File outputFile) throws IOException {
+        OutputStream out = new FileOutputStream(outputFile);
+        if (format.isCompressed()) {
+            // GZIPOutputStream buffers its own deflater output; the outer buffer batches small row writes
+            return new BufferedOutputStream(new GZIPOutputStream(out, STREAM_BUFFER_SIZE), STREAM_BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(out, STREAM_BUFFER_SIZE);
+    }
+
+    private void writeCsv(List<? extends QueryResult<?, ?>> results, OutputStream out, Runnable progress,
+                          AtomicInteger resultsWritten, AtomicLong rowsWritten) throws IOException {
+        try (SequenceWriter writer = csvWriter.writeValues(out)) {
+            for (QueryResult<?, ?> result : results) {
+                if (result == null) {
+                    continue;
+                }
+                checkInterrupted();
+                List<?> rows = result.getOutputRows();
+                writer.writeAll(rows);
+                recordProgress(rows.size(), progress, resultsWritten, rowsWritten);
+            }
+        }
+    }
+
+    private void writeJsonLines(List<? extends QueryResult<?, ?>> results, OutputStream out, Runnable progress,
+                                AtomicInteger resultsWritten, AtomicLong rowsWritten) throws IOException {
+        try (JsonGenerator generator = jsonMapper.getFactory().createGenerator(out)) {
+            // Rows are separated by newlines below, not by the default root separator (a space)
+            generator.setRootValueSeparator(null);
+            for (QueryResult<?, ?> result : results) {
+                if (result == null) {
+                    continue;
+                }
+                checkInterrupted();
+                List<?> rows = result.getOutputRows();
+                for (Object row : rows) {
+                    jsonWriter.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                }
+                recordProgress(rows.size(), progress, resultsWritten, rowsWritten);
+            }
+        }
+    }
+
+    private void recordProgress(int rowCount, Runnable progress, AtomicInteger resultsWritten, AtomicLong rowsWritten) {
+        rowsWritten.addAndGet(rowCount);
+        // Report every 1000 results so listeners are not flooded on large exports
+        if (resultsWritten.incrementAndGet() % 1_000 == 0) {
+            progress.run();
+        }
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Export interrupted");
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to export results: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static int countNonNull(List<? extends QueryResult<?, ?>> results) {
+        int count = 0;
+        for (QueryResult<?, ?> result : results) {
+            if (result != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String merchantOf(QueryResult<?, ?> result) {
+        String merchant = result.getItem() != null ? result.getItem().merchant() : null;
+        return merchant == null || merchant.isBlank() ? UNKNOWN_MERCHANT : merchant.trim();
+    }
+
+    /**
+     * Make a merchant identifier safe to use in a file name on any platform
+     */
+    static String sanitize(String merchant) {
+        String sanitized = merchant.replaceAll("[^A-Za-z0-9._-]", "_");
+        return sanitized.isEmpty() ? UNKNOWN_MERCHANT : sanitized;
+    }
+
+    /**
+     * Distinct merchants can sanitize to the same name (e.g. "A/B" and "A:B"), so suffix duplicates
+     */
+    private static String uniqueName(String name, Set<String> usedNames) {
+        String candidate = name;
+        int suffix = 2;
+        while (!usedNames.add(candidate.toLowerCase())) {
+            candidate = name + "_" + suffix++;
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tractionrec.recrec.export;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tractionrec.recrec.analysis.GroupTotals;
+import com.tractionrec.recrec.analysis.ResultSummary;
+import com.tractionrec.recrec.analysis.SummaryDimension;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exports a reconciliation summary as CSV, one line per group across all dimensions
+ */
+public class SummaryCsvExporter {
+
+    private final CsvMapper mapper = new CsvMapper();
+
+    public void export(ResultSummary summary, File outputFile) throws IOException {
+        CsvSchema schema = mapper.schemaFor(SummaryRow.class).withHeader();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile));
+             SequenceWriter writer = mapper.writer(schema).writeValues(out)) {
+            for (SummaryDimension dimension : SummaryDimension.values()) {
+                for (GroupTotals group : summary.getGroups(dimension)) {
+                    writer.write(new SummaryRow(dimension, group));
+                }
+            }
+        }
+    }
+
+    @JsonPropertyOrder({"dimension", "group", "rows", "rowsWithAmount", "totalAmount"})
+    public static class SummaryRow {
+        public final String dimension;
+        public final String group;
+        public final long rows;
+        public final long rowsWithAmount;
+        public final String totalAmount;
+
+        SummaryRow(SummaryDimension dimension, GroupTotals group) {
+            this.dimension = dimension.getDisplayName();
+            this.group = group.key();
+            this.rows = group.rowCount();
+            this.rowsWithAmount = group.amountRowCount();
+            this.totalAmount = group.totalAmount().toPlainString();
+        }
+    }
+}
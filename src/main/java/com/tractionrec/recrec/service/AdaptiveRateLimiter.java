@@ -1,6 +1,9 @@
 package com.tractionrec.recrec.service;
 
 import com.tractionrec.recrec.RecRecApplication;
+import com.tractionrec.recrec.diagnostics.Log;
+import com.tractionrec.recrec.diagnostics.QueryEvents;
+import com.tractionrec.recrec.diagnostics.QueryMetrics;
 
 import java.time.Duration;
 import java.util.concurrent.Semaphore;
@@ -13,15 +16,19 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class AdaptiveRateLimiter {
 
+    private static final Log LOG = Log.get(AdaptiveRateLimiter.class);
+
     private final int minConcurrency;
     private final int maxConcurrency;
+    private final Settings settings;
+    private final ExecutionClock clock;
 
     // ✅ NEVER REPLACED - prevents deadlocks
     private final Semaphore semaphore;
     private final AtomicInteger targetConcurrency;
     private final AtomicInteger successCount = new AtomicInteger(0);
     private final AtomicInteger failureCount = new AtomicInteger(0);
-    private final AtomicLong lastAdjustmentTime = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong lastAdjustmentTime;
 
     // Circuit breaker state
     private volatile boolean circuitOpen = false;
@@ -30,38 +37,74 @@ public class AdaptiveRateLimiter {
     private static final Duration CIRCUIT_RECOVERY_TIME = Duration.ofSeconds(30);
     private static final int FAILURE_THRESHOLD = 10; // Open circuit after 10 consecutive failures
     private static final Duration ADJUSTMENT_INTERVAL = Duration.ofSeconds(30); // Adjust every 30 seconds (more conservative)
+    private static final Duration CIRCUIT_OPEN_PAUSE = Duration.ofSeconds(1);
+
+    /**
+     * Tuning for the limiter's adjustments and circuit breaker
+     * @param failureThreshold Consecutive failures that open the circuit
+     * @param adjustmentInterval Least time between concurrency adjustments
+     * @param circuitRecoveryTime How long the circuit stays open before letting a request try
+     * @param circuitOpenPause How long a request turned away by the open circuit waits before failing
+     */
+    public record Settings(int failureThreshold, Duration adjustmentInterval,
+                           Duration circuitRecoveryTime, Duration circuitOpenPause) {
+        public static final Settings DEFAULTS =
+                new Settings(FAILURE_THRESHOLD, ADJUSTMENT_INTERVAL, CIRCUIT_RECOVERY_TIME, CIRCUIT_OPEN_PAUSE);
+    }
 
     public AdaptiveRateLimiter(int initialConcurrency, int minConcurrency, int maxConcurrency) {
+        this(initialConcurrency, minConcurrency, maxConcurrency, Settings.DEFAULTS, ExecutionClock.SYSTEM);
+    }
+
+    /**
+     * @param clock Time and permit waits, {@link ExecutionClock#SYSTEM} outside simulations
+     */
+    public AdaptiveRateLimiter(int initialConcurrency, int minConcurrency, int maxConcurrency,
+                               Settings settings, ExecutionClock clock) {
         this.minConcurrency = minConcurrency;
         this.maxConcurrency = maxConcurrency;
+        this.settings = settings;
+        this.clock = clock;
         this.targetConcurrency = new AtomicInteger(initialConcurrency);
         this.semaphore = new Semaphore(initialConcurrency, true); // ✅ Created once, never replaced
+        this.lastAdjustmentTime = new AtomicLong(clock.currentTimeMillis());
     }
 
     /**
-     * Acquire a permit to make a request
+     * Acquire a permit to make a request. The wait is recorded as a {@link QueryEvents.PermitWait} event.
      */
     public void acquire() throws InterruptedException {
-        // Check circuit breaker
-        if (circuitOpen) {
-            if (System.currentTimeMillis() - circuitOpenTime > CIRCUIT_RECOVERY_TIME.toMillis()) {
-                // Try to close circuit and allow this request to proceed
-                closeCircuit();
-            } else {
-                // Circuit is open, wait before allowing request
-                Thread.sleep(1000);
-                throw new RuntimeException("Circuit breaker is open - API appears to be overwhelmed");
+        QueryEvents.PermitWait event = new QueryEvents.PermitWait();
+        event.begin();
+        try {
+            // Check circuit breaker
+            if (circuitOpen) {
+                if (clock.currentTimeMillis() - circuitOpenTime > settings.circuitRecoveryTime().toMillis()) {
+                    // Try to close circuit and allow this request to proceed
+                    closeCircuit();
+                } else {
+                    // Circuit is open, wait before allowing request
+                    event.circuitOpen = true;
+                    clock.sleep(settings.circuitOpenPause().toMillis());
+                    throw new RuntimeException("Circuit breaker is open - API appears to be overwhelmed");
+                }
             }
-        }
 
-        semaphore.acquire();
+            clock.acquire(semaphore);
+            event.acquired = true;
+        } finally {
+            if (event.shouldCommit()) {
+                event.concurrency = targetConcurrency.get();
+                event.commit();
+            }
+        }
     }
 
     /**
      * Release a permit after request completion
      */
     public void release() {
-        semaphore.release();
+        clock.release(semaphore, 1);
     }
 
     /**
@@ -81,7 +124,7 @@ public class AdaptiveRateLimiter {
         int consecutive = consecutiveFailures.incrementAndGet();
 
         // Open circuit breaker if too many consecutive failures
-        if (consecutive >= FAILURE_THRESHOLD && !circuitOpen) {
+        if (consecutive >= settings.failureThreshold() && !circuitOpen) {
             openCircuit();
         }
 
@@ -92,10 +135,10 @@ public class AdaptiveRateLimiter {
      * Adjust concurrency based on success/failure rates
      */
     private void adjustConcurrencyIfNeeded() {
-        long now = System.currentTimeMillis();
+        long now = clock.currentTimeMillis();
         long lastAdjustment = lastAdjustmentTime.get();
 
-        if (now - lastAdjustment < ADJUSTMENT_INTERVAL.toMillis()) {
+        if (now - lastAdjustment < settings.adjustmentInterval().toMillis()) {
             return; // Too soon to adjust
         }
 
@@ -118,12 +161,12 @@ public class AdaptiveRateLimiter {
         if (failureRate > 0.3) { // More than 30% failure rate (more conservative)
             // Reduce concurrency in increments of 5
             newConcurrency = Math.max(minConcurrency, current - 5);
-            System.err.printf("High failure rate (%.1f%%), reducing concurrency from %d to %d%n",
+            LOG.warn("High failure rate (%.1f%%), reducing concurrency from %d to %d",
                 failureRate * 100, current, newConcurrency);
         } else if (failureRate < 0.05 && current < maxConcurrency) { // Less than 5% failure rate
             // Gradually increase concurrency in increments of 5
             newConcurrency = Math.min(maxConcurrency, current + 5);
-            System.out.printf("Low failure rate (%.1f%%), increasing concurrency from %d to %d%n",
+            LOG.info("Low failure rate (%.1f%%), increasing concurrency from %d to %d",
                 failureRate * 100, current, newConcurrency);
         }
 
@@ -142,14 +185,14 @@ public class AdaptiveRateLimiter {
 
         if (delta > 0) {
             // Increase concurrency: add permits
-            semaphore.release(delta);
-            System.out.printf("Increased concurrency from %d to %d (+%d permits)%n",
+            clock.release(semaphore, delta);
+            LOG.info("Increased concurrency from %d to %d (+%d permits)",
                 oldConcurrency, newConcurrency, delta);
         } else if (delta < 0) {
             // Decrease concurrency: drain and reset permits
             int drained = semaphore.drainPermits();
-            semaphore.release(Math.max(0, newConcurrency));
-            System.out.printf("Decreased concurrency from %d to %d (drained %d, released %d)%n",
+            clock.release(semaphore, Math.max(0, newConcurrency));
+            LOG.info("Decreased concurrency from %d to %d (drained %d, released %d)",
                 oldConcurrency, newConcurrency, drained, Math.max(0, newConcurrency));
         }
     }
@@ -159,8 +202,9 @@ public class AdaptiveRateLimiter {
      */
     private void openCircuit() {
         circuitOpen = true;
-        circuitOpenTime = System.currentTimeMillis();
-        System.err.println("Circuit breaker OPENED - too many failures, pausing requests");
+        circuitOpenTime = clock.currentTimeMillis();
+        LOG.warn("Circuit breaker OPENED - too many failures, pausing requests");
+        QueryMetrics.current().recordCircuitOpen();
 
         // Drastically reduce concurrency when circuit opens
         updateConcurrency(Math.max(1, minConcurrency / 2));
@@ -171,7 +215,7 @@ public class AdaptiveRateLimiter {
      */
     private void closeCircuit() {
         circuitOpen = false;
-        System.out.println("Circuit breaker CLOSED - resuming normal operation");
+        LOG.info("Circuit breaker CLOSED - resuming normal operation");
 
         // Reset to minimum concurrency when circuit closes
         updateConcurrency(minConcurrency);
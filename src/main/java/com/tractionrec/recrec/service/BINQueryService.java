@@ -1,5 +1,6 @@
 package com.tractionrec.recrec.service;
 
+import com.tractionrec.recrec.diagnostics.Log;
 import com.tractionrec.recrec.domain.QueryItem;
 import com.tractionrec.recrec.domain.ResultStatus;
 import com.tractionrec.recrec.domain.express.BINQueryResponse;
@@ -19,10 +20,26 @@ import java.util.Map;
 
 public class BINQueryService extends QueryService {
 
+    private static final Log LOG = Log.get(BINQueryService.class);
+
     private BINQueryService(Boolean isProduction, TemplateEngine templateEngine) {
         super(isProduction, templateEngine);
     }
 
+    private BINQueryService(URI endpoint, TemplateEngine templateEngine) {
+        super(false, endpoint, templateEngine);
+    }
+
+    @Override
+    public BINQueryResult query(String accountId, String accountToken, QueryItem item) {
+        return queryForBINInfo(accountId, accountToken, item);
+    }
+
+    @Override
+    public BINQueryResult failedResult(QueryItem item, String message) {
+        return new BINQueryResult(item, ResultStatus.ERROR, message);
+    }
+
     public BINQueryResult queryForBINInfo(String accountId, String accountToken, QueryItem item) {
         String requestBody = getBINBody(accountId, accountToken, item);
         HttpRequest request = HttpRequest.newBuilder()
@@ -33,28 +50,29 @@ public class BINQueryService extends QueryService {
                 .timeout(Duration.ofSeconds(60)) // Request timeout
                 .build();
         try {
-            HttpResponse<String> response = executeRequestWithRetry(request);
+            HttpResponse<String> response = executeRequestWithRetry(request, item);
             if(response.statusCode() != 200) {
                 return new BINQueryResult(item, ResultStatus.ERROR, "Status Code: " + response.statusCode());
             }
-            final String responseBody = response.body();
-            final String responseElement = responseBody.substring(responseBody.indexOf("<response>"), responseBody.indexOf("</EnhancedBINQueryResponse>")).trim();
-
-            final BINQueryResponse queryResponse = mapper.readValue(responseElement, BINQueryResponse.class);
-            if(queryResponse.responseCode == 90) {
-                return new BINQueryResult(item, ResultStatus.NOT_FOUND, queryResponse.responseMessage);
-            }
-            if(queryResponse.responseCode != 0) {
-                return new BINQueryResult(item, ResultStatus.ERROR, queryResponse.responseMessage);
-            }
-            final List<EnhancedBIN> entities = new ArrayList<>(List.of(queryResponse.enhancedBin));
-            return new BINQueryResult(item, ResultStatus.SUCCESS, queryResponse.responseMessage, entities);
+            final BINQueryResponse queryResponse = readResponse(request, item, response, "EnhancedBINQueryResponse", BINQueryResponse.class);
+            return buildResult(request, response, item, () -> toResult(item, queryResponse));
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOG.error(ex, "Query failed for %s", item);
             return new BINQueryResult(item, ResultStatus.ERROR, ex.getMessage());
         }
     }
 
+    private BINQueryResult toResult(QueryItem item, BINQueryResponse queryResponse) {
+        if(queryResponse.responseCode == 90) {
+            return new BINQueryResult(item, ResultStatus.NOT_FOUND, queryResponse.responseMessage);
+        }
+        if(queryResponse.responseCode != 0) {
+            return new BINQueryResult(item, ResultStatus.ERROR, queryResponse.responseMessage);
+        }
+        final List<EnhancedBIN> entities = new ArrayList<>(List.of(queryResponse.enhancedBin));
+        return new BINQueryResult(item, ResultStatus.SUCCESS, queryResponse.responseMessage, entities);
+    }
+
     public static BINQueryService forProduction(TemplateEngine templateEngine) {
         return new BINQueryService(true, templateEngine);
     }
@@ -63,6 +81,13 @@ public class BINQueryService extends QueryService {
         return new BINQueryService(false, templateEngine);
     }
 
+    /**
+     * Service sending every request to the given server in place of Express, such as a stand-in for load testing
+     */
+    public static BINQueryService forEndpoint(URI endpoint, TemplateEngine templateEngine) {
+        return new BINQueryService(endpoint, templateEngine);
+    }
+
     private String getBINBody(String accountId, String accountToken, QueryItem item) {
         TemplateOutput output = new StringOutput();
         templateEngine.render("binQueryPOSTBody.jte", Map.of(
@@ -74,7 +99,7 @@ public class BINQueryService extends QueryService {
     }
 
     private URI getTransactionURI() {
-        return isProduction ? URI.create("https://transaction.elementexpress.com/express.asmx") : URI.create("https://certtransaction.elementexpress.com/express.asmx");
+        return endpointUri("https://transaction.elementexpress.com/express.asmx", "https://certtransaction.elementexpress.com/express.asmx");
     }
 
 }
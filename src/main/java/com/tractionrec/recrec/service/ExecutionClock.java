@@ -0,0 +1,47 @@
+package com.tractionrec.recrec.service;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Time and blocking waits as the rate limiter and retries see them. {@link #SYSTEM} reads the
+ * system clock and blocks the calling thread; a simulation supplies virtual time instead, so the
+ * same limiter and retry code can be replayed deterministically.
+ */
+public interface ExecutionClock {
+
+    ExecutionClock SYSTEM = new ExecutionClock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void sleep(long millis) throws InterruptedException {
+            Thread.sleep(millis);
+        }
+
+        @Override
+        public void acquire(Semaphore semaphore) throws InterruptedException {
+            semaphore.acquire();
+        }
+
+        @Override
+        public void release(Semaphore semaphore, int permits) {
+            semaphore.release(permits);
+        }
+    };
+
+    long currentTimeMillis();
+
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Take a permit, waiting for one to be released if none is free
+     */
+    void acquire(Semaphore semaphore) throws InterruptedException;
+
+    /**
+     * Return permits, waking anything waiting in {@link #acquire}
+     */
+    void release(Semaphore semaphore, int permits);
+}
@@ -1,6 +1,7 @@
 package com.tractionrec.recrec.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.tractionrec.recrec.diagnostics.Log;
 import com.tractionrec.recrec.domain.QueryItem;
 import com.tractionrec.recrec.domain.ResultStatus;
 import com.tractionrec.recrec.domain.express.PaymentAccount;
@@ -11,6 +12,7 @@ import gg.jte.TemplateOutput;
 import gg.jte.output.StringOutput;
 import org.apache.commons.text.StringEscapeUtils;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -20,10 +22,26 @@ import java.util.Map;
 
 public class PaymentAccountQueryService extends QueryService {
 
+    private static final Log LOG = Log.get(PaymentAccountQueryService.class);
+
     private PaymentAccountQueryService(Boolean isProduction, TemplateEngine templateEngine) {
         super(isProduction, templateEngine);
     }
 
+    private PaymentAccountQueryService(URI endpoint, TemplateEngine templateEngine) {
+        super(false, endpoint, templateEngine);
+    }
+
+    @Override
+    public PaymentAccountQueryResult query(String accountId, String accountToken, QueryItem item) {
+        return queryForPaymentAccount(accountId, accountToken, item);
+    }
+
+    @Override
+    public PaymentAccountQueryResult failedResult(QueryItem item, String message) {
+        return new PaymentAccountQueryResult(item, ResultStatus.ERROR, message);
+    }
+
     public PaymentAccountQueryResult queryForPaymentAccount(String accountId, String accountToken, QueryItem item) {
         String requestBody = getPaBody(accountId, accountToken, item);
         HttpRequest request = HttpRequest.newBuilder()
@@ -34,30 +52,31 @@ public class PaymentAccountQueryService extends QueryService {
                 .timeout(Duration.ofSeconds(60)) // Request timeout
                 .build();
         try {
-            HttpResponse<String> response = executeRequestWithRetry(request);
+            HttpResponse<String> response = executeRequestWithRetry(request, item);
             if (response.statusCode() != 200) {
                 return new PaymentAccountQueryResult(item, ResultStatus.ERROR, "Status Code: " + response.statusCode());
             }
-            final String responseBody = response.body();
-            final String responseElement = responseBody.substring(responseBody.indexOf("<response>"), responseBody.indexOf("</PaymentAccountQueryResponse>")).trim();
-
-            final PaymentAccountQueryResponse queryResponse = mapper.readValue(responseElement, PaymentAccountQueryResponse.class);
-            if (queryResponse.responseCode == 90) {
-                return new PaymentAccountQueryResult(item, ResultStatus.NOT_FOUND, queryResponse.responseMessage);
-            }
-            if (queryResponse.responseCode != 0) {
-                return new PaymentAccountQueryResult(item, ResultStatus.ERROR, queryResponse.responseMessage);
-            }
-            final String unescapedQueryData = StringEscapeUtils.unescapeXml(queryResponse.queryData);
-            final List<PaymentAccount> results = mapper.readValue(unescapedQueryData, new TypeReference<>() {
-            });
-            return new PaymentAccountQueryResult(item, ResultStatus.SUCCESS, queryResponse.responseMessage, results);
+            final PaymentAccountQueryResponse queryResponse = readResponse(request, item, response, "PaymentAccountQueryResponse", PaymentAccountQueryResponse.class);
+            return buildResult(request, response, item, () -> toResult(item, queryResponse));
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOG.error(ex, "Query failed for %s", item);
             return new PaymentAccountQueryResult(item, ResultStatus.ERROR, ex.getMessage());
         }
     }
 
+    private PaymentAccountQueryResult toResult(QueryItem item, PaymentAccountQueryResponse queryResponse) throws IOException {
+        if (queryResponse.responseCode == 90) {
+            return new PaymentAccountQueryResult(item, ResultStatus.NOT_FOUND, queryResponse.responseMessage);
+        }
+        if (queryResponse.responseCode != 0) {
+            return new PaymentAccountQueryResult(item, ResultStatus.ERROR, queryResponse.responseMessage);
+        }
+        final String unescapedQueryData = StringEscapeUtils.unescapeXml(queryResponse.queryData);
+        final List<PaymentAccount> results = mapper.readValue(unescapedQueryData, new TypeReference<>() {
+        });
+        return new PaymentAccountQueryResult(item, ResultStatus.SUCCESS, queryResponse.responseMessage, results);
+    }
+
     public static PaymentAccountQueryService forProduction(TemplateEngine templateEngine) {
         return new PaymentAccountQueryService(true, templateEngine);
     }
@@ -66,6 +85,13 @@ public class PaymentAccountQueryService extends QueryService {
         return new PaymentAccountQueryService(false, templateEngine);
     }
 
+    /**
+     * Service sending every request to the given server in place of Express, such as a stand-in for load testing
+     */
+    public static PaymentAccountQueryService forEndpoint(URI endpoint, TemplateEngine templateEngine) {
+        return new PaymentAccountQueryService(endpoint, templateEngine);
+    }
+
     private String getPaBody(String accountId, String accountToken, QueryItem item) {
         TemplateOutput output = new StringOutput();
         templateEngine.render("paymentAccountQueryPOSTBody.jte", Map.of(
@@ -77,7 +103,7 @@ public class PaymentAccountQueryService extends QueryService {
     }
 
     private URI getServicesUri() {
-        return isProduction ? URI.create("https://services.elementexpress.com/express.asmx") : URI.create("https://certservices.elementexpress.com/express.asmx");
+        return endpointUri("https://services.elementexpress.com/express.asmx", "https://certservices.elementexpress.com/express.asmx");
     }
 
 }
@@ -0,0 +1,54 @@
+package com.tractionrec.recrec.service;
+
+import com.tractionrec.recrec.domain.result.ExecutionStats;
+
+/**
+ * Records the exchanges of the query running on the current thread. {@link QueryRunner} opens one
+ * around each query and {@link QueryService} counts attempts and notes each response into it, so
+ * every service's return paths, errors included, end up with the same figures.
+ */
+final class QueryExecution implements AutoCloseable {
+
+    private static final ThreadLocal<QueryExecution> CURRENT = new ThreadLocal<>();
+
+    private int attempts;
+    private long responseBytes = -1;
+    private int httpStatus;
+
+    private QueryExecution() {
+    }
+
+    /**
+     * Start recording the current thread's query, until closed
+     */
+    static QueryExecution open() {
+        QueryExecution execution = new QueryExecution();
+        CURRENT.set(execution);
+        return execution;
+    }
+
+    /**
+     * The current thread's recording, or null if its query is not run through a QueryRunner
+     */
+    static QueryExecution current() {
+        return CURRENT.get();
+    }
+
+    void attempted() {
+        attempts++;
+    }
+
+    void responded(int statusCode, long bytes) {
+        httpStatus = statusCode;
+        responseBytes = bytes;
+    }
+
+    ExecutionStats toStats(long latencyMillis, long permitWaitMillis) {
+        return new ExecutionStats(attempts, latencyMillis, permitWaitMillis, responseBytes, httpStatus);
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,129 @@
+package com.tractionrec.recrec.service;
+
+import com.tractionrec.recrec.analysis.ResultAggregator;
+import com.tractionrec.recrec.diagnostics.Log;
+import com.tractionrec.recrec.diagnostics.QueryEvents;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.result.ExecutionStats;
+import com.tractionrec.recrec.domain.result.QueryResult;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the queries of a run: each query waits for a rate limiter permit, goes to the service,
+ * reports its outcome back to the limiter and is added to the run's summary. Holds no UI, so the
+ * running screen and the headless load test drive exactly the same path.
+ */
+public class QueryRunner {
+
+    public static final int INITIAL_CONCURRENT_REQUESTS = 20;
+    public static final int MIN_CONCURRENT_REQUESTS = 5;
+    public static final int MAX_CONCURRENT_REQUESTS = 50;
+
+    private static final Log LOG = Log.get(QueryRunner.class);
+
+    private final QueryService service;
+    private final String accountId;
+    private final String accountToken;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final ResultAggregator aggregator;
+
+    /**
+     * @param service Service for the run's query mode
+     */
+    public QueryRunner(QueryService service, String accountId, String accountToken,
+                       AdaptiveRateLimiter rateLimiter, ResultAggregator aggregator) {
+        this.service = service;
+        this.accountId = accountId;
+        this.accountToken = accountToken;
+        this.rateLimiter = rateLimiter;
+        this.aggregator = aggregator;
+    }
+
+    /**
+     * Rate limiter sized for a run of queries
+     */
+    public static AdaptiveRateLimiter newRateLimiter() {
+        return new AdaptiveRateLimiter(INITIAL_CONCURRENT_REQUESTS, MIN_CONCURRENT_REQUESTS, MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * Submit a query for every item, in order
+     */
+    public List<Future<QueryResult>> submitAll(List<QueryItem> items, ExecutorService executor) {
+        return items.stream()
+                .map(this::callable)
+                .map(executor::submit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A query for one item, to run on an executor
+     */
+    public Callable<QueryResult> callable(QueryItem item) {
+        long queuedAt = System.nanoTime();
+        return () -> {
+            QueryEvents.Queued queued = new QueryEvents.Queued();
+            if (queued.shouldCommit()) {
+                queued.mode = item.mode().name();
+                queued.queuedTime = System.nanoTime() - queuedAt;
+                queued.commit();
+            }
+            QueryEvents.Query event = new QueryEvents.Query();
+            event.begin();
+            QueryResult result = execute(item);
+            // Keep the summary current as results arrive so it is ready when the run finishes
+            aggregator.addResult(result);
+            if (event.shouldCommit()) {
+                event.mode = item.mode().name();
+                event.status = result != null ? result.getStatus().name() : null;
+                event.commit();
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Query one item now, on the calling thread. The result carries the query's {@link ExecutionStats}.
+     */
+    public QueryResult execute(QueryItem item) {
+        long started = System.nanoTime();
+        long permitWaitNanos = -1;
+        QueryResult r;
+        try (QueryExecution execution = QueryExecution.open()) {
+            try {
+                rateLimiter.acquire();
+                permitWaitNanos = System.nanoTime() - started;
+                r = service.query(accountId, accountToken, item);
+
+                // Record success/failure for adaptive rate limiting
+                // Only record failure for ERROR status, NOT_FOUND is acceptable
+                if (r != null && (r.getStatus() == ResultStatus.SUCCESS || r.getStatus() == ResultStatus.NOT_FOUND)) {
+                    rateLimiter.recordSuccess();
+                } else {
+                    rateLimiter.recordFailure();
+                }
+            } catch (Exception e) {
+                rateLimiter.recordFailure();
+                LOG.error(e, "Query failed for %s", item);
+                String errorMsg = "Request failed: " + (e.getMessage() != null ? e.getMessage() : "Unknown error - " + e.getClass().getSimpleName());
+                r = service.failedResult(item, errorMsg);
+            } finally {
+                rateLimiter.release();
+            }
+            if (r != null) {
+                long elapsedNanos = System.nanoTime() - started;
+                if (permitWaitNanos < 0) {
+                    permitWaitNanos = elapsedNanos; // Failed while waiting for a permit
+                }
+                r.setExecutionStats(execution.toStats((elapsedNanos - permitWaitNanos) / 1_000_000, permitWaitNanos / 1_000_000));
+            }
+        }
+        return r;
+    }
+}
@@ -6,8 +6,16 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalTimeDeserializer;
+import com.tractionrec.recrec.diagnostics.FailureCapture;
+import com.tractionrec.recrec.diagnostics.Log;
+import com.tractionrec.recrec.diagnostics.QueryEvents;
+import com.tractionrec.recrec.diagnostics.QueryMetrics;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.result.QueryResult;
 import gg.jte.TemplateEngine;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.UnknownHostException;
@@ -20,16 +28,26 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class QueryService {
 
+    private static final Log LOG = Log.get(QueryService.class);
+
     protected final boolean isProduction;
+    protected final URI endpointOverride; // Server taking every request in place of Express, or null
     protected final TemplateEngine templateEngine;
     protected final ObjectMapper mapper;
     protected final HttpClient httpClient;
 
     protected QueryService(boolean isProduction, TemplateEngine templateEngine) {
+        this(isProduction, null, templateEngine);
+    }
+
+    protected QueryService(boolean isProduction, URI endpointOverride, TemplateEngine templateEngine) {
         this.isProduction = isProduction;
+        this.endpointOverride = endpointOverride;
         this.templateEngine = templateEngine;
         this.mapper = new XmlMapper();
         SimpleModule module = new SimpleModule();
@@ -53,6 +71,26 @@ public abstract class QueryService {
         preResolveDNS();
     }
 
+    /**
+     * Query Express for an item of the kind this service handles
+     */
+    public abstract QueryResult<?, ?> query(String accountId, String accountToken, QueryItem item);
+
+    /**
+     * Result of this service's kind for a query that could not be made
+     */
+    public abstract QueryResult<?, ?> failedResult(QueryItem item, String message);
+
+    /**
+     * Where to send requests: the override if there is one, otherwise the production or test URI
+     */
+    protected URI endpointUri(String productionUri, String testUri) {
+        if (endpointOverride != null) {
+            return endpointOverride;
+        }
+        return URI.create(isProduction ? productionUri : testUri);
+    }
+
     /**
      * Pre-resolve DNS for known endpoints to populate DNS cache
      */
@@ -71,7 +109,7 @@ public abstract class QueryService {
                 InetAddress.getByName("certservices.elementexpress.com");
             } catch (UnknownHostException e) {
                 // Log but don't fail - DNS resolution will happen on first request
-                System.err.println("Warning: Could not pre-resolve DNS for some endpoints: " + e.getMessage());
+                LOG.warn("Could not pre-resolve DNS for some endpoints: %s", e.getMessage());
             }
         });
     }
@@ -79,24 +117,152 @@ public abstract class QueryService {
     /**
      * Execute HTTP request with retry logic for handling rate limiting and timeouts.
      * Uses enhanced retry logic that can handle Windows connection exhaustion and HTTP status codes.
+     * Each attempt is recorded as a {@link QueryEvents.HttpExchange} event and in the run's {@link QueryMetrics};
+     * exchanges that fail, answer with an error status or whose last attempt is slow are kept in the {@link FailureCapture}.
+     * Attempts and the last response are also noted in the query's {@link QueryExecution}, if it has one.
      */
-    protected HttpResponse<String> executeRequestWithRetry(HttpRequest request) throws Exception {
+    protected HttpResponse<String> executeRequestWithRetry(HttpRequest request, QueryItem item) throws Exception {
+        String endpoint = endpointOf(request);
+        long started = System.nanoTime();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicLong lastExchangeNanos = new AtomicLong(); // Only the last attempt counts as slow, not the backoff before it
+        QueryExecution execution = QueryExecution.current();
         Callable<HttpResponse<String>> requestOperation = () -> {
-            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            QueryMetrics metrics = QueryMetrics.current();
+            QueryEvents.HttpExchange event = new QueryEvents.HttpExchange();
+            event.attempt = attempts.incrementAndGet();
+            if (execution != null) {
+                execution.attempted();
+            }
+            event.begin();
+            metrics.requestStarted();
+            long sent = System.nanoTime();
+            long bytesReceived = 0;
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                event.statusCode = response.statusCode();
+                event.responseLength = response.body().length();
+                bytesReceived = response.headers().firstValueAsLong("Content-Length").orElse(event.responseLength);
+                if (execution != null) {
+                    execution.responded(response.statusCode(), bytesReceived);
+                }
+                return response;
+            } catch (Exception e) {
+                event.failure = e.toString();
+                throw e;
+            } finally {
+                long exchangeNanos = System.nanoTime() - sent;
+                lastExchangeNanos.set(exchangeNanos);
+                metrics.requestFinished(endpoint, exchangeNanos, event.statusCode, bytesReceived);
+                if (event.shouldCommit()) {
+                    event.endpoint = endpoint;
+                    event.mode = item.mode().name();
+                    event.requestSize = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L);
+                    event.commit();
+                }
+            }
         };
 
+        HttpResponse<String> response;
+        try {
+            response = sendWithRetry(requestOperation);
+        } catch (Exception e) {
+            FailureCapture.shared().capture("Request failed: " + e, endpoint, item, request, null, millisSince(started));
+            throw e;
+        }
+        long latencyMillis = millisSince(started);
+        if (response.statusCode() != 200) {
+            FailureCapture.shared().capture("HTTP " + response.statusCode(), endpoint, item, request, response, latencyMillis);
+        } else if (lastExchangeNanos.get() >= FailureCapture.SLOW_EXCHANGE.toNanos()) {
+            String reason = String.format("Slow: %.1fs", lastExchangeNanos.get() / 1e9);
+            if (attempts.get() > 1) {
+                reason += String.format(" on attempt %d, %.1fs in all", attempts.get(), latencyMillis / 1000.0);
+            }
+            FailureCapture.shared().capture(reason, endpoint, item, request, response, latencyMillis);
+        }
+        return response;
+    }
+
+    private HttpResponse<String> sendWithRetry(Callable<HttpResponse<String>> requestOperation) throws Exception {
         try {
             return RetryUtil.retryHttpRequestWithBackoff(requestOperation);
         } catch (Exception e) {
             // If we get connection exhaustion errors, try with longer delays
             if (isConnectionExhaustion(e)) {
-                System.err.println("Detected connection exhaustion, retrying with longer delays: " + e.getMessage());
+                LOG.warn("Detected connection exhaustion, retrying with longer delays: %s", e.getMessage());
                 return RetryUtil.retryHttpRequestWithBackoff(requestOperation, 5, Duration.ofSeconds(5), Duration.ofSeconds(60));
             }
             throw e;
         }
     }
 
+    private static long millisSince(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    /**
+     * Read the response element out of a SOAP response, recorded as a {@link QueryEvents.ResponseParse} event
+     * @param responseName Name of the element wrapping the response, such as "TransactionQueryResponse"
+     */
+    protected <T> T readResponse(HttpRequest request, QueryItem item, HttpResponse<String> response,
+                                 String responseName, Class<T> type) throws IOException {
+        QueryEvents.ResponseParse event = new QueryEvents.ResponseParse();
+        event.begin();
+        try {
+            final String responseBody = response.body();
+            final String responseElement = responseBody.substring(responseBody.indexOf("<response>"), responseBody.indexOf("</" + responseName + ">")).trim();
+            return mapper.readValue(responseElement, type);
+        } catch (IOException | RuntimeException e) {
+            FailureCapture.shared().capture("Unreadable response: " + e.getMessage(), endpointOf(request), item, request, response, -1);
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.endpoint = endpointOf(request);
+                event.mode = item.mode().name();
+                event.responseLength = response.body().length();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Build the result of a parsed response, recorded as a {@link QueryEvents.ResultBuild} event.
+     * Responses that build an error result are kept in the {@link FailureCapture}.
+     */
+    protected <R extends QueryResult<?, ?>> R buildResult(HttpRequest request, HttpResponse<String> response, QueryItem item,
+                                                          Callable<R> builder) throws Exception {
+        QueryEvents.ResultBuild event = new QueryEvents.ResultBuild();
+        event.begin();
+        R result = null;
+        try {
+            result = builder.call();
+            if (result.getStatus() == ResultStatus.ERROR) {
+                FailureCapture.shared().capture("Error result: " + result.getExpressResponseMessage(),
+                        endpointOf(request), item, request, response, -1);
+            }
+            return result;
+        } catch (Exception e) {
+            FailureCapture.shared().capture("Result failed: " + e, endpointOf(request), item, request, response, -1);
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.endpoint = endpointOf(request);
+                event.mode = item.mode().name();
+                event.status = result != null ? result.getStatus().name() : "FAILED";
+                event.records = result != null && result.getExpressEntities() != null ? result.getExpressEntities().size() : 0;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Name of the SOAP operation a request calls, such as "TransactionQuery"
+     */
+    protected static String endpointOf(HttpRequest request) {
+        String action = request.headers().firstValue("SOAPAction").orElse(request.uri().getPath());
+        return action.substring(action.lastIndexOf('/') + 1);
+    }
+
     /**
      * Check if an exception indicates connection exhaustion (port exhaustion)
      */
@@ -133,7 +299,7 @@ public abstract class QueryService {
             // Optimize for Windows connection handling
             System.setProperty("sun.net.useExclusiveBind", "false");
 
-            System.out.println("Applied Windows-specific HTTP connection optimizations");
+            LOG.info("Applied Windows-specific HTTP connection optimizations");
         }
     }
 
@@ -1,5 +1,9 @@
 package com.tractionrec.recrec.service;
 
+import com.tractionrec.recrec.diagnostics.Log;
+import com.tractionrec.recrec.diagnostics.QueryEvents;
+import com.tractionrec.recrec.diagnostics.QueryMetrics;
+
 import java.net.BindException;
 import java.net.ConnectException;
 import java.net.http.HttpConnectTimeoutException;
@@ -16,6 +20,7 @@ import java.util.function.Predicate;
  */
 public class RetryUtil {
 
+    private static final Log LOG = Log.get(RetryUtil.class);
     private static final Random RANDOM = new Random();
     private static final int DEFAULT_MAX_RETRIES = 3;
     private static final Duration DEFAULT_INITIAL_DELAY = Duration.ofSeconds(1);
@@ -53,6 +58,20 @@ public class RetryUtil {
             int maxRetries,
             Duration initialDelay,
             Duration maxDelay) throws Exception {
+        return retryHttpRequestWithBackoff(operation, maxRetries, initialDelay, maxDelay, ExecutionClock.SYSTEM, RANDOM);
+    }
+
+    /**
+     * Retry HTTP requests with custom parameters, waiting out backoffs on the given clock
+     * @param random Source of the backoff jitter
+     */
+    public static HttpResponse<String> retryHttpRequestWithBackoff(
+            Callable<HttpResponse<String>> operation,
+            int maxRetries,
+            Duration initialDelay,
+            Duration maxDelay,
+            ExecutionClock clock,
+            Random random) throws Exception {
 
         Exception lastException = null;
         HttpResponse<String> lastResponse = null;
@@ -69,13 +88,14 @@ public class RetryUtil {
                 }
 
                 // Calculate delay with jitter for rate limiting
-                long delayMs = calculateDelayWithJitter(currentDelay);
+                long delayMs = calculateDelayWithJitter(currentDelay, random);
 
-                System.err.printf("HTTP request failed with status %d (attempt %d/%d), retrying in %dms%n",
+                LOG.warn("HTTP request failed with status %d (attempt %d/%d), retrying in %dms",
                     response.statusCode(), attempt + 1, maxRetries + 1, delayMs);
+                recordRetry(attempt, "HTTP " + response.statusCode(), delayMs);
 
                 try {
-                    Thread.sleep(delayMs);
+                    clock.sleep(delayMs);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("Retry interrupted", ie);
@@ -98,13 +118,14 @@ public class RetryUtil {
                 }
 
                 // Calculate delay with jitter
-                long delayMs = calculateDelayWithJitter(currentDelay);
+                long delayMs = calculateDelayWithJitter(currentDelay, random);
 
-                System.err.printf("Request failed (attempt %d/%d), retrying in %dms: %s%n",
+                LOG.warn("Request failed (attempt %d/%d), retrying in %dms: %s",
                     attempt + 1, maxRetries + 1, delayMs, e.getMessage());
+                recordRetry(attempt, e.toString(), delayMs);
 
                 try {
-                    Thread.sleep(delayMs);
+                    clock.sleep(delayMs);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("Retry interrupted", ie);
@@ -151,10 +172,11 @@ public class RetryUtil {
                 }
 
                 // Calculate delay with jitter
-                long delayMs = calculateDelayWithJitter(currentDelay);
+                long delayMs = calculateDelayWithJitter(currentDelay, RANDOM);
 
-                System.err.printf("Request failed (attempt %d/%d), retrying in %dms: %s%n",
+                LOG.warn("Request failed (attempt %d/%d), retrying in %dms: %s",
                     attempt + 1, maxRetries + 1, delayMs, e.getMessage());
+                recordRetry(attempt, e.toString(), delayMs);
 
                 try {
                     Thread.sleep(delayMs);
@@ -225,12 +247,27 @@ public class RetryUtil {
         return false;
     }
 
+    /**
+     * Record a retry in the run's {@link QueryMetrics} and as a {@link QueryEvents.Retry} event
+     * @param attempt The attempt that failed, counting from 0
+     */
+    private static void recordRetry(int attempt, String reason, long delayMs) {
+        QueryMetrics.current().recordRetry();
+        QueryEvents.Retry event = new QueryEvents.Retry();
+        if (event.shouldCommit()) {
+            event.attempt = attempt + 1;
+            event.reason = reason;
+            event.backoff = delayMs;
+            event.commit();
+        }
+    }
+
     /**
      * Calculate delay with jitter to prevent thundering herd
      */
-    private static long calculateDelayWithJitter(Duration baseDelay) {
+    private static long calculateDelayWithJitter(Duration baseDelay, Random random) {
         long baseMs = baseDelay.toMillis();
-        double jitter = (RANDOM.nextDouble() - 0.5) * 2 * DEFAULT_JITTER_FACTOR;
+        double jitter = (random.nextDouble() - 0.5) * 2 * DEFAULT_JITTER_FACTOR;
         return Math.max(100, (long) (baseMs * (1 + jitter))); // Minimum 100ms delay
     }
 
@@ -2,6 +2,7 @@ package com.tractionrec.recrec.service;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.tractionrec.recrec.diagnostics.Log;
 import com.tractionrec.recrec.domain.AdhocQueryItem;
 import com.tractionrec.recrec.domain.QueryItem;
 import com.tractionrec.recrec.domain.ResultStatus;
@@ -23,10 +24,26 @@ import java.util.Map;
 
 public class TransactionQueryService extends QueryService {
 
+    private static final Log LOG = Log.get(TransactionQueryService.class);
+
     private TransactionQueryService(Boolean isProduction, TemplateEngine templateEngine) {
         super(isProduction, templateEngine);
     }
 
+    private TransactionQueryService(URI endpoint, TemplateEngine templateEngine) {
+        super(false, endpoint, templateEngine);
+    }
+
+    @Override
+    public TransactionQueryResult query(String accountId, String accountToken, QueryItem item) {
+        return queryForTransaction(accountId, accountToken, item);
+    }
+
+    @Override
+    public TransactionQueryResult failedResult(QueryItem item, String message) {
+        return new TransactionQueryResult(item, ResultStatus.ERROR, message);
+    }
+
     public TransactionQueryResult queryForTransaction(String accountId, String accountToken, QueryItem item) {
         return queryForTransaction(accountId, accountToken, item, null);
     }
@@ -41,51 +58,46 @@ public class TransactionQueryService extends QueryService {
                 .timeout(Duration.ofSeconds(60)) // Request timeout
                 .build();
         try {
-            HttpResponse<String> response = executeRequestWithRetry(request);
+            HttpResponse<String> response = executeRequestWithRetry(request, item);
             if(response.statusCode() != 200) {
                 return new TransactionQueryResult(item, ResultStatus.ERROR, "Status Code: " + response.statusCode());
             }
-            final String responseBody = response.body();
-            final String responseElement = responseBody.substring(responseBody.indexOf("<response>"), responseBody.indexOf("</TransactionQueryResponse>")).trim();
-
-            final TransactionQueryResponse queryResponse = mapper.readValue(responseElement, TransactionQueryResponse.class);
-            if(queryResponse.responseCode == 90) {
-                return new TransactionQueryResult(item, ResultStatus.NOT_FOUND, queryResponse.responseMessage);
-            }
-            if(queryResponse.responseCode != 0) {
-                return new TransactionQueryResult(item, ResultStatus.ERROR, queryResponse.responseMessage);
-            }
-            final String unescapedReportingData = StringEscapeUtils.unescapeXml(queryResponse.reportingData);
-
-            // Parse the transaction data with robust error handling
-            List<Transaction> results = parseTransactionData(unescapedReportingData, item);
-            if (results == null) {
-                return new TransactionQueryResult(item, ResultStatus.ERROR, "Failed to parse transaction data");
-            }
-
-            return new TransactionQueryResult(item, ResultStatus.SUCCESS, queryResponse.responseMessage, results);
+            final TransactionQueryResponse queryResponse = readResponse(request, item, response, "TransactionQueryResponse", TransactionQueryResponse.class);
+            return buildResult(request, response, item, () -> toResult(item, queryResponse));
         } catch (JsonParseException ex) {
-            System.err.println("JSON/XML Parse Error in TransactionQueryService:");
-            System.err.println("Query Item: " + item);
-            System.err.println("Error: " + ex.getMessage());
             if (ex.getLocation() != null) {
-                System.err.println("Error location: line " + ex.getLocation().getLineNr() +
-                                 ", column " + ex.getLocation().getColumnNr() +
-                                 ", character " + ex.getLocation().getCharOffset());
+                LOG.error(ex, "XML parse error for %s at line %d, column %d, character %d", item,
+                        ex.getLocation().getLineNr(), ex.getLocation().getColumnNr(), ex.getLocation().getCharOffset());
+            } else {
+                LOG.error(ex, "XML parse error for %s", item);
             }
-            ex.printStackTrace();
             return new TransactionQueryResult(item, ResultStatus.ERROR,
                 "XML parsing failed: " + ex.getMessage() +
                 (ex.getLocation() != null ? " at position " + ex.getLocation().getCharOffset() : ""));
         } catch (Exception ex) {
-            System.err.println("Unexpected error in TransactionQueryService:");
-            System.err.println("Query Item: " + item);
-            System.err.println("Error: " + ex.getMessage());
-            ex.printStackTrace();
+            LOG.error(ex, "Query failed for %s", item);
             return new TransactionQueryResult(item, ResultStatus.ERROR, "Query failed: " + ex.getMessage());
         }
     }
 
+    private TransactionQueryResult toResult(QueryItem item, TransactionQueryResponse queryResponse) {
+        if(queryResponse.responseCode == 90) {
+            return new TransactionQueryResult(item, ResultStatus.NOT_FOUND, queryResponse.responseMessage);
+        }
+        if(queryResponse.responseCode != 0) {
+            return new TransactionQueryResult(item, ResultStatus.ERROR, queryResponse.responseMessage);
+        }
+        final String unescapedReportingData = StringEscapeUtils.unescapeXml(queryResponse.reportingData);
+
+        // Parse the transaction data with robust error handling
+        List<Transaction> results = parseTransactionData(unescapedReportingData, item);
+        if (results == null) {
+            return new TransactionQueryResult(item, ResultStatus.ERROR, "Failed to parse transaction data");
+        }
+
+        return new TransactionQueryResult(item, ResultStatus.SUCCESS, queryResponse.responseMessage, results);
+    }
+
     public static TransactionQueryService forProduction(TemplateEngine templateEngine) {
         return new TransactionQueryService(true, templateEngine);
     }
@@ -94,6 +106,13 @@ public class TransactionQueryService extends QueryService {
         return new TransactionQueryService(false, templateEngine);
     }
 
+    /**
+     * Service sending every request to the given server in place of Express, such as a stand-in for load testing
+     */
+    public static TransactionQueryService forEndpoint(URI endpoint, TemplateEngine templateEngine) {
+        return new TransactionQueryService(endpoint, templateEngine);
+    }
+
     private String getTxBody(String accountId, String accountToken, QueryItem item) {
         return getTxBody(accountId, accountToken, item, null);
     }
@@ -110,7 +129,7 @@ public class TransactionQueryService extends QueryService {
     }
 
     private URI getReportingUri() {
-        return isProduction ? URI.create("https://reporting.elementexpress.com/express.asmx") : URI.create("https://certreporting.elementexpress.com/express.asmx");
+        return endpointUri("https://reporting.elementexpress.com/express.asmx", "https://certreporting.elementexpress.com/express.asmx");
     }
 
     /**
@@ -120,7 +139,7 @@ public class TransactionQueryService extends QueryService {
         try {
             // Validate basic XML structure
             if (!isValidXmlStructure(xmlData)) {
-                System.err.println("Invalid XML structure detected for query: " + item);
+                LOG.warn("Invalid XML structure for %s", item);
                 logXmlSample(xmlData, "Invalid XML Structure");
                 return null;
             }
@@ -130,33 +149,24 @@ public class TransactionQueryService extends QueryService {
 
             // Attempt to parse with size limits for safety
             if (cleanedXml.length() > 50_000_000) { // 50MB limit
-                System.err.println("XML response too large (" + cleanedXml.length() + " chars) for query: " + item);
+                LOG.warn("XML response too large (%d chars) for %s", cleanedXml.length(), item);
                 return null;
             }
 
             // Parse the cleaned XML
             List<Transaction> results = mapper.readValue(cleanedXml, new TypeReference<List<Transaction>>() {});
 
-            System.out.println("Successfully parsed " + results.size() + " transactions for query: " + item);
+            LOG.debug("Parsed %d transactions for %s", results.size(), item);
             return results;
 
         } catch (JsonParseException ex) {
-            System.err.println("JSON Parse Error in parseTransactionData:");
-            System.err.println("Query Item: " + item);
-            System.err.println("Error: " + ex.getMessage());
-
+            LOG.error(ex, "Could not parse transactions for %s", item);
             if (ex.getLocation() != null) {
-                long errorPos = ex.getLocation().getCharOffset();
-                System.err.println("Error at character position: " + errorPos);
-                logXmlSample(xmlData, "Parse Error Context", errorPos);
+                logXmlSample(xmlData, "Parse Error Context", ex.getLocation().getCharOffset());
             }
-            ex.printStackTrace();
             return null;
         } catch (Exception ex) {
-            System.err.println("Unexpected error in parseTransactionData:");
-            System.err.println("Query Item: " + item);
-            System.err.println("Error: " + ex.getMessage());
-            ex.printStackTrace();
+            LOG.error(ex, "Could not parse transactions for %s", item);
             return null;
         }
     }
@@ -205,47 +215,49 @@ public class TransactionQueryService extends QueryService {
     }
 
     /**
-     * Log a sample of XML around an error position for debugging
+     * Log a sample of XML around an error position for debugging, at debug level
      */
     private void logXmlSample(String xml, String context) {
         logXmlSample(xml, context, -1);
     }
 
     private void logXmlSample(String xml, String context, long errorPosition) {
+        if (!LOG.isDebugEnabled()) {
+            return;
+        }
         if (xml == null) {
-            System.err.println(context + ": XML is null");
+            LOG.debug("%s: XML is null", context);
             return;
         }
 
-        System.err.println("=== " + context + " ===");
-        System.err.println("XML length: " + xml.length() + " characters");
+        String nl = System.lineSeparator();
+        StringBuilder sample = new StringBuilder();
+        sample.append("=== ").append(context).append(" ===").append(nl);
+        sample.append("XML length: ").append(xml.length()).append(" characters").append(nl);
 
         if (errorPosition >= 0 && errorPosition < xml.length()) {
             // Show context around the error
             int start = Math.max(0, (int)errorPosition - 200);
             int end = Math.min(xml.length(), (int)errorPosition + 200);
 
-            System.err.println("Context around error position " + errorPosition + ":");
-            System.err.println("..." + xml.substring(start, end) + "...");
+            sample.append("Context around error position ").append(errorPosition).append(":").append(nl);
+            sample.append("...").append(xml, start, end).append("...").append(nl);
 
             // Point to the exact error character
             int relativePos = (int)errorPosition - start;
-            StringBuilder pointer = new StringBuilder();
-            for (int i = 0; i < relativePos + 3; i++) { // +3 for "..."
-                pointer.append(" ");
-            }
-            pointer.append("^ ERROR HERE");
-            System.err.println(pointer.toString());
+            sample.append(" ".repeat(relativePos + 3)); // +3 for "..."
+            sample.append("^ ERROR HERE").append(nl);
         } else {
             // Show beginning and end of XML
             int sampleSize = 500;
             if (xml.length() <= sampleSize * 2) {
-                System.err.println("Full XML: " + xml);
+                sample.append("Full XML: ").append(xml).append(nl);
             } else {
-                System.err.println("XML start: " + xml.substring(0, sampleSize) + "...");
-                System.err.println("XML end: ..." + xml.substring(xml.length() - sampleSize));
+                sample.append("XML start: ").append(xml, 0, sampleSize).append("...").append(nl);
+                sample.append("XML end: ...").append(xml.substring(xml.length() - sampleSize)).append(nl);
             }
         }
-        System.err.println("=== End " + context + " ===");
+        sample.append("=== End ").append(context).append(" ===");
+        LOG.debug("%s", sample);
     }
 }
@@ -0,0 +1,195 @@
+package com.tractionrec.recrec.ui;
+
+import com.tractionrec.recrec.diagnostics.FailureCapture;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists the request and response pairs kept by a {@link FailureCapture}, newest first, and
+ * shows the payloads of the selected one side by side. Captures are read off the event thread.
+ */
+public class CaptureBrowser extends JPanel {
+
+    private static final Font PAYLOAD_FONT = new Font(Font.MONOSPACED, Font.PLAIN, TypographyConstants.FONT_SIZE_CAPTION);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final FailureCapture store;
+    private final CaptureTableModel tableModel = new CaptureTableModel();
+    private final JTable table = new JTable(tableModel);
+    private final JLabel statusLabel = new JLabel();
+    private final JButton refreshButton = StyleUtils.createIconButton("Refresh", StyleUtils.Icons.REFRESH);
+    private final JTextArea requestArea = payloadArea();
+    private final JTextArea responseArea = payloadArea();
+
+    public CaptureBrowser(FailureCapture store) {
+        this.store = store;
+        setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+        setOpaque(false);
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, StyleUtils.SPACING_MEDIUM, 0));
+        controls.setOpaque(false);
+        controls.setAlignmentX(Component.LEFT_ALIGNMENT);
+        controls.setMaximumSize(new Dimension(Integer.MAX_VALUE, StyleUtils.INPUT_HEIGHT + 8));
+        StyleUtils.styleButtonSecondary(refreshButton);
+        refreshButton.addActionListener(e -> refresh());
+        controls.add(refreshButton);
+        statusLabel.setFont(TypographyConstants.FONT_CAPTION);
+        statusLabel.setForeground(TractionRecTheme.TEXT_SECONDARY);
+        controls.add(statusLabel);
+        add(controls);
+        StyleUtils.addVerticalSpacing(this, StyleUtils.SPACING_SMALL);
+
+        table.setFont(TypographyConstants.FONT_SMALL);
+        table.setRowHeight(24);
+        table.setGridColor(new Color(0xE5E7EB));
+        table.setSelectionBackground(new Color(0xDCFDF7));
+        table.setSelectionForeground(TractionRecTheme.TEXT_PRIMARY);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showSelected();
+            }
+        });
+        JScrollPane tableScroll = new JScrollPane(table);
+        tableScroll.setBorder(StyleUtils.createInputBorder());
+        tableScroll.setPreferredSize(new Dimension(1200, 220));
+
+        JSplitPane payloads = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                titled("Request", requestArea), titled("Response", responseArea));
+        payloads.setResizeWeight(0.4);
+        payloads.setBorder(null);
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, tableScroll, payloads);
+        split.setResizeWeight(0.4);
+        split.setBorder(null);
+        split.setPreferredSize(new Dimension(1200, 600));
+        split.setAlignmentX(Component.LEFT_ALIGNMENT);
+        add(split);
+    }
+
+    /**
+     * Read the captures again from disk
+     */
+    public void refresh() {
+        refreshButton.setEnabled(false);
+        statusLabel.setText("Loading captures...");
+        new SwingWorker<List<FailureCapture.Capture>, Void>() {
+            @Override
+            protected List<FailureCapture.Capture> doInBackground() throws IOException {
+                List<FailureCapture.Capture> captures = new ArrayList<>();
+                for (Path file : store.list()) {
+                    try {
+                        captures.add(FailureCapture.read(file));
+                    } catch (IOException e) {
+                        // Skip a capture deleted or still being written while listing
+                    }
+                }
+                return captures;
+            }
+
+            @Override
+            protected void done() {
+                refreshButton.setEnabled(true);
+                try {
+                    List<FailureCapture.Capture> captures = get();
+                    tableModel.setCaptures(captures);
+                    statusLabel.setText(captures.isEmpty()
+                        ? "No failed or slow queries captured. Captures are kept in " + store.getDirectory()
+                        : String.format("The last %,d failed or slow queries, kept in %s with credentials and cardholder details redacted.",
+                            captures.size(), store.getDirectory()));
+                    if (!captures.isEmpty()) {
+                        table.setRowSelectionInterval(0, 0);
+                    } else {
+                        showSelected();
+                    }
+                } catch (Exception e) {
+                    statusLabel.setText("Failed to read captures: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void showSelected() {
+        int row = table.getSelectedRow();
+        FailureCapture.Capture capture = row >= 0 ? tableModel.getCapture(row) : null;
+        requestArea.setText(capture != null && capture.request() != null ? capture.request() : "");
+        responseArea.setText(capture == null ? ""
+            : capture.response() != null ? capture.response() : "No response: " + capture.reason());
+        requestArea.setCaretPosition(0);
+        responseArea.setCaretPosition(0);
+    }
+
+    private static JTextArea payloadArea() {
+        JTextArea area = new JTextArea();
+        area.setEditable(false);
+        area.setLineWrap(true);
+        area.setFont(PAYLOAD_FONT);
+        return area;
+    }
+
+    private static JComponent titled(String title, JTextArea area) {
+        JPanel panel = new JPanel(new BorderLayout(0, StyleUtils.SPACING_SMALL));
+        panel.setOpaque(false);
+        JLabel label = new JLabel(title);
+        label.setFont(TypographyConstants.FONT_CAPTION);
+        label.setForeground(TractionRecTheme.TEXT_SECONDARY);
+        panel.add(label, BorderLayout.NORTH);
+        JScrollPane scroll = new JScrollPane(area);
+        scroll.setBorder(StyleUtils.createInputBorder());
+        panel.add(scroll, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private static class CaptureTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Time", "Reason", "Endpoint", "Merchant", "ID", "Status", "Latency"};
+
+        private List<FailureCapture.Capture> captures = List.of();
+
+        void setCaptures(List<FailureCapture.Capture> captures) {
+            this.captures = captures;
+            fireTableDataChanged();
+        }
+
+        FailureCapture.Capture getCapture(int row) {
+            return captures.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return captures.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            FailureCapture.Capture capture = captures.get(row);
+            return switch (column) {
+                case 0 -> TIME.format(capture.getTime());
+                case 1 -> capture.reason();
+                case 2 -> capture.endpoint();
+                case 3 -> capture.merchant();
+                case 4 -> capture.id();
+                case 5 -> capture.statusCode() > 0 ? Integer.toString(capture.statusCode()) : "";
+                case 6 -> capture.latencyMillis() >= 0 ? String.format("%,d ms", capture.latencyMillis()) : "";
+                default -> "";
+            };
+        }
+    }
+}
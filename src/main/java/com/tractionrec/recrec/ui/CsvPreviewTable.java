@@ -11,6 +11,7 @@ import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
+import java.awt.event.MouseEvent;
 
 /**
  * Custom table for displaying CSV preview with issue highlighting
@@ -21,6 +22,11 @@ public class CsvPreviewTable extends JTable {
     private PagedCsvPreviewData pagedData;
     private CellLocation highlightedCell;
 
+    private static final Color ERROR_BACKGROUND = new Color(255, 200, 200);   // Light red
+    private static final Color WARNING_BACKGROUND = new Color(255, 255, 200); // Light yellow
+    private static final Color INFO_BACKGROUND = new Color(200, 220, 255);    // Light blue
+    private static final Color HIGHLIGHT_BACKGROUND = new Color(100, 150, 255);
+
     public CsvPreviewTable() {
         super();
         setupTable();
@@ -143,6 +149,25 @@ public class CsvPreviewTable extends JTable {
         repaint();
     }
 
+    /**
+     * Describe the issue under the mouse, rendered only when a tooltip is actually shown
+     */
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int row = rowAtPoint(event.getPoint());
+        int column = columnAtPoint(event.getPoint());
+        if (row < 0 || column < 0) {
+            return null;
+        }
+        ValidationIssue issue = null;
+        if (pagedData != null) {
+            issue = pagedData.getCellIssue(row, column);
+        } else if (previewData != null) {
+            issue = previewData.getCellIssue(row, column);
+        }
+        return issue != null ? issue.getDescription() + " - " + issue.getSuggestedFix() : null;
+    }
+
     public void highlightCell(CellLocation location) {
         this.highlightedCell = location;
 
@@ -257,78 +282,35 @@ public class CsvPreviewTable extends JTable {
             Color foregroundColor = Color.BLACK;
 
             // Use paged data if available, otherwise fall back to preview data
+            IssueSeverity severity = null;
             if (pagedData != null) {
-                CellLocation location = new CellLocation(row, column);
-
-                // Check for validation issues using paged data
-                if (pagedData.hasCellIssue(row, column)) {
-                    ValidationIssue issue = pagedData.getCellIssue(row, column);
-                    if (issue != null) {
-                        switch (issue.getSeverity()) {
-                            case ERROR:
-                                backgroundColor = new Color(255, 200, 200); // Light red
-                                break;
-                            case WARNING:
-                                backgroundColor = new Color(255, 255, 200); // Light yellow
-                                break;
-                            case INFO:
-                                backgroundColor = new Color(200, 220, 255); // Light blue
-                                break;
-                        }
-                    }
-                }
+                severity = pagedData.getCellSeverity(row, column);
             } else if (previewData != null) {
-                CellLocation location = new CellLocation(row, column);
-
-                // Check for validation issues using preview data
-                if (previewData.hasCellIssue(row, column)) {
-                    ValidationIssue issue = previewData.getCellIssue(row, column);
-                    if (issue != null) {
-                        switch (issue.getSeverity()) {
-                            case ERROR:
-                                backgroundColor = new Color(255, 200, 200); // Light red
-                                break;
-                            case WARNING:
-                                backgroundColor = new Color(255, 255, 200); // Light yellow
-                                break;
-                            case INFO:
-                                backgroundColor = new Color(200, 220, 255); // Light blue
-                                break;
-                        }
-                    }
-                }
-
+                severity = previewData.getCellSeverity(row, column);
+            }
+            if (severity != null) {
+                backgroundColor = switch (severity) {
+                    case ERROR -> ERROR_BACKGROUND;
+                    case WARNING -> WARNING_BACKGROUND;
+                    case INFO -> INFO_BACKGROUND;
+                };
             }
 
             // Highlight selected cell (works for both paged and non-paged)
-            CellLocation currentLocation = new CellLocation(row, column);
-            if (currentLocation.equals(highlightedCell)) {
-                backgroundColor = new Color(100, 150, 255); // Blue highlight
+            boolean highlighted = highlightedCell != null
+                && highlightedCell.row() == row && highlightedCell.column() == column;
+            if (highlighted) {
+                backgroundColor = HIGHLIGHT_BACKGROUND;
                 foregroundColor = Color.WHITE;
-            }
-
-            // Apply selection highlighting
-            if (isSelected) {
-                if (!currentLocation.equals(highlightedCell)) {
-                    backgroundColor = table.getSelectionBackground();
-                    foregroundColor = table.getSelectionForeground();
-                }
+            } else if (isSelected) {
+                // Apply selection highlighting
+                backgroundColor = table.getSelectionBackground();
+                foregroundColor = table.getSelectionForeground();
             }
 
             setBackground(backgroundColor);
             setForeground(foregroundColor);
 
-            // Add tooltip for cells with issues
-            if (pagedData != null && pagedData.hasCellIssue(row, column)) {
-                ValidationIssue issue = pagedData.getCellIssue(row, column);
-                setToolTipText(issue.getDescription() + " - " + issue.getSuggestedFix());
-            } else if (previewData != null && previewData.hasCellIssue(row, column)) {
-                ValidationIssue issue = previewData.getCellIssue(row, column);
-                setToolTipText(issue.getDescription() + " - " + issue.getSuggestedFix());
-            } else {
-                setToolTipText(null);
-            }
-
             return component;
         }
     }
@@ -1,5 +1,6 @@
 package com.tractionrec.recrec.ui;
 
+import com.tractionrec.recrec.csv.CellIssueIndex;
 import com.tractionrec.recrec.csv.CsvPreviewData;
 import com.tractionrec.recrec.csv.ValidationIssue;
 import com.tractionrec.recrec.domain.CellLocation;
@@ -10,6 +11,7 @@ import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
 
 /**
  * Full-screen CSV preview window with spreadsheet-like interface
@@ -17,7 +19,9 @@ import java.awt.event.WindowEvent;
 public class CsvPreviewWindow extends JDialog {
 
     private CsvPreviewTable previewTable;
-    private JList<ValidationIssue> issueList;
+    private JList<Object> issueList;
+    private IssueListModel issueModel;
+    private boolean syncingSelection; // Set while one side's selection is moving the other's
     private JLabel statsLabel;
     private JLabel issueCountLabel;
     private JLabel issuesSectionTitle;
@@ -311,6 +315,7 @@ public class CsvPreviewWindow extends JDialog {
         issueList.setBackground(Color.WHITE);
         issueList.setSelectionBackground(new Color(0xDCFDF7));
         issueList.setSelectionForeground(TractionRecTheme.TEXT_PRIMARY);
+        IssueListModel.installToggle(issueList);
 
         JScrollPane scrollPane = new JScrollPane(issueList);
         scrollPane.setPreferredSize(new Dimension(400, 700)); // Larger for bigger window
@@ -359,9 +364,10 @@ public class CsvPreviewWindow extends JDialog {
 
         // Issue list selection handler - navigate from issue to cell
         issueList.addListSelectionListener(e -> {
-            if (!e.getValueIsAdjusting()) {
-                ValidationIssue selectedIssue = issueList.getSelectedValue();
-                if (selectedIssue != null && selectedIssue.getLocation() != null) {
+            int index = issueList.getSelectedIndex();
+            if (!e.getValueIsAdjusting() && !syncingSelection && index >= 0) {
+                ValidationIssue selectedIssue = issueModel.getIssueAt(index);
+                if (selectedIssue.getLocation() != null) {
                     navigateToCell(selectedIssue.getLocation());
                 }
             }
@@ -390,25 +396,35 @@ public class CsvPreviewWindow extends JDialog {
 
         // Pagination event handlers
         firstPageButton.addActionListener(e -> {
-            pagedData.firstPage();
-            refreshPage();
+            if (pagedData.firstPage()) {
+                refreshPage();
+            } else {
+                reportPageError();
+            }
         });
 
         prevPageButton.addActionListener(e -> {
             if (pagedData.previousPage()) {
                 refreshPage();
+            } else {
+                reportPageError();
             }
         });
 
         nextPageButton.addActionListener(e -> {
             if (pagedData.nextPage()) {
                 refreshPage();
+            } else {
+                reportPageError();
             }
         });
 
         lastPageButton.addActionListener(e -> {
-            pagedData.lastPage();
-            refreshPage();
+            if (pagedData.lastPage()) {
+                refreshPage();
+            } else {
+                reportPageError();
+            }
         });
 
         // Page field input
@@ -418,8 +434,9 @@ public class CsvPreviewWindow extends JDialog {
                 if (pagedData.goToPage(page)) {
                     refreshPage();
                 } else {
-                    // Reset to current page if invalid
+                    // Reset to current page if invalid or unreadable
                     pageField.setText(String.valueOf(pagedData.getCurrentPage() + 1));
+                    reportPageError();
                 }
             } catch (NumberFormatException ex) {
                 // Reset to current page if invalid
@@ -440,6 +457,11 @@ public class CsvPreviewWindow extends JDialog {
         // Set paged preview data
         previewTable.setPagedPreviewData(pagedData);
 
+        // Issues are grouped and listed virtually, so even a very broken file loads at once
+        issueModel = new IssueListModel(previewData.getIssueGrouping());
+        IssueListModel.show(issueList, issueModel);
+        int issueCount = issueModel.getGrouping().getIssueCount();
+
         // Update stats
         if (previewData.getStats() != null) {
             String statsText = String.format(
@@ -447,26 +469,18 @@ public class CsvPreviewWindow extends JDialog {
                 previewData.getStats().getFormattedFileSize(),
                 previewData.getStats().getTotalRows(),
                 previewData.getStats().getTotalColumns(),
-                previewData.getCellIssues().size()
+                issueCount
             );
             statsLabel.setText(statsText);
         }
 
-        // Load issues (all issues, not paged)
-        DefaultListModel<ValidationIssue> issueModel = new DefaultListModel<>();
-        for (ValidationIssue issue : pagedData.getAllCellIssues().values()) {
-            issueModel.addElement(issue);
-        }
-        issueList.setModel(issueModel);
-
         // Update issue count with modern styling
-        int issueCount = pagedData.getAllCellIssues().size();
         if (issueCount > 0) {
-            issueCountLabel.setText(String.format("⚠ %d validation issues found", issueCount));
+            issueCountLabel.setText(String.format("⚠ %,d validation issues found", issueCount));
             issueCountLabel.setForeground(TractionRecTheme.WARNING_ORANGE);
 
             // Update section title with count
-            issuesSectionTitle.setText(String.format("%s  Validation Issues (%d)",
+            issuesSectionTitle.setText(String.format("%s  Validation Issues (%,d)",
                 StyleUtils.Icons.WARNING, issueCount));
         } else {
             issueCountLabel.setText("✓ No validation issues found");
@@ -522,7 +536,16 @@ public class CsvPreviewWindow extends JDialog {
         int globalRow = location.row();
         int column = location.column();
 
-        // Navigate to the page containing this row
+        // Navigate to the page containing this row, computed from the row number alone
+        syncingSelection = true;
+        try {
+            showCell(globalRow, column);
+        } finally {
+            syncingSelection = false;
+        }
+    }
+
+    private void showCell(int globalRow, int column) {
         if (pagedData.goToRow(globalRow)) {
             refreshPage();
 
@@ -539,41 +562,51 @@ public class CsvPreviewWindow extends JDialog {
             // Select the cell
             previewTable.setRowSelectionInterval(pageRow, pageRow);
             previewTable.setColumnSelectionInterval(column, column);
+        } else {
+            reportPageError();
         }
     }
 
+    /**
+     * Tell the user a page could not be read, if that is why navigation failed.
+     * The current page stays on screen and the page info shows the error until the next page is shown.
+     */
+    private void reportPageError() {
+        IOException error = pagedData.getPageError();
+        if (error == null) {
+            return;
+        }
+        pageInfoLabel.setText("Could not read page: " + error.getMessage());
+        JOptionPane.showMessageDialog(this,
+            "Could not read these rows from the file. It may have changed or become unreadable since it was validated.\n"
+                + error.getMessage(),
+            "Preview Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+
     private void navigateToIssue(int pageRow, int column) {
+        if (syncingSelection) {
+            return;
+        }
         // Convert page-relative coordinates to global coordinates
         int globalRow = pagedData.getGlobalRowIndex(pageRow);
 
-        // Check if this cell has a validation issue
-        if (pagedData.hasCellIssue(pageRow, column)) {
-            ValidationIssue cellIssue = pagedData.getCellIssue(pageRow, column);
-            if (cellIssue != null) {
-                // Find and select the corresponding issue in the list
-                DefaultListModel<ValidationIssue> listModel = (DefaultListModel<ValidationIssue>) issueList.getModel();
-                for (int i = 0; i < listModel.getSize(); i++) {
-                    ValidationIssue issue = listModel.getElementAt(i);
-                    if (issue.getLocation() != null &&
-                        issue.getLocation().row() == globalRow &&
-                        issue.getLocation().column() == column) {
-
-                        // Select the issue in the list
-                        issueList.setSelectedIndex(i);
-
-                        // Scroll to make the selected issue visible
-                        issueList.ensureIndexIsVisible(i);
-
-                        // Highlight the cell
-                        previewTable.highlightCell(new CellLocation(pageRow, column));
-                        break;
-                    }
-                }
+        // Look the cell's issue up and show its own entry, opening its group if need be
+        int issue = previewData.findCellIssue(globalRow, column);
+        syncingSelection = true;
+        try {
+            if (issue != CellIssueIndex.NONE) {
+                int index = issueModel.revealIssue(issue);
+                issueList.setSelectedIndex(index);
+                issueList.ensureIndexIsVisible(index);
+                previewTable.highlightCell(new CellLocation(pageRow, column));
+            } else {
+                // Clear issue selection if cell has no issues
+                issueList.clearSelection();
+                previewTable.highlightCell(null);
             }
-        } else {
-            // Clear issue selection if cell has no issues
-            issueList.clearSelection();
-            previewTable.highlightCell(null);
+        } finally {
+            syncingSelection = false;
         }
     }
 
@@ -0,0 +1,176 @@
+package com.tractionrec.recrec.ui;
+
+import com.tractionrec.recrec.csv.IssueGroup;
+import com.tractionrec.recrec.csv.IssueGrouping;
+import com.tractionrec.recrec.csv.ValidationIssue;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+
+/**
+ * Virtual list of issue groups, each followed by its member issues while it is expanded.
+ * Nothing is copied into the model: a group is an {@link IssueGroup} element and a member is
+ * rendered from the grouping only when the list asks for it, which a list with a fixed cell
+ * size does for the visible rows alone.
+ */
+public class IssueListModel extends AbstractListModel<Object> {
+
+    private final IssueGrouping grouping;
+    private final boolean[] expanded;
+    private final int[] groupRows; // List index of each group's entry
+    private int size;
+
+    public IssueListModel(IssueGrouping grouping) {
+        this.grouping = grouping;
+        this.expanded = new boolean[grouping.getGroupCount()];
+        this.groupRows = new int[grouping.getGroupCount()];
+        layOut();
+    }
+
+    /**
+     * Show a model in a list, sizing every cell like the first so the list never measures the rest
+     */
+    public static void show(JList<Object> list, IssueListModel model) {
+        list.setModel(model);
+        if (model.getSize() > 0) {
+            list.setPrototypeCellValue(model.getElementAt(0));
+        }
+    }
+
+    /**
+     * Let the user expand and fold the groups of a list showing this model by double-clicking
+     * a group or pressing Enter on it
+     */
+    public static void installToggle(JList<Object> list) {
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (e.getClickCount() == 2 && index >= 0 && list.getModel() instanceof IssueListModel model) {
+                    model.toggle(index);
+                }
+            }
+        });
+        list.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "toggleIssueGroup");
+        list.getActionMap().put("toggleIssueGroup", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                int index = list.getSelectedIndex();
+                if (index >= 0 && list.getModel() instanceof IssueListModel model) {
+                    model.toggle(index);
+                }
+            }
+        });
+    }
+
+    public IssueGrouping getGrouping() {
+        return grouping;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The {@link IssueGroup} at a group's entry, otherwise the member {@link ValidationIssue}
+     */
+    @Override
+    public Object getElementAt(int index) {
+        int group = groupAt(index);
+        int member = index - groupRows[group] - 1;
+        return member < 0 ? grouping.getGroup(group) : grouping.getMember(group, member);
+    }
+
+    /**
+     * The issue an entry stands for: a member itself, or the first issue of a group
+     */
+    public ValidationIssue getIssueAt(int index) {
+        int group = groupAt(index);
+        int member = Math.max(0, index - groupRows[group] - 1);
+        return grouping.getMember(group, member);
+    }
+
+    public boolean isGroupEntry(int index) {
+        return groupRows[groupAt(index)] == index;
+    }
+
+    /**
+     * Whether the entry is a group whose members are listed below it
+     */
+    public boolean isExpanded(int index) {
+        int group = groupAt(index);
+        return groupRows[group] == index && expanded[group];
+    }
+
+    /**
+     * Whether the entry is a group with more than one issue
+     */
+    public boolean isExpandable(int index) {
+        int group = groupAt(index);
+        return groupRows[group] == index && grouping.getMemberCount(group) > 1;
+    }
+
+    /**
+     * List or fold away the members of the group at an entry
+     */
+    public void toggle(int index) {
+        int group = groupAt(index);
+        if (groupRows[group] != index || grouping.getMemberCount(group) <= 1) {
+            return;
+        }
+        setExpanded(group, !expanded[group]);
+    }
+
+    /**
+     * Entry showing an issue: the issue itself when its group is expanded, otherwise its group
+     */
+    public int indexOfIssue(int issue) {
+        int group = grouping.groupOf(issue);
+        return expanded[group] ? groupRows[group] + 1 + grouping.memberOf(issue) : groupRows[group];
+    }
+
+    /**
+     * Expand an issue's group if needed and return the issue's own entry
+     */
+    public int revealIssue(int issue) {
+        int group = grouping.groupOf(issue);
+        if (!expanded[group] && grouping.getMemberCount(group) > 1) {
+            setExpanded(group, true);
+        }
+        return indexOfIssue(issue);
+    }
+
+    private void setExpanded(int group, boolean expand) {
+        expanded[group] = expand;
+        layOut();
+        int members = grouping.getMemberCount(group);
+        int first = groupRows[group] + 1;
+        if (expand) {
+            fireIntervalAdded(this, first, first + members - 1);
+        } else {
+            fireIntervalRemoved(this, first, first + members - 1);
+        }
+    }
+
+    private void layOut() {
+        int row = 0;
+        for (int group = 0; group < groupRows.length; group++) {
+            groupRows[group] = row;
+            row += 1 + (expanded[group] ? grouping.getMemberCount(group) : 0);
+        }
+        size = row;
+    }
+
+    private int groupAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Entry " + index + " of " + size);
+        }
+        int found = Arrays.binarySearch(groupRows, index);
+        return found >= 0 ? found : -found - 2;
+    }
+}
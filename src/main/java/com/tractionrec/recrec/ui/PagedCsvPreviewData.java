@@ -1,26 +1,46 @@
 package com.tractionrec.recrec.ui;
 
+import com.tractionrec.recrec.csv.CsvPageReader;
 import com.tractionrec.recrec.csv.CsvPreviewData;
 import com.tractionrec.recrec.csv.ValidationIssue;
-import com.tractionrec.recrec.domain.CellLocation;
+import com.tractionrec.recrec.domain.IssueSeverity;
 
-import java.util.Map;
+import java.io.IOException;
 
 /**
- * Wrapper for CsvPreviewData that provides paging functionality
+ * Wrapper for CsvPreviewData that provides paging functionality. Pages within the in-memory
+ * preview are sliced from it; when the preview has a {@link CsvPageReader}, pages past it are
+ * read from disk as they are visited, so every row of the file can be paged to.
  */
 public class PagedCsvPreviewData {
 
     private final CsvPreviewData fullData;
+    private final CsvPageReader pageReader;
     private final int pageSize;
+    private final int rowCount;
     private int currentPage;
     private final int totalPages;
 
+    // Rows of the current page when it was read from disk, null otherwise
+    private String[][] diskPageRows;
+    private IOException pageError;
+
     public PagedCsvPreviewData(CsvPreviewData fullData, int pageSize) {
         this.fullData = fullData;
+        this.pageReader = fullData.getPageReader();
         this.pageSize = pageSize;
+        this.rowCount = pageReader != null
+            ? Math.max(pageReader.getTotalRows(), fullData.getPreviewRowCount())
+            : fullData.getPreviewRowCount();
         this.currentPage = 0;
-        this.totalPages = (int) Math.ceil((double) fullData.getPreviewRowCount() / pageSize);
+        this.totalPages = (int) Math.ceil((double) rowCount / pageSize);
+    }
+
+    /**
+     * Get the number of rows that can be paged through
+     */
+    public int getRowCount() {
+        return rowCount;
     }
 
     /**
@@ -44,13 +64,21 @@ public class PagedCsvPreviewData {
         return pageSize;
     }
 
+    /**
+     * Why the last page could not be read from disk, or null if the last navigation did not fail reading
+     */
+    public IOException getPageError() {
+        return pageError;
+    }
+
     /**
      * Navigate to a specific page
+     * @return false if the page is out of range or could not be read; {@link #getPageError()} tells which
      */
     public boolean goToPage(int page) {
+        pageError = null;
         if (page >= 0 && page < totalPages) {
-            currentPage = page;
-            return true;
+            return loadPage(page);
         }
         return false;
     }
@@ -71,27 +99,25 @@ public class PagedCsvPreviewData {
 
     /**
      * Go to the first page
+     * @return false if the page could not be read
      */
-    public void firstPage() {
-        currentPage = 0;
+    public boolean firstPage() {
+        return loadPage(0);
     }
 
     /**
      * Go to the last page
+     * @return false if the page could not be read
      */
-    public void lastPage() {
-        if (totalPages > 0) {
-            currentPage = totalPages - 1;
-        } else {
-            currentPage = 0;
-        }
+    public boolean lastPage() {
+        return loadPage(Math.max(0, totalPages - 1));
     }
 
     /**
      * Navigate to the page containing a specific row
      */
     public boolean goToRow(int globalRowIndex) {
-        if (globalRowIndex >= 0 && globalRowIndex < fullData.getPreviewRowCount()) {
+        if (globalRowIndex >= 0 && globalRowIndex < rowCount) {
             int targetPage = globalRowIndex / pageSize;
             return goToPage(targetPage);
         }
@@ -109,6 +135,9 @@ public class PagedCsvPreviewData {
      * Get the ending row index for the current page (global index, exclusive)
      */
     public int getCurrentPageEndRow() {
+        if (diskPageRows != null) {
+            return getCurrentPageStartRow() + diskPageRows.length;
+        }
         return Math.min((currentPage + 1) * pageSize, fullData.getPreviewRowCount());
     }
 
@@ -127,6 +156,10 @@ public class PagedCsvPreviewData {
         int endRow = getCurrentPageEndRow();
         int pageRows = endRow - startRow;
 
+        if (diskPageRows != null) {
+            return diskPageRows;
+        }
+
         String[][] pageData = new String[pageRows][];
         String[][] fullDataArray = fullData.getData();
 
@@ -148,6 +181,12 @@ public class PagedCsvPreviewData {
      * Get cell value for current page (using page-relative coordinates)
      */
     public String getCellValue(int pageRow, int column) {
+        if (diskPageRows != null) {
+            if (pageRow >= 0 && pageRow < diskPageRows.length && column >= 0 && column < diskPageRows[pageRow].length) {
+                return diskPageRows[pageRow][column] != null ? diskPageRows[pageRow][column] : "";
+            }
+            return "";
+        }
         int globalRow = getCurrentPageStartRow() + pageRow;
         return fullData.getCellValue(globalRow, column);
     }
@@ -156,16 +195,21 @@ public class PagedCsvPreviewData {
      * Check if a cell has validation issues (using page-relative coordinates)
      */
     public boolean hasCellIssue(int pageRow, int column) {
-        int globalRow = getCurrentPageStartRow() + pageRow;
-        return fullData.hasCellIssue(globalRow, column);
+        return fullData.hasCellIssue(getCurrentPageStartRow() + pageRow, column);
     }
 
     /**
      * Get validation issue for a specific cell (using page-relative coordinates)
      */
     public ValidationIssue getCellIssue(int pageRow, int column) {
-        int globalRow = getCurrentPageStartRow() + pageRow;
-        return fullData.getCellIssue(globalRow, column);
+        return fullData.getCellIssue(getCurrentPageStartRow() + pageRow, column);
+    }
+
+    /**
+     * Severity of the issue on a cell, or null if it has none (using page-relative coordinates)
+     */
+    public IssueSeverity getCellSeverity(int pageRow, int column) {
+        return fullData.getCellSeverity(getCurrentPageStartRow() + pageRow, column);
     }
 
     /**
@@ -189,13 +233,6 @@ public class PagedCsvPreviewData {
         return globalRow >= getCurrentPageStartRow() && globalRow < getCurrentPageEndRow();
     }
 
-    /**
-     * Get all validation issues (for the issues list)
-     */
-    public Map<CellLocation, ValidationIssue> getAllCellIssues() {
-        return fullData.getCellIssues();
-    }
-
     /**
      * Get the underlying full data
      */
@@ -215,12 +252,37 @@ public class PagedCsvPreviewData {
      */
     public String getPageInfo() {
         if (totalPages <= 1) {
-            return String.format("Showing all %d rows", fullData.getPreviewRowCount());
+            return String.format("Showing all %d rows", rowCount);
         }
 
         int startRow = getCurrentPageStartRow() + 1; // 1-based for display
         int endRow = getCurrentPageEndRow();
         return String.format("Page %d of %d (rows %d-%d of %d)",
-            currentPage + 1, totalPages, startRow, endRow, fullData.getPreviewRowCount());
+            currentPage + 1, totalPages, startRow, endRow, rowCount);
+    }
+
+    /**
+     * Make a page current, reading it from disk if it lies past the in-memory preview
+     * @return false if the page could not be read, leaving the current page unchanged and the error in {@link #pageError}
+     */
+    private boolean loadPage(int page) {
+        pageError = null;
+        int startRow = page * pageSize;
+        int endRow = Math.min(startRow + pageSize, rowCount);
+        if (endRow <= fullData.getPreviewRowCount() || pageReader == null) {
+            currentPage = page;
+            diskPageRows = null;
+            return true;
+        }
+
+        try {
+            String[][] rows = pageReader.readRows(startRow, endRow - startRow);
+            diskPageRows = rows;
+            currentPage = page;
+            return true;
+        } catch (IOException e) {
+            pageError = e;
+            return false;
+        }
     }
 }
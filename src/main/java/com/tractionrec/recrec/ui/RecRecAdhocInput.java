@@ -407,6 +407,7 @@ public class RecRecAdhocInput extends RecRecForm {
         // Clear any previous query results when returning to input form
         // This ensures a fresh start for each new search
         state.queryResults = null;
+        state.resultAggregator = null;
 
         // Restore form data if available
         if (state.adhocQueryItem != null) {
@@ -160,6 +160,7 @@ public class RecRecAdhocProgress extends RecRecForm {
 
         // Clear any previous results before starting new search
         state.queryResults = new java.util.ArrayList<>();
+        state.resultAggregator = null;
 
         // Start the query in a background thread
         CompletableFuture.supplyAsync(() -> {
@@ -3,10 +3,11 @@ package com.tractionrec.recrec.ui;
 import com.tractionrec.recrec.RecRecState;
 import com.tractionrec.recrec.csv.CsvFileStats;
 import com.tractionrec.recrec.csv.CsvPreviewData;
+import com.tractionrec.recrec.csv.CsvValidationReport;
 import com.tractionrec.recrec.csv.CsvValidationResult;
 import com.tractionrec.recrec.csv.CsvValidationService;
-import com.tractionrec.recrec.csv.ValidationIssue;
 import com.tractionrec.recrec.csv.ValidationOptions;
+import com.tractionrec.recrec.csv.ValidationProgressListener;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
@@ -15,23 +16,28 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.nio.file.Files;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * CSV validation form with preview and issue display
  */
 public class RecRecCsvValidation extends RecRecForm {
 
+    private static final int PREVIEW_ROWS = 50000; // Rows kept for paging in the preview window
+
     private JPanel rootPanel;
     private JButton backButton;
     private JButton nextButton;
     private JButton validateButton;
+    private JButton cancelValidationButton;
     private JButton fixButton;
     private JButton exportButton;
     private JCheckBox ignoreWarningsCheckbox;
 
     private JButton previewButton;
-    private JList<ValidationIssue> issueList;
+    private JList<Object> issueList;
     private JLabel statsLabel;
     private JLabel statusLabel;
     private JProgressBar validationProgress;
@@ -39,6 +45,7 @@ public class RecRecCsvValidation extends RecRecForm {
     private final CsvValidationService validationService;
     private CsvValidationResult validationResult;
     private CsvPreviewData previewData;
+    private ValidationRun activeValidation; // Validation in progress, null when none
 
     public RecRecCsvValidation(RecRecState state, NavigationAction navAction) {
         super(state, navAction);
@@ -149,6 +156,12 @@ public class RecRecCsvValidation extends RecRecForm {
         buttonRow1.add(validateButton);
         StyleUtils.addHorizontalSpacing(buttonRow1, StyleUtils.SPACING_MEDIUM);
 
+        cancelValidationButton = StyleUtils.createIconButton("Cancel Validation", StyleUtils.Icons.CROSS);
+        cancelValidationButton.setVisible(false);
+        StyleUtils.styleButtonSecondary(cancelValidationButton);
+        buttonRow1.add(cancelValidationButton);
+        StyleUtils.addHorizontalSpacing(buttonRow1, StyleUtils.SPACING_MEDIUM);
+
         fixButton = StyleUtils.createIconButton("Fix Issues", StyleUtils.Icons.SETTINGS);
         fixButton.setEnabled(false);
         StyleUtils.styleButtonSecondary(fixButton);
@@ -210,6 +223,7 @@ public class RecRecCsvValidation extends RecRecForm {
         issueList.setCellRenderer(new ValidationIssueListRenderer());
         issueList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         issueList.setFont(TypographyConstants.FONT_SMALL);
+        IssueListModel.installToggle(issueList);
 
         JScrollPane scrollPane = new JScrollPane(issueList);
         scrollPane.setPreferredSize(new Dimension(600, 200));
@@ -243,6 +257,13 @@ public class RecRecCsvValidation extends RecRecForm {
 
         validateButton.addActionListener(e -> performValidation());
 
+        cancelValidationButton.addActionListener(e -> {
+            if (activeValidation != null) {
+                activeValidation.cancelled = true;
+                statusLabel.setText("Cancelling validation...");
+            }
+        });
+
         fixButton.addActionListener(e -> performAutoFix());
 
         ignoreWarningsCheckbox.addActionListener(e -> updateNextButtonState());
@@ -288,35 +309,121 @@ public class RecRecCsvValidation extends RecRecForm {
             return;
         }
 
+        // Only the latest validation may update the form
+        if (activeValidation != null) {
+            activeValidation.cancelled = true;
+        }
+        ValidationRun run = new ValidationRun();
+        activeValidation = run;
+
         // Show progress
+        validationResult = null;
+        previewData = null;
+        issueList.setModel(new DefaultListModel<>());
+        previewButton.setEnabled(false);
+        fixButton.setEnabled(false);
+        nextButton.setEnabled(false);
+        validationProgress.setIndeterminate(true);
+        validationProgress.setStringPainted(false);
         validationProgress.setVisible(true);
         validateButton.setEnabled(false);
+        cancelValidationButton.setVisible(true);
         statusLabel.setText("Validating CSV file...");
 
         // Perform validation in background
-        CompletableFuture.supplyAsync(() -> {
-            CsvValidationResult result = validationService.validateCsv(state.inputFile);
-            // Request more rows for paging support - up to 50k rows
-            CsvPreviewData preview = validationService.generatePreview(state.inputFile, 50000);
-            return new ValidationData(result, preview);
-        }).thenAccept(data -> {
+        // Request more rows for paging support - up to 50k rows
+        File inputFile = state.inputFile;
+        CompletableFuture.supplyAsync(() -> validationService.validateWithPreview(inputFile, PREVIEW_ROWS, run))
+        .thenAccept(report -> {
             SwingUtilities.invokeLater(() -> {
-                this.validationResult = data.result;
-                this.previewData = data.preview;
-                updateUI();
-                validationProgress.setVisible(false);
-                validateButton.setEnabled(true);
+                if (run != activeValidation) {
+                    return;
+                }
+                finishValidation();
+                showReport(report);
             });
         }).exceptionally(throwable -> {
             SwingUtilities.invokeLater(() -> {
-                statusLabel.setText("Validation failed: " + throwable.getMessage());
-                validationProgress.setVisible(false);
-                validateButton.setEnabled(true);
+                if (run != activeValidation) {
+                    return;
+                }
+                finishValidation();
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+                if (cause instanceof CancellationException) {
+                    previewData = null;
+                    previewButton.setEnabled(false);
+                    statusLabel.setText("Validation cancelled");
+                } else {
+                    statusLabel.setText("Validation failed: " + cause.getMessage());
+                }
             });
             return null;
         });
     }
 
+    private void finishValidation() {
+        activeValidation = null;
+        validationProgress.setVisible(false);
+        validateButton.setEnabled(true);
+        cancelValidationButton.setVisible(false);
+    }
+
+    /**
+     * Show the progress of a validation while it runs
+     */
+    private void showValidationProgress(long bytesProcessed, long totalBytes, int rowsProcessed,
+                                        int errorsFound, int warningsFound) {
+        int percent = totalBytes > 0 ? (int) ((bytesProcessed * 100L) / totalBytes) : 100;
+        validationProgress.setIndeterminate(false);
+        validationProgress.setValue(percent);
+        validationProgress.setStringPainted(true);
+        validationProgress.setString(percent + "%");
+        statusLabel.setText(String.format("Validating CSV file... %,d rows checked, %,d errors and %,d warnings so far",
+            rowsProcessed, errorsFound, warningsFound));
+    }
+
+    /**
+     * Progress of one validation, which the form can cancel
+     */
+    private final class ValidationRun implements ValidationProgressListener {
+        volatile boolean cancelled;
+
+        @Override
+        public void onProgress(long bytesProcessed, long totalBytes, int rowsProcessed, int errorsFound, int warningsFound) {
+            SwingUtilities.invokeLater(() -> {
+                if (this == activeValidation) {
+                    showValidationProgress(bytesProcessed, totalBytes, rowsProcessed, errorsFound, warningsFound);
+                }
+            });
+        }
+
+        @Override
+        public void onFirstPage(CsvPreviewData firstPage) {
+            // Let the preview open on the first rows while the rest is validated
+            SwingUtilities.invokeLater(() -> {
+                if (this == activeValidation && previewData == null) {
+                    previewData = firstPage;
+                    previewButton.setEnabled(true);
+                }
+            });
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Show a validation report for the current input file
+     */
+    private void showReport(CsvValidationReport report) {
+        this.validationResult = report.getResult();
+        this.previewData = report.getPreview();
+        updateUI();
+    }
+
     private void performAutoFix() {
         if (state.inputFile == null || validationResult == null) {
             return;
@@ -343,11 +450,12 @@ public class RecRecCsvValidation extends RecRecForm {
         // Perform auto-fix in background
         CompletableFuture.supplyAsync(() -> {
             ValidationOptions options = ValidationOptions.defaults();
-            return validationService.fixCommonIssues(state.inputFile, options);
-        }).thenAccept(fixedFile -> {
+            return validationService.fixCommonIssues(state.inputFile, options, PREVIEW_ROWS);
+        }).thenAccept(fixResult -> {
             SwingUtilities.invokeLater(() -> {
                 validationProgress.setVisible(false);
                 fixButton.setEnabled(true);
+                File fixedFile = fixResult.getOutputFile();
 
                 // Show success message with option to use fixed file
                 int useFixed = JOptionPane.showConfirmDialog(rootPanel,
@@ -358,9 +466,9 @@ public class RecRecCsvValidation extends RecRecForm {
                     JOptionPane.INFORMATION_MESSAGE);
 
                 if (useFixed == JOptionPane.YES_OPTION) {
-                    // Update state to use fixed file and re-validate
+                    // Use the fixed file, whose report was produced while it was written
                     state.inputFile = fixedFile;
-                    performValidation();
+                    showReport(fixResult.getReport());
                 } else {
                     statusLabel.setText("Auto-fix completed. Fixed file saved as: " + fixedFile.getName());
                 }
@@ -551,11 +659,8 @@ public class RecRecCsvValidation extends RecRecForm {
     }
 
     private void updateIssuesList() {
-        DefaultListModel<ValidationIssue> listModel = new DefaultListModel<>();
-        for (ValidationIssue issue : validationResult.getIssues()) {
-            listModel.addElement(issue);
-        }
-        issueList.setModel(listModel);
+        // Repeats of the same issue are listed once with their row count; opening a group lists its rows
+        IssueListModel.show(issueList, new IssueListModel(validationResult.getIssueGrouping()));
     }
 
     private void updateControlsState() {
@@ -641,10 +746,11 @@ public class RecRecCsvValidation extends RecRecForm {
 
         // Perform replacement in background
         CompletableFuture.supplyAsync(() -> {
-            return validationService.replaceScientificNotationValue(state.inputFile, scientificValue, replacementValue);
-        }).thenAccept(replacedFile -> {
+            return validationService.replaceScientificNotationValue(state.inputFile, scientificValue, replacementValue, PREVIEW_ROWS);
+        }).thenAccept(replaceResult -> {
             SwingUtilities.invokeLater(() -> {
                 validationProgress.setVisible(false);
+                File replacedFile = replaceResult.getOutputFile();
 
                 // Show success message with option to use replaced file
                 int useReplaced = JOptionPane.showConfirmDialog(rootPanel,
@@ -657,9 +763,9 @@ public class RecRecCsvValidation extends RecRecForm {
                     JOptionPane.INFORMATION_MESSAGE);
 
                 if (useReplaced == JOptionPane.YES_OPTION) {
-                    // Update state to use replaced file and re-validate
+                    // Use the replaced file, whose report was produced while it was written
                     state.inputFile = replacedFile;
-                    performValidation();
+                    showReport(replaceResult.getReport());
                 } else {
                     statusLabel.setText("Replacement completed. Replaced file saved as: " + replacedFile.getName());
                 }
@@ -677,17 +783,4 @@ public class RecRecCsvValidation extends RecRecForm {
             return null;
         });
     }
-
-    /**
-     * Helper class to hold validation data
-     */
-    private static class ValidationData {
-        final CsvValidationResult result;
-        final CsvPreviewData preview;
-
-        ValidationData(CsvValidationResult result, CsvPreviewData preview) {
-            this.result = result;
-            this.preview = preview;
-        }
-    }
 }
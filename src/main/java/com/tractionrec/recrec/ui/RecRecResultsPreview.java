@@ -1,10 +1,17 @@
 package com.tractionrec.recrec.ui;
 
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.tractionrec.recrec.RecRecState;
+import com.tractionrec.recrec.analysis.DuplicateChargeDetector;
+import com.tractionrec.recrec.analysis.DuplicateChargeReport;
+import com.tractionrec.recrec.analysis.DuplicateGroup;
+import com.tractionrec.recrec.analysis.GroupTotals;
+import com.tractionrec.recrec.analysis.ResultAggregator;
+import com.tractionrec.recrec.analysis.ResultSummary;
+import com.tractionrec.recrec.analysis.SummaryDimension;
+import com.tractionrec.recrec.diagnostics.FailureCapture;
 import com.tractionrec.recrec.domain.QueryBy;
 import com.tractionrec.recrec.domain.QueryTargetVisitor;
 import com.tractionrec.recrec.domain.express.ExpressEntity;
@@ -19,21 +26,35 @@ import com.tractionrec.recrec.domain.result.QueryResult;
 import com.tractionrec.recrec.domain.result.TransactionQueryResult;
 import com.tractionrec.recrec.domain.result.PaymentAccountQueryResult;
 import com.tractionrec.recrec.domain.result.BINQueryResult;
+import com.tractionrec.recrec.export.DuplicateReportCsvExporter;
+import com.tractionrec.recrec.export.ExportFormat;
+import com.tractionrec.recrec.export.ExportProgressListener;
+import com.tractionrec.recrec.export.ParallelCsvExporter;
+import com.tractionrec.recrec.export.StreamingResultExporter;
+import com.tractionrec.recrec.export.SummaryCsvExporter;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumn;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
  * Unified results preview form for displaying transaction query results
@@ -54,8 +75,24 @@ public class RecRecResultsPreview extends RecRecForm {
     private JButton exportButton;
     private JButton backButton;
     private JButton newQueryButton;
+    private JComboBox<SummaryDimension> summaryDimensionCombo;
+    private JLabel summaryTotalsLabel;
+    private JButton exportSummaryButton;
+    private SummaryTableModel summaryTableModel;
+    private ResultSummary resultSummary;
+    private JLabel duplicatesLabel;
+    private JButton exportDuplicatesButton;
+    private DuplicatesTableModel duplicatesTableModel;
+    private DuplicateChargeReport duplicateReport;
+    private CaptureBrowser captureBrowser;
     private JPanel warningBar; // Warning bar for result limit
     private JLabel warningLabel;
+    private JComboBox<String> statusFilterCombo;
+    private JComboBox<String> merchantFilterCombo;
+    private JTextField searchField;
+    private JButton clearFiltersButton;
+    private JCheckBox executionColumnsCheckBox;
+    private Timer searchDebounceTimer;
 
     // Data management - now polymorphic
     private List<? extends OutputRow> allOutputRows;
@@ -65,6 +102,14 @@ public class RecRecResultsPreview extends RecRecForm {
     private int totalPages;
     private Class<? extends OutputRow> outputRowClass;
 
+    // Sort and filter state - the view holds row indices into allOutputRows in display order
+    private static final String ALL_FILTER_OPTION = "All";
+    private ResultRowIndex rowIndex;
+    private int[] viewRows = new int[0];
+    private int sortColumn = -1;
+    private boolean sortAscending = true;
+    private int viewGeneration = 0;
+
     public RecRecResultsPreview(RecRecState state, NavigationAction navigationAction) {
         super(state, navigationAction);
         setupUI();
@@ -89,10 +134,21 @@ public class RecRecResultsPreview extends RecRecForm {
         rootPanel.add(headerSection);
         StyleUtils.addVerticalSpacing(rootPanel, StyleUtils.SPACING_LARGE);
 
-        // Results Table Section
-        JPanel tableSection = createTableSection();
-        tableSection.setAlignmentX(Component.LEFT_ALIGNMENT);
-        rootPanel.add(tableSection);
+        // Results and summary tabs
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.setFont(TypographyConstants.FONT_BODY_BOLD);
+        tabbedPane.setAlignmentX(Component.LEFT_ALIGNMENT);
+        tabbedPane.addTab("Results", createTableSection());
+        tabbedPane.addTab("Summary", createSummarySection());
+        tabbedPane.addTab("Duplicates", createDuplicatesSection());
+        tabbedPane.addTab("Captures", createCapturesSection());
+        // Captures are written in the background as queries fail, so read them afresh each time the tab is shown
+        tabbedPane.addChangeListener(e -> {
+            if (tabbedPane.getSelectedIndex() == tabbedPane.indexOfTab("Captures")) {
+                captureBrowser.refresh();
+            }
+        });
+        rootPanel.add(tabbedPane);
         StyleUtils.addVerticalSpacing(rootPanel, StyleUtils.SPACING_LARGE);
 
         // Navigation Section
@@ -137,6 +193,12 @@ public class RecRecResultsPreview extends RecRecForm {
         section.add(warningBar);
         StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_SMALL);
 
+        // Filter bar
+        JPanel filterPanel = createFilterPanel();
+        filterPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        section.add(filterPanel);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_SMALL);
+
         // Create results table
         tableModel = new UniversalResultsTableModel();
         resultsTable = new JTable(tableModel);
@@ -160,6 +222,118 @@ public class RecRecResultsPreview extends RecRecForm {
         return section;
     }
 
+    private JPanel createSummarySection() {
+        JPanel section = StyleUtils.createElevatedCard();
+        section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
+
+        JLabel sectionTitle = StyleUtils.createSectionTitle(StyleUtils.Icons.FILE + "  Reconciliation Summary");
+        section.add(sectionTitle);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_MEDIUM);
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, StyleUtils.SPACING_MEDIUM, 0));
+        controls.setOpaque(false);
+        controls.setAlignmentX(Component.LEFT_ALIGNMENT);
+        controls.setMaximumSize(new Dimension(Integer.MAX_VALUE, StyleUtils.INPUT_HEIGHT + 8));
+
+        JLabel groupByLabel = new JLabel("Group by:");
+        groupByLabel.setFont(TypographyConstants.FONT_CAPTION);
+        controls.add(groupByLabel);
+
+        summaryDimensionCombo = new JComboBox<>(SummaryDimension.values());
+        summaryDimensionCombo.setPreferredSize(new Dimension(180, StyleUtils.INPUT_HEIGHT));
+        controls.add(summaryDimensionCombo);
+
+        exportSummaryButton = StyleUtils.createIconButton("Export Summary", StyleUtils.Icons.DOWNLOAD);
+        StyleUtils.styleButtonSecondary(exportSummaryButton);
+        exportSummaryButton.setEnabled(false);
+        controls.add(exportSummaryButton);
+
+        summaryTotalsLabel = new JLabel("Calculating summary...");
+        summaryTotalsLabel.setFont(TypographyConstants.FONT_CAPTION);
+        summaryTotalsLabel.setForeground(TractionRecTheme.TEXT_SECONDARY);
+        controls.add(summaryTotalsLabel);
+
+        section.add(controls);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_SMALL);
+
+        summaryTableModel = new SummaryTableModel();
+        JTable summaryTable = new JTable(summaryTableModel);
+        summaryTable.setFont(TypographyConstants.FONT_SMALL);
+        summaryTable.setRowHeight(24);
+        summaryTable.setGridColor(new Color(0xE5E7EB));
+        summaryTable.setSelectionBackground(new Color(0xDCFDF7));
+        summaryTable.setSelectionForeground(TractionRecTheme.TEXT_PRIMARY);
+        summaryTable.setAutoCreateRowSorter(true); // Numeric columns sort and right-align via their column classes
+
+        JScrollPane scrollPane = new JScrollPane(summaryTable);
+        scrollPane.setBorder(StyleUtils.createInputBorder());
+        scrollPane.setBackground(Color.WHITE);
+        scrollPane.setPreferredSize(new Dimension(1200, 600));
+        scrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
+        section.add(scrollPane);
+
+        return section;
+    }
+
+    private JPanel createDuplicatesSection() {
+        JPanel section = StyleUtils.createElevatedCard();
+        section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
+
+        JLabel sectionTitle = StyleUtils.createSectionTitle(StyleUtils.Icons.FILE + "  Potential Duplicate Charges");
+        section.add(sectionTitle);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_MEDIUM);
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, StyleUtils.SPACING_MEDIUM, 0));
+        controls.setOpaque(false);
+        controls.setAlignmentX(Component.LEFT_ALIGNMENT);
+        controls.setMaximumSize(new Dimension(Integer.MAX_VALUE, StyleUtils.INPUT_HEIGHT + 8));
+
+        exportDuplicatesButton = StyleUtils.createIconButton("Export Report", StyleUtils.Icons.DOWNLOAD);
+        StyleUtils.styleButtonSecondary(exportDuplicatesButton);
+        exportDuplicatesButton.setEnabled(false);
+        controls.add(exportDuplicatesButton);
+
+        duplicatesLabel = new JLabel("Checking for duplicate charges...");
+        duplicatesLabel.setFont(TypographyConstants.FONT_CAPTION);
+        duplicatesLabel.setForeground(TractionRecTheme.TEXT_SECONDARY);
+        controls.add(duplicatesLabel);
+
+        section.add(controls);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_SMALL);
+
+        duplicatesTableModel = new DuplicatesTableModel();
+        JTable duplicatesTable = new JTable(duplicatesTableModel);
+        duplicatesTable.setFont(TypographyConstants.FONT_SMALL);
+        duplicatesTable.setRowHeight(24);
+        duplicatesTable.setGridColor(new Color(0xE5E7EB));
+        duplicatesTable.setSelectionBackground(new Color(0xDCFDF7));
+        duplicatesTable.setSelectionForeground(TractionRecTheme.TEXT_PRIMARY);
+
+        JScrollPane scrollPane = new JScrollPane(duplicatesTable);
+        scrollPane.setBorder(StyleUtils.createInputBorder());
+        scrollPane.setBackground(Color.WHITE);
+        scrollPane.setPreferredSize(new Dimension(1200, 600));
+        scrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
+        section.add(scrollPane);
+
+        return section;
+    }
+
+    private JPanel createCapturesSection() {
+        JPanel section = StyleUtils.createElevatedCard();
+        section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
+
+        JLabel sectionTitle = StyleUtils.createSectionTitle(StyleUtils.Icons.FILE + "  Captured Requests and Responses");
+        section.add(sectionTitle);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_MEDIUM);
+
+        captureBrowser = new CaptureBrowser(FailureCapture.shared());
+        captureBrowser.setAlignmentX(Component.LEFT_ALIGNMENT);
+        section.add(captureBrowser);
+
+        return section;
+    }
+
     private void setupTable() {
         // Table appearance
         resultsTable.setFont(TypographyConstants.FONT_SMALL);
@@ -201,6 +375,70 @@ public class RecRecResultsPreview extends RecRecForm {
         }
     }
 
+    /**
+     * Rebuild the table's columns from the model, leaving out the execution columns unless they are asked for.
+     * Hidden columns stay in the model, so sorting by model column is unaffected.
+     */
+    private void showColumns() {
+        resultsTable.createDefaultColumnsFromModel();
+        setupColumnWidths();
+        if (executionColumnsCheckBox.isSelected()) {
+            return;
+        }
+        Field[] fields = tableModel.getFields();
+        for (int i = resultsTable.getColumnCount() - 1; i >= 0; i--) {
+            TableColumn column = resultsTable.getColumnModel().getColumn(i);
+            int modelIndex = column.getModelIndex();
+            if (modelIndex < fields.length && OutputRow.isExecutionColumn(fields[modelIndex].getName())) {
+                resultsTable.removeColumn(column);
+            }
+        }
+    }
+
+    private JPanel createFilterPanel() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, StyleUtils.SPACING_MEDIUM, 0));
+        panel.setOpaque(false);
+        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, StyleUtils.INPUT_HEIGHT + 8));
+
+        JLabel statusLabel = new JLabel("Status:");
+        statusLabel.setFont(TypographyConstants.FONT_CAPTION);
+        panel.add(statusLabel);
+
+        statusFilterCombo = new JComboBox<>(new String[]{ALL_FILTER_OPTION});
+        statusFilterCombo.setPreferredSize(new Dimension(130, StyleUtils.INPUT_HEIGHT));
+        panel.add(statusFilterCombo);
+
+        JLabel merchantLabel = new JLabel("Merchant:");
+        merchantLabel.setFont(TypographyConstants.FONT_CAPTION);
+        panel.add(merchantLabel);
+
+        merchantFilterCombo = new JComboBox<>(new String[]{ALL_FILTER_OPTION});
+        merchantFilterCombo.setPreferredSize(new Dimension(180, StyleUtils.INPUT_HEIGHT));
+        panel.add(merchantFilterCombo);
+
+        JLabel searchLabel = new JLabel("Search:");
+        searchLabel.setFont(TypographyConstants.FONT_CAPTION);
+        panel.add(searchLabel);
+
+        searchField = new JTextField();
+        searchField.setPreferredSize(new Dimension(220, StyleUtils.INPUT_HEIGHT));
+        searchField.setToolTipText("Show rows where any column contains this text");
+        StyleUtils.styleTextField(searchField);
+        panel.add(searchField);
+
+        clearFiltersButton = new JButton("Clear");
+        StyleUtils.styleButtonSecondary(clearFiltersButton);
+        panel.add(clearFiltersButton);
+
+        executionColumnsCheckBox = new JCheckBox("Timing columns");
+        executionColumnsCheckBox.setFont(TypographyConstants.FONT_CAPTION);
+        executionColumnsCheckBox.setOpaque(false);
+        executionColumnsCheckBox.setToolTipText("Show each row's attempts, latency, permit wait, response size and HTTP status");
+        panel.add(executionColumnsCheckBox);
+
+        return panel;
+    }
+
     private JPanel createPaginationPanel() {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, StyleUtils.SPACING_MEDIUM, StyleUtils.SPACING_MEDIUM));
         panel.setOpaque(false);
@@ -368,6 +606,58 @@ public class RecRecResultsPreview extends RecRecForm {
             }
         });
 
+        // Filter handlers - the search field waits for a pause in typing before filtering
+        statusFilterCombo.addActionListener(e -> applyView());
+        merchantFilterCombo.addActionListener(e -> applyView());
+        searchDebounceTimer = new Timer(300, e -> applyView());
+        searchDebounceTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDebounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDebounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchDebounceTimer.restart();
+            }
+        });
+        searchField.addActionListener(e -> {
+            searchDebounceTimer.stop();
+            applyView();
+        });
+        clearFiltersButton.addActionListener(e -> clearFilters());
+        executionColumnsCheckBox.addActionListener(e -> showColumns());
+
+        // Sort by clicking a column header; clicking the sorted column again reverses the direction
+        resultsTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = resultsTable.columnAtPoint(e.getPoint());
+                if (viewColumn < 0) {
+                    return;
+                }
+                int column = resultsTable.convertColumnIndexToModel(viewColumn);
+                if (column == sortColumn) {
+                    sortAscending = !sortAscending;
+                } else {
+                    sortColumn = column;
+                    sortAscending = true;
+                }
+                applyView();
+            }
+        });
+
+        // Summary handlers
+        summaryDimensionCombo.addActionListener(e -> showSummaryDimension());
+        exportSummaryButton.addActionListener(e -> performSummaryExport());
+        exportDuplicatesButton.addActionListener(e -> performDuplicatesExport());
+
         // Navigation handlers
         backButton.addActionListener(e -> navigationAction.onBack());
         exportButton.addActionListener(e -> performExport());
@@ -394,6 +684,189 @@ public class RecRecResultsPreview extends RecRecForm {
             updateTableData();
             updateStats(getQueryTypeName(), 0);
         }
+        loadSummary();
+        loadDuplicates();
+    }
+
+    /**
+     * Scan the result rows for duplicate charges in the background
+     */
+    private void loadDuplicates() {
+        final List<? extends OutputRow> rows = allOutputRows;
+        duplicateReport = null;
+        duplicatesTableModel.setReport(null);
+        exportDuplicatesButton.setEnabled(false);
+
+        if (outputRowClass != TransactionQueryOutputRow.class) {
+            duplicatesLabel.setText("Duplicate charge detection applies to transaction queries only.");
+            return;
+        }
+
+        duplicatesLabel.setText("Checking for duplicate charges...");
+        new SwingWorker<DuplicateChargeReport, Void>() {
+            @Override
+            protected DuplicateChargeReport doInBackground() {
+                return new DuplicateChargeDetector().detect(rows);
+            }
+
+            @Override
+            protected void done() {
+                if (rows != allOutputRows) {
+                    return; // Results were reloaded while scanning
+                }
+                try {
+                    duplicateReport = get();
+                    duplicatesTableModel.setReport(duplicateReport);
+                    exportDuplicatesButton.setEnabled(!duplicateReport.getGroups().isEmpty());
+                    duplicatesLabel.setText(duplicateReport.getGroups().isEmpty()
+                        ? String.format("No duplicate charges found among %,d transactions.",
+                            duplicateReport.getCandidateCount())
+                        : String.format("%,d transactions in %,d groups share a card, amount, merchant and type within %d minutes.",
+                            duplicateReport.getDuplicateRowCount(), duplicateReport.getGroups().size(),
+                            duplicateReport.getWindow().toMinutes()));
+                } catch (Exception e) {
+                    duplicatesLabel.setText("Failed to check for duplicates: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    private void performDuplicatesExport() {
+        if (duplicateReport == null) {
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Duplicate Charges");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files (*.csv)", "csv"));
+        fileChooser.setSelectedFile(new File(getDefaultExportFileName().replace("_results_", "_duplicates_")));
+        if (fileChooser.showSaveDialog(rootPanel) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        final File reportFile = ExportFormat.CSV.applyExtension(fileChooser.getSelectedFile());
+        final DuplicateChargeReport report = duplicateReport;
+        exportDuplicatesButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                new DuplicateReportCsvExporter().export(report, reportFile);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                exportDuplicatesButton.setEnabled(true);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(rootPanel,
+                        "Duplicate charges exported successfully to:\n" + reportFile.getAbsolutePath(),
+                        "Export Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(rootPanel,
+                        "Failed to export duplicate charges:\n" + e.getMessage(),
+                        "Export Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Load the reconciliation summary. A CSV run aggregates results as they arrive, so its
+     * totals are normally complete already; otherwise aggregate the result set in parallel.
+     */
+    private void loadSummary() {
+        final List<QueryResult<?, ?>> results = state.queryResults != null ? state.queryResults : List.of();
+        final ResultAggregator runAggregator = state.resultAggregator;
+        long resultCount = results.stream().filter(r -> r != null).count();
+
+        if (runAggregator != null && runAggregator.getResultCount() == resultCount) {
+            setSummary(runAggregator.snapshot());
+            return;
+        }
+
+        summaryTotalsLabel.setText("Calculating summary...");
+        exportSummaryButton.setEnabled(false);
+        new SwingWorker<ResultSummary, Void>() {
+            @Override
+            protected ResultSummary doInBackground() {
+                return ResultAggregator.aggregate(results);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    setSummary(get());
+                } catch (Exception e) {
+                    summaryTotalsLabel.setText("Failed to calculate summary: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    private void setSummary(ResultSummary summary) {
+        resultSummary = summary;
+        summaryTotalsLabel.setText(String.format("%,d results | %,d rows | Total amount: %s",
+            summary.getResultCount(), summary.getRowCount(), summary.getTotalAmount().toPlainString()));
+        exportSummaryButton.setEnabled(summary.getRowCount() > 0);
+        showSummaryDimension();
+    }
+
+    private void showSummaryDimension() {
+        SummaryDimension dimension = (SummaryDimension) summaryDimensionCombo.getSelectedItem();
+        if (resultSummary == null || dimension == null) {
+            summaryTableModel.setGroups(SummaryDimension.MERCHANT, List.of(), 0);
+            return;
+        }
+        summaryTableModel.setGroups(dimension, resultSummary.getGroups(dimension), resultSummary.getRowCount());
+    }
+
+    private void performSummaryExport() {
+        if (resultSummary == null) {
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Summary");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files (*.csv)", "csv"));
+        fileChooser.setSelectedFile(new File(getDefaultExportFileName().replace("_results_", "_summary_")));
+        if (fileChooser.showSaveDialog(rootPanel) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        final File summaryFile = ExportFormat.CSV.applyExtension(fileChooser.getSelectedFile());
+        final ResultSummary summary = resultSummary;
+        exportSummaryButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                new SummaryCsvExporter().export(summary, summaryFile);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                exportSummaryButton.setEnabled(true);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(rootPanel,
+                        "Summary exported successfully to:\n" + summaryFile.getAbsolutePath(),
+                        "Export Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(rootPanel,
+                        "Failed to export summary:\n" + e.getMessage(),
+                        "Export Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
     }
 
     private String getQueryTypeName() {
@@ -413,18 +886,125 @@ public class RecRecResultsPreview extends RecRecForm {
 
     private void updateTableData() {
         if (allOutputRows != null) {
-            totalPages = (int) Math.ceil((double) allOutputRows.size() / ROWS_PER_PAGE);
-            if (totalPages == 0) totalPages = 1;
-
             tableModel.setResults(allOutputRows, outputRowClass);
-            setupColumnWidths();
-            refreshPage();
+            showColumns();
+
+            rowIndex = new ResultRowIndex(allOutputRows, tableModel.getFields());
+            sortColumn = -1;
+            sortAscending = true;
+            viewGeneration++;
+            populateFilterOptions();
+            setView(rowIndex.buildView(-1, true, null, null, null));
+        }
+    }
+
+    /**
+     * Fill the status and merchant filters with the values present in the results,
+     * without triggering a filter pass for each added item
+     */
+    private void populateFilterOptions() {
+        ActionListener[] statusListeners = statusFilterCombo.getActionListeners();
+        ActionListener[] merchantListeners = merchantFilterCombo.getActionListeners();
+        for (ActionListener listener : statusListeners) statusFilterCombo.removeActionListener(listener);
+        for (ActionListener listener : merchantListeners) merchantFilterCombo.removeActionListener(listener);
+
+        statusFilterCombo.removeAllItems();
+        statusFilterCombo.addItem(ALL_FILTER_OPTION);
+        rowIndex.getStatuses().forEach(statusFilterCombo::addItem);
+
+        merchantFilterCombo.removeAllItems();
+        merchantFilterCombo.addItem(ALL_FILTER_OPTION);
+        rowIndex.getMerchants().forEach(merchantFilterCombo::addItem);
+
+        searchField.setText("");
+        if (searchDebounceTimer != null) {
+            searchDebounceTimer.stop();
         }
+
+        for (ActionListener listener : statusListeners) statusFilterCombo.addActionListener(listener);
+        for (ActionListener listener : merchantListeners) merchantFilterCombo.addActionListener(listener);
+    }
+
+    private void clearFilters() {
+        statusFilterCombo.setSelectedIndex(0);
+        merchantFilterCombo.setSelectedIndex(0);
+        searchField.setText("");
+        searchDebounceTimer.stop();
+        applyView();
+    }
+
+    /**
+     * Rebuild the row view from the current sort and filter selections off the EDT.
+     * Sort permutations are cached per column, so only the first sort of a column does real work.
+     * Results from superseded requests are discarded.
+     */
+    private void applyView() {
+        if (rowIndex == null) {
+            return;
+        }
+
+        final ResultRowIndex index = rowIndex;
+        final int column = sortColumn;
+        final boolean ascending = sortAscending;
+        final String status = selectedFilter(statusFilterCombo);
+        final String merchant = selectedFilter(merchantFilterCombo);
+        final String text = searchField.getText().trim();
+        final int generation = ++viewGeneration;
+
+        rootPanel.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() {
+                return index.buildView(column, ascending, status, merchant, text);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != viewGeneration) {
+                    return; // A newer sort or filter request is in flight
+                }
+                rootPanel.setCursor(Cursor.getDefaultCursor());
+                try {
+                    setView(get());
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(rootPanel,
+                        "Failed to sort or filter results:\n" + e.getMessage(),
+                        "Results Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    private String selectedFilter(JComboBox<String> combo) {
+        Object selected = combo.getSelectedItem();
+        return selected == null || ALL_FILTER_OPTION.equals(selected) ? null : selected.toString();
+    }
+
+    private void setView(int[] rows) {
+        viewRows = rows;
+        totalPages = (int) Math.ceil((double) viewRows.length / ROWS_PER_PAGE);
+        if (totalPages == 0) totalPages = 1;
+        currentPage = 0;
+
+        tableModel.setView(rowIndex, viewRows);
+        tableModel.setSortIndicator(sortColumn, sortAscending);
+        // Header values are copied from the model only on structure changes, so refresh them for the sort indicator
+        for (int i = 0; i < resultsTable.getColumnCount(); i++) {
+            TableColumn tableColumn = resultsTable.getColumnModel().getColumn(i);
+            tableColumn.setHeaderValue(tableModel.getColumnName(tableColumn.getModelIndex()));
+        }
+        resultsTable.getTableHeader().repaint();
+        updateStats(getQueryTypeName(), allOutputRows.size());
+        refreshPage();
     }
 
     private void updateStats(String queryType, int resultCount) {
-        String statsText = String.format("%s | Total Results: %d | Pages: %d",
-            queryType, resultCount, totalPages);
+        String statsText = viewRows.length == resultCount
+            ? String.format("%s | Total Results: %d | Pages: %d", queryType, resultCount, totalPages)
+            : String.format("%s | Total Results: %d | Matching: %d | Pages: %d",
+                queryType, resultCount, viewRows.length, totalPages);
 
         // Check for potential result truncation at API limit (only for ad-hoc queries)
         // CSV queries process each row individually, so 1,000 results per row is extremely unlikely
@@ -470,14 +1050,18 @@ public class RecRecResultsPreview extends RecRecForm {
             pageInfoLabel.setText("No results to display");
             return;
         }
+        if (viewRows.length == 0) {
+            pageInfoLabel.setText("No results match the filters");
+            return;
+        }
 
         if (totalPages <= 1) {
-            pageInfoLabel.setText(String.format("Showing all %d results", allOutputRows.size()));
+            pageInfoLabel.setText(String.format("Showing all %d results", viewRows.length));
         } else {
             int startRow = currentPage * ROWS_PER_PAGE + 1; // 1-based for display
-            int endRow = Math.min((currentPage + 1) * ROWS_PER_PAGE, allOutputRows.size());
+            int endRow = Math.min((currentPage + 1) * ROWS_PER_PAGE, viewRows.length);
             pageInfoLabel.setText(String.format("Page %d of %d (results %d-%d of %d)",
-                currentPage + 1, totalPages, startRow, endRow, allOutputRows.size()));
+                currentPage + 1, totalPages, startRow, endRow, viewRows.length));
         }
     }
 
@@ -504,7 +1088,7 @@ public class RecRecResultsPreview extends RecRecForm {
     }
 
     /**
-     * Perform CSV export of the current results
+     * Perform export of the current results in the format chosen in the save dialog
      */
     private void performExport() {
         if (state.queryResults == null || state.queryResults.isEmpty()) {
@@ -515,10 +1099,29 @@ public class RecRecResultsPreview extends RecRecForm {
             return;
         }
 
-        // Create file chooser with CSV filter
+        // Create file chooser with one filter per export format
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Export Query Results");
-        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files (*.csv)", "csv"));
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        Map<FileFilter, ExportFormat> formatsByFilter = new LinkedHashMap<>();
+        for (ExportFormat format : ExportFormat.values()) {
+            // FileNameExtensionFilter matches only the final extension, e.g. "gz" for "csv.gz"
+            String extension = format.getExtension();
+            FileFilter filter = new FileNameExtensionFilter(format.getDescription(),
+                extension.substring(extension.lastIndexOf('.') + 1));
+            formatsByFilter.put(filter, format);
+            fileChooser.addChoosableFileFilter(filter);
+        }
+        fileChooser.setFileFilter(formatsByFilter.keySet().iterator().next());
+
+        JCheckBox splitByMerchantCheckBox = new JCheckBox("One file per merchant");
+        splitByMerchantCheckBox.setToolTipText("Write a separate file for each merchant, named after the chosen file");
+        JCheckBox includeExecutionCheckBox = new JCheckBox("Include timing columns", executionColumnsCheckBox.isSelected());
+        includeExecutionCheckBox.setToolTipText("Add each row's attempts, latency, permit wait, response size and HTTP status");
+        JPanel accessoryPanel = new JPanel(new BorderLayout());
+        accessoryPanel.add(splitByMerchantCheckBox, BorderLayout.NORTH);
+        accessoryPanel.add(includeExecutionCheckBox, BorderLayout.CENTER);
+        fileChooser.setAccessory(accessoryPanel);
 
         // Set default filename based on query type
         String defaultFileName = getDefaultExportFileName();
@@ -529,26 +1132,29 @@ public class RecRecResultsPreview extends RecRecForm {
             return;
         }
 
-        File selectedFile = fileChooser.getSelectedFile();
+        final ExportFormat format = formatsByFilter.getOrDefault(fileChooser.getFileFilter(), ExportFormat.CSV);
+        final boolean splitByMerchant = splitByMerchantCheckBox.isSelected();
+        final boolean includeExecutionColumns = includeExecutionCheckBox.isSelected();
 
-        // Ensure .csv extension
-        final File exportFile;
-        if (!selectedFile.getName().toLowerCase().endsWith(".csv")) {
-            exportFile = new File(selectedFile.getAbsolutePath() + ".csv");
-        } else {
-            exportFile = selectedFile;
-        }
+        // Ensure the extension matches the chosen format
+        final File exportFile = format.applyExtension(fileChooser.getSelectedFile());
 
         // Disable export button during export
         exportButton.setEnabled(false);
         exportButton.setText("Exporting...");
 
         // Perform export in background thread
-        new SwingWorker<Void, Void>() {
+        new SwingWorker<List<File>, Integer>() {
             @Override
-            protected Void doInBackground() throws Exception {
-                exportToCsv(exportFile);
-                return null;
+            protected List<File> doInBackground() throws Exception {
+                return exportResults(exportFile, format, splitByMerchant, includeExecutionColumns,
+                    percent -> publish(percent));
+            }
+
+            @Override
+            protected void process(List<Integer> percentages) {
+                int percent = percentages.get(percentages.size() - 1);
+                exportButton.setText(String.format("Exporting... %d%%", percent));
             }
 
             @Override
@@ -557,15 +1163,20 @@ public class RecRecResultsPreview extends RecRecForm {
                 exportButton.setText("Export Results");
 
                 try {
-                    get(); // Check for exceptions
+                    List<File> writtenFiles = get(); // Check for exceptions
 
                     // Show the "New Query" button after successful export
                     newQueryButton.setVisible(true);
 
+                    String destination = writtenFiles.size() == 1
+                        ? writtenFiles.get(0).getAbsolutePath()
+                        : String.format("%d merchant files in %s", writtenFiles.size(),
+                            exportFile.getAbsoluteFile().getParent());
+
                     // Show success message with option to start new query
                     int choice = JOptionPane.showOptionDialog(rootPanel,
                         String.format("Results exported successfully to:\n%s\n\nTotal records: %d\n\nWould you like to start a new query?",
-                            exportFile.getAbsolutePath(),
+                            destination,
                             allOutputRows != null ? allOutputRows.size() : 0),
                         "Export Complete",
                         JOptionPane.YES_NO_OPTION,
@@ -601,42 +1212,54 @@ public class RecRecResultsPreview extends RecRecForm {
     }
 
     /**
-     * Export results to CSV file using the same pattern as RecRecRunning
+     * Export results in the chosen format, optionally split into one file per merchant.
+     * Plain single-file CSV goes through the parallel chunked writer; other formats stream row by row.
+     * Reports whole-percent progress to the given consumer.
+     * @param includeExecutionColumns Whether to write each row's attempts, timings, response size and HTTP status
+     * @return Files written
      */
-    private void exportToCsv(File outputFile) throws IOException {
-        try (FileWriter fileWriter = new FileWriter(outputFile)) {
-            CsvMapper mapper = new CsvMapper();
-            CsvSchema schema = getResultSchema(mapper);
-            SequenceWriter sequenceWriter = mapper.writer(schema).writeValues(fileWriter);
-
-            // Export all query results
-            for (QueryResult<?, ?> queryResult : state.queryResults) {
-                if (queryResult != null) {
-                    List<?> rows = queryResult.getOutputRows();
-                    sequenceWriter.writeAll(rows);
-                }
-            }
+    private List<File> exportResults(File outputFile, ExportFormat format, boolean splitByMerchant,
+                                     boolean includeExecutionColumns, IntConsumer percentConsumer) throws IOException {
+        CsvMapper mapper = new CsvMapper();
+        if (!includeExecutionColumns) {
+            mapper.setConfig(mapper.getSerializationConfig().withView(OutputRow.Data.class));
+        }
+        CsvSchema schema = getResultSchema(mapper);
+        ExportProgressListener progressListener = (rowsWritten, resultsWritten, totalResults) ->
+            percentConsumer.accept(totalResults > 0 ? (int) ((resultsWritten * 100L) / totalResults) : 100);
+
+        if (format == ExportFormat.CSV && !splitByMerchant) {
+            new ParallelCsvExporter(mapper, schema).export(state.queryResults, outputFile, progressListener);
+            return List.of(outputFile);
         }
+
+        StreamingResultExporter exporter = new StreamingResultExporter(format, mapper, schema);
+        if (splitByMerchant) {
+            return exporter.exportByMerchant(state.queryResults, outputFile, progressListener);
+        }
+        exporter.export(state.queryResults, outputFile, progressListener);
+        return List.of(outputFile);
     }
 
     /**
-     * Get the appropriate CSV schema based on query type
+     * Get the appropriate CSV schema based on query type, with the columns of the mapper's active view
      */
     private CsvSchema getResultSchema(CsvMapper mapper) {
+        Class<?> view = mapper.getSerializationConfig().getActiveView();
         return state.queryMode.accept(new QueryTargetVisitor<CsvSchema>() {
             @Override
             public CsvSchema visitTransactionQuery() {
-                return mapper.schemaFor(TransactionQueryOutputRow.class).withHeader();
+                return mapper.schemaForWithView(TransactionQueryOutputRow.class, view).withHeader();
             }
 
             @Override
             public CsvSchema visitPaymentAccountQuery() {
-                return mapper.schemaFor(PaymentAccountQueryOutputRow.class).withHeader();
+                return mapper.schemaForWithView(PaymentAccountQueryOutputRow.class, view).withHeader();
             }
 
             @Override
             public CsvSchema visitBINQuery() {
-                return mapper.schemaFor(BINQueryOutputRow.class).withHeader();
+                return mapper.schemaForWithView(BINQueryOutputRow.class, view).withHeader();
             }
         });
     }
@@ -646,13 +1269,21 @@ public class RecRecResultsPreview extends RecRecForm {
      * from OutputRow classes, ensuring it stays in sync with field changes.
      */
     private static class UniversalResultsTableModel extends AbstractTableModel {
-        private List<? extends OutputRow> allResults;
-        private List<? extends OutputRow> currentPageResults;
+        private ResultRowIndex rowIndex;
+        private int[] viewRows = new int[0];
+        private int pageStart;
+        private int pageRowCount;
         private String[] columnNames;
         private Field[] fields;
+        private int sortColumn = -1;
+        private boolean sortAscending;
 
         public void setResults(List<? extends OutputRow> results, Class<? extends OutputRow> outputRowClass) {
-            this.allResults = results;
+            this.rowIndex = null;
+            this.viewRows = new int[0];
+            this.pageStart = 0;
+            this.pageRowCount = 0;
+            this.sortColumn = -1;
 
             if (outputRowClass != null) {
                 this.columnNames = extractColumnNames(outputRowClass);
@@ -754,25 +1385,38 @@ public class RecRecResultsPreview extends RecRecForm {
                 .replaceAll("^.", String.valueOf(Character.toUpperCase(fieldName.charAt(0))));
         }
 
+        public Field[] getFields() {
+            return fields;
+        }
+
+        /**
+         * Set the sorted and filtered row indices to page through
+         */
+        public void setView(ResultRowIndex rowIndex, int[] viewRows) {
+            this.rowIndex = rowIndex;
+            this.viewRows = viewRows;
+        }
+
+        public void setSortIndicator(int sortColumn, boolean sortAscending) {
+            this.sortColumn = sortColumn;
+            this.sortAscending = sortAscending;
+        }
+
         public void setCurrentPage(int page, int pageSize) {
-            if (allResults == null) {
-                currentPageResults = List.of();
+            int startIndex = page * pageSize;
+            if (rowIndex == null || startIndex >= viewRows.length) {
+                pageStart = 0;
+                pageRowCount = 0;
                 return;
             }
 
-            int startIndex = page * pageSize;
-            int endIndex = Math.min(startIndex + pageSize, allResults.size());
-
-            if (startIndex < allResults.size()) {
-                currentPageResults = allResults.subList(startIndex, endIndex);
-            } else {
-                currentPageResults = List.of();
-            }
+            pageStart = startIndex;
+            pageRowCount = Math.min(pageSize, viewRows.length - startIndex);
         }
 
         @Override
         public int getRowCount() {
-            return currentPageResults != null ? currentPageResults.size() : 0;
+            return pageRowCount;
         }
 
         @Override
@@ -782,17 +1426,20 @@ public class RecRecResultsPreview extends RecRecForm {
 
         @Override
         public String getColumnName(int column) {
-            return columnNames != null && column < columnNames.length ? columnNames[column] : "";
+            if (columnNames == null || column >= columnNames.length) {
+                return "";
+            }
+            return column == sortColumn ? columnNames[column] + (sortAscending ? " ▲" : " ▼") : columnNames[column];
         }
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            if (currentPageResults == null || rowIndex >= currentPageResults.size() ||
+            if (this.rowIndex == null || rowIndex >= pageRowCount ||
                 fields == null || columnIndex >= fields.length) {
                 return "";
             }
 
-            OutputRow row = currentPageResults.get(rowIndex);
+            OutputRow row = this.rowIndex.getRow(viewRows[pageStart + rowIndex]);
             Field field = fields[columnIndex];
 
             try {
@@ -805,6 +1452,128 @@ public class RecRecResultsPreview extends RecRecForm {
         }
     }
 
+    /**
+     * Table model for one dimension of the reconciliation summary
+     */
+    private static class SummaryTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Group", "Rows", "% of Rows", "Rows With Amount", "Total Amount"};
+
+        private SummaryDimension dimension = SummaryDimension.MERCHANT;
+        private List<GroupTotals> groups = List.of();
+        private long totalRows;
+
+        public void setGroups(SummaryDimension dimension, List<GroupTotals> groups, long totalRows) {
+            boolean structureChanged = this.dimension != dimension;
+            this.dimension = dimension;
+            this.groups = groups;
+            this.totalRows = totalRows;
+            if (structureChanged) {
+                fireTableStructureChanged();
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return groups.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return column == 0 ? dimension.getDisplayName() : COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return switch (column) {
+                case 1, 3 -> Long.class;
+                case 4 -> java.math.BigDecimal.class;
+                default -> String.class;
+            };
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            GroupTotals group = groups.get(rowIndex);
+            return switch (columnIndex) {
+                case 0 -> group.key();
+                case 1 -> group.rowCount();
+                case 2 -> totalRows > 0 ? String.format("%.1f%%", group.rowCount() * 100.0 / totalRows) : "";
+                case 3 -> group.amountRowCount();
+                default -> group.totalAmount();
+            };
+        }
+    }
+
+    /**
+     * Table model listing each transaction in a duplicate group, numbered by group
+     */
+    private static class DuplicatesTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Group", "Merchant", "ID", "Record ID", "Vantiv ID",
+            "Card Number", "Amount", "Transaction Type", "Transaction Date"};
+
+        private DuplicateChargeReport report;
+        private int[] groupNumbers = new int[0];
+        private int[] rowIndices = new int[0];
+
+        public void setReport(DuplicateChargeReport report) {
+            this.report = report;
+            int size = report != null ? report.getDuplicateRowCount() : 0;
+            groupNumbers = new int[size];
+            rowIndices = new int[size];
+            if (report != null) {
+                int position = 0;
+                int groupNumber = 0;
+                for (DuplicateGroup group : report.getGroups()) {
+                    groupNumber++;
+                    for (int rowIndex : group.rowIndices()) {
+                        groupNumbers[position] = groupNumber;
+                        rowIndices[position++] = rowIndex;
+                    }
+                }
+            }
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowIndices.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            TransactionQueryOutputRow row = report.getRow(rowIndices[rowIndex]);
+            Object value = switch (columnIndex) {
+                case 0 -> groupNumbers[rowIndex];
+                case 1 -> row.merchant;
+                case 2 -> row.id;
+                case 3 -> row.recordId;
+                case 4 -> row.vantivId;
+                case 5 -> row.cardNumber;
+                case 6 -> row.amount;
+                case 7 -> row.transactionType;
+                default -> row.transactionDate;
+            };
+            return value != null ? value : "";
+        }
+    }
+
     /**
      * Universal cell renderer for all data types
      */
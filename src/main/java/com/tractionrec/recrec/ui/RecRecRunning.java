@@ -1,16 +1,21 @@
 package com.tractionrec.recrec.ui;
 
 import com.tractionrec.recrec.RecRecState;
-import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.analysis.ResultAggregator;
+import com.tractionrec.recrec.csv.CsvValidationResult;
+import com.tractionrec.recrec.csv.CsvValidationService;
+import com.tractionrec.recrec.csv.QueryItemSource;
+import com.tractionrec.recrec.diagnostics.Log;
+import com.tractionrec.recrec.diagnostics.QueryMetrics;
+import com.tractionrec.recrec.diagnostics.RunReport;
 import com.tractionrec.recrec.domain.QueryTargetVisitor;
 import com.tractionrec.recrec.domain.ResultStatus;
-import com.tractionrec.recrec.domain.result.BINQueryResult;
-import com.tractionrec.recrec.domain.result.PaymentAccountQueryResult;
 import com.tractionrec.recrec.domain.result.QueryResult;
-import com.tractionrec.recrec.domain.result.TransactionQueryResult;
 import com.tractionrec.recrec.service.AdaptiveRateLimiter;
 import com.tractionrec.recrec.service.BINQueryService;
 import com.tractionrec.recrec.service.PaymentAccountQueryService;
+import com.tractionrec.recrec.service.QueryRunner;
+import com.tractionrec.recrec.service.QueryService;
 import com.tractionrec.recrec.service.TransactionQueryService;
 import gg.jte.ContentType;
 import gg.jte.TemplateEngine;
@@ -22,10 +27,13 @@ import javax.swing.border.LineBorder;
 import java.awt.*;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -34,17 +42,30 @@ import static com.tractionrec.recrec.RecRecApplication.isDevEnv;
 import static com.tractionrec.recrec.RecRecApplication.isProduction;
 
 public class RecRecRunning extends RecRecForm {
+    private static final Log LOG = Log.get(RecRecRunning.class);
+
     private final ExecutorService queryExecutorService;
     private final ScheduledExecutorService timeExecutorService = Executors.newScheduledThreadPool(1);
     private JPanel rootPanel;
     private JLabel txtProgress;
     private SegmentedProgressBar segmentedProgressBar;
     private JLabel progressLabel;
+    private JLabel throughputLabel;
+    private final ThroughputHistory throughputHistory = new ThroughputHistory();
+    private ThroughputChart throughputChart;
+    private Duration runDuration; // Set with the timeline's last sample, on the timer thread
+    private boolean timelineFinished; // Only touched by the timer thread
     private StatisticsTable statisticsTable;
     private JLabel systemInfoLabel;
     private JButton nextButton;
-    private List<Future<QueryResult>> futureResults;
+    private volatile List<Future<QueryResult>> futureResults; // Set once the rows are read, read by the timer thread
     private boolean isCompleted = false; // Track if all queries have completed
+    private boolean isStarting = false; // Rows are being read for the run, on the event thread only
+    private volatile String startFailure; // Why the run could not start, shown in place of its progress
+    private QueryMetrics runMetrics;
+    private Instant runStarted;
+    private Path runReportFile;
+    private boolean reportAttempted; // The run's report is written at most once, even if that fails; timer thread only
 
     // Cached service instances to reuse HttpClient connections and avoid port exhaustion
     private static volatile TransactionQueryService transactionService;
@@ -52,11 +73,7 @@ public class RecRecRunning extends RecRecForm {
     private static volatile BINQueryService binService;
     private static final Object serviceLock = new Object();
 
-    private static final int INITIAL_CONCURRENT_REQUESTS = 20;
-    private static final int MIN_CONCURRENT_REQUESTS = 5;
-    private static final int MAX_CONCURRENT_REQUESTS = 50;
-    private final AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(
-            INITIAL_CONCURRENT_REQUESTS, MIN_CONCURRENT_REQUESTS, MAX_CONCURRENT_REQUESTS);
+    private final AdaptiveRateLimiter rateLimiter = QueryRunner.newRateLimiter();
 
     public RecRecRunning(RecRecState state, NavigationAction navigationAction) {
         super(state, navigationAction);
@@ -126,6 +143,22 @@ public class RecRecRunning extends RecRecForm {
             int completed = total - pendingCount.get();
             int progressPercent = total > 0 ? (completed * 100) / total : 0;
 
+            // Sample until the run finishes, so the chart ends where the run did
+            if (total > 0 && !timelineFinished) {
+                throughputHistory.add(System.nanoTime(), completed, rateLimiter.getCurrentConcurrency());
+                timelineFinished = pendingCount.get() == 0;
+                if (timelineFinished && runStarted != null) {
+                    runDuration = Duration.between(runStarted, Instant.now());
+                }
+            }
+            String throughputText = formatThroughput(total - completed);
+
+            QueryMetrics.Snapshot metrics = runMetrics != null ? runMetrics.snapshot() : null;
+            if (metrics != null && !reportAttempted && pendingCount.get() == 0 && total > 0) {
+                reportAttempted = true;
+                runReportFile = writeRunReport(metrics, successCount.get(), notFoundCount.get(), errorCount.get());
+            }
+
             // Update UI components
             SwingUtilities.invokeLater(() -> {
                 // Update segmented progress bar
@@ -149,11 +182,17 @@ public class RecRecRunning extends RecRecForm {
                 } else if (total > 0) {
                     progressLabel.setText(String.format("Processing %d of %d queries...", completed, total));
                     progressLabel.setForeground(TractionRecTheme.PRIMARY_BLUE);
+                } else if (startFailure != null) {
+                    progressLabel.setText("Could not start the run: " + startFailure);
+                    progressLabel.setForeground(TractionRecTheme.ERROR_RED);
                 } else {
                     progressLabel.setText("Initializing...");
                     progressLabel.setForeground(TractionRecTheme.TEXT_SECONDARY);
                 }
 
+                throughputLabel.setText(throughputText);
+                throughputChart.repaint();
+
                 // Update statistics table
                 statisticsTable.updateStatistics(
                     totalCount.get(),
@@ -163,14 +202,9 @@ public class RecRecRunning extends RecRecForm {
                     pendingCount.get()
                 );
 
-                // Update system info label if in dev mode
-                if (isDevEnv()) {
-                    String rateLimiterStatus = rateLimiter.getStats();
-                    String connectionInfo = getConnectionInfo();
-                    systemInfoLabel.setText(String.format(
-                        "<html><div style='font-family: monospace; font-size: 10px; color: #6B7280;'><p><strong>System Info:</strong></p><p>• %s</p><p>• %s</p></div></html>",
-                        rateLimiterStatus, connectionInfo
-                    ));
+                // Request metrics for everyone, limiter and connection details in dev mode
+                if ((metrics != null && metrics.getRequests() > 0) || isDevEnv()) {
+                    systemInfoLabel.setText(formatSystemInfo(metrics));
                     systemInfoLabel.setVisible(true);
                 } else {
                     systemInfoLabel.setVisible(false);
@@ -191,116 +225,159 @@ public class RecRecRunning extends RecRecForm {
 
     public void willDisplay() {
         // Only start queries if not already completed (prevents restart on back navigation)
-        if (!isCompleted) {
-            try {
-                this.futureResults = Files.lines(state.inputFile.toPath()).skip(1)
-                        .filter(line -> !line.trim().isEmpty()) // Filter out empty or whitespace-only lines
-                        .map(l -> {
-                            String[] cols = l.split(",", 2);
-                            if (cols.length < 2) {
-                                System.err.println("Warning: Skipping malformed CSV line (expected 2 columns): " + l);
-                                return null; // Return null for malformed lines
-                            }
-                            return new QueryItem(cols[0].trim(), cols[1].trim(), state.queryMode);
-                        })
-                        .filter(item -> item != null) // Filter out null items from malformed lines
-                        .map(this::getCallable)
-                        .map(queryExecutorService::submit)
-                        .collect(Collectors.toList());
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+        if (!isCompleted && !isStarting) {
+            isStarting = true;
+            startFailure = null;
+            // Without rows kept from validation the file has to be read again, which takes too long for the event thread
+            CompletableFuture.supplyAsync(this::validatedItems, queryExecutorService)
+                .whenComplete((items, error) -> SwingUtilities.invokeLater(() -> {
+                    isStarting = false;
+                    if (error != null) {
+                        reportStartFailure(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                    } else {
+                        startRun(items);
+                    }
+                }));
         }
         // If already completed, the scheduled task will continue to show the completed state
     }
 
-    private Callable<QueryResult> getCallable(QueryItem item) {
-        return () -> state.queryMode.accept(new QueryTargetVisitor<QueryResult>() {
-            @Override
-            public TransactionQueryResult visitTransactionQuery() {
-                try {
-                    rateLimiter.acquire();
-                    TransactionQueryResult r = getTransactionQueryService().queryForTransaction(
-                            state.accountId,
-                            state.accountToken,
-                            item
-                    );
-
-                    // Record success/failure for adaptive rate limiting
-                    // Only record failure for ERROR status, NOT_FOUND is acceptable
-                    if (r != null && (r.getStatus() == ResultStatus.SUCCESS || r.getStatus() == ResultStatus.NOT_FOUND)) {
-                        rateLimiter.recordSuccess();
-                    } else {
-                        rateLimiter.recordFailure();
-                    }
+    private void startRun(QueryItemSource items) {
+        if (items.getSkippedRows() > 0) {
+            LOG.warn("Skipping %d malformed CSV rows (expected 2 columns)", items.getSkippedRows());
+        }
+        state.resultAggregator = new ResultAggregator();
+        runMetrics = QueryMetrics.startRun();
+        runStarted = Instant.now();
+        QueryRunner runner = new QueryRunner(queryService(), state.accountId, state.accountToken,
+                rateLimiter, state.resultAggregator);
+        this.futureResults = runner.submitAll(items.asQueryItems(state.queryMode), queryExecutorService);
+    }
 
-                    return r;
-                } catch (Exception e) {
-                    rateLimiter.recordFailure();
-                    e.printStackTrace();
-                    String errorMsg = "Request failed: " + (e.getMessage() != null ? e.getMessage() : "Unknown error - " + e.getClass().getSimpleName());
-                    return new TransactionQueryResult(item, ResultStatus.ERROR, errorMsg);
-                } finally {
-                    rateLimiter.release();
-                }
+    private void reportStartFailure(Throwable error) {
+        LOG.error(error, "Could not read the rows to query from %s", state.inputFile);
+        startFailure = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        JOptionPane.showMessageDialog(rootPanel,
+            "Could not read the rows to query:\n" + startFailure,
+            "Run Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Write the finished run's report, returning where it went or null if it couldn't be written
+     */
+    private Path writeRunReport(QueryMetrics.Snapshot metrics, int successes, int notFound, int errors) {
+        Map<String, Integer> resultCounts = new LinkedHashMap<>();
+        resultCounts.put(ResultStatus.SUCCESS.name(), successes);
+        resultCounts.put(ResultStatus.NOT_FOUND.name(), notFound);
+        resultCounts.put(ResultStatus.ERROR.name(), errors);
+        RunReport report = new RunReport(state.queryMode.name(), runStarted, Instant.now(), resultCounts, metrics);
+        try {
+            return report.write(RunReport.defaultDirectory());
+        } catch (IOException e) {
+            LOG.warn("Could not write run report: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    private String formatThroughput(long remaining) {
+        double rate = throughputHistory.getRate();
+        if (timelineFinished) {
+            return runDuration != null ? "Finished in " + formatDuration(runDuration) : " ";
+        }
+        if (rate <= 0) {
+            return "Measuring throughput…";
+        }
+        Duration eta = throughputHistory.getEta(remaining);
+        return String.format("%.1f queries/s · about %s left (at %d concurrent requests)",
+            rate, eta != null ? formatDuration(eta) : "?", rateLimiter.getCurrentConcurrency());
+    }
+
+    private static String formatDuration(Duration duration) {
+        long seconds = duration.toSeconds();
+        if (seconds < 60) {
+            return seconds + "s";
+        } else if (seconds < 3600) {
+            return String.format("%dm %02ds", seconds / 60, seconds % 60);
+        } else {
+            return String.format("%dh %02dm", seconds / 3600, (seconds % 3600) / 60);
+        }
+    }
+
+    private String formatSystemInfo(QueryMetrics.Snapshot metrics) {
+        StringBuilder html = new StringBuilder(
+            "<html><div style='font-family: monospace; font-size: 10px; color: #6B7280;'><p><strong>Request Metrics:</strong></p>");
+        if (metrics != null) {
+            for (QueryMetrics.EndpointSnapshot endpoint : metrics.endpoints()) {
+                html.append(String.format("<p>• %s: %,d requests | p50 %.0fms p95 %.0fms p99 %.0fms max %.0fms | %s</p>",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.p50Millis(), endpoint.p95Millis(),
+                    endpoint.p99Millis(), endpoint.maxMillis(), formatStatusCounts(endpoint.statusCounts())));
             }
+            html.append(String.format("<p>• In flight: %d (peak %d) | Retries: %,d | Circuit opens: %d | Received: %s</p>",
+                metrics.inFlight(), metrics.peakInFlight(), metrics.retries(), metrics.circuitBreakerOpens(),
+                formatBytes(metrics.getBytesReceived())));
+        }
+        if (runReportFile != null) {
+            html.append("<p>• Run report: ").append(runReportFile).append("</p>");
+        }
+        if (isDevEnv()) {
+            html.append("<p>• ").append(rateLimiter.getStats()).append("</p>");
+            html.append("<p>• ").append(getConnectionInfo()).append("</p>");
+        }
+        return html.append("</div></html>").toString();
+    }
 
-            @Override
-            public PaymentAccountQueryResult visitPaymentAccountQuery() {
-                try {
-                    rateLimiter.acquire();
-                    PaymentAccountQueryResult r = getPaymentAccountQueryService().queryForPaymentAccount(
-                            state.accountId,
-                            state.accountToken,
-                            item
-                    );
-
-                    // Record success/failure for adaptive rate limiting
-                    // Only record failure for ERROR status, NOT_FOUND is acceptable
-                    if (r != null && (r.getStatus() == ResultStatus.SUCCESS || r.getStatus() == ResultStatus.NOT_FOUND)) {
-                        rateLimiter.recordSuccess();
-                    } else {
-                        rateLimiter.recordFailure();
-                    }
+    private static String formatStatusCounts(Map<Integer, Long> statusCounts) {
+        return statusCounts.entrySet().stream()
+            .map(e -> (e.getKey() == 0 ? "no response" : "HTTP " + e.getKey()) + " × " + String.format("%,d", e.getValue()))
+            .collect(Collectors.joining(", "));
+    }
 
-                    return r;
-                } catch (Exception e) {
-                    rateLimiter.recordFailure();
-                    e.printStackTrace();
-                    String errorMsg = "Request failed: " + (e.getMessage() != null ? e.getMessage() : "Unknown error - " + e.getClass().getSimpleName());
-                    return new PaymentAccountQueryResult(item, ResultStatus.ERROR, errorMsg);
-                } finally {
-                    rateLimiter.release();
-                }
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        } else {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+        }
+    }
+
+    /**
+     * Rows kept while the file was validated, so the run queries exactly those rows
+     * without parsing the file again. Validates the file again if none were kept, so call off the event thread.
+     * @throws CompletionException If the file could not be read
+     */
+    private QueryItemSource validatedItems() {
+        if (state.validationResult != null && state.validationResult.getQueryItems() != null) {
+            return state.validationResult.getQueryItems();
+        }
+        CsvValidationResult result = new CsvValidationService().validateWithPreview(state.inputFile, 0).getResult();
+        if (result.getQueryItems() == null) {
+            throw new CompletionException(new IOException(result.getSummaryMessage()));
+        }
+        return result.getQueryItems();
+    }
+
+    /**
+     * Service for the run's query mode, shared across runs to reuse its connections
+     */
+    private QueryService queryService() {
+        return state.queryMode.accept(new QueryTargetVisitor<QueryService>() {
+            @Override
+            public QueryService visitTransactionQuery() {
+                return getTransactionQueryService();
             }
 
             @Override
-            public BINQueryResult visitBINQuery() {
-                try {
-                    rateLimiter.acquire();
-                    BINQueryResult r = getBINQueryService().queryForBINInfo(
-                            state.accountId,
-                            state.accountToken,
-                            item
-                    );
-
-                    // Record success/failure for adaptive rate limiting
-                    // Only record failure for ERROR status, NOT_FOUND is acceptable
-                    if (r != null && (r.getStatus() == ResultStatus.SUCCESS || r.getStatus() == ResultStatus.NOT_FOUND)) {
-                        rateLimiter.recordSuccess();
-                    } else {
-                        rateLimiter.recordFailure();
-                    }
+            public QueryService visitPaymentAccountQuery() {
+                return getPaymentAccountQueryService();
+            }
 
-                    return r;
-                } catch (Exception e) {
-                    rateLimiter.recordFailure();
-                    e.printStackTrace();
-                    String errorMsg = "Request failed: " + (e.getMessage() != null ? e.getMessage() : "Unknown error - " + e.getClass().getSimpleName());
-                    return new BINQueryResult(item, ResultStatus.ERROR, errorMsg);
-                } finally {
-                    rateLimiter.release();
-                }
+            @Override
+            public QueryService visitBINQuery() {
+                return getBINQueryService();
             }
         });
     }
@@ -370,6 +447,19 @@ public class RecRecRunning extends RecRecForm {
         progressBarContainer.add(Box.createHorizontalGlue()); // Push to left
 
         section.add(progressBarContainer);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_MEDIUM);
+
+        // Throughput, ETA and a timeline of throughput against concurrency
+        throughputLabel = new JLabel(" ");
+        throughputLabel.setFont(TypographyConstants.FONT_SMALL);
+        throughputLabel.setForeground(TractionRecTheme.TEXT_SECONDARY);
+        throughputLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        section.add(throughputLabel);
+        StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_SMALL);
+
+        throughputChart = new ThroughputChart(throughputHistory, QueryRunner.MAX_CONCURRENT_REQUESTS);
+        throughputChart.setAlignmentX(Component.LEFT_ALIGNMENT);
+        section.add(throughputChart);
         StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_LARGE);
 
         // Statistics section title
@@ -393,7 +483,7 @@ public class RecRecRunning extends RecRecForm {
         section.add(tableScrollPane);
         StyleUtils.addVerticalSpacing(section, StyleUtils.SPACING_MEDIUM);
 
-        // System info label (only visible in dev mode)
+        // Request metrics, plus limiter and connection details in dev mode
         systemInfoLabel = new JLabel();
         systemInfoLabel.setFont(TypographyConstants.FONT_CAPTION);
         systemInfoLabel.setForeground(TractionRecTheme.TEXT_SECONDARY);
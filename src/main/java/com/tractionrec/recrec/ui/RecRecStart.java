@@ -73,6 +73,7 @@ public class RecRecStart extends RecRecForm {
         // Clear any previous query results when returning to start screen
         // This ensures a fresh start for any new query type
         state.queryResults = null;
+        state.resultAggregator = null;
 
         this.inpAccountId.setText(state.accountId != null ? state.accountId : "");
         this.inpAccountToken.setText(state.accountToken != null ? state.accountToken : "");
@@ -0,0 +1,339 @@
+package com.tractionrec.recrec.ui;
+
+import com.tractionrec.recrec.domain.output.OutputRow;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Sort and filter index over the full set of result rows. Rows are never copied or
+ * reordered; sorting produces cached primitive index permutations per column and
+ * filtering produces bitsets over row positions, which are combined into a view
+ * of row indices that the table pages through.
+ */
+public class ResultRowIndex {
+
+    /** Row ranges handed to each parallel text-filter task; a multiple of 64 so tasks never share a bitset word */
+    private static final int FILTER_CHUNK_ROWS = 64 * 1024;
+
+    private static final Comparator<String> TEXT_ORDER =
+        String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+    private static final Comparator<String> NUMERIC_ORDER =
+        ((Comparator<String>) ResultRowIndex::compareDecimal).thenComparing(Comparator.naturalOrder());
+
+    private final List<? extends OutputRow> rows;
+    private final Field[] columns;
+    private final Field[] searchColumns; // Text search skips the execution columns' counts and timings
+    private final Map<Integer, int[]> sortCache = new ConcurrentHashMap<>();
+
+    private Map<String, BitSet> rowsByStatus;
+    private Map<String, BitSet> rowsByMerchant;
+
+    public ResultRowIndex(List<? extends OutputRow> rows, Field[] columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.searchColumns = Arrays.stream(columns)
+            .filter(field -> !OutputRow.isExecutionColumn(field.getName()))
+            .toArray(Field[]::new);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public OutputRow getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    /**
+     * Distinct result statuses present in the rows, in sorted order
+     */
+    public List<String> getStatuses() {
+        return new ArrayList<>(statusBitSets().keySet());
+    }
+
+    /**
+     * Distinct merchants present in the rows, in sorted order
+     */
+    public List<String> getMerchants() {
+        return new ArrayList<>(merchantBitSets().keySet());
+    }
+
+    /**
+     * Build the view of row indices matching all the given filters, in the requested order
+     * @param sortColumn Column to sort by, or -1 to keep the original row order
+     * @param ascending Sort direction; ignored when not sorting
+     * @param status Status to keep, or null for all statuses
+     * @param merchant Merchant to keep, or null for all merchants
+     * @param text Case-insensitive text that any data column must contain, or null/empty for no text filter
+     * @return Row indices in display order
+     */
+    public int[] buildView(int sortColumn, boolean ascending, String status, String merchant, String text) {
+        BitSet mask = null;
+        if (status != null) {
+            mask = intersect(mask, statusBitSets().get(status));
+        }
+        if (merchant != null) {
+            mask = intersect(mask, merchantBitSets().get(merchant));
+        }
+        if (text != null && !text.isEmpty()) {
+            mask = intersect(mask, textFilter(text));
+        }
+
+        int[] order = sortColumn >= 0 && sortColumn < columns.length ? sortedOrder(sortColumn, ascending) : null;
+        if (mask == null) {
+            return order != null ? order : IntStream.range(0, rows.size()).toArray();
+        }
+
+        int[] view = new int[mask.cardinality()];
+        int count = 0;
+        if (order == null) {
+            for (int row = mask.nextSetBit(0); row >= 0; row = mask.nextSetBit(row + 1)) {
+                view[count++] = row;
+            }
+        } else {
+            for (int row : order) {
+                if (mask.get(row)) {
+                    view[count++] = row;
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Row indices ordered by the given column. Built once per column and direction, then cached;
+     * callers must not modify the returned array.
+     */
+    public int[] sortedOrder(int column, boolean ascending) {
+        return sortCache.computeIfAbsent(column * 2 + (ascending ? 0 : 1), key -> buildSortedOrder(column, ascending));
+    }
+
+    /**
+     * Rows where any data column contains the given text, ignoring case
+     */
+    public BitSet textFilter(String text) {
+        int rowCount = rows.size();
+        long[] words = new long[(rowCount + 63) >>> 6];
+        int chunks = (rowCount + FILTER_CHUNK_ROWS - 1) / FILTER_CHUNK_ROWS;
+
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int end = Math.min((chunk + 1) * FILTER_CHUNK_ROWS, rowCount);
+            for (int row = chunk * FILTER_CHUNK_ROWS; row < end; row++) {
+                if (rowContains(rows.get(row), text)) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+        });
+        return BitSet.valueOf(words);
+    }
+
+    private int[] buildSortedOrder(int column, boolean ascending) {
+        int rowCount = rows.size();
+        Field field = columns[column];
+
+        String[] keys = new String[rowCount];
+        IntStream.range(0, rowCount).parallel().forEach(row -> keys[row] = cellText(rows.get(row), field));
+
+        // Rank each row by its position among the column's distinct values, so the row sort
+        // itself is a primitive sort of (rank, row) pairs rather than a comparator sort of objects
+        Comparator<String> order = isNumericColumn(keys) ? NUMERIC_ORDER : TEXT_ORDER;
+        String[] distinct = distinctSorted(keys, order);
+
+        long[] packed = new long[rowCount];
+        IntStream.range(0, rowCount).parallel().forEach(row -> {
+            int rank = Arrays.binarySearch(distinct, keys[row], order);
+            // Invert the rank for descending order so ties keep their original row order either way
+            long key = ascending ? rank : distinct.length - 1 - rank;
+            packed[row] = (key << 32) | row;
+        });
+        Arrays.parallelSort(packed);
+
+        int[] permutation = new int[rowCount];
+        IntStream.range(0, rowCount).parallel().forEach(i -> permutation[i] = (int) packed[i]);
+        return permutation;
+    }
+
+    private static String[] distinctSorted(String[] keys, Comparator<String> order) {
+        String[] sorted = keys.clone();
+        Arrays.parallelSort(sorted, order);
+
+        int distinctCount = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinctCount == 0 || !sorted[i].equals(sorted[distinctCount - 1])) {
+                sorted[distinctCount++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinctCount);
+    }
+
+    private synchronized Map<String, BitSet> statusBitSets() {
+        if (rowsByStatus == null) {
+            rowsByStatus = groupRows(true);
+        }
+        return rowsByStatus;
+    }
+
+    private synchronized Map<String, BitSet> merchantBitSets() {
+        if (rowsByMerchant == null) {
+            rowsByMerchant = groupRows(false);
+        }
+        return rowsByMerchant;
+    }
+
+    private Map<String, BitSet> groupRows(boolean byStatus) {
+        Map<String, BitSet> groups = new TreeMap<>(TEXT_ORDER);
+        for (int row = 0; row < rows.size(); row++) {
+            OutputRow outputRow = rows.get(row);
+            String value = byStatus ? outputRow.status : outputRow.merchant;
+            groups.computeIfAbsent(value != null ? value : "", v -> new BitSet(rows.size())).set(row);
+        }
+        return groups;
+    }
+
+    private static BitSet intersect(BitSet mask, BitSet filter) {
+        if (filter == null) {
+            return new BitSet(); // Unknown value matches nothing
+        }
+        if (mask == null) {
+            return (BitSet) filter.clone();
+        }
+        mask.and(filter);
+        return mask;
+    }
+
+    private boolean rowContains(OutputRow row, String text) {
+        for (Field field : searchColumns) {
+            if (containsIgnoreCase(cellText(row, field), text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cell text as displayed in the results table
+     */
+    static String cellText(OutputRow row, Field field) {
+        try {
+            Object value = field.get(row);
+            return value != null ? value.toString() : "";
+        } catch (IllegalAccessException e) {
+            return "";
+        }
+    }
+
+    static boolean containsIgnoreCase(String value, String text) {
+        int max = value.length() - text.length();
+        for (int i = 0; i <= max; i++) {
+            if (value.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A column sorts numerically when every non-empty value is a plain decimal number
+     */
+    private static boolean isNumericColumn(String[] keys) {
+        boolean sawNumber = false;
+        for (String key : keys) {
+            if (key.isEmpty()) {
+                continue;
+            }
+            if (!isPlainDecimal(key)) {
+                return false;
+            }
+            sawNumber = true;
+        }
+        return sawNumber;
+    }
+
+    private static boolean isPlainDecimal(String value) {
+        int start = value.charAt(0) == '-' ? 1 : 0;
+        boolean sawDigit = false;
+        boolean sawPoint = false;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+            } else if (c == '.' && !sawPoint) {
+                sawPoint = true;
+            } else {
+                return false;
+            }
+        }
+        return sawDigit;
+    }
+
+    /**
+     * Compare plain decimal strings by value without parsing, so long identifiers keep full precision.
+     * Empty values sort before all numbers.
+     */
+    static int compareDecimal(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return Boolean.compare(!a.isEmpty(), !b.isEmpty());
+        }
+        boolean negativeA = a.charAt(0) == '-';
+        boolean negativeB = b.charAt(0) == '-';
+        if (negativeA != negativeB) {
+            return negativeA ? -1 : 1;
+        }
+        int magnitude = compareMagnitude(a.substring(negativeA ? 1 : 0), b.substring(negativeB ? 1 : 0));
+        return negativeA ? -magnitude : magnitude;
+    }
+
+    private static int compareMagnitude(String a, String b) {
+        String intA = stripLeadingZeros(integerPart(a));
+        String intB = stripLeadingZeros(integerPart(b));
+        if (intA.length() != intB.length()) {
+            return Integer.compare(intA.length(), intB.length());
+        }
+        int cmp = intA.compareTo(intB);
+        if (cmp != 0) {
+            return cmp;
+        }
+        // Equal integer parts: compare fractions digit by digit, treating missing digits as zero
+        String fracA = fractionPart(a);
+        String fracB = fractionPart(b);
+        int length = Math.max(fracA.length(), fracB.length());
+        for (int i = 0; i < length; i++) {
+            char digitA = i < fracA.length() ? fracA.charAt(i) : '0';
+            char digitB = i < fracB.length() ? fracB.charAt(i) : '0';
+            if (digitA != digitB) {
+                return Character.compare(digitA, digitB);
+            }
+        }
+        return 0;
+    }
+
+    private static String integerPart(String value) {
+        int point = value.indexOf('.');
+        return point >= 0 ? value.substring(0, point) : value;
+    }
+
+    private static String fractionPart(String value) {
+        int point = value.indexOf('.');
+        return point >= 0 ? value.substring(point + 1) : "";
+    }
+
+    private static String stripLeadingZeros(String value) {
+        if (value.isEmpty()) {
+            return "0"; // ".5" has an implied zero integer part
+        }
+        int i = 0;
+        while (i < value.length() - 1 && value.charAt(i) == '0') {
+            i++;
+        }
+        return value.substring(i);
+    }
+}
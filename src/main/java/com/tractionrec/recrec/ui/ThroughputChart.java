@@ -0,0 +1,104 @@
+package com.tractionrec.recrec.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Path2D;
+
+/**
+ * Small chart of a run's throughput, as a filled area, and the rate limiter's concurrency, as a
+ * line, over the whole run so far. Drawn from a {@link ThroughputHistory}, so painting costs the
+ * same however long the run has been going.
+ */
+public class ThroughputChart extends JComponent {
+
+    private static final Color THROUGHPUT_FILL = new Color(0x3B, 0x82, 0xF6, 0x40);
+    private static final Color THROUGHPUT_LINE = TractionRecTheme.SECONDARY_BLUE;
+    private static final Color CONCURRENCY_LINE = TractionRecTheme.WARNING_ORANGE;
+    private static final Color BACKGROUND = new Color(0xF9FAFB);
+    private static final Color BORDER = new Color(0xD1D5DB);
+
+    private final ThroughputHistory history;
+    private final int maxConcurrency;
+
+    /**
+     * @param maxConcurrency Highest concurrency the limiter can reach, the top of the concurrency scale
+     */
+    public ThroughputChart(ThroughputHistory history, int maxConcurrency) {
+        this.history = history;
+        this.maxConcurrency = maxConcurrency;
+        setPreferredSize(new Dimension(400, 72));
+        setMinimumSize(new Dimension(200, 72));
+        setMaximumSize(new Dimension(Integer.MAX_VALUE, 72));
+        setFont(TypographyConstants.FONT_CAPTION);
+        setToolTipText("Queries per second (blue) and concurrent requests allowed (orange) over the run");
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int width = getWidth();
+        int height = getHeight();
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(0, 0, width, height);
+        g2d.setColor(BORDER);
+        g2d.drawRect(0, 0, width - 1, height - 1);
+
+        ThroughputHistory.Points snapshot = history.snapshot();
+        double[] rates = snapshot.rates();
+        int[] concurrency = snapshot.concurrency();
+        int points = snapshot.count();
+        if (points < 2) {
+            g2d.setColor(TractionRecTheme.TEXT_TERTIARY);
+            g2d.drawString("Collecting throughput…", 8, height / 2 + 4);
+            g2d.dispose();
+            return;
+        }
+
+        double peakRate = 0;
+        for (double rate : rates) {
+            peakRate = Math.max(peakRate, rate);
+        }
+        peakRate = Math.max(peakRate, 1);
+
+        int top = 14;
+        int bottom = height - 2;
+        double xStep = (width - 2) / (double) (points - 1);
+
+        Path2D.Double area = new Path2D.Double();
+        Path2D.Double rateLine = new Path2D.Double();
+        Path2D.Double concurrencyLine = new Path2D.Double();
+        area.moveTo(1, bottom);
+        for (int i = 0; i < points; i++) {
+            double x = 1 + i * xStep;
+            double rateY = bottom - (bottom - top) * rates[i] / peakRate;
+            double concurrencyY = bottom - (bottom - top) * Math.min(1.0, concurrency[i] / (double) maxConcurrency);
+            area.lineTo(x, rateY);
+            if (i == 0) {
+                rateLine.moveTo(x, rateY);
+                concurrencyLine.moveTo(x, concurrencyY);
+            } else {
+                rateLine.lineTo(x, rateY);
+                concurrencyLine.lineTo(x, concurrencyY);
+            }
+        }
+        area.lineTo(1 + (points - 1) * xStep, bottom);
+        area.closePath();
+
+        g2d.setColor(THROUGHPUT_FILL);
+        g2d.fill(area);
+        g2d.setStroke(new BasicStroke(1.5f));
+        g2d.setColor(THROUGHPUT_LINE);
+        g2d.draw(rateLine);
+        g2d.setColor(CONCURRENCY_LINE);
+        g2d.draw(concurrencyLine);
+
+        g2d.setColor(TractionRecTheme.TEXT_SECONDARY);
+        g2d.drawString(String.format("peak %.1f/s", peakRate), 6, 11);
+        String concurrencyScale = "concurrency 0–" + maxConcurrency;
+        g2d.drawString(concurrencyScale, width - 6 - g2d.getFontMetrics().stringWidth(concurrencyScale), 11);
+        g2d.dispose();
+    }
+}
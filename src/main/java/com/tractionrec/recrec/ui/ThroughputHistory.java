@@ -0,0 +1,124 @@
+package com.tractionrec.recrec.ui;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Throughput and concurrency of a run over time, kept in fixed-size ring buffers however long
+ * the run gets. The last few samples give a sliding-window rate and an ETA. The whole run is
+ * kept as {@link #CAPACITY} chart points: when they fill up, neighbouring points are merged and
+ * each point covers twice as many samples from then on.
+ */
+public final class ThroughputHistory {
+
+    public static final int CAPACITY = 240;
+    static final int WINDOW_SAMPLES = 30;
+
+    // Recent samples, for the sliding-window rate
+    private final long[] sampleTimes = new long[WINDOW_SAMPLES + 1];
+    private final long[] sampleCompleted = new long[WINDOW_SAMPLES + 1];
+    private int samples;
+    private int newestSample = -1;
+
+    // Chart points, oldest first
+    private final double[] pointRates = new double[CAPACITY];
+    private final int[] pointConcurrency = new int[CAPACITY];
+    private int points;
+    private int samplesPerPoint = 1;
+
+    // The point being filled
+    private long pendingCompleted;
+    private long pendingNanos;
+    private int pendingSamples;
+
+    /**
+     * Add a sample of the run's progress
+     * @param nanoTime When the sample was taken, from {@link System#nanoTime()}
+     * @param completed Queries finished so far
+     * @param concurrency Concurrency the rate limiter allowed at the time
+     */
+    public synchronized void add(long nanoTime, long completed, int concurrency) {
+        if (newestSample >= 0) {
+            long elapsed = nanoTime - sampleTimes[newestSample];
+            if (elapsed <= 0) {
+                return;
+            }
+            pendingCompleted += completed - sampleCompleted[newestSample];
+            pendingNanos += elapsed;
+            if (++pendingSamples == samplesPerPoint) {
+                addPoint(pendingCompleted * 1e9 / pendingNanos, concurrency);
+                pendingCompleted = 0;
+                pendingNanos = 0;
+                pendingSamples = 0;
+            }
+        }
+        newestSample = (newestSample + 1) % sampleTimes.length;
+        sampleTimes[newestSample] = nanoTime;
+        sampleCompleted[newestSample] = completed;
+        samples = Math.min(samples + 1, sampleTimes.length);
+    }
+
+    /**
+     * Queries finished per second over the last {@value #WINDOW_SAMPLES} samples, or 0 before there are two
+     */
+    public synchronized double getRate() {
+        if (samples < 2) {
+            return 0;
+        }
+        int oldest = (newestSample - samples + 1 + sampleTimes.length) % sampleTimes.length;
+        long elapsed = sampleTimes[newestSample] - sampleTimes[oldest];
+        return (sampleCompleted[newestSample] - sampleCompleted[oldest]) * 1e9 / elapsed;
+    }
+
+    /**
+     * Time left at the current rate, or null when nothing is finishing
+     */
+    public Duration getEta(long remaining) {
+        double rate = getRate();
+        if (remaining <= 0) {
+            return Duration.ZERO;
+        }
+        return rate > 0 ? Duration.ofSeconds((long) Math.ceil(remaining / rate)) : null;
+    }
+
+    /**
+     * The chart points at one moment, copied so they can be drawn while samples keep arriving
+     * @param rates Average queries per second over each point
+     * @param concurrency Concurrency at the end of each point
+     */
+    public record Points(double[] rates, int[] concurrency) {
+
+        public int count() {
+            return rates.length;
+        }
+    }
+
+    /**
+     * Copy of the chart points, all taken together so a merge of points never shows half done
+     */
+    public synchronized Points snapshot() {
+        return new Points(Arrays.copyOf(pointRates, points), Arrays.copyOf(pointConcurrency, points));
+    }
+
+    /**
+     * Samples each chart point covers now
+     */
+    public synchronized int getSamplesPerPoint() {
+        return samplesPerPoint;
+    }
+
+    private void addPoint(double rate, int concurrency) {
+        if (points == CAPACITY) {
+            // Halve the resolution: merge pairs of points into the first half
+            for (int i = 0; i < CAPACITY / 2; i++) {
+                pointRates[i] = (pointRates[2 * i] + pointRates[2 * i + 1]) / 2;
+                pointConcurrency[i] = pointConcurrency[2 * i + 1];
+            }
+            points = CAPACITY / 2;
+            samplesPerPoint *= 2;
+        }
+        pointRates[points] = rate;
+        pointConcurrency[points] = concurrency;
+        points++;
+    }
+}
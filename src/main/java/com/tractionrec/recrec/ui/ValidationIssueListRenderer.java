@@ -1,5 +1,6 @@
 package com.tractionrec.recrec.ui;
 
+import com.tractionrec.recrec.csv.IssueGroup;
 import com.tractionrec.recrec.csv.ValidationIssue;
 import com.tractionrec.recrec.domain.IssueSeverity;
 
@@ -7,13 +8,19 @@ import javax.swing.*;
 import java.awt.*;
 
 /**
- * Custom list cell renderer for validation issues
+ * Custom list cell renderer for validation issues and groups of repeated issues. In an
+ * {@link IssueListModel}, expandable groups are marked open or closed and their listed
+ * members are indented beneath them.
  */
 public class ValidationIssueListRenderer extends DefaultListCellRenderer {
 
     private static final Icon ERROR_ICON = createColoredIcon(Color.RED);
     private static final Icon WARNING_ICON = createColoredIcon(Color.ORANGE);
     private static final Icon INFO_ICON = createColoredIcon(Color.BLUE);
+    private static final Color ERROR_BACKGROUND = new Color(255, 245, 245);
+    private static final Color WARNING_BACKGROUND = new Color(255, 250, 240);
+    private static final Color INFO_BACKGROUND = new Color(245, 250, 255);
+    private static final int MEMBER_INDENT = 20;
 
     @Override
     public Component getListCellRendererComponent(JList<?> list, Object value,
@@ -21,7 +28,27 @@ public class ValidationIssueListRenderer extends DefaultListCellRenderer {
 
         super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
 
-        if (value instanceof ValidationIssue issue) {
+        ValidationIssue issue = null;
+        String groupSummary = "";
+        if (value instanceof IssueGroup group) {
+            issue = group.getRepresentative();
+            groupSummary = group.getSummary();
+        } else if (value instanceof ValidationIssue single) {
+            issue = single;
+        }
+
+        // Index is -1 while the list measures a prototype cell
+        boolean member = false;
+        if (index >= 0 && list.getModel() instanceof IssueListModel model) {
+            if (model.isExpandable(index)) {
+                groupSummary = (model.isExpanded(index) ? "▾ " : "▸ ") + groupSummary;
+            }
+            member = !model.isGroupEntry(index);
+        }
+        setBorder(BorderFactory.createCompoundBorder(getBorder(),
+            BorderFactory.createEmptyBorder(0, member ? MEMBER_INDENT : 0, 0, 0)));
+
+        if (issue != null) {
             // Set icon based on severity
             Icon icon = switch (issue.getSeverity()) {
                 case ERROR -> ERROR_ICON;
@@ -37,6 +64,9 @@ public class ValidationIssueListRenderer extends DefaultListCellRenderer {
                     issue.getLocation().row() + 1, // 1-based for display
                     issue.getLocation().column() + 1);
             }
+            if (!groupSummary.isEmpty()) {
+                locationText += " · " + groupSummary;
+            }
 
             String html = String.format(
                 "<html><div style='padding: 2px;'><b style='color: #1E3A8A;'>%s</b><br/>" +
@@ -51,9 +81,9 @@ public class ValidationIssueListRenderer extends DefaultListCellRenderer {
             // Set background color based on severity (subtle)
             if (!isSelected) {
                 Color backgroundColor = switch (issue.getSeverity()) {
-                    case ERROR -> new Color(255, 245, 245);
-                    case WARNING -> new Color(255, 250, 240);
-                    case INFO -> new Color(245, 250, 255);
+                    case ERROR -> ERROR_BACKGROUND;
+                    case WARNING -> WARNING_BACKGROUND;
+                    case INFO -> INFO_BACKGROUND;
                 };
                 setBackground(backgroundColor);
             }
@@ -0,0 +1,119 @@
+package com.tractionrec.recrec.analysis;
+
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.express.Transaction;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+import com.tractionrec.recrec.domain.result.TransactionQueryResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DuplicateChargeDetectorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 3);
+
+    @Test
+    public void testFindsDuplicatesAcrossRecordIds() {
+        List<TransactionQueryOutputRow> rows = List.of(
+            row("M1", "REC1", "V1", "************1111", "25.00", "Sale", LocalTime.of(10, 0)),
+            row("M1", "REC2", "V2", "************1111", "25.00", "Sale", LocalTime.of(10, 4)),
+            row("M1", "REC3", "V3", "************2222", "25.00", "Sale", LocalTime.of(10, 1)),
+            row("M2", "REC4", "V4", "************1111", "25.00", "Sale", LocalTime.of(10, 2))
+        );
+
+        DuplicateChargeReport report = new DuplicateChargeDetector().detect(rows);
+
+        assertEquals(4, report.getCandidateCount());
+        assertEquals(1, report.getGroups().size());
+        DuplicateGroup group = report.getGroups().get(0);
+        assertEquals(List.of(0, 1), group.rowIndices());
+        assertEquals("M1", group.merchant());
+        assertEquals(new BigDecimal("25.00"), group.amount());
+    }
+
+    @Test
+    public void testWindowChainsAndSplitsClusters() {
+        List<TransactionQueryOutputRow> rows = List.of(
+            row("M1", "A", "V1", "card", "9.99", "Sale", LocalTime.of(9, 0)),
+            row("M1", "B", "V2", "card", "9.99", "Sale", LocalTime.of(9, 8)),
+            row("M1", "C", "V3", "card", "9.99", "Sale", LocalTime.of(9, 16)), // Chained through B
+            row("M1", "D", "V4", "card", "9.99", "Sale", LocalTime.of(11, 0)), // Too late to join
+            row("M1", "E", "V5", "card", "9.99", "Return", LocalTime.of(9, 1)) // Different type
+        );
+
+        DuplicateChargeReport report = new DuplicateChargeDetector(Duration.ofMinutes(10)).detect(rows);
+
+        assertEquals(1, report.getGroups().size());
+        assertEquals(List.of(0, 1, 2), report.getGroups().get(0).rowIndices());
+        assertEquals(3, report.getDuplicateRowCount());
+    }
+
+    @Test
+    public void testSameTransactionReturnedTwiceIsNotADuplicate() {
+        List<TransactionQueryOutputRow> rows = List.of(
+            row("M1", "REC1", "V1", "card", "5.00", "Sale", LocalTime.NOON),
+            row("M1", "REC1", "V1", "card", "5.00", "Sale", LocalTime.NOON)
+        );
+
+        assertTrue(new DuplicateChargeDetector().detect(rows).getGroups().isEmpty());
+    }
+
+    @Test
+    public void testIgnoresRowsWithoutCardOrAmountOrSuccess() {
+        List<TransactionQueryOutputRow> rows = new ArrayList<>();
+        rows.add(row("M1", "A", "V1", null, "5.00", "Sale", LocalTime.NOON));
+        rows.add(row("M1", "B", "V2", null, "5.00", "Sale", LocalTime.NOON));
+        rows.add(new TransactionQueryResult(new QueryItem("M1", "C", QueryBy.RECORD_ID), ResultStatus.NOT_FOUND, "none")
+            .getOutputRows().get(0));
+
+        DuplicateChargeReport report = new DuplicateChargeDetector().detect(rows);
+        assertEquals(0, report.getCandidateCount());
+        assertTrue(report.getGroups().isEmpty());
+    }
+
+    @Test
+    public void testLargeResultSetFindsEveryPlantedDuplicate() {
+        List<TransactionQueryOutputRow> rows = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            rows.add(row("M" + (i % 50), "R" + i, "V" + i, "card" + i, (i % 1000) + ".00", "Sale",
+                LocalTime.ofSecondOfDay(i % 86_400)));
+        }
+        for (int i = 0; i < 100_000; i += 1_000) {
+            TransactionQueryOutputRow original = rows.get(i);
+            rows.add(row(original.merchant, "DUP" + i, "DV" + i, original.cardNumber, original.amount, "Sale",
+                LocalTime.ofSecondOfDay(i % 86_400).plusMinutes(1)));
+        }
+
+        DuplicateChargeReport report = new DuplicateChargeDetector().detect(rows);
+
+        assertEquals(100, report.getGroups().size());
+        for (DuplicateGroup group : report.getGroups()) {
+            assertEquals(2, group.rowIndices().size());
+            assertTrue(group.rowIndices().get(1) >= 100_000);
+        }
+    }
+
+    private static TransactionQueryOutputRow row(String merchant, String recordId, String vantivId, String card,
+                                                 String amount, String type, LocalTime time) {
+        Transaction tx = new Transaction();
+        tx.recordId = recordId;
+        tx.vantivId = vantivId;
+        tx.cardNumberMasked = card;
+        tx.amount = new BigDecimal(amount);
+        tx.transactionType = type;
+        tx.transactionDate = DAY;
+        tx.transactionTime = time;
+        TransactionQueryResult result = new TransactionQueryResult(
+            new QueryItem(merchant, recordId, QueryBy.RECORD_ID), ResultStatus.SUCCESS, "ok", List.of(tx));
+        return result.getOutputRows().get(0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.tractionrec.recrec.analysis;
+
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.express.Transaction;
+import com.tractionrec.recrec.domain.result.QueryResult;
+import com.tractionrec.recrec.domain.result.TransactionQueryResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultAggregatorTest {
+
+    @Test
+    public void testGroupsCountsAndAmounts() {
+        List<QueryResult<?, ?>> results = List.of(
+            success("M1", "10.25", "Visa", "Sale", LocalDate.of(2024, 5, 1)),
+            success("M1", "5.75", "Mastercard", "Sale", LocalDate.of(2024, 5, 1)),
+            success("M2", "-3.00", "Visa", "Return", LocalDate.of(2024, 5, 2)),
+            new TransactionQueryResult(new QueryItem("M2", "X", QueryBy.RECORD_ID), ResultStatus.NOT_FOUND, "none")
+        );
+
+        ResultSummary summary = ResultAggregator.aggregate(results);
+
+        assertEquals(4, summary.getResultCount());
+        assertEquals(4, summary.getRowCount());
+        assertEquals(new BigDecimal("13.00"), summary.getTotalAmount());
+
+        assertEquals(List.of(
+            new GroupTotals("M1", 2, 2, 1600),
+            new GroupTotals("M2", 2, 1, -300)
+        ), summary.getGroups(SummaryDimension.MERCHANT));
+
+        assertEquals(List.of(
+            new GroupTotals("SUCCESS", 3, 3, 1300),
+            new GroupTotals("NOT_FOUND", 1, 0, 0)
+        ), summary.getGroups(SummaryDimension.STATUS));
+
+        assertEquals(List.of(
+            new GroupTotals("Visa", 2, 2, 725),
+            new GroupTotals(SummaryDimension.NO_VALUE, 1, 0, 0),
+            new GroupTotals("Mastercard", 1, 1, 575)
+        ), summary.getGroups(SummaryDimension.CARD_LOGO));
+
+        assertEquals(List.of(
+            new GroupTotals("2024-05-01", 2, 2, 1600),
+            new GroupTotals("(none)", 1, 0, 0),
+            new GroupTotals("2024-05-02", 1, 1, -300)
+        ), summary.getGroups(SummaryDimension.TRANSACTION_DATE));
+    }
+
+    @Test
+    public void testIncrementalMatchesForkJoin() throws InterruptedException {
+        List<QueryResult<?, ?>> results = new ArrayList<>();
+        for (int i = 0; i < 25_000; i++) {
+            results.add(success("M" + (i % 13), (i % 500) + "." + (i % 100), i % 2 == 0 ? "Visa" : "Amex",
+                i % 3 == 0 ? "Return" : "Sale", LocalDate.of(2024, 1, 1).plusDays(i % 31)));
+        }
+
+        ResultAggregator incremental = new ResultAggregator();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (QueryResult<?, ?> result : results) {
+            executor.execute(() -> incremental.addResult(result));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        ResultSummary expected = ResultAggregator.aggregate(results);
+        ResultSummary actual = incremental.snapshot();
+        assertEquals(expected.getResultCount(), actual.getResultCount());
+        assertEquals(expected.getTotalAmount(), actual.getTotalAmount());
+        for (SummaryDimension dimension : SummaryDimension.values()) {
+            assertEquals(expected.getGroups(dimension), actual.getGroups(dimension), dimension.name());
+        }
+    }
+
+    @Test
+    public void testParseCents() {
+        assertEquals(1025, ResultAggregator.parseCents("10.25"));
+        assertEquals(1000, ResultAggregator.parseCents("10"));
+        assertEquals(1050, ResultAggregator.parseCents("10.5"));
+        assertEquals(-1013, ResultAggregator.parseCents("-10.125"));
+        assertEquals(1012, ResultAggregator.parseCents("10.1249"));
+        assertEquals(50, ResultAggregator.parseCents(".5"));
+        assertEquals(ResultAggregator.NO_AMOUNT, ResultAggregator.parseCents("1e5"));
+        assertEquals(ResultAggregator.NO_AMOUNT, ResultAggregator.parseCents("-"));
+    }
+
+    private static QueryResult<?, ?> success(String merchant, String amount, String cardLogo, String type, LocalDate date) {
+        Transaction tx = new Transaction();
+        tx.amount = new BigDecimal(amount);
+        tx.cardLogo = cardLogo;
+        tx.transactionType = type;
+        tx.transactionDate = date;
+        tx.transactionTime = LocalTime.of(13, 45);
+        return new TransactionQueryResult(new QueryItem(merchant, "R", QueryBy.RECORD_ID), ResultStatus.SUCCESS, "ok", List.of(tx));
+    }
+}
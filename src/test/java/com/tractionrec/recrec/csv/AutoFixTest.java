@@ -124,4 +124,41 @@ public class AutoFixTest {
         assertTrue(fixedContent.contains("ThirdMerchant"));
         assertTrue(fixedContent.contains("ABC123"));
     }
+
+    @Test
+    public void testFixReportMatchesRevalidationOfFixedFile() throws IOException {
+        String csvContent = "Merchant,ID\n" +
+            "  Padded  ,ID1\n" +
+            "   ,ID2\n" +
+            "\"Quoted, merchant\",\"say \"\"hi\"\"\"\n" +
+            "4.44506E+12,ID4\n" +
+            "\n" +
+            "Merchant6,\n";
+
+        File testFile = tempDir.resolve("report.csv").toFile();
+        Files.writeString(testFile.toPath(), csvContent);
+
+        CsvValidationService service = new CsvValidationService();
+        CsvFixResult fixResult = service.fixCommonIssues(testFile, ValidationOptions.defaults(), 100);
+        CsvValidationReport revalidated = service.validateWithPreview(fixResult.getOutputFile(), 100);
+
+        CsvValidationResult fixed = fixResult.getReport().getResult();
+        assertEquals(revalidated.getResult().getOverallStatus(), fixed.getOverallStatus());
+        assertEquals(revalidated.getResult().getIssues().toString(), fixed.getIssues().toString());
+        assertEquals(revalidated.getResult().getStats().getTotalRows(), fixed.getStats().getTotalRows());
+        assertEquals(revalidated.getResult().getStats().getEmptyRows(), fixed.getStats().getEmptyRows());
+        assertEquals(fixResult.getOutputFile().length(), fixed.getStats().getFileSizeBytes());
+        assertFalse(fixed.hasAutoFixableIssues(), "Whitespace is fixed in the written rows");
+
+        String[][] preview = fixResult.getReport().getPreview().getData();
+        assertEquals("Padded", preview[0][0]);
+        assertEquals("Quoted, merchant", preview[2][0]);
+        assertEquals("say \"hi\"", preview[2][1]);
+        assertArrayEquals(revalidated.getPreview().getData()[2], preview[2]);
+
+        // The fixed file's records are indexed by their offsets in the written output
+        CsvPageReader pageReader = fixResult.getReport().getPreview().getPageReader();
+        assertArrayEquals(preview[2], pageReader.readRows(2, 1)[0]);
+        assertArrayEquals(preview[5], pageReader.readRows(5, 1)[0]);
+    }
 }
@@ -0,0 +1,63 @@
+package com.tractionrec.recrec.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import static com.tractionrec.recrec.csv.CellClassifier.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the single-scan cell classifier
+ */
+public class CellClassifierTest {
+
+    // The pattern ScientificNotationRule used before the classifier
+    private static final Pattern SCIENTIFIC = Pattern.compile("^[+-]?\\d+\\.?\\d*[eE][+-]?\\d+$");
+
+    private static final String[] SAMPLES = {
+        "", " ", "\t \t", "1.23E+15", "4.56e-10", "7E5", " 8.88E+11 ", "1.e5", "+1E5", "-2.5E-3",
+        "1E", "E5", "1.2.3E4", "1E+", "1E5x", "12", "-7", "3.50", "1.", ".5", "+", "abc", " padded",
+        "trailing\t", "MERCHANT123", "Café", "1,000", "1 E5", "１２３"
+    };
+
+    @Test
+    public void testScientificNotationMatchesFormerPattern() {
+        for (String sample : SAMPLES) {
+            boolean expected = SCIENTIFIC.matcher(sample.trim()).matches();
+            assertEquals(expected, (classify(sample) & SCIENTIFIC_NOTATION) != 0, sample);
+        }
+    }
+
+    @Test
+    public void testBlankMatchesTrim() {
+        for (String sample : SAMPLES) {
+            int flags = classify(sample);
+            assertEquals(sample.isEmpty(), (flags & EMPTY) != 0, sample);
+            assertEquals(!sample.isEmpty() && sample.trim().isEmpty(), (flags & WHITESPACE_ONLY) != 0, sample);
+            assertEquals(sample.trim().isEmpty(), isBlank(flags), sample);
+        }
+        assertEquals(EMPTY, classify((String) null));
+    }
+
+    @Test
+    public void testNumericSpacingAndLength() {
+        assertEquals(NUMERIC | LENGTH_SHORT, classify("3.50"));
+        assertEquals(0, classify("1,000") & NUMERIC);
+        assertEquals(LEADING_SPACE | TRAILING_SPACE, classify(" x ") & (LEADING_SPACE | TRAILING_SPACE));
+        assertEquals(LENGTH_MEDIUM, classify("x".repeat(16)) & LENGTH_MASK);
+        assertEquals(LENGTH_LONG, classify("x".repeat(256)) & LENGTH_MASK);
+    }
+
+    @Test
+    public void testBytesMatchText() {
+        for (String sample : SAMPLES) {
+            byte[] bytes = ("," + sample + ",").getBytes(StandardCharsets.UTF_8);
+            int length = sample.getBytes(StandardCharsets.UTF_8).length;
+            int flags = classify(bytes, 1, length);
+            // Length classes count bytes here, so compare everything else
+            assertEquals(classify(sample) & ~LENGTH_MASK, flags & ~LENGTH_MASK, sample);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.domain.IssueSeverity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the packed cell issue index and the preview lookups built on it
+ */
+public class CellIssueIndexTest {
+
+    @Test
+    public void testFindsReplacesAndGrows() {
+        CellIssueIndex index = new CellIssueIndex(0);
+        for (int row = 0; row < 10_000; row++) {
+            index.put(row, row % 3, row);
+        }
+        index.put(42, 0, 7); // Same cell, later issue wins
+
+        assertEquals(10_000, index.size());
+        assertEquals(7, index.get(42, 0));
+        assertEquals(9_999, index.get(9_999, 0));
+        assertEquals(CellIssueIndex.NONE, index.get(9_999, 1));
+        assertEquals(CellIssueIndex.NONE, index.get(0, 1));
+        assertTrue(index.contains(0, 0));
+        assertEquals(100, index.count(100, 200));
+    }
+
+    @Test
+    public void testPreviewLooksUpIssuesPastTheInMemoryRows() {
+        IssueStore store = new IssueStore();
+        store.add(IssueKind.EMPTY_MERCHANT, 1, 0);
+        store.add(IssueKind.WHITESPACE_ONLY_ID, 1, 1);
+        store.add(IssueKind.SCIENTIFIC_NOTATION_ID, 1, 1, "1E+5"); // Later rule wins the shared cell
+        store.add(IssueKind.EMPTY_ID, 5_000, 1);
+
+        String[][] rows = {{"a", "b"}, {"", "1E+5"}};
+        CsvPreviewData preview = new CsvPreviewData(rows, new String[]{"Merchant", "ID"}, null, null, 6_000, store, null);
+
+        assertEquals(IssueSeverity.ERROR, preview.getCellSeverity(1, 0));
+        assertEquals("1E+5", preview.getCellIssue(1, 1).getOriginalValue());
+        assertTrue(preview.hasCellIssue(5_000, 1));
+        assertNull(preview.getCellSeverity(0, 0));
+        assertNull(preview.getCellIssue(0, 1));
+
+        // Only the in-memory rows count towards the preview's own issues
+        assertEquals(2, preview.getCellIssueCount());
+        Map<?, ValidationIssue> cellIssues = preview.getCellIssues();
+        assertEquals(2, cellIssues.size());
+    }
+}
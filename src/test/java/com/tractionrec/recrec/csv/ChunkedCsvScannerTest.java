@@ -0,0 +1,161 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.csv.rules.ContentValidationRule;
+import com.tractionrec.recrec.csv.rules.EmptyColumnRule;
+import com.tractionrec.recrec.csv.rules.RowValidator;
+import com.tractionrec.recrec.csv.rules.ScientificNotationRule;
+import com.tractionrec.recrec.csv.rules.ValidationRule;
+import com.tractionrec.recrec.domain.QueryBy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that chunked parallel scanning matches a single sequential pass
+ */
+public class ChunkedCsvScannerTest {
+
+    private static final List<ValidationRule> RULES =
+        List.of(new ScientificNotationRule(), new ContentValidationRule(), new EmptyColumnRule());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testChunksMatchSequentialScanWithQuotedNewlines() throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID,Note\r\n");
+        for (int i = 0; i < 2_000; i++) {
+            String merchant = i % 97 == 0 ? "8.88E+11" : "M" + i;
+            String id = i % 89 == 0 ? "  " : "ID" + i;
+            String note = i % 5 == 0 ? "\"line one\nline \"\"two\"\",\n" + i + "\"" : "";
+            csv.append(merchant).append(',').append(id).append(',').append(note).append("\r\n");
+            if (i % 250 == 0) {
+                csv.append("\r\n");
+            }
+        }
+        File file = write(csv.toString());
+
+        long[] boundaries = boundaries(file, 256);
+        assertTrue(boundaries.length > 3, "File should be split into several chunks");
+
+        ChunkedCsvScanner.ScanResult sequential = new ChunkedCsvScanner(RULES, 100, Long.MAX_VALUE).scan(file, StandardCharsets.UTF_8);
+        ChunkedCsvScanner.ScanResult chunked = new ChunkedCsvScanner(RULES, 100, 256).scan(file, StandardCharsets.UTF_8);
+
+        assertScansEqual(sequential, chunked);
+        assertEquals(2_008, chunked.rowCount);
+        assertEquals(8, chunked.emptyRows);
+        assertEquals("line one\nline \"two\",\n5", chunked.previewRows.get(6)[2]);
+    }
+
+    @Test
+    public void testOffsetIndexFromChunksLocatesEveryRow() throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append("M").append(i).append(',').append(i % 700 == 0 ? "\"multi\nline " + i + "\"" : "ID" + i).append('\n');
+        }
+        File file = write(csv.toString());
+
+        ChunkedCsvScanner.ScanResult chunked = new ChunkedCsvScanner(RULES, 10, 4096).scan(file, StandardCharsets.UTF_8);
+        RecordOffsetIndex index = chunked.offsets.build(chunked.rowCount);
+        assertTrue(index.getCheckpointCount() > 5, "Each chunk adds its own checkpoints");
+
+        CsvPageReader reader = new CsvPageReader(file, StandardCharsets.UTF_8, index);
+        for (int row : new int[]{0, 999, 1000, 2100, 4321, 4999}) {
+            String[][] rows = reader.readRows(row, 2);
+            assertEquals("M" + row, rows[0][0]);
+            assertEquals(row % 700 == 0 ? "multi\nline " + row : "ID" + row, rows[0][1]);
+        }
+        assertEquals(1, reader.readRows(4999, 10).length);
+        assertEquals(0, reader.readRows(5000, 10).length);
+    }
+
+    @Test
+    public void testQueryItemsFromChunksMatchFileOrder() throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID\n");
+        for (int i = 0; i < 3_000; i++) {
+            String merchant = " M" + (i % 7) + " ";
+            String id = i % 400 == 0 ? "\"multi\nline, " + i + "\"" : "ID" + i;
+            csv.append(merchant).append(',').append(id).append('\n');
+            if (i % 1_000 == 0) {
+                csv.append("\nlonely\n"); // Blank row, then a row missing its id
+            }
+        }
+        File file = write(csv.toString());
+
+        QueryItemSource items = new ChunkedCsvScanner(RULES, 10, 2048).scan(file, StandardCharsets.UTF_8).queryItems;
+        assertEquals(3_000, items.size());
+        assertEquals(3, items.getSkippedRows());
+        for (int i = 0; i < 3_000; i++) {
+            assertEquals("M" + (i % 7), items.getMerchant(i));
+            assertEquals(i % 400 == 0 ? "multi\nline, " + i : "ID" + i, items.getId(i));
+        }
+        assertEquals(QueryBy.RECORD_ID, items.asQueryItems(QueryBy.RECORD_ID).get(5).mode());
+    }
+
+    @Test
+    public void testStrayQuoteFallsBackToSequentialScan() throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID\n");
+        csv.append("12\" screen,ID0\n");
+        for (int i = 1; i < 500; i++) {
+            csv.append("M").append(i).append(',').append(i % 50 == 0 ? "\"multi\nline\"" : "ID" + i).append('\n');
+        }
+        File file = write(csv.toString());
+
+        ChunkedCsvScanner.ScanResult sequential = new ChunkedCsvScanner(RULES, 10, Long.MAX_VALUE).scan(file, StandardCharsets.UTF_8);
+        ChunkedCsvScanner.ScanResult chunked = new ChunkedCsvScanner(RULES, 10, 128).scan(file, StandardCharsets.UTF_8);
+
+        assertScansEqual(sequential, chunked);
+        assertEquals(500, chunked.rowCount);
+    }
+
+    @Test
+    public void testOnlyAsciiCompatibleEncodingsAreSplit() {
+        assertTrue(ChunkedCsvScanner.isAsciiCompatible(StandardCharsets.UTF_8));
+        assertTrue(ChunkedCsvScanner.isAsciiCompatible(StandardCharsets.ISO_8859_1));
+        assertFalse(ChunkedCsvScanner.isAsciiCompatible(StandardCharsets.UTF_16LE));
+        assertFalse(ChunkedCsvScanner.isAsciiCompatible(StandardCharsets.UTF_16));
+    }
+
+    private void assertScansEqual(ChunkedCsvScanner.ScanResult expected, ChunkedCsvScanner.ScanResult actual) {
+        assertArrayEquals(expected.headers, actual.headers);
+        assertEquals(expected.rowCount, actual.rowCount);
+        assertEquals(expected.emptyRows, actual.emptyRows);
+        assertEquals(expected.totalColumns, actual.totalColumns);
+        assertEquals(expected.previewRows.size(), actual.previewRows.size());
+        for (int row = 0; row < expected.previewRows.size(); row++) {
+            assertArrayEquals(expected.previewRows.get(row), actual.previewRows.get(row));
+        }
+        assertEquals(describe(expected.validators), describe(actual.validators));
+    }
+
+    private static List<String> describe(List<RowValidator> validators) {
+        List<String> issues = new ArrayList<>();
+        for (RowValidator validator : validators) {
+            validator.finish().asList().forEach(issue -> issues.add(issue.toString()));
+        }
+        return issues;
+    }
+
+    private long[] boundaries(File file, long minChunkBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new ChunkedCsvScanner(RULES, 0, minChunkBytes).recordBoundaries(channel, channel.size(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private File write(String content) throws IOException {
+        File file = tempDir.resolve("chunked.csv").toFile();
+        Files.writeString(file.toPath(), content);
+        return file;
+    }
+}
@@ -0,0 +1,169 @@
+package com.tractionrec.recrec.csv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that the byte tokenizer reads records exactly as Commons CSV's default format does
+ */
+public class CsvTokenizerTest {
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.withIgnoreEmptyLines(false);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testMatchesCommonsCsvOnEdgeCases() throws IOException {
+        String csv = "a,b,c\r\n"
+            + "\"quoted, comma\",\"line\nbreak\",\"doubled \"\"quotes\"\"\"\n"
+            + "\n"
+            + "trailing,comma,\r"
+            + "unquoted \"inner\" quote,\"\",  \r\n"
+            + "\"closing\"  ,x\n"
+            + "no,final,newline";
+
+        assertEquals(commonsRecords(csv), tokenizerRecords(csv, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testBlankAndEmptyChecksDoNotNeedText() throws IOException {
+        Path file = tempDir.resolve("blank.csv");
+        Files.writeString(file, "\"\",\" \t\",x,\"\"\"\"\n");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvTokenizer tokenizer = new CsvTokenizer(channel, 0, channel.size(), StandardCharsets.UTF_8);
+            assertTrue(tokenizer.next());
+            assertEquals(4, tokenizer.size());
+            assertTrue(tokenizer.isEmpty(0));
+            assertFalse(tokenizer.isEmpty(1));
+            assertTrue(tokenizer.isBlank(1));
+            assertFalse(tokenizer.isBlank(2));
+            assertFalse(tokenizer.isBlank(3));
+            assertEquals("\"", tokenizer.get(3));
+            assertFalse(tokenizer.next());
+        }
+    }
+
+    @Test
+    public void testRecordsSpanningBufferRefillsAndMultiByteText() throws IOException {
+        Random random = new Random(42);
+        String[] pieces = {"Café", "naïve", "\"q\"\"uote\"", "\"multi\r\nline\"", "", " ", "8.88E+11", "日本"};
+        StringBuilder csv = new StringBuilder();
+        for (int row = 0; row < 40_000; row++) {
+            int columns = 1 + random.nextInt(4);
+            for (int column = 0; column < columns; column++) {
+                if (column > 0) {
+                    csv.append(',');
+                }
+                csv.append(pieces[random.nextInt(pieces.length)]);
+            }
+            csv.append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        // One record far larger than the initial buffer
+        csv.append("\"").append("x".repeat(600_000)).append("\",end\n");
+
+        assertEquals(commonsRecords(csv.toString()), tokenizerRecords(csv.toString(), StandardCharsets.UTF_8));
+
+        // Single-byte encoding; characters it cannot hold are written as '?' on both sides
+        Charset windows1252 = Charset.forName("windows-1252");
+        String singleByte = new String(csv.toString().getBytes(windows1252), windows1252);
+        assertEquals(commonsRecords(singleByte), tokenizerRecords(singleByte, windows1252));
+    }
+
+    @Test
+    public void testUnterminatedQuoteFails() {
+        assertThrows(IOException.class, () -> tokenizerRecords("a,\"open\nb,c\n", StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> tokenizerRecords("\"closed\"x,b\n", StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compares a full tokenizer pass with the Commons CSV parsing done by CsvValidationService.parseCsvFile.
+     * Run with -Drecrec.benchmarks=true.
+     */
+    @Test
+    public void benchmarkAgainstCommonsCsv() throws IOException {
+        assumeTrue(Boolean.getBoolean("recrec.benchmarks"), "Benchmarks are disabled");
+
+        Path file = tempDir.resolve("benchmark.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("Merchant,ID,Note\n");
+            for (int i = 0; i < 2_000_000; i++) {
+                writer.write((i % 1000 == 0 ? "8.88E+11" : "MERCHANT" + i) + ",ID" + i + ",\"note, " + i + "\"\n");
+            }
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long commonsCells = 0;
+            try (CSVParser parser = FORMAT.withFirstRecordAsHeader().parse(Files.newBufferedReader(file))) {
+                for (CSVRecord record : parser) {
+                    commonsCells += ChunkedCsvScanner.toRow(record).length;
+                }
+            }
+            long commonsMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            long tokenizerCells = 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                CsvTokenizer tokenizer = new CsvTokenizer(channel, 0, channel.size(), StandardCharsets.UTF_8);
+                tokenizer.next();
+                while (tokenizer.next()) {
+                    for (int column = 0; column < tokenizer.size(); column++) {
+                        if (!tokenizer.isBlank(column)) {
+                            tokenizerCells++;
+                        }
+                    }
+                }
+            }
+            long tokenizerMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(commonsCells, tokenizerCells);
+            System.out.printf("Commons CSV parse: %d ms, tokenizer: %d ms%n", commonsMillis, tokenizerMillis);
+        }
+    }
+
+    private static List<List<String>> commonsRecords(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (Reader reader = new StringReader(csv); CSVParser parser = FORMAT.parse(reader)) {
+            for (CSVRecord record : parser) {
+                records.add(List.of(ChunkedCsvScanner.toRow(record)));
+            }
+        }
+        return records;
+    }
+
+    private List<List<String>> tokenizerRecords(String csv, Charset charset) throws IOException {
+        Path file = tempDir.resolve("tokenize.csv");
+        Files.write(file, csv.getBytes(charset));
+
+        List<List<String>> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvTokenizer tokenizer = new CsvTokenizer(channel, 0, channel.size(), charset);
+            while (tokenizer.next()) {
+                records.add(List.of(tokenizer.toArray()));
+            }
+        }
+        return records;
+    }
+}
@@ -4,13 +4,22 @@ import com.tractionrec.recrec.domain.IssueSeverity;
 import com.tractionrec.recrec.domain.IssueType;
 import com.tractionrec.recrec.domain.ValidationStatus;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CsvValidationServiceTest {
+
+    @TempDir
+    Path tempDir;
     
     @Test
     public void testScientificNotationDetection() {
@@ -65,4 +74,118 @@ public class CsvValidationServiceTest {
         // Should have cell issues marked
         assertFalse(preview.getCellIssues().isEmpty());
     }
+
+    @Test
+    public void testSinglePassReportCoversWholeFileAndPreviewWindow() throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID\n");
+        for (int i = 0; i < 30; i++) {
+            csv.append(i == 25 ? "8.88E+11" : "M" + i).append(',').append(i == 3 ? "" : "ID" + i).append('\n');
+        }
+        csv.append(",\n");
+        File testFile = tempDir.resolve("single_pass.csv").toFile();
+        Files.writeString(testFile.toPath(), csv.toString());
+
+        CsvValidationService service = new CsvValidationService();
+        CsvValidationReport report = service.validateWithPreview(testFile, 10);
+        CsvValidationResult result = report.getResult();
+        CsvPreviewData preview = report.getPreview();
+
+        // Validation covers every row, beyond the preview window
+        assertEquals(31, result.getStats().getTotalRows());
+        assertEquals(1, result.getStats().getEmptyRows());
+        assertTrue(result.getIssues().stream().anyMatch(issue ->
+            issue.getType() == IssueType.SCIENTIFIC_NOTATION && issue.getLocation().row() == 25));
+        assertFalse(result.canProceed());
+
+        // Preview keeps only the requested rows and their issues, but knows the full row count
+        assertEquals(10, preview.getPreviewRowCount());
+        assertEquals(31, preview.getTotalRowsInFile());
+        assertTrue(preview.isPreviewTruncated());
+        assertSame(result.getStats(), preview.getStats());
+        assertEquals(IssueType.EMPTY_FIELD, preview.getCellIssue(3, 1).getType());
+        assertTrue(preview.getCellIssues().keySet().stream().allMatch(location -> location.row() < 10));
+
+        // The standalone entry points agree with the combined report
+        assertEquals(result.getIssues().size(), service.validateCsv(testFile).getIssues().size());
+        assertEquals(preview.getCellIssues().keySet(), service.generatePreview(testFile, 10).getCellIssues().keySet());
+    }
+
+    @Test
+    public void testMissingFileGivesInvalidResultAndEmptyPreview() {
+        CsvValidationReport report = new CsvValidationService()
+            .validateWithPreview(tempDir.resolve("missing.csv").toFile(), 10);
+
+        assertEquals(ValidationStatus.INVALID, report.getResult().getOverallStatus());
+        assertEquals(0, report.getPreview().getPreviewRowCount());
+    }
+
+    @Test
+    public void testProgressReportsRowsIssuesAndFirstPage() throws IOException {
+        File testFile = writeRows(20_000);
+        List<String[][]> firstPages = new ArrayList<>();
+        long[] lastProgress = new long[5];
+
+        CsvValidationReport report = new CsvValidationService().validateWithPreview(testFile, 5_000,
+            new ValidationProgressListener() {
+                @Override
+                public void onProgress(long bytesProcessed, long totalBytes, int rowsProcessed, int errorsFound, int warningsFound) {
+                    lastProgress[0] = bytesProcessed;
+                    lastProgress[1] = totalBytes;
+                    lastProgress[2] = rowsProcessed;
+                    lastProgress[3] = errorsFound;
+                    lastProgress[4] = warningsFound;
+                }
+
+                @Override
+                public void onFirstPage(CsvPreviewData firstPage) {
+                    firstPages.add(firstPage.getData());
+                }
+            });
+
+        // The last report covers the whole file
+        assertEquals(testFile.length(), lastProgress[0]);
+        assertEquals(testFile.length(), lastProgress[1]);
+        assertEquals(20_000, lastProgress[2]);
+        assertEquals(report.getResult().getErrorCount(), lastProgress[3]);
+
+        // The first page arrives once, before the preview window is complete
+        assertEquals(1, firstPages.size());
+        assertEquals(1_000, firstPages.get(0).length);
+        assertArrayEquals(report.getPreview().getData()[999], firstPages.get(0)[999]);
+    }
+
+    @Test
+    public void testListenerCancelsValidation() throws IOException {
+        File testFile = writeRows(50_000);
+        int[] rowsAtCancel = new int[1];
+
+        ValidationProgressListener cancelOnFirstReport = new ValidationProgressListener() {
+            private volatile boolean cancelled;
+
+            @Override
+            public void onProgress(long bytesProcessed, long totalBytes, int rowsProcessed, int errorsFound, int warningsFound) {
+                rowsAtCancel[0] = rowsProcessed;
+                cancelled = true;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+        };
+
+        CsvValidationService service = new CsvValidationService();
+        assertThrows(CancellationException.class, () -> service.validateWithPreview(testFile, 100, cancelOnFirstReport));
+        assertTrue(rowsAtCancel[0] < 50_000, "Validation stops before reading the whole file");
+    }
+
+    private File writeRows(int rows) throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i % 100 == 0 ? "" : "M" + i).append(",ID").append(i).append('\n');
+        }
+        File file = tempDir.resolve("rows_" + rows + ".csv").toFile();
+        Files.writeString(file.toPath(), csv.toString());
+        return file;
+    }
 }
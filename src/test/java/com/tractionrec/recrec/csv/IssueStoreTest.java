@@ -0,0 +1,102 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.domain.IssueSeverity;
+import com.tractionrec.recrec.domain.IssueType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compact issue storage, lazy rendering and grouping of repeats
+ */
+public class IssueStoreTest {
+
+    @Test
+    public void testRendersIssuesLikeTheRuleFactories() {
+        IssueStore store = new IssueStore();
+        store.add(IssueKind.EMPTY_MERCHANT, 3, 0);
+        store.add(IssueKind.WHITESPACE_ONLY_ID, 4, 1);
+        store.add(IssueKind.MISSING_COLUMNS, 5, 0, "1");
+        store.add(IssueKind.SCIENTIFIC_NOTATION_MERCHANT, 6, 0, "1.23E+15");
+
+        List<ValidationIssue> issues = store.asList();
+        assertEquals(4, issues.size());
+        assertEquals("Required field 'Merchant' is empty", issues.get(0).getDescription());
+        assertTrue(issues.get(1).isAutoFixable());
+        assertEquals("Row has only 1 columns, expected 2", issues.get(2).getDescription());
+        assertEquals("Merchant field contains scientific notation: '1.23E+15'", issues.get(3).getDescription());
+        assertEquals("1.23E+15", issues.get(3).getOriginalValue());
+        assertEquals(6, issues.get(3).getLocation().row());
+
+        assertEquals(3, store.count(IssueSeverity.ERROR));
+        assertEquals(1, store.count(IssueSeverity.WARNING));
+        assertTrue(store.hasAutoFixableIssues());
+    }
+
+    @Test
+    public void testAppendOffsetsRowsAndRemapsValues() {
+        IssueStore first = new IssueStore();
+        first.add(IssueKind.SCIENTIFIC_NOTATION_ID, 0, 1, "1E+5");
+        IssueStore second = new IssueStore();
+        second.add(IssueKind.SCIENTIFIC_NOTATION_ID, 0, 1, "2E+5");
+        second.add(IssueKind.SCIENTIFIC_NOTATION_ID, 1, 1, "1E+5");
+
+        first.append(second, 10);
+        assertEquals(3, first.size());
+        assertEquals(10, first.getRow(1));
+        assertEquals("2E+5", first.getValue(1));
+        assertEquals("1E+5", first.getValue(2));
+        assertNull(first.getCommonValue(IssueKind.SCIENTIFIC_NOTATION_ID));
+        assertEquals(3, first.count(IssueKind.SCIENTIFIC_NOTATION_ID));
+    }
+
+    @Test
+    public void testGroupsRepeatsAndFoldsExcessValues() {
+        IssueStore store = new IssueStore();
+        for (int row = 0; row < 1000; row++) {
+            store.add(IssueKind.SCIENTIFIC_NOTATION_MERCHANT, row, 0, "8.88E+11");
+            store.add(IssueKind.EMPTY_ID, row, 1);
+        }
+        for (int row = 1000; row < 1010; row++) {
+            store.add(IssueKind.SCIENTIFIC_NOTATION_MERCHANT, row, 0, row + "E+1");
+        }
+        assertEquals("8.88E+11", store.asList().get(0).getOriginalValue());
+
+        List<IssueGroup> groups = store.groups(3);
+        // Common value, empty IDs, two more distinct values, then the remaining eight folded together
+        assertEquals(5, groups.size());
+        assertEquals(1000, groups.get(0).getCount());
+        assertEquals("Same value in 1,000 rows (rows 1-1,000)", groups.get(0).getSummary());
+        assertEquals(IssueType.EMPTY_FIELD, groups.get(1).getRepresentative().getType());
+        assertEquals("1,000 rows (rows 1-1,000)", groups.get(1).getSummary());
+        assertEquals("", groups.get(2).getSummary());
+        assertTrue(groups.get(4).isRemainder());
+        assertEquals(8, groups.get(4).getCount());
+        assertEquals(1002, groups.get(4).getRepresentative().getLocation().row());
+    }
+
+    @Test
+    public void testGroupingKeepsEachIssuesGroupAndPlace() {
+        IssueStore store = new IssueStore();
+        for (int row = 0; row < 5; row++) {
+            store.add(IssueKind.EMPTY_ID, row, 1);
+            store.add(IssueKind.SCIENTIFIC_NOTATION_ID, row, 1, row % 2 == 0 ? "1E+5" : "2E+5");
+        }
+
+        IssueGrouping grouping = store.grouping(IssueGrouping.MAX_GROUPS_PER_KIND);
+        assertEquals(3, grouping.getGroupCount());
+        assertEquals(10, grouping.getIssueCount());
+        assertEquals(5, grouping.getMemberCount(0));
+        assertEquals(3, grouping.getMemberCount(1));
+        assertEquals(2, grouping.getMemberCount(2));
+
+        // Issue 7 is the "2E+5" on row 3, the second of its group
+        assertEquals(2, grouping.groupOf(7));
+        assertEquals(1, grouping.memberOf(7));
+        assertEquals(7, grouping.getMemberIssue(2, 1));
+        assertEquals(3, grouping.getMember(2, 1).getLocation().row());
+        assertEquals(grouping.getGroups().size(), store.groups(IssueGrouping.MAX_GROUPS_PER_KIND).size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.tractionrec.recrec.csv;
+
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the query items kept from validation
+ */
+public class QueryItemSourceTest {
+
+    @Test
+    public void testTrimsValuesAndSkipsShortAndBlankRows() {
+        QueryItemSource source = new QueryItemSource(StandardCharsets.UTF_8);
+        source.add(CsvRow.of(new String[]{" Café ", " 123 ", "extra"}));
+        source.add(CsvRow.of(new String[]{"lonely"}));
+        source.add(CsvRow.of(new String[]{"Café", null}));
+        source.add(CsvRow.of(new String[]{""}));
+        source.add(CsvRow.of(new String[]{" ", ""}));
+
+        assertEquals(2, source.size());
+        assertEquals(1, source.getSkippedRows());
+        List<QueryItem> items = source.asQueryItems(QueryBy.VANTIV_ID);
+        assertEquals(new QueryItem("Café", "123", QueryBy.VANTIV_ID), items.get(0));
+        assertEquals(new QueryItem("Café", "", QueryBy.VANTIV_ID), items.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> source.getId(2));
+    }
+
+    @Test
+    public void testAppendKeepsRowOrderAcrossSegments() {
+        QueryItemSource first = new QueryItemSource(StandardCharsets.UTF_8);
+        QueryItemSource empty = new QueryItemSource(StandardCharsets.UTF_8);
+        QueryItemSource second = new QueryItemSource(StandardCharsets.UTF_8);
+        for (int i = 0; i < 3; i++) {
+            first.add(CsvRow.of(new String[]{"A", "a" + i}));
+        }
+        second.add(CsvRow.of(new String[]{"A", "b0"}));
+        second.add(CsvRow.of(new String[]{"B"}));
+
+        first.append(empty);
+        first.append(second);
+        assertEquals(4, first.size());
+        assertEquals(1, first.getSkippedRows());
+        assertEquals("a2", first.getId(2));
+        assertEquals("b0", first.getId(3));
+        assertEquals("A", first.getMerchant(3));
+    }
+
+    @Test
+    public void testMerchantsPastFullDictionaryAreStoredInline() {
+        QueryItemSource source = new QueryItemSource(StandardCharsets.UTF_8);
+        int rows = QueryItemSource.MAX_DICTIONARY_SIZE + 5_000;
+        for (int i = 0; i < rows; i++) {
+            source.add(CsvRow.of(new String[]{"M" + (i % (rows - 100)), "ID" + i}));
+        }
+
+        assertEquals(rows, source.size());
+        for (int i = 0; i < rows; i += 997) {
+            assertEquals("M" + (i % (rows - 100)), source.getMerchant(i));
+            assertEquals("ID" + i, source.getId(i));
+        }
+        assertEquals("M99", source.getMerchant(rows - 1));
+    }
+}
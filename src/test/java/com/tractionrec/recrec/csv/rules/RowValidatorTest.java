@@ -0,0 +1,44 @@
+package com.tractionrec.recrec.csv.rules;
+
+import com.tractionrec.recrec.csv.CsvRow;
+import com.tractionrec.recrec.csv.ValidationIssue;
+import com.tractionrec.recrec.domain.IssueType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming rule contract: rows fed one at a time, column findings on finish
+ */
+public class RowValidatorTest {
+
+    @Test
+    public void testEmptyColumnFindingsOnlyAppearOnFinish() {
+        RowValidator validator = new EmptyColumnRule().newRowValidator(null);
+
+        validator.validateRow(0, CsvRow.of(new String[]{"M1", "ID1", ""}));
+        for (int row = 1; row < 10; row++) {
+            // Ragged rows: longer rows are counted only up to the first row's columns
+            validator.validateRow(row, CsvRow.of(row % 2 == 0 ? new String[]{"M", "ID"} : new String[]{"M", "ID", " ", "extra"}));
+        }
+
+        List<ValidationIssue> issues = validator.finish().asList();
+        assertEquals(1, issues.size());
+        assertEquals(IssueType.EMPTY_COLUMN, issues.get(0).getType());
+        assertEquals(2, issues.get(0).getLocation().column());
+    }
+
+    @Test
+    public void testScientificNotationValidatorCollectsPatternAnalysis() {
+        ScientificNotationRule.ScientificNotationValidator validator = new ScientificNotationRule().newRowValidator(null);
+        validator.validateRow(0, CsvRow.of(new String[]{" 8.88E+11 ", "1"}));
+        validator.validateRow(1, CsvRow.of(new String[]{"8.88E+11", "2"}));
+
+        ScientificNotationRule.ScientificNotationAnalysis analysis = validator.getAnalysis();
+        assertEquals(2, analysis.getMerchantScientificCount());
+        assertEquals("8.88E+11", analysis.getCommonMerchantValue());
+        assertEquals(0, analysis.getIdScientificCount());
+    }
+}
@@ -0,0 +1,100 @@
+package com.tractionrec.recrec.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AsyncLog} and {@link Log}
+ */
+public class AsyncLogTest {
+
+    @Test
+    public void testWritesMessagesAtOrAboveTheLevel(@TempDir Path tempDir) throws IOException {
+        AsyncLog log = new AsyncLog(tempDir, Log.Level.INFO, 1024, 100, false);
+        Log service = log.category("TransactionQueryService");
+        assertSame(service, log.category("TransactionQueryService"));
+        assertFalse(service.isDebugEnabled());
+
+        service.debug("Parsed %d transactions", 3);
+        service.info("Parsed %d transactions for %s", 2, "item");
+        service.error(new IllegalStateException("bad envelope"), "Query failed for %s", "item");
+        log.close();
+
+        String text = Files.readString(tempDir.resolve("recrec.log"));
+        assertFalse(text.contains("Parsed 3"));
+        assertTrue(text.contains("INFO  [TransactionQueryService]"));
+        assertTrue(text.contains("Parsed 2 transactions for item"));
+        assertTrue(text.contains("ERROR [TransactionQueryService]"));
+        assertTrue(text.contains("java.lang.IllegalStateException: bad envelope"));
+    }
+
+    @Test
+    public void testRateLimitsEachCategory(@TempDir Path tempDir) throws IOException {
+        AsyncLog log = new AsyncLog(tempDir, Log.Level.INFO, 1024, 10, false);
+        Log retries = log.category("RetryUtil");
+        Log limiter = log.category("AdaptiveRateLimiter");
+        for (int i = 0; i < 200; i++) {
+            retries.warn("Retry %d", i);
+        }
+        limiter.info("Increased concurrency");
+        log.close();
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("recrec.log"));
+        assertEquals(10, lines.stream().filter(line -> line.contains("Retry ")).count());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("[RetryUtil]") && line.contains("190 messages suppressed")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("Increased concurrency")));
+    }
+
+    @Test
+    public void testCountsMessagesDroppedWhenTheBufferIsFull(@TempDir Path tempDir) throws IOException {
+        AsyncLog log = new AsyncLog(tempDir, Log.Level.INFO, 2, Integer.MAX_VALUE, false);
+        Log flood = log.category("Flood");
+        for (int i = 0; i < 10_000; i++) {
+            flood.info("Message %d", i);
+        }
+        log.close();
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("recrec.log"));
+        long written = lines.stream().filter(line -> line.contains("Message ")).count();
+        long dropped = 0;
+        Pattern summary = Pattern.compile("(\\d+) messages dropped");
+        for (String line : lines) {
+            Matcher matcher = summary.matcher(line);
+            if (matcher.find()) {
+                dropped += Long.parseLong(matcher.group(1));
+            }
+        }
+        assertEquals(10_000, written + dropped);
+    }
+
+    @Test
+    public void testRollsFilesOverAtTheSizeLimit(@TempDir Path tempDir) throws IOException {
+        try (RollingFile file = new RollingFile(tempDir, "recrec", 1_000, 2)) {
+            for (int i = 0; i < 100; i++) {
+                file.write("line " + i + " ".repeat(40));
+            }
+        }
+
+        assertTrue(Files.size(tempDir.resolve("recrec.log")) <= 1_000);
+        assertTrue(Files.exists(tempDir.resolve("recrec.1.log")));
+        assertTrue(Files.exists(tempDir.resolve("recrec.2.log")));
+        assertFalse(Files.exists(tempDir.resolve("recrec.3.log")));
+        assertTrue(Files.readString(tempDir.resolve("recrec.log")).contains("line 99"));
+    }
+
+    @Test
+    public void testParsesLevels() {
+        assertEquals(Log.Level.DEBUG, AsyncLog.parseLevel("debug"));
+        assertEquals(Log.Level.INFO, AsyncLog.parseLevel(null));
+        assertEquals(Log.Level.INFO, AsyncLog.parseLevel("loud"));
+    }
+}
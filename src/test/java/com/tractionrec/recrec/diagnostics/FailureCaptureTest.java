@@ -0,0 +1,79 @@
+package com.tractionrec.recrec.diagnostics;
+
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link FailureCapture}
+ */
+public class FailureCaptureTest {
+
+    private static final String REQUEST = "<credentials><AccountID>1234</AccountID><AccountToken>secret-token</AccountToken>"
+            + "<AcceptorID>8039100001</AcceptorID></credentials>";
+
+    @Test
+    public void testRedactsPlainAndEscapedElements() {
+        String response = "<response><ExpressResponseCode>0</ExpressResponseCode><ReportingData>"
+                + "&lt;Item&gt;&lt;TransactionID&gt;42&lt;/TransactionID&gt;&lt;BillingName&gt;Pat Smith &amp; Co&lt;/BillingName&gt;"
+                + "&lt;ExpirationMonth&gt;04&lt;/ExpirationMonth&gt;&lt;/Item&gt;</ReportingData></response>";
+
+        String request = FailureCapture.redact(REQUEST);
+        assertFalse(request.contains("secret-token"));
+        assertFalse(request.contains("1234"));
+        assertTrue(request.contains("<AccountToken>[REDACTED]</AccountToken>"));
+        assertTrue(request.contains("<AcceptorID>8039100001</AcceptorID>"));
+
+        String redacted = FailureCapture.redact(response);
+        assertFalse(redacted.contains("Pat Smith"));
+        assertFalse(redacted.contains("&gt;04&lt;"));
+        assertTrue(redacted.contains("&lt;BillingName&gt;[REDACTED]&lt;/BillingName&gt;"));
+        assertTrue(redacted.contains("&lt;TransactionID&gt;42&lt;"));
+        assertNull(FailureCapture.redact(null));
+    }
+
+    @Test
+    public void testKeepsTheLastCapturesCompressedAndRedacted(@TempDir Path tempDir) throws Exception {
+        FailureCapture store = new FailureCapture(tempDir, 3);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost/express.asmx"))
+                .POST(HttpRequest.BodyPublishers.ofString(REQUEST))
+                .build();
+        for (int i = 0; i < 5; i++) {
+            QueryItem item = new QueryItem("8039100001", "ID" + i, QueryBy.RECORD_ID);
+            store.capture("Request failed: timeout " + i, "TransactionQuery", item, request, null, 60_000);
+        }
+        store.close();
+
+        List<Path> files = store.list();
+        assertEquals(3, files.size());
+        assertTrue(files.get(0).getFileName().toString().endsWith(".json.gz"));
+
+        FailureCapture.Capture newest = FailureCapture.read(files.get(0));
+        assertEquals("ID4", newest.id());
+        assertEquals("RECORD_ID", newest.mode());
+        assertEquals("TransactionQuery", newest.endpoint());
+        assertEquals("Request failed: timeout 4", newest.reason());
+        assertEquals(0, newest.statusCode());
+        assertEquals(60_000, newest.latencyMillis());
+        assertNull(newest.response());
+        assertTrue(newest.request().contains("<AccountToken>[REDACTED]</AccountToken>"));
+        assertEquals("ID2", FailureCapture.read(files.get(2)).id());
+    }
+
+    @Test
+    public void testReadsRequestBodies() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost/express.asmx"))
+                .POST(HttpRequest.BodyPublishers.ofString(REQUEST))
+                .build();
+        assertEquals(REQUEST, FailureCapture.bodyOf(request));
+        assertNull(FailureCapture.bodyOf(HttpRequest.newBuilder(URI.create("http://localhost/")).GET().build()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.tractionrec.recrec.diagnostics;
+
+import com.tractionrec.recrec.service.AdaptiveRateLimiter;
+import com.tractionrec.recrec.service.RetryUtil;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.ConnectException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for recording query lifecycle events from within the application
+ */
+public class FlightRecordingTest {
+
+    @Test
+    public void testRecordsRetriesAndPermitWaits(@TempDir Path tempDir) throws Exception {
+        FlightRecording.start();
+        assertTrue(FlightRecording.isRecording());
+
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(1, 1, 1);
+        limiter.acquire();
+        limiter.release();
+
+        AtomicInteger calls = new AtomicInteger();
+        String result = RetryUtil.retryWithBackoff(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ConnectException("Connection refused");
+            }
+            return "ok";
+        }, 1, Duration.ofMillis(1), Duration.ofMillis(1));
+        assertEquals("ok", result);
+
+        Path file = FlightRecording.stop(tempDir);
+        assertFalse(FlightRecording.isRecording());
+        assertNull(FlightRecording.stop(tempDir));
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent retry = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.tractionrec.recrec.Retry"))
+                .findFirst().orElseThrow();
+        assertEquals(1, retry.getInt("attempt"));
+        assertTrue(retry.getString("reason").contains("Connection refused"));
+        assertTrue(retry.getLong("backoff") >= 100);
+
+        RecordedEvent permitWait = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.tractionrec.recrec.PermitWait"))
+                .findFirst().orElseThrow();
+        assertTrue(permitWait.getBoolean("acquired"));
+        assertEquals(1, permitWait.getInt("concurrency"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.tractionrec.recrec.diagnostics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the run metrics registry, its histograms and the run report
+ */
+public class QueryMetricsTest {
+
+    @Test
+    public void testPercentilesAreWithinABucketOfTheTruth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 0.001);
+        assertEquals(50_000, histogram.getPercentile(50), 50_000 * 0.07);
+        assertEquals(99_000, histogram.getPercentile(99), 99_000 * 0.07);
+        assertEquals(100_000, histogram.getPercentile(100));
+        for (long micros : new long[]{0, 15, 16, 17, 1_000, 123_456_789}) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.bucketOf(micros));
+            assertTrue(upper >= micros && upper <= micros * 1.07 + 1, micros + " fell in a bucket up to " + upper);
+        }
+    }
+
+    @Test
+    public void testRecordsFromManyThreads() throws Exception {
+        QueryMetrics metrics = new QueryMetrics();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.requestStarted();
+                    metrics.requestFinished(i % 2 == 0 ? "TransactionQuery" : "EnhancedBINQuery",
+                            1_000_000L * (i % 100), i % 10 == 0 ? 503 : 200, 100);
+                }
+                metrics.recordRetry();
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        metrics.recordCircuitOpen();
+
+        QueryMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(40_000, snapshot.getRequests());
+        assertEquals(4_000_000, snapshot.getBytesReceived());
+        assertEquals(4, snapshot.retries());
+        assertEquals(1, snapshot.circuitBreakerOpens());
+        assertEquals(0, snapshot.inFlight());
+        assertTrue(snapshot.peakInFlight() >= 1);
+
+        QueryMetrics.EndpointSnapshot bin = snapshot.endpoints().get(0);
+        assertEquals("EnhancedBINQuery", bin.endpoint());
+        assertEquals(20_000, bin.requests());
+        assertEquals(Map.of(200, 20_000L), bin.statusCounts()); // Every tenth request is an even one
+        assertEquals(99, bin.maxMillis(), 0.001);
+        assertEquals(4_000L, snapshot.endpoints().get(1).statusCounts().get(503));
+    }
+
+    @Test
+    public void testWritesRunReport(@TempDir Path tempDir) throws Exception {
+        QueryMetrics metrics = new QueryMetrics();
+        metrics.requestStarted();
+        metrics.requestFinished("TransactionQuery", 250_000_000L, 200, 2048);
+        Instant started = Instant.parse("2024-03-01T10:00:00Z");
+
+        RunReport report = new RunReport("RECORD_ID", started, started.plusSeconds(90),
+                Map.of("SUCCESS", 1), metrics.snapshot());
+        Path file = report.write(tempDir.resolve("reports"));
+
+        JsonNode json = new ObjectMapper().readTree(file.toFile());
+        assertEquals("RECORD_ID", json.get("queryMode").asText());
+        assertEquals(90.0, json.get("durationSeconds").asDouble());
+        assertEquals(1, json.get("results").get("SUCCESS").asInt());
+        JsonNode endpoint = json.get("endpoints").get(0);
+        assertEquals("TransactionQuery", endpoint.get("endpoint").asText());
+        assertEquals(250.0, endpoint.get("maxMillis").asDouble());
+        assertEquals(1, endpoint.get("statusCounts").get("200").asInt());
+        assertEquals(2048, json.get("bytesReceived").asLong());
+
+        Path second = report.write(tempDir.resolve("reports"));
+        assertNotEquals(file, second, "A run started in the same millisecond should not overwrite the report");
+        assertTrue(Files.exists(file));
+        assertTrue(file.getFileName().toString().startsWith("run-"));
+    }
+}
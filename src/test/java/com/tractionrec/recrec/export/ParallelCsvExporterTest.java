@@ -0,0 +1,120 @@
+package com.tractionrec.recrec.export;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.express.Transaction;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+import com.tractionrec.recrec.domain.result.QueryResult;
+import com.tractionrec.recrec.domain.result.TransactionQueryResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelCsvExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testOutputMatchesSequentialWriter() throws IOException {
+        List<QueryResult<?, ?>> results = buildResults(5_123);
+        CsvMapper mapper = new CsvMapper();
+        CsvSchema schema = mapper.schemaFor(TransactionQueryOutputRow.class).withHeader();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            File outputFile = tempDir.resolve("parallel.csv").toFile();
+            AtomicLong lastRows = new AtomicLong();
+            long rows = new ParallelCsvExporter(mapper, schema, executor, 4)
+                .export(results, outputFile, (rowsWritten, resultsWritten, totalResults) -> {
+                    assertTrue(rowsWritten >= lastRows.get(), "Progress should never go backwards");
+                    lastRows.set(rowsWritten);
+                });
+
+            byte[] expected = writeSequentially(mapper, schema, results);
+            assertArrayEquals(expected, Files.readAllBytes(outputFile.toPath()));
+            assertEquals(rows, lastRows.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSkipsNullResultsAndReplacesExistingFile() throws IOException {
+        List<QueryResult<?, ?>> results = new ArrayList<>();
+        results.add(null);
+        results.addAll(buildResults(4));
+        results.add(null);
+
+        CsvMapper mapper = new CsvMapper();
+        CsvSchema schema = mapper.schemaFor(TransactionQueryOutputRow.class).withHeader();
+        File outputFile = tempDir.resolve("existing.csv").toFile();
+        Files.writeString(outputFile.toPath(), "stale content that is much longer than nothing at all ".repeat(1_000));
+
+        long rows = new ParallelCsvExporter(mapper, schema).export(results, outputFile, ExportProgressListener.NONE);
+
+        List<QueryResult<?, ?>> nonNull = results.stream().filter(r -> r != null).toList();
+        assertArrayEquals(writeSequentially(mapper, schema, nonNull), Files.readAllBytes(outputFile.toPath()));
+        assertEquals(5, rows); // The fourth result carries two transactions
+    }
+
+    private static byte[] writeSequentially(CsvMapper mapper, CsvSchema schema, List<QueryResult<?, ?>> results) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SequenceWriter writer = mapper.writer(schema).writeValues(out)) {
+            for (QueryResult<?, ?> result : results) {
+                writer.writeAll(result.getOutputRows());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<QueryResult<?, ?>> buildResults(int count) {
+        List<QueryResult<?, ?>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QueryItem item = new QueryItem("MERCH" + (i % 17), "REC" + i, QueryBy.RECORD_ID);
+            if (i % 5 == 0) {
+                results.add(new TransactionQueryResult(item, ResultStatus.NOT_FOUND, "No records, found \"here\""));
+                continue;
+            }
+            List<Transaction> transactions = new ArrayList<>();
+            transactions.add(transaction(i, "Café, Ünïcode " + i));
+            if (i % 3 == 0) {
+                transactions.add(transaction(i + 1, "A very long billing name that exceeds the quoting check"));
+            }
+            results.add(new TransactionQueryResult(item, ResultStatus.SUCCESS, "Success", transactions));
+        }
+        return results;
+    }
+
+    private static Transaction transaction(int seed, String billingName) {
+        Transaction tx = new Transaction();
+        tx.recordId = "REC" + seed;
+        tx.vantivId = String.valueOf(100_000 + seed);
+        tx.amount = new BigDecimal(seed).movePointLeft(2);
+        tx.billingName = billingName;
+        tx.cardLogo = seed % 2 == 0 ? "Visa" : "Mastercard";
+        tx.transactionType = "CreditCardSale";
+        tx.transactionDate = LocalDate.of(2024, 1, 1).plusDays(seed % 30);
+        tx.transactionTime = LocalTime.of(seed % 24, seed % 60);
+        return tx;
+    }
+}
@@ -0,0 +1,182 @@
+package com.tractionrec.recrec.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.express.Transaction;
+import com.tractionrec.recrec.domain.output.OutputRow;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+import com.tractionrec.recrec.domain.result.ExecutionStats;
+import com.tractionrec.recrec.domain.result.QueryResult;
+import com.tractionrec.recrec.domain.result.TransactionQueryResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingResultExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CsvMapper mapper = new CsvMapper();
+    private final CsvSchema schema = mapper.schemaFor(TransactionQueryOutputRow.class).withHeader();
+
+    @Test
+    public void testGzipCsvMatchesPlainCsv() throws IOException {
+        List<QueryResult<?, ?>> results = buildResults(2_500, 3);
+        File outputFile = tempDir.resolve("results.csv.gz").toFile();
+
+        long rows = new StreamingResultExporter(ExportFormat.CSV_GZIP, mapper, schema)
+            .export(results, outputFile, ExportProgressListener.NONE);
+
+        assertEquals(2_500, rows);
+        assertArrayEquals(writeSequentially(results), gunzip(outputFile));
+    }
+
+    @Test
+    public void testJsonLinesWritesOneObjectPerRow() throws IOException {
+        List<QueryResult<?, ?>> results = buildResults(10, 2);
+        results.add(1, null);
+        File outputFile = tempDir.resolve("results.jsonl").toFile();
+
+        new StreamingResultExporter(ExportFormat.JSON_LINES, mapper, schema)
+            .export(results, outputFile, ExportProgressListener.NONE);
+
+        String content = Files.readString(outputFile.toPath());
+        assertTrue(content.endsWith("\n"), "Every line should be newline-terminated");
+        String[] lines = content.split("\n");
+        assertEquals(10, lines.length);
+
+        ObjectMapper json = new ObjectMapper();
+        JsonNode first = json.readTree(lines[0]);
+        assertEquals("MERCH0", first.get("merchant").asText());
+        assertEquals("REC0", first.get("recordId").asText());
+        assertEquals("Café, \"quoted\" 0", first.get("billingName").asText());
+        assertTrue(first.get("cardNumber").isNull());
+    }
+
+    @Test
+    public void testDataViewLeavesOutExecutionColumns() throws IOException {
+        List<QueryResult<?, ?>> results = buildResults(3, 1);
+        results.get(0).setExecutionStats(new ExecutionStats(2, 1_250, 40, 812, 200));
+        File withStats = tempDir.resolve("with.csv").toFile();
+        File withoutStats = tempDir.resolve("without.jsonl").toFile();
+
+        new StreamingResultExporter(ExportFormat.CSV, mapper, schema)
+            .export(results, withStats, ExportProgressListener.NONE);
+        CsvMapper dataMapper = new CsvMapper();
+        dataMapper.setConfig(dataMapper.getSerializationConfig().withView(OutputRow.Data.class));
+        CsvSchema dataSchema = dataMapper.schemaForWithView(TransactionQueryOutputRow.class, OutputRow.Data.class).withHeader();
+        new StreamingResultExporter(ExportFormat.JSON_LINES, dataMapper, dataSchema)
+            .export(results, withoutStats, ExportProgressListener.NONE);
+
+        List<String> csv = Files.readAllLines(withStats.toPath());
+        assertTrue(csv.get(0).endsWith(",attempts,latencyMs,permitWaitMs,responseBytes,httpStatus"), csv.get(0));
+        assertTrue(csv.get(1).endsWith(",2,1250,40,812,200"), csv.get(1));
+        assertTrue(csv.get(2).endsWith(",,,,,"), "Rows without stats should leave the columns empty");
+
+        JsonNode first = new ObjectMapper().readTree(Files.readAllLines(withoutStats.toPath()).get(0));
+        assertEquals("REC0", first.get("recordId").asText());
+        for (String column : OutputRow.EXECUTION_COLUMNS) {
+            assertFalse(first.has(column), column);
+        }
+        assertNull(dataSchema.column("attempts"), "The data schema should have no execution columns");
+    }
+
+    @Test
+    public void testSplitByMerchantWritesOneFilePerMerchant() throws IOException {
+        List<QueryResult<?, ?>> results = buildResults(30, 3);
+        results.add(new TransactionQueryResult(new QueryItem("A/B", "X", QueryBy.RECORD_ID), ResultStatus.NOT_FOUND, "none"));
+        results.add(new TransactionQueryResult(new QueryItem("A:B", "Y", QueryBy.RECORD_ID), ResultStatus.NOT_FOUND, "none"));
+        File baseFile = tempDir.resolve("export.csv").toFile();
+
+        List<File> files = new StreamingResultExporter(ExportFormat.JSON_LINES_GZIP, mapper, schema)
+            .exportByMerchant(results, baseFile, ExportProgressListener.NONE);
+
+        assertEquals(List.of("export_MERCH0.jsonl.gz", "export_MERCH1.jsonl.gz", "export_MERCH2.jsonl.gz",
+                "export_A_B.jsonl.gz", "export_A_B_2.jsonl.gz"),
+            files.stream().map(File::getName).toList());
+
+        String merch1 = new String(gunzip(files.get(1)), StandardCharsets.UTF_8);
+        String[] lines = merch1.split("\n");
+        assertEquals(10, lines.length);
+        for (String line : lines) {
+            assertEquals("MERCH1", new ObjectMapper().readTree(line).get("merchant").asText());
+        }
+    }
+
+    @Test
+    public void testSplitByMerchantWritesEveryFileForManyMerchants() throws IOException {
+        List<QueryResult<?, ?>> results = buildResults(4_000, 2_000);
+        File baseFile = tempDir.resolve("many.csv.gz").toFile();
+
+        List<File> files = new StreamingResultExporter(ExportFormat.CSV_GZIP, mapper, schema)
+            .exportByMerchant(results, baseFile, ExportProgressListener.NONE);
+
+        assertEquals(2_000, files.size());
+        for (File file : files) {
+            String csv = new String(gunzip(file), StandardCharsets.UTF_8);
+            assertEquals(3, csv.split("\n").length, file.getName()); // Header and two rows
+        }
+    }
+
+    @Test
+    public void testApplyExtensionReplacesOtherFormatExtensions() {
+        assertEquals("results.csv.gz", ExportFormat.CSV_GZIP.applyExtension(new File("results.csv")).getName());
+        assertEquals("results.jsonl", ExportFormat.JSON_LINES.applyExtension(new File("results.csv.gz")).getName());
+        assertEquals("results.CSV", ExportFormat.CSV.applyExtension(new File("results.CSV")).getName());
+        assertEquals("results.txt.csv", ExportFormat.CSV.applyExtension(new File("results.txt")).getName());
+    }
+
+    private byte[] writeSequentially(List<QueryResult<?, ?>> results) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SequenceWriter writer = mapper.writer(schema).writeValues(out)) {
+            for (QueryResult<?, ?> result : results) {
+                writer.writeAll(result.getOutputRows());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(File file) throws IOException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static List<QueryResult<?, ?>> buildResults(int count, int merchants) {
+        List<QueryResult<?, ?>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QueryItem item = new QueryItem("MERCH" + (i % merchants), "REC" + i, QueryBy.RECORD_ID);
+            Transaction tx = new Transaction();
+            tx.recordId = "REC" + i;
+            tx.amount = new BigDecimal(i).movePointLeft(2);
+            tx.billingName = "Café, \"quoted\" " + i;
+            tx.transactionDate = LocalDate.of(2024, 3, 1);
+            tx.transactionTime = LocalTime.NOON;
+            results.add(new TransactionQueryResult(item, ResultStatus.SUCCESS, "Success", List.of(tx)));
+        }
+        return results;
+    }
+}
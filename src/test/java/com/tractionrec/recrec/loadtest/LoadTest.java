@@ -0,0 +1,230 @@
+package com.tractionrec.recrec.loadtest;
+
+import com.tractionrec.recrec.analysis.ResultAggregator;
+import com.tractionrec.recrec.csv.CsvValidationService;
+import com.tractionrec.recrec.csv.QueryItemSource;
+import com.tractionrec.recrec.diagnostics.QueryMetrics;
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryTargetVisitor;
+import com.tractionrec.recrec.domain.result.QueryResult;
+import com.tractionrec.recrec.service.BINQueryService;
+import com.tractionrec.recrec.service.PaymentAccountQueryService;
+import com.tractionrec.recrec.service.QueryRunner;
+import com.tractionrec.recrec.service.QueryService;
+import com.tractionrec.recrec.service.TransactionQueryService;
+import gg.jte.ContentType;
+import gg.jte.TemplateEngine;
+import gg.jte.resolve.DirectoryCodeResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Headless end-to-end load test. For each run size it writes a synthetic input file, validates
+ * it and runs every row through {@link QueryRunner} against a {@link StubSoapServer}, the same
+ * path the running screen takes. It then reports requests per second, p99 latency and peak heap
+ * against the committed thresholds in loadtest-thresholds.properties and exits with status 1 if
+ * any regressed. Run with {@code ./gradlew loadTest}; settings are system properties:
+ * <ul>
+ *   <li>loadtest.rows - comma-separated run sizes, default 10000,100000</li>
+ *   <li>loadtest.mode - query mode, default RECORD_ID</li>
+ *   <li>loadtest.latencyMillis and loadtest.jitterMillis - stand-in server latency, default 20 and 10</li>
+ *   <li>loadtest.errorRate - share of requests failed with HTTP 503, default 0</li>
+ *   <li>loadtest.foundRate - share of transaction queries finding a record, default 0.5</li>
+ * </ul>
+ * The stand-in server runs in the same JVM, so peak heap includes it.
+ */
+public final class LoadTest {
+
+    private static final String THRESHOLDS = "/loadtest-thresholds.properties";
+
+    record RunResult(int rows, double validationSeconds, double querySeconds, double requestsPerSecond,
+                     double p99Millis, long peakHeapMb, Map<String, Integer> statuses) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        for (String size : System.getProperty("loadtest.rows", "10000,100000").split(",")) {
+            sizes.add(Integer.parseInt(size.trim()));
+        }
+        QueryBy mode = QueryBy.valueOf(System.getProperty("loadtest.mode", QueryBy.RECORD_ID.name()));
+        long latency = Long.getLong("loadtest.latencyMillis", 20);
+        long jitter = Long.getLong("loadtest.jitterMillis", 10);
+        double errorRate = Double.parseDouble(System.getProperty("loadtest.errorRate", "0"));
+        double foundRate = Double.parseDouble(System.getProperty("loadtest.foundRate", "0.5"));
+        Properties thresholds = loadThresholds();
+
+        System.out.printf("Load test: %s, server latency %d+%dms, error rate %.1f%%, found rate %.0f%%%n",
+                mode, latency, jitter, errorRate * 100, foundRate * 100);
+
+        List<RunResult> results = new ArrayList<>();
+        Path workDir = Files.createTempDirectory("recrec-loadtest");
+        try (StubSoapServer server = new StubSoapServer(latency, jitter, errorRate, foundRate)) {
+            QueryService service = service(mode, server.getUri(), workDir.resolve("jte-classes"));
+            for (int rows : sizes) {
+                Path csv = SyntheticCsv.write(workDir.resolve("input-" + rows + ".csv"), rows, rows);
+                RunResult result = run(csv, rows, mode, service);
+                results.add(result);
+                Files.delete(csv);
+                System.out.printf("%,d rows: validated in %.1fs, queried in %.1fs, %s%n",
+                        rows, result.validationSeconds(), result.querySeconds(), result.statuses());
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(workDir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        List<String> failures = check(results, thresholds);
+        printReport(results, thresholds);
+        if (!failures.isEmpty()) {
+            System.out.println();
+            failures.forEach(failure -> System.out.println("REGRESSION: " + failure));
+            System.exit(1);
+        }
+        System.out.println("All thresholds met");
+        System.exit(0); // The services' HTTP clients keep non-daemon threads alive
+    }
+
+    static RunResult run(Path csv, int rows, QueryBy mode, QueryService service) throws Exception {
+        HeapSampler heap = new HeapSampler();
+        long started = System.nanoTime();
+        QueryItemSource items = new CsvValidationService().validateWithPreview(csv.toFile(), 0).getResult().getQueryItems();
+        long validated = System.nanoTime();
+
+        QueryMetrics metrics = QueryMetrics.startRun();
+        QueryRunner runner = new QueryRunner(service, "load-test", "load-test",
+                QueryRunner.newRateLimiter(), new ResultAggregator());
+        Map<String, Integer> statuses = new TreeMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<QueryResult>> futures = runner.submitAll(items.asQueryItems(mode), executor);
+            for (Future<QueryResult> future : futures) {
+                statuses.merge(future.get().getStatus().name(), 1, Integer::sum);
+            }
+        }
+        long finished = System.nanoTime();
+        long peakHeap = heap.stop();
+
+        QueryMetrics.Snapshot snapshot = metrics.snapshot();
+        double p99 = snapshot.endpoints().stream().mapToDouble(QueryMetrics.EndpointSnapshot::p99Millis).max().orElse(0);
+        double querySeconds = (finished - validated) / 1e9;
+        return new RunResult(rows, (validated - started) / 1e9, querySeconds, snapshot.getRequests() / querySeconds,
+                p99, peakHeap / (1024 * 1024), statuses);
+    }
+
+    static List<String> check(List<RunResult> results, Properties thresholds) {
+        List<String> failures = new ArrayList<>();
+        for (RunResult result : results) {
+            String prefix = result.rows() + ".";
+            double minRps = threshold(thresholds, prefix + "minRequestsPerSecond", 0);
+            double maxP99 = threshold(thresholds, prefix + "maxP99Millis", Double.MAX_VALUE);
+            double maxHeap = threshold(thresholds, prefix + "maxPeakHeapMb", Double.MAX_VALUE);
+            if (result.requestsPerSecond() < minRps) {
+                failures.add(String.format("%,d rows: %.0f requests/s is below the minimum of %.0f", result.rows(), result.requestsPerSecond(), minRps));
+            }
+            if (result.p99Millis() > maxP99) {
+                failures.add(String.format("%,d rows: p99 latency %.0fms is above the maximum of %.0fms", result.rows(), result.p99Millis(), maxP99));
+            }
+            if (result.peakHeapMb() > maxHeap) {
+                failures.add(String.format("%,d rows: peak heap %dMB is above the maximum of %.0fMB", result.rows(), result.peakHeapMb(), maxHeap));
+            }
+        }
+        return failures;
+    }
+
+    private static void printReport(List<RunResult> results, Properties thresholds) {
+        System.out.println();
+        System.out.printf("%12s %14s %14s %12s %12s %14s%n", "Rows", "Requests/s", "(min)", "p99 ms", "(max)", "Peak heap MB");
+        for (RunResult result : results) {
+            String prefix = result.rows() + ".";
+            System.out.printf("%,12d %14.0f %14s %12.0f %12s %8d (%s)%n",
+                    result.rows(), result.requestsPerSecond(), thresholds.getProperty(prefix + "minRequestsPerSecond", "-"),
+                    result.p99Millis(), thresholds.getProperty(prefix + "maxP99Millis", "-"),
+                    result.peakHeapMb(), thresholds.getProperty(prefix + "maxPeakHeapMb", "-"));
+        }
+    }
+
+    private static double threshold(Properties thresholds, String key, double unset) {
+        String value = thresholds.getProperty(key);
+        return value != null ? Double.parseDouble(value.trim()) : unset;
+    }
+
+    private static Properties loadThresholds() throws IOException {
+        Properties thresholds = new Properties();
+        try (InputStream in = LoadTest.class.getResourceAsStream(THRESHOLDS)) {
+            if (in != null) {
+                thresholds.load(in);
+            }
+        }
+        return thresholds;
+    }
+
+    private static QueryService service(QueryBy mode, URI endpoint, Path templateClasses) {
+        TemplateEngine templateEngine = TemplateEngine.create(
+                new DirectoryCodeResolver(Path.of("src", "main", "jte")), templateClasses, ContentType.Plain,
+                TemplateEngine.class.getClassLoader());
+        return mode.accept(new QueryTargetVisitor<QueryService>() {
+            @Override
+            public QueryService visitTransactionQuery() {
+                return TransactionQueryService.forEndpoint(endpoint, templateEngine);
+            }
+
+            @Override
+            public QueryService visitPaymentAccountQuery() {
+                return PaymentAccountQueryService.forEndpoint(endpoint, templateEngine);
+            }
+
+            @Override
+            public QueryService visitBINQuery() {
+                return BINQueryService.forEndpoint(endpoint, templateEngine);
+            }
+        });
+    }
+
+    /**
+     * Polls heap use on a daemon thread, keeping the highest seen
+     */
+    private static final class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile long peak;
+
+        HeapSampler() {
+            System.gc(); // Start from what is actually live
+            thread = new Thread(() -> {
+                while (running) {
+                    peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long stop() throws InterruptedException {
+            running = false;
+            thread.join();
+            return Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+        }
+    }
+}
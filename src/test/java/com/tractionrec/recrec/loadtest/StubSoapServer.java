@@ -0,0 +1,119 @@
+package com.tractionrec.recrec.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Express SOAP endpoints. Answers each request after a configurable
+ * latency, fails a configurable share of them with HTTP 503, and otherwise finds a record for
+ * a configurable share of queries. Transaction queries that find a record get one transaction
+ * in their reporting data; the other endpoints answer "not found" so their envelopes are parsed
+ * but carry no records.
+ */
+public class StubSoapServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final double foundRate;
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * @param latencyMillis Least time taken to answer a request
+     * @param jitterMillis Most extra time, chosen at random per request
+     * @param errorRate Share of requests answered with HTTP 503, from 0 to 1
+     * @param foundRate Share of the other transaction queries that find a record, from 0 to 1
+     */
+    public StubSoapServer(long latencyMillis, long jitterMillis, double errorRate, double foundRate) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.foundRate = foundRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        server.createContext("/express.asmx", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public URI getUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/express.asmx");
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            requests.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Thread.sleep(latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0));
+
+            if (random.nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            String action = exchange.getRequestHeaders().getFirst("SOAPAction");
+            String operation = action != null ? action.substring(action.lastIndexOf('/') + 1) : "TransactionQuery";
+            boolean found = operation.equals("TransactionQuery") && random.nextDouble() < foundRate;
+            byte[] response = envelope(operation, found ? transactionResponse(random) : notFoundResponse())
+                    .getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String envelope(String operation, String response) {
+        return "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+                + "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>"
+                + "<" + operation + "Response xmlns=\"https://reporting.elementexpress.com\">"
+                + response
+                + "</" + operation + "Response></soap:Body></soap:Envelope>";
+    }
+
+    private static String notFoundResponse() {
+        return "<response><ExpressResponseCode>90</ExpressResponseCode>"
+                + "<ExpressResponseMessage>No records found</ExpressResponseMessage></response>";
+    }
+
+    private static String transactionResponse(ThreadLocalRandom random) {
+        String items = "<Items><Item>"
+                + "<TransactionID>" + random.nextLong(1_000_000_000L, 9_999_999_999L) + "</TransactionID>"
+                + "<ReferenceNumber>REF" + random.nextInt(1_000_000) + "</ReferenceNumber>"
+                + "<TransactionAmount>" + random.nextInt(1, 100_000) / 100.0 + "</TransactionAmount>"
+                + "<TransactionStatus>Approved</TransactionStatus>"
+                + "<ExpressTransactionDate>20240301</ExpressTransactionDate>"
+                + "<ExpressTransactionTime>101500</ExpressTransactionTime>"
+                + "</Item></Items>";
+        String escaped = items.replace("<", "&lt;").replace(">", "&gt;");
+        return "<response><ExpressResponseCode>0</ExpressResponseCode>"
+                + "<ExpressResponseMessage>Success</ExpressResponseMessage>"
+                + "<ReportingData>" + escaped + "</ReportingData></response>";
+    }
+}
@@ -0,0 +1,34 @@
+package com.tractionrec.recrec.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes input files shaped like real ones: a header, then a merchant and an ID per row, with
+ * merchants repeating across a few hundred values. The same seed always gives the same file.
+ */
+public final class SyntheticCsv {
+
+    private static final int MERCHANTS = 500;
+
+    private SyntheticCsv() {
+    }
+
+    public static Path write(Path file, int rows, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Merchant,ID\n");
+            for (int row = 0; row < rows; row++) {
+                writer.write("8039" + (100_000 + random.nextInt(MERCHANTS)));
+                writer.write(',');
+                writer.write(Long.toString(10_000_000_000L + random.nextLong(90_000_000_000L)));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+}
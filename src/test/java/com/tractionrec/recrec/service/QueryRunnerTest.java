@@ -0,0 +1,70 @@
+package com.tractionrec.recrec.service;
+
+import com.tractionrec.recrec.analysis.ResultAggregator;
+import com.tractionrec.recrec.diagnostics.QueryMetrics;
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.result.ExecutionStats;
+import com.tractionrec.recrec.domain.result.QueryResult;
+import com.tractionrec.recrec.domain.result.TransactionQueryResult;
+import com.tractionrec.recrec.loadtest.StubSoapServer;
+import gg.jte.ContentType;
+import gg.jte.TemplateEngine;
+import gg.jte.resolve.DirectoryCodeResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs queries end to end against the load test's stand-in server
+ */
+public class QueryRunnerTest {
+
+    @Test
+    public void testRunsEveryItemThroughTheService(@TempDir Path templateClasses) throws Exception {
+        try (StubSoapServer server = new StubSoapServer(0, 0, 0, 1.0)) {
+            TemplateEngine templateEngine = TemplateEngine.create(
+                    new DirectoryCodeResolver(Path.of("src", "main", "jte")), templateClasses, ContentType.Plain,
+                    TemplateEngine.class.getClassLoader());
+            QueryService service = TransactionQueryService.forEndpoint(server.getUri(), templateEngine);
+            ResultAggregator aggregator = new ResultAggregator();
+            QueryMetrics metrics = QueryMetrics.startRun();
+            QueryRunner runner = new QueryRunner(service, "account", "token", QueryRunner.newRateLimiter(), aggregator);
+
+            List<QueryItem> items = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                items.add(new QueryItem("803900" + (i % 7), Integer.toString(1_000 + i), QueryBy.VANTIV_ID));
+            }
+            List<Future<QueryResult>> futures;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                futures = runner.submitAll(items, executor);
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                QueryResult result = futures.get(i).get();
+                assertSame(items.get(i), result.getItem());
+                assertEquals(ResultStatus.SUCCESS, result.getStatus());
+                assertEquals(1, ((TransactionQueryResult) result).getExpressEntities().size());
+                ExecutionStats stats = result.getExecutionStats();
+                assertEquals(1, stats.attempts());
+                assertEquals(200, stats.httpStatus());
+                assertTrue(stats.responseBytes() > 0);
+                assertTrue(stats.latencyMillis() >= 0 && stats.permitWaitMillis() >= 0);
+            }
+            assertEquals(200, aggregator.getResultCount());
+            assertEquals(200, server.getRequestCount());
+            assertEquals(200, metrics.snapshot().getRequests());
+            assertEquals(200L, metrics.snapshot().endpoints().get(0).statusCounts().get(200));
+            assertEquals("TransactionQuery", metrics.snapshot().endpoints().get(0).endpoint());
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.tractionrec.recrec.simulation;
+
+import com.tractionrec.recrec.diagnostics.AsyncLog;
+import com.tractionrec.recrec.diagnostics.Log;
+import com.tractionrec.recrec.diagnostics.QueryMetrics;
+import com.tractionrec.recrec.service.AdaptiveRateLimiter;
+import com.tractionrec.recrec.service.QueryRunner;
+import com.tractionrec.recrec.service.RetryUtil;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Replays rate limiter and retry policies against simulated servers in virtual time. Every row
+ * of a run is a task doing what {@link QueryRunner#execute} does, with the real
+ * {@link AdaptiveRateLimiter} and {@link RetryUtil} on a {@link VirtualClock}, so a run of hours
+ * against a struggling server takes seconds and the same seed always gives the same numbers.
+ * Reports throughput, error rate and when the limiter's concurrency settled, in simulated
+ * milliseconds. Run with {@code ./gradlew simulatePolicies}; settings are system properties:
+ * <ul>
+ *   <li>simulate.rows - rows per run, default 20000</li>
+ *   <li>simulate.seed - seed for server latencies and retry jitter, default 1</li>
+ * </ul>
+ * To compare a policy change, add it to {@link #POLICIES} beside the current one.
+ */
+public final class PolicySimulator {
+
+    static final long REQUEST_TIMEOUT_MILLIS = 60_000; // The services' request timeout
+    static final int CONVERGENCE_BAND = 5; // One limiter adjustment step
+
+    /**
+     * Limiter and retry tuning to simulate
+     */
+    public record Policy(String name, AdaptiveRateLimiter.Settings limiter,
+                         int maxRetries, Duration initialDelay, Duration maxDelay) {
+        /**
+         * The limiter's settings and RetryUtil's default backoff
+         */
+        public static final Policy CURRENT = new Policy("current", AdaptiveRateLimiter.Settings.DEFAULTS,
+                3, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    public record Scenario(String name, ServerModel server) {
+    }
+
+    /**
+     * @param durationMillis Simulated time until the last row finished
+     * @param convergedMillis Simulated time after which concurrency stayed within one step of its final value
+     * @param simulationMillis Real time the simulation took
+     */
+    public record Result(String scenario, String policy, int rows, int succeeded, int failed,
+                         long exchanges, long retries, long circuitOpens, long durationMillis,
+                         long convergedMillis, int finalConcurrency, long simulationMillis) {
+
+        public double getThroughput() {
+            return durationMillis > 0 ? succeeded * 1000.0 / durationMillis : 0;
+        }
+
+        public double getErrorRate() {
+            return rows > 0 ? (double) failed / rows : 0;
+        }
+    }
+
+    static final List<Scenario> SCENARIOS = List.of(
+            new Scenario("capacity ceiling of 30", ServerModel.capacityCeiling(30, 250)),
+            new Scenario("429 for 5s a minute", ServerModel.rateLimitBursts(250, 60_000, 5_000)),
+            new Scenario("70s spikes for 10s every 3m", ServerModel.latencySpikes(250, 70_000, 180_000, 10_000)));
+
+    static final List<Policy> POLICIES = List.of(
+            Policy.CURRENT,
+            new Policy("10s adjustments",
+                    new AdaptiveRateLimiter.Settings(10, Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(1)),
+                    3, Duration.ofSeconds(1), Duration.ofSeconds(30)));
+
+    private PolicySimulator() {
+    }
+
+    public static void main(String[] args) {
+        int rows = Integer.getInteger("simulate.rows", 20_000);
+        long seed = Long.getLong("simulate.seed", 1);
+        System.out.printf("Simulating %,d rows per run, seed %d%n%n", rows, seed);
+        System.out.printf("%-28s %-16s %12s %8s %9s %8s %13s %6s %10s%n",
+                "Server", "Policy", "Throughput/s", "Errors", "Retries", "Circuit", "Converged ms", "Final", "Run ms");
+        for (Scenario scenario : SCENARIOS) {
+            for (Policy policy : POLICIES) {
+                Result r = simulate(scenario, policy, rows, seed);
+                System.out.printf("%-28s %-16s %12.1f %7.2f%% %9d %8d %13d %6d %10d%n",
+                        r.scenario(), r.policy(), r.getThroughput(), r.getErrorRate() * 100, r.retries(),
+                        r.circuitOpens(), r.convergedMillis(), r.finalConcurrency(), r.durationMillis());
+            }
+        }
+    }
+
+    /**
+     * Run every row of a simulated run against a server
+     */
+    public static Result simulate(Scenario scenario, Policy policy, int rows, long seed) {
+        return new Simulation(scenario, policy, rows, seed).run();
+    }
+
+    /**
+     * Earliest time after which every change stayed within {@link #CONVERGENCE_BAND} of the final concurrency
+     * @param changes Time and new concurrency of each change, in order
+     */
+    static long convergedAt(int initialConcurrency, List<long[]> changes, int finalConcurrency) {
+        boolean outside = Math.abs(initialConcurrency - finalConcurrency) > CONVERGENCE_BAND;
+        long converged = 0;
+        for (long[] change : changes) {
+            if (Math.abs(change[1] - finalConcurrency) > CONVERGENCE_BAND) {
+                outside = true;
+            } else if (outside) {
+                converged = change[0];
+                outside = false;
+            }
+        }
+        return converged;
+    }
+
+    private static final class Simulation {
+        private final Scenario scenario;
+        private final Policy policy;
+        private final int rows;
+        private final Random random;
+        private final VirtualClock clock = new VirtualClock();
+        private final AdaptiveRateLimiter limiter;
+        private final List<long[]> concurrencyChanges = new ArrayList<>();
+        private int inFlight;
+        private int succeeded;
+        private int failed;
+        private long exchanges;
+        private long finishedAt;
+
+        Simulation(Scenario scenario, Policy policy, int rows, long seed) {
+            this.scenario = scenario;
+            this.policy = policy;
+            this.rows = rows;
+            this.random = new Random(seed);
+            this.limiter = new AdaptiveRateLimiter(QueryRunner.INITIAL_CONCURRENT_REQUESTS,
+                    QueryRunner.MIN_CONCURRENT_REQUESTS, QueryRunner.MAX_CONCURRENT_REQUESTS, policy.limiter(), clock);
+        }
+
+        Result run() {
+            long started = System.nanoTime();
+            QueryMetrics metrics = QueryMetrics.startRun();
+            for (int row = 0; row < rows; row++) {
+                clock.spawn(this::query); // Every row is submitted at once, as on the running screen
+            }
+            AsyncLog log = AsyncLog.shared();
+            Log.Level level = log.getLevel();
+            log.setLevel(Log.Level.OFF); // The limiter and retries log every adjustment and retry
+            try {
+                clock.run(this::sampleConcurrency);
+            } finally {
+                log.setLevel(level);
+            }
+            QueryMetrics.Snapshot snapshot = metrics.snapshot();
+            int finalConcurrency = limiter.getCurrentConcurrency();
+            return new Result(scenario.name(), policy.name(), rows, succeeded, failed, exchanges,
+                    snapshot.retries(), snapshot.circuitBreakerOpens(), finishedAt,
+                    convergedAt(QueryRunner.INITIAL_CONCURRENT_REQUESTS, concurrencyChanges, finalConcurrency),
+                    finalConcurrency, (System.nanoTime() - started) / 1_000_000);
+        }
+
+        private void sampleConcurrency() {
+            int concurrency = limiter.getCurrentConcurrency();
+            int last = concurrencyChanges.isEmpty()
+                    ? QueryRunner.INITIAL_CONCURRENT_REQUESTS
+                    : (int) concurrencyChanges.get(concurrencyChanges.size() - 1)[1];
+            if (concurrency != last) {
+                concurrencyChanges.add(new long[]{clock.currentTimeMillis(), concurrency});
+            }
+        }
+
+        /**
+         * One row, as QueryRunner.execute runs it
+         */
+        private void query() {
+            try {
+                limiter.acquire();
+                HttpResponse<String> response = RetryUtil.retryHttpRequestWithBackoff(this::exchange,
+                        policy.maxRetries(), policy.initialDelay(), policy.maxDelay(), clock, random);
+                if (response.statusCode() == 200) {
+                    succeeded++;
+                    limiter.recordSuccess();
+                } else {
+                    failed++;
+                    limiter.recordFailure();
+                }
+            } catch (Exception e) {
+                failed++;
+                limiter.recordFailure();
+            } finally {
+                limiter.release();
+                finishedAt = clock.currentTimeMillis();
+            }
+        }
+
+        private HttpResponse<String> exchange() throws HttpTimeoutException {
+            exchanges++;
+            ServerModel.Reply reply = scenario.server().reply(clock.currentTimeMillis(), ++inFlight, random);
+            try {
+                clock.sleep(Math.min(reply.latencyMillis(), REQUEST_TIMEOUT_MILLIS));
+            } finally {
+                inFlight--;
+            }
+            if (reply.latencyMillis() > REQUEST_TIMEOUT_MILLIS) {
+                throw new HttpTimeoutException("request timed out");
+            }
+            return new SimulatedResponse(reply.statusCode());
+        }
+    }
+
+    private record SimulatedResponse(int statusCode) implements HttpResponse<String> {
+        private static final URI URI = java.net.URI.create("http://simulated/express.asmx");
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(URI).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of(), (name, value) -> true);
+        }
+
+        @Override
+        public String body() {
+            return "";
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
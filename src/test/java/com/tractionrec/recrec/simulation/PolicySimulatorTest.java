@@ -0,0 +1,49 @@
+package com.tractionrec.recrec.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link PolicySimulator}
+ */
+public class PolicySimulatorTest {
+
+    private static final PolicySimulator.Scenario CEILING =
+            new PolicySimulator.Scenario("ceiling", ServerModel.capacityCeiling(10, 250));
+
+    @Test
+    public void testSameSeedGivesSameRun() {
+        PolicySimulator.Result first = PolicySimulator.simulate(CEILING, PolicySimulator.Policy.CURRENT, 2_000, 7);
+        PolicySimulator.Result second = PolicySimulator.simulate(CEILING, PolicySimulator.Policy.CURRENT, 2_000, 7);
+
+        assertEquals(2_000, first.succeeded() + first.failed());
+        assertTrue(first.retries() > 0, "the ceiling should turn requests away");
+        assertEquals(first.succeeded(), second.succeeded());
+        assertEquals(first.exchanges(), second.exchanges());
+        assertEquals(first.retries(), second.retries());
+        assertEquals(first.durationMillis(), second.durationMillis());
+        assertEquals(first.convergedMillis(), second.convergedMillis());
+    }
+
+    @Test
+    public void testRunsInSimulatedTime() {
+        PolicySimulator.Scenario spikes = new PolicySimulator.Scenario("spikes",
+                ServerModel.latencySpikes(250, 70_000, 180_000, 10_000));
+        PolicySimulator.Result result = PolicySimulator.simulate(spikes, PolicySimulator.Policy.CURRENT, 1_000, 1);
+
+        assertEquals(1_000, result.succeeded() + result.failed());
+        assertTrue(result.durationMillis() >= PolicySimulator.REQUEST_TIMEOUT_MILLIS, "spiked requests time out");
+        assertTrue(result.simulationMillis() < result.durationMillis());
+    }
+
+    @Test
+    public void testConvergesWhenChangesStayWithinAStep() {
+        List<long[]> changes = List.of(new long[]{1_000, 25}, new long[]{2_000, 45}, new long[]{3_000, 50}, new long[]{4_000, 45});
+
+        assertEquals(2_000, PolicySimulator.convergedAt(20, changes, 45));
+        assertEquals(0, PolicySimulator.convergedAt(45, List.of(), 45));
+    }
+}
@@ -0,0 +1,55 @@
+package com.tractionrec.recrec.simulation;
+
+import java.util.Random;
+
+/**
+ * How a simulated Express server answers a request, given the simulated time and how many
+ * requests it is already working on. Latencies vary by up to a quarter either way.
+ */
+public interface ServerModel {
+
+    /**
+     * @param statusCode HTTP status of the answer
+     * @param latencyMillis Time until the answer arrives, which may be past the client's timeout
+     */
+    record Reply(int statusCode, long latencyMillis) {
+    }
+
+    /**
+     * @param inFlight Requests the server is working on, this one included
+     */
+    Reply reply(long now, int inFlight, Random random);
+
+    /**
+     * Server that answers within its latency up to a number of concurrent requests and turns the
+     * rest away quickly with HTTP 503
+     */
+    static ServerModel capacityCeiling(int capacity, long latencyMillis) {
+        return (now, inFlight, random) -> inFlight > capacity
+                ? new Reply(503, vary(latencyMillis / 4, random))
+                : new Reply(200, vary(latencyMillis, random));
+    }
+
+    /**
+     * Server that answers every request HTTP 429 for the first part of each period
+     * @param burstMillis Length of the rate-limited part of each period
+     */
+    static ServerModel rateLimitBursts(long latencyMillis, long periodMillis, long burstMillis) {
+        return (now, inFlight, random) -> now % periodMillis < burstMillis
+                ? new Reply(429, vary(latencyMillis / 4, random))
+                : new Reply(200, vary(latencyMillis, random));
+    }
+
+    /**
+     * Server whose latency jumps for the first part of each period
+     * @param spikeLatencyMillis Latency during a spike; past the client's timeout, those requests time out
+     */
+    static ServerModel latencySpikes(long latencyMillis, long spikeLatencyMillis, long periodMillis, long spikeMillis) {
+        return (now, inFlight, random) -> new Reply(200,
+                vary(now % periodMillis < spikeMillis ? spikeLatencyMillis : latencyMillis, random));
+    }
+
+    private static long vary(long millis, Random random) {
+        return Math.max(1, Math.round(millis * (0.75 + random.nextDouble() * 0.5)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.tractionrec.recrec.simulation;
+
+import com.tractionrec.recrec.service.ExecutionClock;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Discrete-event clock. Each simulated task runs as a process on its own virtual thread, but only
+ * one process runs at a time: a process runs until it sleeps, waits for a permit or finishes, and
+ * then the clock jumps straight to the next wakeup. Wakeups at the same time run in the order they
+ * were scheduled, so a simulation seeded the same way always plays out the same way, however long
+ * the simulated time it covers.
+ */
+public final class VirtualClock implements ExecutionClock {
+
+    private record Wakeup(long time, long sequence, Process process) implements Comparable<Wakeup> {
+        @Override
+        public int compareTo(Wakeup other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final class Process {
+        private final Semaphore resume = new Semaphore(0);
+
+        void park() {
+            yielded.release();
+            resume.acquireUninterruptibly();
+        }
+    }
+
+    private final PriorityQueue<Wakeup> wakeups = new PriorityQueue<>();
+    private final Map<Semaphore, ArrayDeque<Process>> waiters = new IdentityHashMap<>();
+    private final ThreadLocal<Process> current = new ThreadLocal<>();
+    private final Semaphore yielded = new Semaphore(0);
+    private long now;
+    private long sequence;
+    private int live;
+    private Throwable failure;
+
+    /**
+     * Start a process at the current time
+     */
+    public void spawn(Runnable body) {
+        Process process = new Process();
+        live++;
+        Thread.ofVirtual().start(() -> {
+            process.resume.acquireUninterruptibly();
+            current.set(process);
+            try {
+                body.run();
+            } catch (Throwable t) {
+                if (failure == null) {
+                    failure = t;
+                }
+            } finally {
+                live--;
+                yielded.release();
+            }
+        });
+        schedule(now, process);
+    }
+
+    /**
+     * Run processes until every one has finished
+     * @param afterStep Called on the calling thread after each process yields, to sample state
+     * @throws IllegalStateException if a process failed or processes are left waiting for permits
+     */
+    public void run(Runnable afterStep) {
+        Wakeup next;
+        while ((next = wakeups.poll()) != null) {
+            now = next.time();
+            next.process().resume.release();
+            yielded.acquireUninterruptibly();
+            if (failure != null) {
+                throw new IllegalStateException("Simulated process failed", failure);
+            }
+            afterStep.run();
+        }
+        if (live > 0) {
+            throw new IllegalStateException(live + " processes are still waiting for permits");
+        }
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public void sleep(long millis) {
+        Process process = process();
+        schedule(now + Math.max(0, millis), process);
+        process.park();
+    }
+
+    @Override
+    public void acquire(Semaphore semaphore) {
+        ArrayDeque<Process> queue = waiters.computeIfAbsent(semaphore, s -> new ArrayDeque<>());
+        // Fair like the limiter's semaphore: no taking a permit ahead of a process already waiting
+        if (queue.isEmpty() && semaphore.tryAcquire()) {
+            return;
+        }
+        Process process = process();
+        queue.add(process);
+        process.park();
+    }
+
+    @Override
+    public void release(Semaphore semaphore, int permits) {
+        semaphore.release(permits);
+        ArrayDeque<Process> queue = waiters.get(semaphore);
+        while (queue != null && !queue.isEmpty() && semaphore.tryAcquire()) {
+            schedule(now, queue.poll());
+        }
+    }
+
+    private Process process() {
+        Process process = current.get();
+        if (process == null) {
+            throw new IllegalStateException("Only simulated processes can wait on the virtual clock");
+        }
+        return process;
+    }
+
+    private void schedule(long time, Process process) {
+        wakeups.add(new Wakeup(time, sequence++, process));
+    }
+}
@@ -0,0 +1,68 @@
+package com.tractionrec.recrec.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link VirtualClock}
+ */
+public class VirtualClockTest {
+
+    @Test
+    public void testSleepsAdvanceVirtualTimeOnly() {
+        VirtualClock clock = new VirtualClock();
+        List<String> log = new ArrayList<>();
+        clock.spawn(() -> {
+            clock.sleep(60_000);
+            log.add("slow at " + clock.currentTimeMillis());
+        });
+        clock.spawn(() -> {
+            clock.sleep(1_000);
+            log.add("fast at " + clock.currentTimeMillis());
+        });
+
+        long started = System.nanoTime();
+        clock.run(() -> { });
+        assertTrue(System.nanoTime() - started < 5_000_000_000L);
+        assertEquals(List.of("fast at 1000", "slow at 60000"), log);
+        assertEquals(60_000, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void testHandsPermitsToWaitersInOrder() {
+        VirtualClock clock = new VirtualClock();
+        Semaphore semaphore = new Semaphore(1, true);
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "task" + i;
+            clock.spawn(() -> {
+                clock.acquire(semaphore);
+                log.add(name + " at " + clock.currentTimeMillis());
+                clock.sleep(100);
+                clock.release(semaphore, 1);
+            });
+        }
+
+        clock.run(() -> { });
+        assertEquals(List.of("task0 at 0", "task1 at 100", "task2 at 200"), log);
+    }
+
+    @Test
+    public void testReportsProcessesLeftWaiting() {
+        VirtualClock clock = new VirtualClock();
+        Semaphore semaphore = new Semaphore(0);
+        clock.spawn(() -> clock.acquire(semaphore));
+
+        assertThrows(IllegalStateException.class, () -> clock.run(() -> { }));
+    }
+
+    @Test
+    public void testRejectsWaitsOutsideProcesses() {
+        assertThrows(IllegalStateException.class, () -> new VirtualClock().sleep(1));
+    }
+}
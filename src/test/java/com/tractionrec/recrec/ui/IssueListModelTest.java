@@ -0,0 +1,76 @@
+package com.tractionrec.recrec.ui;
+
+import com.tractionrec.recrec.csv.IssueGroup;
+import com.tractionrec.recrec.csv.IssueGrouping;
+import com.tractionrec.recrec.csv.IssueKind;
+import com.tractionrec.recrec.csv.IssueStore;
+import com.tractionrec.recrec.csv.ValidationIssue;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the virtual grouped issue list
+ */
+public class IssueListModelTest {
+
+    private static IssueGrouping grouping() {
+        IssueStore store = new IssueStore();
+        for (int row = 0; row < 1000; row++) {
+            store.add(IssueKind.EMPTY_ID, row, 1);
+        }
+        store.add(IssueKind.EMPTY_MERCHANT, 1000, 0);
+        return store.grouping(IssueGrouping.MAX_GROUPS_PER_KIND);
+    }
+
+    @Test
+    public void testExpandsAndFoldsGroups() {
+        IssueListModel model = new IssueListModel(grouping());
+        List<ListDataEvent> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            public void intervalAdded(ListDataEvent e) { events.add(e); }
+            public void intervalRemoved(ListDataEvent e) { events.add(e); }
+            public void contentsChanged(ListDataEvent e) { events.add(e); }
+        });
+
+        assertEquals(2, model.getSize());
+        assertTrue(model.isExpandable(0));
+        assertFalse(model.isExpandable(1));
+
+        model.toggle(0);
+        assertEquals(1002, model.getSize());
+        assertTrue(model.isExpanded(0));
+        assertTrue(model.getElementAt(0) instanceof IssueGroup);
+        assertEquals(999, ((ValidationIssue) model.getElementAt(1000)).getLocation().row());
+        assertTrue(model.getElementAt(1001) instanceof IssueGroup);
+        assertEquals(1000, model.getIssueAt(1001).getLocation().row());
+        assertEquals(ListDataEvent.INTERVAL_ADDED, events.get(0).getType());
+        assertEquals(1, events.get(0).getIndex0());
+        assertEquals(1000, events.get(0).getIndex1());
+
+        model.toggle(1); // Members don't toggle
+        assertEquals(1002, model.getSize());
+        model.toggle(0);
+        assertEquals(2, model.getSize());
+        assertEquals(ListDataEvent.INTERVAL_REMOVED, events.get(1).getType());
+        assertThrows(IndexOutOfBoundsException.class, () -> model.getElementAt(2));
+    }
+
+    @Test
+    public void testRevealsAnIssuesOwnEntry() {
+        IssueListModel model = new IssueListModel(grouping());
+
+        assertEquals(0, model.indexOfIssue(500));
+        assertEquals(1, model.indexOfIssue(1000));
+        int index = model.revealIssue(500);
+        assertEquals(501, index);
+        assertEquals(500, model.getIssueAt(index).getLocation().row());
+        assertFalse(model.isGroupEntry(index));
+        assertEquals(1001, model.indexOfIssue(1000));
+    }
+}
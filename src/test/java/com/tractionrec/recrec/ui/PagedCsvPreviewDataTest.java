@@ -2,10 +2,17 @@ package com.tractionrec.recrec.ui;
 
 import com.tractionrec.recrec.csv.CsvPreviewData;
 import com.tractionrec.recrec.csv.CsvFileStats;
+import com.tractionrec.recrec.csv.CsvValidationService;
 import com.tractionrec.recrec.csv.ValidationIssue;
 import com.tractionrec.recrec.domain.CellLocation;
+import com.tractionrec.recrec.domain.IssueType;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +23,63 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class PagedCsvPreviewDataTest {
 
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPagesPastInMemoryPreviewAreReadFromDisk() throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID\n");
+        for (int i = 0; i < 2_500; i++) {
+            csv.append(i == 2_345 ? "" : "M" + i).append(',').append("ID").append(i).append('\n');
+        }
+        File file = tempDir.resolve("large.csv").toFile();
+        Files.writeString(file.toPath(), csv.toString());
+
+        CsvPreviewData preview = new CsvValidationService().generatePreview(file, 100);
+        assertEquals(100, preview.getPreviewRowCount());
+
+        PagedCsvPreviewData pagedData = new PagedCsvPreviewData(preview, 40);
+        assertEquals(2_500, pagedData.getRowCount());
+        assertEquals(63, pagedData.getTotalPages());
+        assertEquals("M1", pagedData.getCellValue(1, 0), "First pages come from memory");
+
+        assertTrue(pagedData.goToRow(2_345));
+        assertEquals(2_320, pagedData.getCurrentPageStartRow());
+        int pageRow = pagedData.getPageRowIndex(2_345);
+        assertEquals("", pagedData.getCellValue(pageRow, 0));
+        assertEquals("ID2345", pagedData.getCellValue(pageRow, 1));
+        assertEquals(IssueType.EMPTY_FIELD, pagedData.getCellIssue(pageRow, 0).getType());
+        assertFalse(pagedData.hasCellIssue(pageRow - 1, 0));
+
+        pagedData.lastPage();
+        assertEquals(20, pagedData.getCurrentPageRowCount());
+        assertEquals("M2499", pagedData.getCurrentPageData()[19][0]);
+        assertEquals("Page 63 of 63 (rows 2481-2500 of 2500)", pagedData.getPageInfo());
+    }
+
+    @Test
+    public void testUnreadablePageKeepsCurrentPageAndReportsError() throws IOException {
+        StringBuilder csv = new StringBuilder("Merchant,ID\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append("M").append(i).append(',').append("ID").append(i).append('\n');
+        }
+        File file = tempDir.resolve("vanishing.csv").toFile();
+        Files.writeString(file.toPath(), csv.toString());
+        PagedCsvPreviewData pagedData = new PagedCsvPreviewData(new CsvValidationService().generatePreview(file, 100), 40);
+        Files.delete(file.toPath());
+
+        assertFalse(pagedData.lastPage());
+        assertNotNull(pagedData.getPageError());
+        assertEquals(0, pagedData.getCurrentPage());
+        assertFalse(pagedData.goToRow(450));
+        assertNotNull(pagedData.getPageError());
+
+        assertFalse(pagedData.goToPage(99));
+        assertNull(pagedData.getPageError(), "Out of range is not a read error");
+        assertTrue(pagedData.nextPage(), "Pages held in memory need no read");
+        assertNull(pagedData.getPageError());
+    }
+
     @Test
     public void testEmptyDataPagination() {
         // Create empty CSV preview data
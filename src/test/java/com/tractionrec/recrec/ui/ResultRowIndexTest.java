@@ -0,0 +1,109 @@
+package com.tractionrec.recrec.ui;
+
+import com.tractionrec.recrec.domain.QueryBy;
+import com.tractionrec.recrec.domain.QueryItem;
+import com.tractionrec.recrec.domain.ResultStatus;
+import com.tractionrec.recrec.domain.output.TransactionQueryOutputRow;
+import com.tractionrec.recrec.domain.result.TransactionQueryResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ResultRowIndex sorting and filtering
+ */
+public class ResultRowIndexTest {
+
+    private static final int MERCHANT = 0;
+    private static final int ID = 1;
+    private static final int AMOUNT = 2;
+
+    private List<TransactionQueryOutputRow> rows;
+    private ResultRowIndex index;
+
+    @BeforeEach
+    public void setUp() throws NoSuchFieldException {
+        rows = new ArrayList<>();
+        rows.add(row("beta", "r0", ResultStatus.SUCCESS, "10.50"));
+        rows.add(row("Alpha", "r1", ResultStatus.ERROR, "9.99"));
+        rows.add(row("beta", "r2", ResultStatus.ERROR, "-3"));
+        rows.add(row("alpha", "r3", ResultStatus.SUCCESS, ""));
+        rows.add(row("beta", "r4", ResultStatus.SUCCESS, "10.5"));
+        rows.add(row("gamma", "r5", ResultStatus.NOT_FOUND, "123456789012345678901"));
+
+        Field[] columns = {
+            TransactionQueryOutputRow.class.getField("merchant"),
+            TransactionQueryOutputRow.class.getField("id"),
+            TransactionQueryOutputRow.class.getField("amount")
+        };
+        index = new ResultRowIndex(rows, columns);
+    }
+
+    @Test
+    public void testUnsortedUnfilteredViewIsIdentity() {
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, index.buildView(-1, true, null, null, null));
+    }
+
+    @Test
+    public void testTextColumnSortIsCaseInsensitiveAndStable() {
+        assertArrayEquals(new int[]{1, 3, 0, 2, 4, 5}, index.buildView(MERCHANT, true, null, null, null));
+        // Descending reverses the groups but keeps ties in original row order
+        assertArrayEquals(new int[]{5, 0, 2, 4, 3, 1}, index.buildView(MERCHANT, false, null, null, null));
+    }
+
+    @Test
+    public void testNumericColumnSortsByValue() {
+        // Empty first, then -3, 9.99, 10.5 and 10.50 (equal values tie-broken by text), then the long id
+        assertArrayEquals(new int[]{3, 2, 1, 4, 0, 5}, index.buildView(AMOUNT, true, null, null, null));
+    }
+
+    @Test
+    public void testSortOrderIsCached() {
+        assertSame(index.sortedOrder(ID, true), index.sortedOrder(ID, true));
+    }
+
+    @Test
+    public void testStatusAndMerchantFiltersCombine() {
+        assertEquals(List.of("ERROR", "NOT_FOUND", "SUCCESS"), index.getStatuses());
+        assertEquals(List.of("Alpha", "alpha", "beta", "gamma"), index.getMerchants());
+
+        assertArrayEquals(new int[]{1, 2}, index.buildView(-1, true, "ERROR", null, null));
+        assertArrayEquals(new int[]{2}, index.buildView(-1, true, "ERROR", "beta", null));
+        assertArrayEquals(new int[]{4, 0}, index.buildView(AMOUNT, true, "SUCCESS", "beta", null));
+        assertArrayEquals(new int[0], index.buildView(-1, true, "ERROR", "missing", null));
+    }
+
+    @Test
+    public void testTextFilterMatchesAnyColumnIgnoringCase() {
+        assertArrayEquals(new int[]{1, 3}, index.buildView(-1, true, null, null, "ALPH"));
+        assertArrayEquals(new int[]{0, 4}, index.buildView(-1, true, null, null, "10.5"));
+        assertArrayEquals(new int[]{4}, index.buildView(-1, true, "SUCCESS", "beta", "R4"));
+    }
+
+    @Test
+    public void testTextFilterAcrossChunkBoundaries() throws NoSuchFieldException {
+        List<TransactionQueryOutputRow> many = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            many.add(row("m" + (i % 7), "id" + i, ResultStatus.SUCCESS, String.valueOf(i)));
+        }
+        ResultRowIndex large = new ResultRowIndex(many, new Field[]{TransactionQueryOutputRow.class.getField("id")});
+
+        int[] view = large.buildView(-1, true, null, null, "id6553");
+        // id6553 and id65530-id65539 straddle the first 65,536-row chunk boundary
+        assertEquals(11, view.length);
+        assertEquals(6553, view[0]);
+        assertEquals(65539, view[10]);
+    }
+
+    private static TransactionQueryOutputRow row(String merchant, String id, ResultStatus status, String amount) {
+        TransactionQueryResult result = new TransactionQueryResult(new QueryItem(merchant, id, QueryBy.RECORD_ID), status, "msg");
+        TransactionQueryOutputRow row = result.getOutputRows().get(0);
+        row.amount = amount;
+        return row;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tractionrec.recrec.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the throughput ring buffers behind the running screen's rate, ETA and chart
+ */
+public class ThroughputHistoryTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testRateCoversOnlyTheRecentWindow() {
+        ThroughputHistory history = new ThroughputHistory();
+        assertEquals(0, history.getRate());
+        assertNull(history.getEta(100));
+
+        long completed = 0;
+        for (int s = 0; s <= 100; s++) {
+            history.add(s * SECOND, completed, 20);
+            completed += s < 50 ? 100 : 10; // Throughput collapses halfway through
+        }
+
+        assertEquals(10, history.getRate(), 0.001);
+        assertEquals(Duration.ofSeconds(50), history.getEta(500));
+        assertEquals(Duration.ZERO, history.getEta(0));
+    }
+
+    @Test
+    public void testChartKeepsTheWholeRunInFixedSpace() {
+        ThroughputHistory history = new ThroughputHistory();
+        int samples = ThroughputHistory.CAPACITY * 4 + 1;
+        for (int s = 0; s < samples; s++) {
+            history.add(s * SECOND, s * 5L, s < samples / 2 ? 10 : 40);
+        }
+
+        assertEquals(4, history.getSamplesPerPoint());
+        ThroughputHistory.Points points = history.snapshot();
+        assertEquals(ThroughputHistory.CAPACITY, points.count());
+        for (double rate : points.rates()) {
+            assertEquals(5, rate, 0.001);
+        }
+        assertEquals(10, points.concurrency()[0]);
+        assertEquals(40, points.concurrency()[points.count() - 1]);
+    }
+}